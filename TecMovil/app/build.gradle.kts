@@ -17,7 +17,13 @@ android {
     }
 
     buildTypes {
+        // Perfil de PRAGMAs de SQLite (ver data/DbPerfProfile):
+        // COMPATIBLE | EQUILIBRADO | RENDIMIENTO
+        debug {
+            buildConfigField("String", "DB_PROFILE", "\"RENDIMIENTO\"")
+        }
         release {
+            buildConfigField("String", "DB_PROFILE", "\"EQUILIBRADO\"")
             isMinifyEnabled = false
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
@@ -31,6 +37,14 @@ android {
     }
     buildFeatures {
         viewBinding = true
+        buildConfig = true
+    }
+    sourceSets {
+        // Esquema y SQL del backend JDBC de :bench (ver HostSqlParityTest).
+        getByName("androidTest").assets.srcDir("../bench/src/main/resources")
+        // Contrato común de TallerStore (JVM e instrumentado).
+        getByName("test").java.srcDir("src/sharedTest/java")
+        getByName("androidTest").java.srcDir("src/sharedTest/java")
     }
 }
 
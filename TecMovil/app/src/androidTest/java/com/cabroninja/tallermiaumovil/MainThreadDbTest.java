@@ -0,0 +1,248 @@
+package com.cabroninja.tallermiaumovil;
+
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.widget.EditText;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.data.DbExecutor;
+import com.cabroninja.tallermiaumovil.data.MainThreadGuard;
+import com.cabroninja.tallermiaumovil.data.PersonaRepository;
+import com.cabroninja.tallermiaumovil.data.TestTallerDatabase;
+import com.cabroninja.tallermiaumovil.model.Persona;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: MainThreadDbTest
+// == Rol:
+//    - Abre cada Activity, pulsa sus botones de datos (cargar, guardar,
+//      eliminar, iniciar sesión, refrescar) y la lleva por
+//      pausa/reanudación; espera a que DbExecutor y el hilo principal
+//      queden en reposo y falla si MainThreadGuard vio algún acceso a la
+//      base de datos desde el hilo principal. El mensaje trae los sitios
+//      agrupados con su pila.
+//    - El primer test es el control: una llamada hecha a propósito en
+//      el hilo principal tiene que aparecer, con su sitio.
+//    - Corre sobre una DB desechable (TestTallerDatabase) y un archivo
+//      de sesión propio: no toca los datos ni la sesión reales; ambos
+//      se borran en tearDown.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class MainThreadDbTest {
+
+    private static final int RUN_TEST = 99_000_101;
+    private static final int RUN_ALTA = 99_000_102;
+
+    private static final String DB_TEST = "test_main_thread.db";
+
+    // Sesión de MainActivity/LoginActivity (mismas claves que ellas, en
+    // un archivo propio instalado con LoginActivity.installSessionPrefs).
+    private static final String PREFS = "test_main_thread_prefs";
+    private static final String KEY_EMAIL = "email";
+    private static final String KEY_NAME = "name";
+
+    private Instrumentation instr;
+    private Context ctx;
+    private TestTallerDatabase db;
+    private PersonaRepository personas;
+    private boolean guardiaAnterior;
+    private String prefsAnterior;
+
+    @Before
+    public void setUp() {
+        instr = InstrumentationRegistry.getInstrumentation();
+        ctx = instr.getTargetContext();
+        db = TestTallerDatabase.install(ctx, DB_TEST);
+        personas = new PersonaRepository(ctx);   // resuelve a la DB de prueba
+        personas.insert(new Persona(RUN_TEST, "hilo@taller.cl", "Hilo", "Principal", "x", "cliente"));
+
+        ctx.deleteSharedPreferences(PREFS);
+        prefsAnterior = LoginActivity.installSessionPrefs(PREFS);
+        sesion("hilo@taller.cl");
+
+        guardiaAnterior = MainThreadGuard.isEnabled();
+        MainThreadGuard.setEnabled(true);
+        MainThreadGuard.reset();
+    }
+
+    @After
+    public void tearDown() {
+        MainThreadGuard.reset();
+        MainThreadGuard.setEnabled(guardiaAnterior);
+        esperar();   // nada en DbExecutor sobre la DB que se va a borrar
+        LoginActivity.installSessionPrefs(prefsAnterior);
+        ctx.deleteSharedPreferences(PREFS);
+        db.restore();
+    }
+
+    @Test
+    public void control_llamadaEnHiloPrincipal_seAgrupaPorSitio() {
+        instr.runOnMainSync(() -> personas.getByRun(RUN_TEST));
+        instr.runOnMainSync(() -> personas.getByRun(RUN_TEST));
+
+        List<MainThreadGuard.Violation> vs = MainThreadGuard.violations();
+        assertEquals(MainThreadGuard.report(), 1, vs.size());
+        assertEquals("PersonaRepository.getByRun", vs.get(0).op);
+        assertTrue(vs.get(0).site, vs.get(0).site.contains("MainThreadDbTest"));
+        assertEquals(2, vs.get(0).count());
+    }
+
+    @Test
+    public void login() {
+        sesion(null);
+        try (ActivityScenario<LoginActivity> s = ActivityScenario.launch(LoginActivity.class)) {
+            esperar();   // el botón se habilita cuando termina StartupPipeline
+            s.onActivity(a -> {
+                texto(a, R.id.etEmail, "nadie@taller.cl");
+                texto(a, R.id.etPass, "incorrecta");
+                a.findViewById(R.id.btnLogin).performClick();
+            });
+            esperar();
+        }
+        sinViolaciones();
+    }
+
+    @Test
+    public void panelPrincipal() {
+        recorrer(ActivityScenario.launch(MainActivity.class));
+    }
+
+    @Test
+    public void listas() {
+        recorrer(ActivityScenario.launch(PersonasActivity.class));
+        recorrer(ActivityScenario.launch(new Intent(ctx, VehiculosActivity.class)
+                .putExtra("run_cliente", RUN_TEST)));
+        recorrer(ActivityScenario.launch(new Intent(ctx, OrdenesActivity.class)
+                .putExtra("patente", "HILO00")));
+    }
+
+    @Test
+    public void gestionarClientes() {
+        recorrer(ActivityScenario.launch(ManageClientesActivity.class));
+    }
+
+    @Test
+    public void agregarCliente() {
+        try (ActivityScenario<AddClienteActivity> s = ActivityScenario.launch(AddClienteActivity.class)) {
+            s.onActivity(a -> {
+                texto(a, R.id.etRun, String.valueOf(RUN_ALTA));
+                texto(a, R.id.etNombre, "Alta");
+                texto(a, R.id.etApellido, "Hilo");
+                texto(a, R.id.etEmail, "alta.hilo@taller.cl");
+                a.findViewById(R.id.btnGuardar).performClick();
+            });
+            esperar();
+        }
+        sinViolaciones();
+    }
+
+    @Test
+    public void editarCliente_cargarYGuardar() {
+        try (ActivityScenario<EditClienteActivity> s = ActivityScenario.launch(EditClienteActivity.class)) {
+            s.onActivity(a -> {
+                texto(a, R.id.etRunBuscar, String.valueOf(RUN_TEST));
+                a.findViewById(R.id.btnCargar).performClick();
+            });
+            esperar();
+            s.onActivity(a -> {
+                texto(a, R.id.etNombre, "Editado");
+                a.findViewById(R.id.btnGuardar).performClick();
+            });
+            esperar();
+        }
+        sinViolaciones();
+    }
+
+    @Test
+    public void eliminarCliente() {
+        try (ActivityScenario<DeleteClienteActivity> s = ActivityScenario.launch(DeleteClienteActivity.class)) {
+            s.onActivity(a -> {
+                texto(a, R.id.etRun, String.valueOf(RUN_TEST));
+                a.findViewById(R.id.btnEliminar).performClick();
+            });
+            esperar();
+        }
+        sinViolaciones();
+    }
+
+    @Test
+    public void diagnostico() {
+        try (ActivityScenario<DiagnosticoActivity> s = ActivityScenario.launch(DiagnosticoActivity.class)) {
+            esperar();
+            s.onActivity(a -> a.findViewById(R.id.btnRefrescar).performClick());
+            esperar();
+        }
+        sinViolaciones();
+    }
+
+    // Carga, pausa/reanuda (recarga si hubo cambios) y cierra.
+    private <A extends Activity> void recorrer(ActivityScenario<A> s) {
+        try {
+            esperar();
+            s.moveToState(Lifecycle.State.CREATED);
+            s.moveToState(Lifecycle.State.RESUMED);
+            esperar();
+        } finally {
+            s.close();
+        }
+        sinViolaciones();
+    }
+
+    // Hasta que DbExecutor no tenga trabajo y el hilo principal haya
+    // entregado los resultados (dos vueltas: un resultado puede encolar
+    // otra carga).
+    private void esperar() {
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) DbExecutor.get();
+        for (int vuelta = 0; vuelta < 2; vuelta++) {
+            instr.waitForIdleSync();
+            long limite = System.currentTimeMillis() + 10_000;
+            while ((pool.getActiveCount() > 0 || !pool.getQueue().isEmpty())
+                    && System.currentTimeMillis() < limite) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            instr.waitForIdleSync();
+        }
+    }
+
+    private static void sinViolaciones() {
+        assertTrue("Accesos a la DB en el hilo principal:\n" + MainThreadGuard.report(),
+                MainThreadGuard.violations().isEmpty());
+    }
+
+    private static void texto(Activity a, int id, String valor) {
+        ((EditText) a.findViewById(id)).setText(valor);
+    }
+
+    // email null = sin sesión (LoginActivity no redirige).
+    private void sesion(String email) {
+        SharedPreferences.Editor e = ctx.getSharedPreferences(PREFS, Context.MODE_PRIVATE).edit();
+        if (email == null) {
+            e.remove(KEY_EMAIL).remove(KEY_NAME);
+        } else {
+            e.putString(KEY_EMAIL, email).putString(KEY_NAME, "Hilo");
+        }
+        e.commit();
+    }
+}
@@ -0,0 +1,81 @@
+package com.cabroninja.tallermiaumovil;
+
+import android.app.Instrumentation;
+import android.content.Context;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.data.PersonaRepository;
+import com.cabroninja.tallermiaumovil.data.TallerAsync;
+import com.cabroninja.tallermiaumovil.data.TestTallerDatabase;
+import com.cabroninja.tallermiaumovil.model.Persona;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+// ======================================================================
+// == Clase: NavegacionRecargaTest
+// == Rol:
+//    - Cuenta las lecturas (TallerAsync.getReadCount) que hace la lista
+//      de clientes al salir y volver a ella, como cuando se abre y se
+//      cierra otra pantalla encima.
+//    - Sin cambios en persona: 0 consultas por navegación (antes, 1 en
+//      cada onResume). Con un cambio: exactamente 1.
+//    - Corre sobre una DB desechable (TestTallerDatabase), borrada en
+//      tearDown.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class NavegacionRecargaTest {
+
+    private static final int RUN_TEST = 99_000_001;
+    private static final String DB_TEST = "test_navegacion.db";
+
+    private Instrumentation instr;
+    private TestTallerDatabase db;
+    private PersonaRepository personas;
+
+    @Before
+    public void setUp() {
+        instr = InstrumentationRegistry.getInstrumentation();
+        Context ctx = instr.getTargetContext();
+        db = TestTallerDatabase.install(ctx, DB_TEST);
+        personas = new PersonaRepository(ctx);   // resuelve a la DB de prueba
+    }
+
+    @After
+    public void tearDown() {
+        db.restore();
+    }
+
+    @Test
+    public void volverSinCambios_noConsulta_conCambio_consultaUnaVez() {
+        try (ActivityScenario<PersonasActivity> scenario = ActivityScenario.launch(PersonasActivity.class)) {
+            instr.waitForIdleSync();
+            int inicial = TallerAsync.getReadCount();
+
+            for (int i = 0; i < 5; i++) navegarIdaYVuelta(scenario);
+            assertEquals("lecturas sin cambios", inicial, TallerAsync.getReadCount());
+
+            scenario.moveToState(Lifecycle.State.CREATED);
+            personas.insert(new Persona(RUN_TEST, "nav@taller.cl", "Nav", "Test", "x", "cliente"));
+            instr.waitForIdleSync();
+            scenario.moveToState(Lifecycle.State.RESUMED);
+            instr.waitForIdleSync();
+            assertEquals("lecturas tras un alta", inicial + 1, TallerAsync.getReadCount());
+        }
+    }
+
+    // Simula abrir una pantalla encima (onStop) y volver (onResume).
+    private void navegarIdaYVuelta(ActivityScenario<PersonasActivity> scenario) {
+        scenario.moveToState(Lifecycle.State.CREATED);
+        scenario.moveToState(Lifecycle.State.RESUMED);
+        instr.waitForIdleSync();
+    }
+}
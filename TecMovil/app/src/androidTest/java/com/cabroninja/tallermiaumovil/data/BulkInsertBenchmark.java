@@ -0,0 +1,171 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: BulkInsertBenchmark
+// == Rol:
+//    - Mide filas/s de OrdenRepository.insertAll para 10k, 100k y 1M
+//      órdenes, y de insert() fila a fila (10k) como referencia.
+//    - Reporta en Logcat (tag "BulkInsertBench").
+//    - Verifica además el reporte de conflictos y el upsert.
+// == Nota:
+//    - Las órdenes se generan bajo demanda (AbstractList) para que 1M
+//      filas no requieran 1M objetos en memoria a la vez.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class BulkInsertBenchmark {
+
+    private static final String TAG = "BulkInsertBench";
+    private static final String DB_BENCH = "bench_bulk.db";
+    private static final String PATENTE = "BULK01";
+
+    private Context ctx;
+    private TallerDatabase database;
+    private OrdenRepository ordenes;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_BENCH);
+        database = TallerDatabase.forTesting(ctx, DB_BENCH);
+        new PersonaRepository(database).insert(
+                new Persona(1, "bulk@taller.cl", "Bulk", "Dueño", "x", "cliente"));
+        new VehiculoRepository(database).insert(new Vehiculo(PATENTE, "Gris", "Bulk", 1));
+        ordenes = new OrdenRepository(database);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        ctx.deleteDatabase(DB_BENCH);
+    }
+
+    // ============================ RENDIMIENTO ==========================
+
+    @Test
+    public void insertFilaAFila_10k() {
+        int n = 10_000;
+        List<OrdenTrabajo> lote = generar(n, PATENTE);
+        long t0 = SystemClock.elapsedRealtimeNanos();
+        for (OrdenTrabajo o : lote) ordenes.insert(o);
+        reportar("insert() fila a fila", n, SystemClock.elapsedRealtimeNanos() - t0);
+        assertEquals(n, ordenes.count());
+    }
+
+    @Test
+    public void insertAll_10k() {
+        medirInsertAll(10_000);
+    }
+
+    @Test
+    public void insertAll_100k() {
+        medirInsertAll(100_000);
+    }
+
+    @Test
+    public void insertAll_1M() {
+        medirInsertAll(1_000_000);
+    }
+
+    // ============================ CORRECTITUD ==========================
+
+    @Test
+    public void insertAll_reportaConflictosPorFila() {
+        PersonaRepository personas = new PersonaRepository(database);
+        BulkResult r = personas.insertAll(Arrays.asList(
+                new Persona(2, "dos@taller.cl", "Dos", "A", "x", "cliente"),
+                new Persona(1, "otro@taller.cl", "Repetido", "RUN", "x", "cliente"),   // PK
+                new Persona(3, "bulk@taller.cl", "Repetido", "Email", "x", "cliente"), // UNIQUE
+                new Persona(4, "cuatro@taller.cl", "Cuatro", "B", "x", "otro"),        // CHECK
+                new Persona(5, "cinco@taller.cl", "Cinco", "C", "x", "trabajador")));
+
+        assertEquals(2, r.inserted);
+        assertEquals(3, r.getConflicts().size());
+        assertEquals(1, r.getConflicts().get(0).index);
+        assertEquals(2, r.getConflicts().get(1).index);
+        assertEquals(3, r.getConflicts().get(2).index);
+
+        BulkResult fk = ordenes.insertAll(generar(3, "NOEXISTE"));
+        assertEquals(0, fk.inserted);
+        assertEquals(3, fk.getConflicts().size());
+    }
+
+    @Test
+    public void upsertAll_actualizaExistentesEInsertaNuevos() {
+        VehiculoRepository vehiculos = new VehiculoRepository(database);
+        BulkResult r = vehiculos.upsertAll(Arrays.asList(
+                new Vehiculo(PATENTE, "Negro", "Bulk 2", null),
+                new Vehiculo("BULK02", "Blanco", "Nuevo", 1)));
+
+        assertEquals(1, r.updated);
+        assertEquals(1, r.inserted);
+        assertTrue(r.getConflicts().isEmpty());
+        assertEquals(2, vehiculos.count());
+        // run_dueno null en upsert conserva el dueño, igual que update()
+        assertEquals(2, vehiculos.listByRunDueno(1).size());
+
+        ordenes.insertAll(generar(2, PATENTE));
+        List<OrdenTrabajo> actuales = ordenes.listAll();
+        OrdenTrabajo editada = actuales.get(0);
+        editada.observacion = "editada";
+        BulkResult ro = ordenes.upsertAll(Arrays.asList(editada,
+                new OrdenTrabajo(0, "OT-N", "2025-01-02", 1, 0.19, "nueva", PATENTE)));
+        assertEquals(1, ro.updated);
+        assertEquals(1, ro.inserted);
+        assertEquals("editada", ordenes.listAll().get(1).observacion);
+    }
+
+    // ============================ APOYO ================================
+
+    private void medirInsertAll(int n) {
+        long t0 = SystemClock.elapsedRealtimeNanos();
+        BulkResult r = ordenes.insertAll(generar(n, PATENTE));
+        reportar("insertAll", n, SystemClock.elapsedRealtimeNanos() - t0);
+        assertEquals(n, r.inserted);
+        assertTrue(r.getConflicts().isEmpty());
+        assertEquals(n, ordenes.count());
+    }
+
+    private static List<OrdenTrabajo> generar(final int n, final String patente) {
+        return new AbstractList<OrdenTrabajo>() {
+            @Override
+            public OrdenTrabajo get(int i) {
+                return new OrdenTrabajo(0, "OT-" + i, "2025-01-01", 1000 + i % 997,
+                        (1000 + i % 997) * 0.19, "bulk", patente);
+            }
+
+            @Override
+            public int size() {
+                return n;
+            }
+        };
+    }
+
+    private static void reportar(String variante, int n, long ns) {
+        Log.i(TAG, String.format(Locale.US, "%s | n=%d | %.0f ms | %.0f filas/s",
+                variante, n, ns / 1e6, n * 1e9 / ns));
+    }
+}
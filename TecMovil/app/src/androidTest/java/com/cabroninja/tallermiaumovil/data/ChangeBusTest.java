@@ -0,0 +1,188 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+// ======================================================================
+// == Clase: ChangeBusTest
+// == Rol:
+//    - Verifica que cada escritura de los repositorios publica el
+//      TableChange esperado (tabla, operación y claves), que las
+//      cascadas se avisan sin claves y que las escrituras sin efecto no
+//      publican nada.
+//    - Dentro de runInTransaction los avisos esperan al commit externo
+//      y se descartan si se revierte; con una transacción a mano,
+//      publicar falla.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class ChangeBusTest {
+
+    private static final String DB_TEST = "test_change_bus.db";
+
+    private Context ctx;
+    private TallerDatabase database;
+    private PersonaRepository personas;
+    private VehiculoRepository vehiculos;
+    private OrdenRepository ordenes;
+    private final List<TableChange> recibidos = new ArrayList<>();
+    private final ChangeBus.Listener oyente = recibidos::add;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_TEST);
+        database = TallerDatabase.forTesting(ctx, DB_TEST);
+        personas = new PersonaRepository(database);
+        vehiculos = new VehiculoRepository(database);
+        ordenes = new OrdenRepository(database);
+        database.getChangeBus().subscribe(oyente,
+                TallerDbHelper.T_PERSONA, TallerDbHelper.T_VEHICULO, TallerDbHelper.T_ORDEN);
+    }
+
+    @After
+    public void tearDown() {
+        database.getChangeBus().unsubscribe(oyente);
+        database.close();
+        ctx.deleteDatabase(DB_TEST);
+    }
+
+    @Test
+    public void escrituras_publicanTablaOperacionYClave() {
+        personas.insert(new Persona(7, "siete@taller.cl", "Siete", "A", "x", "cliente"));
+        vehiculos.insert(new Vehiculo("BUS001", "Rojo", "A", 7));
+        long id = ordenes.insert(new OrdenTrabajo(0, "OT-1", "2025-01-01", 100, 19, "", "BUS001"));
+        vehiculos.update(new Vehiculo("BUS001", "Azul", "A", 7));
+
+        assertEquals(4, recibidos.size());
+        assertCambio(recibidos.get(0), TallerDbHelper.T_PERSONA, TableChange.Op.INSERT, "7");
+        assertCambio(recibidos.get(1), TallerDbHelper.T_VEHICULO, TableChange.Op.INSERT, "BUS001");
+        assertCambio(recibidos.get(2), TallerDbHelper.T_ORDEN, TableChange.Op.INSERT, String.valueOf(id));
+        assertCambio(recibidos.get(3), TallerDbHelper.T_VEHICULO, TableChange.Op.UPDATE, "BUS001");
+    }
+
+    @Test
+    public void borrados_avisanCascadaSinClaves() {
+        personas.insert(new Persona(7, "siete@taller.cl", "Siete", "A", "x", "cliente"));
+        vehiculos.insert(new Vehiculo("BUS001", "Rojo", "A", 7));
+        recibidos.clear();
+
+        vehiculos.delete("BUS001");
+        personas.deleteByRun(7);
+
+        assertEquals(4, recibidos.size());
+        assertCambio(recibidos.get(0), TallerDbHelper.T_VEHICULO, TableChange.Op.DELETE, "BUS001");
+        assertEquals(TallerDbHelper.T_ORDEN, recibidos.get(1).table);
+        assertFalse(recibidos.get(1).keysKnown());
+        assertCambio(recibidos.get(2), TallerDbHelper.T_PERSONA, TableChange.Op.DELETE, "7");
+        assertEquals(TallerDbHelper.T_VEHICULO, recibidos.get(3).table);
+        assertFalse(recibidos.get(3).keysKnown());
+    }
+
+    @Test
+    public void sinFilasAfectadas_noPublica() {
+        assertEquals(0, personas.deleteByRun(404));
+        assertEquals(0, vehiculos.update(new Vehiculo("NOEXISTE", "Gris", "X", null)));
+        personas.insertAll(Collections.<Persona>emptyList());
+        assertTrue(recibidos.isEmpty());
+    }
+
+    @Test
+    public void cargaEnBloque_publicaClavesOSinClavesSiSonMuchas() {
+        personas.upsertAll(Arrays.asList(
+                new Persona(1, "uno@taller.cl", "Uno", "A", "x", "cliente"),
+                new Persona(2, "dos@taller.cl", "Dos", "B", "x", "cliente")));
+        assertEquals(1, recibidos.size());
+        assertEquals(Arrays.asList("1", "2"), recibidos.get(0).keys);
+
+        recibidos.clear();
+        personas.upsertAll(Arrays.asList(
+                new Persona(2, "dos@taller.cl", "Dos", "Editado", "x", "cliente"),
+                new Persona(3, "tres@taller.cl", "Tres", "C", "x", "cliente")));
+        assertEquals(2, recibidos.size());
+        assertCambio(recibidos.get(0), TallerDbHelper.T_PERSONA, TableChange.Op.INSERT, "3");
+        assertCambio(recibidos.get(1), TallerDbHelper.T_PERSONA, TableChange.Op.UPDATE, "2");
+
+        recibidos.clear();
+        List<Persona> muchas = new ArrayList<>();
+        for (int i = 0; i <= TableChange.MAX_KEYS; i++) {
+            muchas.add(new Persona(1000 + i, "p" + i + "@taller.cl", "P", "Q", "x", "cliente"));
+        }
+        personas.insertAll(muchas);
+        assertEquals(1, recibidos.size());
+        assertFalse(recibidos.get(0).keysKnown());
+    }
+
+    @Test
+    public void enTransaccion_publicaAlConfirmarLaExterna() {
+        database.runInTransaction(() -> {
+            personas.insert(new Persona(7, "siete@taller.cl", "Siete", "A", "x", "cliente"));
+            database.runInTransaction(() ->
+                    vehiculos.insert(new Vehiculo("BUS001", "Rojo", "A", 7)));
+            assertTrue(recibidos.isEmpty());
+        });
+
+        assertEquals(2, recibidos.size());
+        assertCambio(recibidos.get(0), TallerDbHelper.T_PERSONA, TableChange.Op.INSERT, "7");
+        assertCambio(recibidos.get(1), TallerDbHelper.T_VEHICULO, TableChange.Op.INSERT, "BUS001");
+    }
+
+    @Test
+    public void enTransaccionRevertida_noPublica() {
+        try {
+            database.runInTransaction(() -> {
+                personas.insert(new Persona(7, "siete@taller.cl", "Siete", "A", "x", "cliente"));
+                throw new IllegalStateException("revertir");
+            });
+            fail("La excepción debía llegar al llamador");
+        } catch (IllegalStateException expected) {
+            // la transacción se revirtió
+        }
+
+        assertTrue(recibidos.isEmpty());
+        assertNull(personas.getByRun(7));
+    }
+
+    @Test
+    public void enTransaccionAMano_publicarFalla() {
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            personas.insert(new Persona(7, "siete@taller.cl", "Siete", "A", "x", "cliente"));
+            fail("Publicar dentro de una transacción ajena debía fallar");
+        } catch (IllegalStateException expected) {
+            // sin aviso: la fila aún podía revertirse
+        } finally {
+            db.endTransaction();
+        }
+        assertTrue(recibidos.isEmpty());
+    }
+
+    private static void assertCambio(TableChange c, String tabla, TableChange.Op op, String clave) {
+        assertEquals(tabla, c.table);
+        assertEquals(op, c.op);
+        assertEquals(Collections.singletonList(clave), c.keys);
+    }
+}
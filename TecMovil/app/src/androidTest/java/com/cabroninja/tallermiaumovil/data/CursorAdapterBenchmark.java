@@ -0,0 +1,253 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+import android.widget.FrameLayout;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.ui.CursorListAdapter;
+import com.cabroninja.tallermiaumovil.ui.PersonaAdapter;
+import com.cabroninja.tallermiaumovil.ui.PersonaCursorAdapter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+// ======================================================================
+// == Clase: CursorAdapterBenchmark
+// == Rol:
+//    - Vive en el paquete data para usar TallerDatabase.forTesting.
+//    - Compara, para 10k y 100k clientes, la lista armada de antemano
+//      (listByTipo + PersonaAdapter) con el modo cursor (cursorByTipo +
+//      PersonaCursorAdapter):
+//        * tiempo hasta la primera pantalla: consulta + bind de las
+//          PANTALLA primeras filas;
+//        * heap Java retenido mientras la lista está en pantalla (y heap
+//          nativo, donde vive la CursorWindow);
+//        * un borrado con clave conocida: removeKeys + DiffUtil (lista)
+//          contra re-consulta + swap + rebind de la pantalla (cursor);
+//        * saltar al final de la lista: bind de la última fila en el
+//          hilo principal (el cursor rellena otra ventana ahí).
+//    - Sus números respaldan CursorListAdapter.UMBRAL_FILAS: por
+//      debajo, la lista; desde ahí, el cursor. Verifica además que
+//      Carga.de elija así (EXTRA_MODO_CURSOR lo fuerza).
+//    - Reporta en Logcat (tag "CursorAdapterBench").
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class CursorAdapterBenchmark {
+
+    private static final String TAG = "CursorAdapterBench";
+    private static final String DB_BENCH = "bench_cursor_adapter.db";
+    private static final int PANTALLA = 20;
+
+    private Context ctx;
+    private TallerDatabase database;
+    private PersonaRepository personas;
+    private FrameLayout parent;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_BENCH);
+        database = TallerDatabase.forTesting(ctx, DB_BENCH);
+        personas = new PersonaRepository(database);
+        parent = new FrameLayout(ctx);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        ctx.deleteDatabase(DB_BENCH);
+    }
+
+    @Test
+    public void primeraPantalla_10k() {
+        comparar(10_000);
+    }
+
+    @Test
+    public void primeraPantalla_100k() {
+        comparar(100_000);
+    }
+
+    @Test
+    public void borradoYScroll_10k() {
+        cambios(10_000);
+    }
+
+    @Test
+    public void borradoYScroll_100k() {
+        cambios(100_000);
+    }
+
+    @Test
+    public void carga_eligeModoPorUmbral() {
+        personas.insertAll(generar(CursorListAdapter.UMBRAL_FILAS - 1));
+        CursorListAdapter.Carga<Persona> chica = CursorListAdapter.Carga.de(
+                personas.cursorByTipo("cliente"), false, PersonaRepository::read);
+        assertNull(chica.cursor);
+        List<Persona> lista = personas.listByTipo("cliente");
+        assertEquals(lista.size(), chica.lista.size());
+        assertEquals(lista.get(lista.size() - 1).run, chica.lista.get(lista.size() - 1).run);
+
+        CursorListAdapter.Carga<Persona> forzada = CursorListAdapter.Carga.de(
+                personas.cursorByTipo("cliente"), true, PersonaRepository::read);
+        assertNotNull(forzada.cursor);
+        forzada.close();
+
+        personas.insertAll(Collections.singletonList(
+                new Persona(99_999_999, "umbral@taller.cl", "Umbral", "Test", "x", "cliente")));
+        CursorListAdapter.Carga<Persona> grande = CursorListAdapter.Carga.de(
+                personas.cursorByTipo("cliente"), false, PersonaRepository::read);
+        assertNull(grande.lista);
+        assertEquals(CursorListAdapter.UMBRAL_FILAS, grande.cursor.getCount());
+        grande.close();
+    }
+
+    // ============================ APOYO ================================
+
+    private void cambios(int n) {
+        personas.insertAll(generar(n));
+        List<Persona> lista = personas.listByTipo("cliente");
+        PersonaAdapter adapter = new PersonaAdapter(p -> { });
+        PersonaCursorAdapter cursorAdapter = new PersonaCursorAdapter(p -> { });
+        Cursor inicial = personas.cursorByTipo("cliente");
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            adapter.submit(lista);
+            cursorAdapter.swap(inicial);
+        });
+
+        // ---- Borrado de una fila con clave conocida (lo que publica deleteByRun) ----
+        Persona borrada = lista.get(n / 2);
+        personas.deleteByRun(borrada.run);
+
+        long[] principal = new long[1];
+        long t0 = SystemClock.elapsedRealtimeNanos();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            long m0 = SystemClock.elapsedRealtimeNanos();
+            adapter.removeKeys(Collections.singletonList(String.valueOf(borrada.run)));
+            principal[0] = SystemClock.elapsedRealtimeNanos() - m0;
+        });
+        while (adapter.getItemCount() != n - 1) {   // el diff corre en segundo plano
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        }
+        long tLista = SystemClock.elapsedRealtimeNanos() - t0;
+        long mLista = principal[0];
+
+        t0 = SystemClock.elapsedRealtimeNanos();
+        Cursor nuevo = personas.cursorByTipo("cliente");
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            long m0 = SystemClock.elapsedRealtimeNanos();
+            cursorAdapter.swap(nuevo);   // notifyDataSetChanged: toda la pantalla se rebindea
+            bindPrimeraPantalla(cursorAdapter.onCreateViewHolder(parent, 0), cursorAdapter);
+            principal[0] = SystemClock.elapsedRealtimeNanos() - m0;
+        });
+        long tCursor = SystemClock.elapsedRealtimeNanos() - t0;
+        long mCursor = principal[0];
+        assertEquals(n - 1, cursorAdapter.getItemCount());
+
+        // ---- Salto al final: bind de la última fila en el hilo principal ----
+        long[] ultima = new long[2];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            long m0 = SystemClock.elapsedRealtimeNanos();
+            adapter.onBindViewHolder(adapter.onCreateViewHolder(parent, 0), n - 2);
+            ultima[0] = SystemClock.elapsedRealtimeNanos() - m0;
+            m0 = SystemClock.elapsedRealtimeNanos();
+            cursorAdapter.onBindViewHolder(cursorAdapter.onCreateViewHolder(parent, 0), n - 2);
+            ultima[1] = SystemClock.elapsedRealtimeNanos() - m0;
+        });
+
+        Log.i(TAG, String.format(Locale.US,
+                "n=%d | borrado lista: %.1f ms (hilo principal %.2f ms) | borrado cursor: %.1f ms (hilo principal %.2f ms)"
+                        + " | última fila lista: %.2f ms, cursor: %.2f ms",
+                n, tLista / 1e6, mLista / 1e6, tCursor / 1e6, mCursor / 1e6, ultima[0] / 1e6, ultima[1] / 1e6));
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> cursorAdapter.swap(null));
+    }
+
+    private void comparar(int n) {
+        personas.insertAll(generar(n));
+        // Calienta la caché de páginas para que ambas variantes lean igual.
+        personas.countByTipo("cliente");
+
+        // ---- Lista: todas las filas se convierten en Persona ----
+        long heap0 = heapJava();
+        long t0 = SystemClock.elapsedRealtimeNanos();
+        List<Persona> lista = personas.listByTipo("cliente");
+        PersonaAdapter adapter = new PersonaAdapter(p -> { });
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            adapter.submit(lista);   // primera lista: sin diff
+            bindPrimeraPantalla(adapter.onCreateViewHolder(parent, 0), adapter);
+        });
+        long tLista = SystemClock.elapsedRealtimeNanos() - t0;
+        long heapLista = heapJava() - heap0;
+        assertEquals(n, adapter.getItemCount());
+
+        // ---- Cursor: solo las filas bindeadas se leen ----
+        heap0 = heapJava();
+        long nativo0 = Debug.getNativeHeapAllocatedSize();
+        t0 = SystemClock.elapsedRealtimeNanos();
+        Cursor cursor = personas.cursorByTipo("cliente");
+        PersonaCursorAdapter cursorAdapter = new PersonaCursorAdapter(p -> { });
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            cursorAdapter.swap(cursor);
+            bindPrimeraPantalla(cursorAdapter.onCreateViewHolder(parent, 0), cursorAdapter);
+        });
+        long tCursor = SystemClock.elapsedRealtimeNanos() - t0;
+        long heapCursor = heapJava() - heap0;
+        long nativoCursor = Debug.getNativeHeapAllocatedSize() - nativo0;
+        assertEquals(n, cursorAdapter.getItemCount());
+
+        Log.i(TAG, String.format(Locale.US, "n=%d | lista: %.1f ms, heap %d KB | cursor: %.1f ms, heap %d KB, nativo %d KB",
+                n, tLista / 1e6, heapLista / 1024, tCursor / 1e6, heapCursor / 1024, nativoCursor / 1024));
+
+        // Mantiene vivas ambas variantes hasta después de medir.
+        assertEquals(n, lista.size());
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> cursorAdapter.swap(null));
+    }
+
+    private static <VH extends RecyclerView.ViewHolder> void bindPrimeraPantalla(VH holder, RecyclerView.Adapter<VH> adapter) {
+        for (int i = 0; i < PANTALLA; i++) adapter.onBindViewHolder(holder, i);
+    }
+
+    private static long heapJava() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            rt.gc();
+            rt.runFinalization();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static List<Persona> generar(final int n) {
+        return new AbstractList<Persona>() {
+            @Override
+            public Persona get(int i) {
+                return new Persona(i + 1, "c" + i + "@taller.cl", "Nombre" + i, "Apellido" + (i % 97), "x", "cliente");
+            }
+
+            @Override
+            public int size() {
+                return n;
+            }
+        };
+    }
+}
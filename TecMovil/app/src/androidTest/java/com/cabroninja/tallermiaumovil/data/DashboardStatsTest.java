@@ -0,0 +1,135 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+// ======================================================================
+// == Clase: DashboardStatsTest
+// == Rol:
+//    - Verifica que los contadores del panel se consultan una sola vez
+//      mientras no haya escrituras, que los inserts se suman a la caché
+//      sin volver a consultar y que los borrados la invalidan.
+//    - Dentro de runInTransaction el ajuste espera al commit y se
+//      descarta si la transacción se revierte.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class DashboardStatsTest {
+
+    private static final String DB_TEST = "test_dashboard.db";
+
+    private Context ctx;
+    private TallerDatabase database;
+    private DashboardStats stats;
+    private PersonaRepository personas;
+    private VehiculoRepository vehiculos;
+    private OrdenRepository ordenes;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_TEST);
+        database = TallerDatabase.forTesting(ctx, DB_TEST);
+        stats = database.getStats();
+        personas = new PersonaRepository(database);
+        vehiculos = new VehiculoRepository(database);
+        ordenes = new OrdenRepository(database);
+        personas.insert(new Persona(1, "c@taller.cl", "C", "Uno", "x", "cliente"));
+        personas.insert(new Persona(2, "t@taller.cl", "T", "Dos", "x", "trabajador"));
+        vehiculos.insert(new Vehiculo("DASH01", "Rojo", "A", 1));
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        ctx.deleteDatabase(DB_TEST);
+    }
+
+    @Test
+    public void get_sinEscrituras_consultaUnaVez() {
+        DashboardStats.Snapshot a = stats.get();
+        DashboardStats.Snapshot b = stats.get();
+
+        assertEquals(1, stats.getQueryCount());
+        assertEquals(1, a.clientes);
+        assertEquals(1, a.vehiculos);
+        assertEquals(0, a.ordenes);
+        assertEquals(a.clientes, b.clientes);
+        assertNotNull(stats.peek());
+    }
+
+    @Test
+    public void insert_ajustaCacheSinConsultar() {
+        stats.get();
+        personas.insert(new Persona(3, "c3@taller.cl", "C", "Tres", "x", "cliente"));
+        vehiculos.insert(new Vehiculo("DASH02", "Azul", "B", 3));
+        ordenes.insert(new OrdenTrabajo(0, "OT-1", "2025-01-01", 100, 19, "", "DASH02"));
+
+        DashboardStats.Snapshot s = stats.get();
+        assertEquals(1, stats.getQueryCount());
+        assertEquals(2, s.clientes);
+        assertEquals(2, s.vehiculos);
+        assertEquals(1, s.ordenes);
+    }
+
+    @Test
+    public void delete_invalidaYVuelveAConsultar() {
+        ordenes.insert(new OrdenTrabajo(0, "OT-1", "2025-01-01", 100, 19, "", "DASH01"));
+        stats.get();
+
+        vehiculos.delete("DASH01");   // cascada: borra también la OT
+        assertNull(stats.peek());
+
+        DashboardStats.Snapshot s = stats.get();
+        assertEquals(2, stats.getQueryCount());
+        assertEquals(0, s.vehiculos);
+        assertEquals(0, s.ordenes);
+    }
+
+    @Test
+    public void insertEnTransaccionRevertida_noAjustaCache() {
+        stats.get();
+        try {
+            database.runInTransaction(() -> {
+                personas.insert(new Persona(3, "c3@taller.cl", "C", "Tres", "x", "cliente"));
+                vehiculos.insert(new Vehiculo("DASH02", "Azul", "B", 3));
+                throw new IllegalStateException("revertir");
+            });
+            fail("La excepción debía llegar al llamador");
+        } catch (IllegalStateException expected) {
+            // la transacción se revirtió
+        }
+
+        DashboardStats.Snapshot s = stats.get();
+        assertEquals(1, stats.getQueryCount());
+        assertEquals(1, s.clientes);
+        assertEquals(1, s.vehiculos);
+    }
+
+    @Test
+    public void insertEnTransaccion_ajustaAlConfirmar() {
+        stats.get();
+        database.runInTransaction(() -> {
+            personas.insert(new Persona(3, "c3@taller.cl", "C", "Tres", "x", "cliente"));
+            assertEquals(1, stats.peek().clientes);
+        });
+
+        assertEquals(2, stats.peek().clientes);
+        assertEquals(1, stats.getQueryCount());
+    }
+}
@@ -0,0 +1,142 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: DataExporterBenchmark
+// == Rol:
+//    - Exporta 1M de OTs (más 2.000 vehículos) en CSV, CSV.gz y JSON y
+//      reporta filas/s y MB/s (de datos, sin comprimir) por formato.
+//    - Mide el heap usado (tras GC) al empezar orden_trabajo y en cada
+//      cuarto del avance: debe quedar plano (crecimiento < 8 MB), es
+//      decir, no depender del tamaño de la tabla.
+//    - Reporta en Logcat (tag "DataExportBench").
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class DataExporterBenchmark {
+
+    private static final String TAG = "DataExportBench";
+    private static final String DB_BENCH = "bench_data_export.db";
+    private static final int N = 1_000_000;
+    private static final int PATENTES = 2_000;
+    private static final long MAX_CRECIMIENTO = 8L * 1024 * 1024;
+
+    private Context ctx;
+    private TallerDatabase database;
+    private File dir;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_BENCH);
+        database = TallerDatabase.forTesting(ctx, DB_BENCH);
+        dir = new File(ctx.getCacheDir(), "export_bench");
+        List<Vehiculo> vehiculos = new ArrayList<>(PATENTES);
+        for (int i = 0; i < PATENTES; i++) vehiculos.add(new Vehiculo(patente(i), "rojo", "Modelo" + (i % 40), null));
+        new VehiculoRepository(database).insertAll(vehiculos);
+        new OrdenRepository(database).insertAll(generar(N));
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        ctx.deleteDatabase(DB_BENCH);
+        File[] fs = dir.listFiles();
+        if (fs != null) for (File f : fs) f.delete();
+        dir.delete();
+    }
+
+    @Test
+    public void exportar_1M() throws Exception {
+        medir(DataExporter.Format.CSV, false);
+        medir(DataExporter.Format.CSV, true);
+        medir(DataExporter.Format.JSON, false);
+    }
+
+    private void medir(DataExporter.Format format, boolean gzip) throws Exception {
+        final Runtime rt = Runtime.getRuntime();
+        final long[] heap = new long[5];   // inicio y cada cuarto de orden_trabajo
+        final int[] marcas = { 0 };
+        DataExporter.Progress progress = (tabla, filas, total) -> {
+            if (!TallerDbHelper.T_ORDEN.equals(tabla) || total == 0) return;
+            int cuarto = (int) (filas * 4 / total);
+            while (marcas[0] <= cuarto && marcas[0] < heap.length) {
+                heap[marcas[0]++] = usadoTrasGc(rt);
+            }
+        };
+
+        long t0 = SystemClock.elapsedRealtimeNanos();
+        List<DataExporter.Result> rs = new DataExporter(database).export(dir, format, gzip, progress);
+        double s = (SystemClock.elapsedRealtimeNanos() - t0) / 1e9;
+
+        DataExporter.Result ot = rs.get(2);
+        assertEquals(N, ot.rows);
+        long filas = 0, datos = 0, disco = 0;
+        for (DataExporter.Result r : rs) {
+            filas += r.rows;
+            datos += r.dataBytes;
+            disco += r.fileBytes;
+        }
+        long crecimiento = 0;
+        for (long h : heap) crecimiento = Math.max(crecimiento, h - heap[0]);
+
+        Log.i(TAG, String.format(Locale.US,
+                "%s%s | %d filas en %.2f s | %.0f filas/s | %.1f MB/s | datos %.1f MB | disco %.1f MB | heap +%.1f MB",
+                format.extension, gzip ? ".gz" : "", filas, s, filas / s, datos / 1e6 / s,
+                datos / 1e6, disco / 1e6, crecimiento / 1e6));
+        assertEquals(heap.length, marcas[0]);
+        assertTrue("heap creció " + crecimiento + " bytes", crecimiento < MAX_CRECIMIENTO);
+    }
+
+    // ============================ APOYO ================================
+
+    private static long usadoTrasGc(Runtime rt) {
+        rt.gc();
+        rt.runFinalization();
+        rt.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static String patente(int i) {
+        return String.format(Locale.US, "BB%04d", i);
+    }
+
+    private static List<OrdenTrabajo> generar(final int n) {
+        return new AbstractList<OrdenTrabajo>() {
+            @Override
+            public OrdenTrabajo get(int i) {
+                String fecha = String.format(Locale.US, "2024-%02d-%02d", i % 12 + 1, i % 28 + 1);
+                double neto = 10_000 + (i % 500) * 10.5;
+                return new OrdenTrabajo(0, "OT-" + i, fecha, neto, neto * 0.19,
+                        i % 10 == 0 ? "cambio de aceite, filtro \"original\"" : "", patente(i % PATENTES));
+            }
+
+            @Override
+            public int size() {
+                return n;
+            }
+        };
+    }
+}
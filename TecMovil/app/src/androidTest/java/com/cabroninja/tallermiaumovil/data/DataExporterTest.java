@@ -0,0 +1,217 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: DataExporterTest
+// == Rol:
+//    - Exporta una base chica con páginas de 4 filas (varios límites de
+//      página) y relee los archivos: CSV plano y JSON comprimido.
+//    - Verifica filas, comillas/comas/saltos de línea, NULL, números
+//      sin notación científica, que no salga la contraseña, el avance
+//      por tabla y que no queden .tmp.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class DataExporterTest {
+
+    private static final String DB_TEST = "test_data_exporter.db";
+    private static final int ORDENES = 25;
+    private static final String RARO = "Pérez, \"Pepe\"\nJr";
+
+    private Context ctx;
+    private TallerDatabase database;
+    private File dir;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_TEST);
+        database = TallerDatabase.forTesting(ctx, DB_TEST);
+        dir = new File(ctx.getCacheDir(), "export_test");
+        borrar(dir);
+
+        PersonaRepository personas = new PersonaRepository(database, new PasswordHasher(1_000));
+        personas.insert(new Persona(11, "a@taller.cl", RARO, "Soto", "clave-secreta", "cliente"));
+        personas.insert(new Persona(12, "b@taller.cl", "Ana", "Díaz", "clave-secreta", "trabajador"));
+        VehiculoRepository vehiculos = new VehiculoRepository(database);
+        vehiculos.insert(new Vehiculo("AA1111", "rojo", "Yaris", 11));
+        vehiculos.insert(new Vehiculo("BB2222", null, "Corsa", null));
+        List<OrdenTrabajo> ordenes = new ArrayList<>();
+        for (int i = 0; i < ORDENES; i++) {
+            ordenes.add(new OrdenTrabajo(0, "OT-" + i, "2025-01-" + (10 + i % 20),
+                    12_345_678.5, 0.19 * i, i == 3 ? "cambio \"aceite\"\tok\\" : "", "AA1111"));
+        }
+        new OrdenRepository(database).insertAll(ordenes);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        ctx.deleteDatabase(DB_TEST);
+        borrar(dir);
+    }
+
+    @Test
+    public void csv_plano() throws Exception {
+        List<long[]> avance = new ArrayList<>();
+        List<DataExporter.Result> rs = new DataExporter(database, 4).export(dir, DataExporter.Format.CSV, false,
+                (tabla, filas, total) -> avance.add(new long[]{ tabla.hashCode(), filas, total }));
+
+        assertEquals(3, rs.size());
+        assertEquals(new File(dir, "persona.csv"), rs.get(0).file);
+        assertEquals(2, rs.get(0).rows);
+        assertEquals(2, rs.get(1).rows);
+        assertEquals(ORDENES, rs.get(2).rows);
+        assertEquals(rs.get(2).file.length(), rs.get(2).dataBytes);
+
+        String persona = leer(rs.get(0).file, false);
+        assertFalse(persona.contains("clave"));
+        assertFalse(persona.contains(PasswordHasher.PREFIX));   // ni el hash
+        List<List<String>> p = parseCsv(persona);
+        assertEquals(Arrays.asList("run", "email", "nombre", "apellido", "tipo"), p.get(0));
+        assertEquals(Arrays.asList("11", "a@taller.cl", RARO, "Soto", "cliente"), p.get(1));
+
+        List<List<String>> v = parseCsv(leer(rs.get(1).file, false));
+        assertEquals(Arrays.asList("BB2222", "", "Corsa", ""), v.get(2));
+
+        List<List<String>> o = parseCsv(leer(rs.get(2).file, false));
+        assertEquals(ORDENES + 1, o.size());
+        assertEquals("12345678.5", o.get(1).get(3));
+        assertEquals("cambio \"aceite\"\tok\\", o.get(4).get(5));
+
+        // Avance de orden_trabajo: 0, luego cada página, y termina en el total.
+        List<Long> filas = new ArrayList<>();
+        for (long[] a : avance) {
+            if (a[0] == TallerDbHelper.T_ORDEN.hashCode()) {
+                assertEquals(ORDENES, a[2]);
+                filas.add(a[1]);
+            }
+        }
+        assertEquals(Arrays.asList(0L, 4L, 8L, 12L, 16L, 20L, 24L, 25L), filas);
+        assertSinTmp();
+    }
+
+    @Test
+    public void json_gzip() throws Exception {
+        List<DataExporter.Result> rs = new DataExporter(database, 4).export(dir, DataExporter.Format.JSON, true, null);
+        assertEquals(new File(dir, "orden_trabajo.json.gz"), rs.get(2).file);
+        assertTrue(rs.get(2).fileBytes < rs.get(2).dataBytes);
+
+        JSONArray p = new JSONArray(leer(rs.get(0).file, true));
+        assertEquals(2, p.length());
+        assertEquals(RARO, p.getJSONObject(0).getString("nombre"));
+        assertFalse(p.getJSONObject(0).has("password"));
+
+        JSONArray v = new JSONArray(leer(rs.get(1).file, true));
+        assertTrue(v.getJSONObject(1).isNull("run_dueno"));
+        assertTrue(v.getJSONObject(1).isNull("color"));
+
+        JSONArray o = new JSONArray(leer(rs.get(2).file, true));
+        assertEquals(ORDENES, o.length());
+        JSONObject tres = o.getJSONObject(3);
+        assertEquals("cambio \"aceite\"\tok\\", tres.getString("observacion"));
+        assertEquals(12_345_678.5, tres.getDouble("valor_neto"), 0);
+        assertEquals(4, tres.getLong("id"));
+        assertSinTmp();
+    }
+
+    @Test
+    public void tablasVacias_jsonValido() throws Exception {
+        ctx.deleteDatabase(DB_TEST + "-vacia");
+        TallerDatabase vacia = TallerDatabase.forTesting(ctx, DB_TEST + "-vacia");
+        try {
+            // DbSeeder no corre en forTesting: las tres tablas quedan vacías.
+            for (DataExporter.Result r : new DataExporter(vacia).export(dir, DataExporter.Format.JSON, false, null)) {
+                assertEquals(0, r.rows);
+                assertEquals(0, new JSONArray(leer(r.file, false)).length());
+            }
+        } finally {
+            vacia.close();
+            ctx.deleteDatabase(DB_TEST + "-vacia");
+        }
+    }
+
+    // ============================ APOYO ================================
+
+    private void assertSinTmp() {
+        for (String f : dir.list()) assertFalse(f, f.endsWith(".tmp"));
+    }
+
+    private static String leer(File f, boolean gzip) throws Exception {
+        try (InputStream in = gzip ? new GZIPInputStream(new FileInputStream(f)) : new FileInputStream(f)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            for (int n; (n = in.read(buf)) > 0; ) out.write(buf, 0, n);
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // Lector RFC 4180 mínimo (registros terminados en CRLF).
+    private static List<List<String>> parseCsv(String s) {
+        List<List<String>> rows = new ArrayList<>();
+        List<String> row = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean comillas = false;
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (comillas) {
+                if (ch == '"' && i + 1 < s.length() && s.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    comillas = false;
+                } else {
+                    campo.append(ch);
+                }
+            } else if (ch == '"') {
+                comillas = true;
+            } else if (ch == ',') {
+                row.add(campo.toString());
+                campo.setLength(0);
+            } else if (ch == '\r' && i + 1 < s.length() && s.charAt(i + 1) == '\n') {
+                row.add(campo.toString());
+                campo.setLength(0);
+                rows.add(row);
+                row = new ArrayList<>();
+                i++;
+            } else {
+                campo.append(ch);
+            }
+        }
+        return rows;
+    }
+
+    private static void borrar(File dir) {
+        File[] fs = dir.listFiles();
+        if (fs != null) for (File f : fs) f.delete();
+        dir.delete();
+    }
+}
@@ -0,0 +1,140 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+
+// ======================================================================
+// == Clase: DbPerfProfileBenchmark
+// == Rol:
+//    - Benchmark de contención lectura/escritura para cada DbPerfProfile.
+//    - Un hilo escritor inserta órdenes una a una (transacción implícita
+//      por insert, como en la app) mientras un hilo lector repite los
+//      conteos y listados que usan el panel y las listas.
+//    - Reporta en Logcat (tag "DbPerfBench"): inserts/s del escritor y
+//      latencia p50/p99 del lector por perfil.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class DbPerfProfileBenchmark {
+
+    private static final String TAG = "DbPerfBench";
+    private static final String DB_BENCH = "bench_perfil.db";
+    private static final int ESCRITURAS = 2000;
+
+    private Context ctx;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_BENCH);
+    }
+
+    @After
+    public void tearDown() {
+        ctx.deleteDatabase(DB_BENCH);
+    }
+
+    @Test
+    public void contencion_compatible() throws Exception {
+        medir(DbPerfProfile.COMPATIBLE, "delete");
+    }
+
+    @Test
+    public void contencion_equilibrado() throws Exception {
+        medir(DbPerfProfile.EQUILIBRADO, "wal");
+    }
+
+    @Test
+    public void contencion_rendimiento() throws Exception {
+        medir(DbPerfProfile.RENDIMIENTO, "wal");
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: medir
+    //    Parámetros:
+    //      - perfil (DbPerfProfile): perfil a evaluar.
+    //      - journalEsperado (String): valor de PRAGMA journal_mode que
+    //        debe quedar activo tras onConfigure.
+    // ------------------------------------------------------------------
+    private void medir(DbPerfProfile perfil, String journalEsperado) throws Exception {
+        TallerDatabase database = TallerDatabase.forTesting(ctx, DB_BENCH, perfil);
+        try {
+            assertEquals(journalEsperado, journalMode(database.getWritableDatabase()));
+
+            new PersonaRepository(database).insert(
+                    new Persona(1, "bench@taller.cl", "Bench", "Dueño", "x", "cliente"));
+            new VehiculoRepository(database).insert(new Vehiculo("BENCH1", "Gris", "Bench", 1));
+
+            final OrdenRepository ordenes = new OrdenRepository(database);
+            final VehiculoRepository vehiculos = new VehiculoRepository(database);
+            final AtomicBoolean escribiendo = new AtomicBoolean(true);
+            final CountDownLatch fin = new CountDownLatch(1);
+            final long[] latencias = new long[200_000];
+            final int[] lecturas = {0};
+
+            Thread lector = new Thread(() -> {
+                while (escribiendo.get() && lecturas[0] < latencias.length) {
+                    long t = SystemClock.elapsedRealtimeNanos();
+                    ordenes.count();
+                    vehiculos.count();
+                    ordenes.listByPatente("BENCH1").size();
+                    latencias[lecturas[0]++] = SystemClock.elapsedRealtimeNanos() - t;
+                }
+                fin.countDown();
+            }, "bench-lector");
+            lector.start();
+
+            long t0 = SystemClock.elapsedRealtimeNanos();
+            for (int i = 0; i < ESCRITURAS; i++) {
+                ordenes.insert(new OrdenTrabajo(0, "B-" + i, "2025-01-01", 1000, 190, "bench", "BENCH1"));
+            }
+            long nsEscritura = SystemClock.elapsedRealtimeNanos() - t0;
+            escribiendo.set(false);
+            fin.await();
+
+            long[] muestras = Arrays.copyOf(latencias, lecturas[0]);
+            Arrays.sort(muestras);
+            Log.i(TAG, String.format(Locale.US,
+                    "%s | escritor: %.0f inserts/s | lector: n=%d p50=%.2f ms p99=%.2f ms",
+                    perfil, ESCRITURAS * 1e9 / nsEscritura, muestras.length,
+                    percentil(muestras, 0.50) / 1e6, percentil(muestras, 0.99) / 1e6));
+
+            assertEquals(ESCRITURAS, ordenes.count());
+        } finally {
+            database.close();
+        }
+    }
+
+    private static String journalMode(SQLiteDatabase db) {
+        try (Cursor c = db.rawQuery("PRAGMA journal_mode", null)) {
+            return c.moveToFirst() ? c.getString(0).toLowerCase(Locale.ROOT) : "";
+        }
+    }
+
+    private static long percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) return 0;
+        int i = (int) Math.min(ordenadas.length - 1, Math.round(p * (ordenadas.length - 1)));
+        return ordenadas[i];
+    }
+}
@@ -0,0 +1,148 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+// ======================================================================
+// == Clase: HostSqlParityTest
+// == Rol:
+//    - Guarda contra la deriva entre la app y el backend JDBC de :bench:
+//      sus benchmarks solo valen si ejecutan el mismo SQL sobre el mismo
+//      esquema que los repositorios.
+//    - Lee taller/queries.properties y taller/schema.sql de :bench (se
+//      empaquetan como assets de androidTest, ver app/build.gradle.kts) y
+//      los compara con las constantes SQL_* de los repositorios y con el
+//      sqlite_master de una base recién creada por TallerDbHelper.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class HostSqlParityTest {
+
+    private static final String DB_TEST = "test_host_parity.db";
+
+    private static final Class<?>[] REPOSITORIOS = {
+            PersonaRepository.class, VehiculoRepository.class, OrdenRepository.class
+    };
+
+    private Context ctx;
+    private TallerDatabase database;
+    private Properties queries;
+
+    @Before
+    public void setUp() throws IOException {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_TEST);
+        database = TallerDatabase.forTesting(ctx, DB_TEST);
+        queries = new Properties();
+        try (InputStream in = asset("taller/queries.properties")) {
+            queries.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        ctx.deleteDatabase(DB_TEST);
+    }
+
+    @Test
+    public void consultas_igualesALasDeLosRepositorios() throws Exception {
+        for (String key : queries.stringPropertyNames()) {
+            int dot = key.indexOf(".SQL_");
+            if (dot < 0) continue;
+            Class<?> repo = Class.forName(getClass().getPackage().getName() + "." + key.substring(0, dot));
+            Field f = repo.getDeclaredField(key.substring(dot + 1));
+            f.setAccessible(true);
+            assertEquals(key, f.get(null), queries.getProperty(key));
+        }
+    }
+
+    @Test
+    public void consultas_cubrenTodasLasDeLosRepositorios() {
+        for (Class<?> repo : REPOSITORIOS) {
+            for (Field f : repo.getDeclaredFields()) {
+                int mod = f.getModifiers();
+                if (!f.getName().startsWith("SQL_") || !Modifier.isStatic(mod) || Modifier.isPrivate(mod)) {
+                    continue;
+                }
+                String key = repo.getSimpleName() + "." + f.getName();
+                assertNotNull("Falta en queries.properties: " + key, queries.getProperty(key));
+            }
+        }
+    }
+
+    // Lo que SQLiteDatabase.delete arma con los argumentos de la app.
+    @Test
+    public void deletes_igualesALosDeLaApp() {
+        assertEquals("DELETE FROM " + TallerDbHelper.T_PERSONA + " WHERE " + TallerDbHelper.C_RUN + " = ?",
+                queries.getProperty("PersonaRepository.deleteByRun"));
+        assertEquals("DELETE FROM " + TallerDbHelper.T_VEHICULO + " WHERE " + TallerDbHelper.V_PATENTE + " = ?",
+                queries.getProperty("VehiculoRepository.delete"));
+    }
+
+    @Test
+    public void esquema_igualAlDeTallerDbHelper() throws IOException {
+        assertEquals(String.valueOf(TallerDbHelper.DB_VERSION), queries.getProperty("schema.version"));
+
+        SQLiteDatabase host = SQLiteDatabase.create(null);
+        try {
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                    asset("taller/schema.sql"), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("--")) continue;
+                    host.execSQL(line.endsWith(";") ? line.substring(0, line.length() - 1) : line);
+                }
+            }
+            List<String> esperado = master(database.getWritableDatabase());
+            assertFalse(esperado.isEmpty());
+            assertEquals(esperado, master(host));
+        } finally {
+            host.close();
+        }
+    }
+
+    // ============================ APOYO ================================
+
+    private static InputStream asset(String name) throws IOException {
+        return InstrumentationRegistry.getInstrumentation().getContext().getAssets().open(name);
+    }
+
+    // Objetos del esquema (sin las tablas internas de Android y SQLite).
+    private static List<String> master(SQLiteDatabase db) {
+        List<String> out = new ArrayList<>();
+        try (Cursor c = db.rawQuery("SELECT type, name, tbl_name, sql FROM sqlite_master" +
+                " WHERE name NOT IN ('android_metadata', 'sqlite_sequence')" +
+                " AND name NOT LIKE 'sqlite_stat%'" +
+                " ORDER BY type, name", null)) {
+            while (c.moveToNext()) {
+                out.add(c.getString(0) + " " + c.getString(1) + " " + c.getString(2) + ": " + c.getString(3));
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,100 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: OrdenPaginacionTest
+// == Rol:
+//    - Recorre las OTs página a página (listPage / listPageByPatente) y
+//      verifica que el resultado concatenado es idéntico a listAll /
+//      listByPatente: sin duplicados, sin huecos y en orden id DESC.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class OrdenPaginacionTest {
+
+    private static final String DB_TEST = "test_paginacion.db";
+    private static final int ORDENES = 1234;
+
+    private Context ctx;
+    private TallerDatabase database;
+    private OrdenRepository repo;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_TEST);
+        database = TallerDatabase.forTesting(ctx, DB_TEST);
+        new PersonaRepository(database).insert(new Persona(1, "p@taller.cl", "P", "Q", "x", "cliente"));
+        VehiculoRepository vehiculos = new VehiculoRepository(database);
+        vehiculos.insert(new Vehiculo("PAG001", "Gris", "A", 1));
+        vehiculos.insert(new Vehiculo("PAG002", "Gris", "B", 1));
+        repo = new OrdenRepository(database);
+        List<OrdenTrabajo> lote = new ArrayList<>();
+        for (int i = 0; i < ORDENES; i++) {
+            lote.add(new OrdenTrabajo(0, "OT-" + i, "2025-01-01", i, 0, "", i % 3 == 0 ? "PAG001" : "PAG002"));
+        }
+        repo.insertAll(lote);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        ctx.deleteDatabase(DB_TEST);
+    }
+
+    @Test
+    public void listPage_recorreTodoSinDuplicados() {
+        List<Long> paginado = new ArrayList<>();
+        long before = OrdenRepository.FIRST_PAGE;
+        List<OrdenTrabajo> pagina;
+        do {
+            pagina = repo.listPage(before, OrdenRepository.PAGE_SIZE);
+            assertTrue(pagina.size() <= OrdenRepository.PAGE_SIZE);
+            for (OrdenTrabajo o : pagina) paginado.add(o.id);
+            if (!pagina.isEmpty()) before = pagina.get(pagina.size() - 1).id;
+        } while (pagina.size() == OrdenRepository.PAGE_SIZE);
+
+        assertEquals(ids(repo.listAll()), paginado);
+    }
+
+    @Test
+    public void listPageByPatente_recorreSoloEsaPatente() {
+        List<Long> paginado = new ArrayList<>();
+        long before = OrdenRepository.FIRST_PAGE;
+        List<OrdenTrabajo> pagina;
+        do {
+            pagina = repo.listPageByPatente("PAG001", before, 7);
+            for (OrdenTrabajo o : pagina) {
+                assertEquals("PAG001", o.patente);
+                paginado.add(o.id);
+            }
+            if (!pagina.isEmpty()) before = pagina.get(pagina.size() - 1).id;
+        } while (pagina.size() == 7);
+
+        assertEquals(ids(repo.listByPatente("PAG001")), paginado);
+    }
+
+    private static List<Long> ids(List<OrdenTrabajo> ordenes) {
+        List<Long> out = new ArrayList<>();
+        for (OrdenTrabajo o : ordenes) out.add(o.id);
+        return out;
+    }
+}
@@ -0,0 +1,171 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: OrdenSnapshotBenchmark
+// == Rol:
+//    - Carga 1M de OTs, arma el snapshot con OrdenColumns y mide los tres
+//      agregados (total, por patente y por mes). Meta: cada recorrido muy
+//      por debajo de 100 ms y ninguna recolección de basura durante las
+//      mediciones.
+//    - Verifica además el refresco incremental: una alta y un cambio se
+//      aplican sin recargar la tabla.
+//    - Reporta en Logcat (tag "OrdenSnapshotBench").
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class OrdenSnapshotBenchmark {
+
+    private static final String TAG = "OrdenSnapshotBench";
+    private static final String DB_BENCH = "bench_orden_snapshot.db";
+    private static final int N = 1_000_000;
+    private static final int PATENTES = 2_000;
+    private static final int RONDAS = 10;
+
+    private Context ctx;
+    private TallerDatabase database;
+    private OrdenRepository ordenes;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_BENCH);
+        database = TallerDatabase.forTesting(ctx, DB_BENCH);
+        ordenes = new OrdenRepository(database);
+        List<Vehiculo> vehiculos = new ArrayList<>(PATENTES);
+        for (int i = 0; i < PATENTES; i++) vehiculos.add(new Vehiculo(patente(i), "rojo", "Modelo" + (i % 40), null));
+        new VehiculoRepository(database).insertAll(vehiculos);
+        ordenes.insertAll(generar(N));
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        ctx.deleteDatabase(DB_BENCH);
+    }
+
+    @Test
+    public void agregados_1M() {
+        OrdenColumns columns = database.getOrdenColumns();
+        long t0 = SystemClock.elapsedRealtimeNanos();
+        OrdenSnapshot s = columns.get();
+        long tCarga = SystemClock.elapsedRealtimeNanos() - t0;
+        assertEquals(N, s.count());
+
+        long[] porPatente = new long[s.patentesSize()];
+        int primerMes = OrdenSnapshot.mes(OrdenSnapshot.epochDay(2020, 1, 1));
+        long[] porMes = new long[72];
+
+        // Calentamiento (JIT) antes de medir.
+        for (int r = 0; r < 3; r++) {
+            s.totalCentavos();
+            s.totalPorPatente(porPatente);
+            s.totalPorMes(primerMes, porMes);
+        }
+
+        int gc0 = gcCount();
+        long total = 0, tTotal = 0, tPatente = 0, tMes = 0;
+        for (int r = 0; r < RONDAS; r++) {
+            long a = SystemClock.elapsedRealtimeNanos();
+            total = s.totalCentavos();
+            long b = SystemClock.elapsedRealtimeNanos();
+            s.totalPorPatente(porPatente);
+            long c = SystemClock.elapsedRealtimeNanos();
+            s.totalPorMes(primerMes, porMes);
+            long d = SystemClock.elapsedRealtimeNanos();
+            tTotal += b - a;
+            tPatente += c - b;
+            tMes += d - c;
+        }
+        int gcs = gcCount() - gc0;
+
+        long sumaPatentes = 0, sumaMeses = 0;
+        for (long v : porPatente) sumaPatentes += v;
+        for (long v : porMes) sumaMeses += v;
+        assertEquals(total, sumaPatentes);
+        assertEquals(total, sumaMeses);
+
+        Log.i(TAG, String.format(Locale.US,
+                "n=%d | carga %.0f ms | total %.2f ms | por patente %.2f ms | por mes %.2f ms | GC %d",
+                N, tCarga / 1e6, tTotal / 1e6 / RONDAS, tPatente / 1e6 / RONDAS, tMes / 1e6 / RONDAS, gcs));
+        assertTrue("total: " + tTotal / RONDAS, tTotal / RONDAS < 100_000_000L);
+        assertTrue("por patente: " + tPatente / RONDAS, tPatente / RONDAS < 100_000_000L);
+        assertTrue("por mes: " + tMes / RONDAS, tMes / RONDAS < 100_000_000L);
+        assertEquals(0, gcs);
+    }
+
+    @Test
+    public void refrescoIncremental() {
+        OrdenColumns columns = database.getOrdenColumns();
+        OrdenSnapshot s0 = columns.get();
+        assertSame(s0, columns.get());   // sin cambios, sin consulta
+
+        long id = ordenes.insert(new OrdenTrabajo(0, "OT-X", "2025-06-30", 1000, 190, "nueva", patente(7)));
+        OrdenTrabajo primera = new OrdenTrabajo(1, "OT-1", "2025-06-30", 50, 0, "cambio", patente(8));
+        ordenes.upsertAll(Collections.singletonList(primera));
+        OrdenSnapshot s1 = columns.get();
+
+        assertEquals(1, columns.getReloadCount());
+        assertEquals(N + 1, s1.count());
+        assertEquals(id, s1.maxId());
+        assertEquals(119_000, s1.centavos(s1.indexOf(id)));
+        assertEquals(5_000, s1.centavos(s1.indexOf(1)));
+        assertEquals(OrdenSnapshot.epochDay(2025, 6, 30), s1.dia(s1.indexOf(1)));
+        // El snapshot anterior no cambió.
+        assertEquals(N, s0.count());
+    }
+
+    // ============================ APOYO ================================
+
+    private static int gcCount() {
+        return Integer.parseInt(Debug.getRuntimeStat("art.gc.gc-count"));
+    }
+
+    private static String patente(int i) {
+        return String.format(Locale.US, "BB%04d", i);
+    }
+
+    private static List<OrdenTrabajo> generar(final int n) {
+        final int inicio = OrdenSnapshot.epochDay(2020, 1, 1);
+        return new AbstractList<OrdenTrabajo>() {
+            @Override
+            public OrdenTrabajo get(int i) {
+                int dia = inicio + (int) ((long) i * 2190 / n);   // seis años, en orden
+                int mes = OrdenSnapshot.mes(dia);
+                String fecha = String.format(Locale.US, "%04d-%02d-%02d", mes / 12, mes % 12 + 1,
+                        dia - OrdenSnapshot.primerDia(mes) + 1);
+                double neto = 10_000 + (i % 500) * 10;
+                return new OrdenTrabajo(0, "OT-" + i, fecha, neto, neto * 0.19, "", patente(i % PATENTES));
+            }
+
+            @Override
+            public int size() {
+                return n;
+            }
+        };
+    }
+}
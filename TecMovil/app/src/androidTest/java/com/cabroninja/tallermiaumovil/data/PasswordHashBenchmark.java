@@ -0,0 +1,128 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.Persona;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: PasswordHashBenchmark
+// == Rol:
+//    - Mide el login de un trabajador (authenticateTrabajador: consulta
+//      + PBKDF2, lo que espera LoginActivity.doLogin) con distintas
+//      iteraciones y reporta el mayor costo que cabe en LOGIN_BUDGET_MS.
+//      Correrlo en el equipo de referencia para fijar
+//      PasswordHasher.DEFAULT_ITERATIONS.
+//    - Verifica que DEFAULT_ITERATIONS respeta el presupuesto y que un
+//      cambio de costo (o una contraseña antigua en texto plano) se
+//      vuelve a derivar en el siguiente login.
+//    - Reporta en Logcat (tag "PasswordHashBench").
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class PasswordHashBenchmark {
+
+    private static final String TAG = "PasswordHashBench";
+    private static final String DB_BENCH = "bench_password_hash.db";
+
+    // Presupuesto del login (mediana), medido en el hilo de DbExecutor.
+    private static final long LOGIN_BUDGET_MS = 250;
+    private static final int[] COSTOS = { 5_000, 10_000, 20_000, 40_000, 80_000, 160_000 };
+    private static final int REPETICIONES = 7;
+    private static final String EMAIL = "bench@taller.cl";
+    private static final String CLAVE = "clave-de-prueba";
+
+    private Context ctx;
+    private TallerDatabase database;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_BENCH);
+        database = TallerDatabase.forTesting(ctx, DB_BENCH);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        ctx.deleteDatabase(DB_BENCH);
+    }
+
+    @Test
+    public void login_costoDentroDelPresupuesto() {
+        int recomendado = 0;
+        long medianaDefault = -1;
+        for (int costo : COSTOS) {
+            PersonaRepository personas = new PersonaRepository(database, new PasswordHasher(costo));
+            personas.deleteByRun(1);
+            personas.insert(new Persona(1, EMAIL, "Bench", "Login", CLAVE, "trabajador"));
+            personas.authenticateTrabajador(EMAIL, CLAVE);   // calentamiento
+
+            long[] ms = new long[REPETICIONES];
+            for (int i = 0; i < REPETICIONES; i++) {
+                long t0 = SystemClock.elapsedRealtimeNanos();
+                assertNotNull(personas.authenticateTrabajador(EMAIL, CLAVE));
+                ms[i] = (SystemClock.elapsedRealtimeNanos() - t0) / 1_000_000;
+            }
+            Arrays.sort(ms);
+            long mediana = ms[REPETICIONES / 2];
+            if (mediana <= LOGIN_BUDGET_MS) recomendado = costo;
+            if (costo == PasswordHasher.DEFAULT_ITERATIONS) medianaDefault = mediana;
+            Log.i(TAG, String.format(Locale.US, "iteraciones %d | login mediana %d ms | peor %d ms",
+                    costo, mediana, ms[REPETICIONES - 1]));
+        }
+        Log.i(TAG, String.format(Locale.US, "presupuesto %d ms → iteraciones recomendadas: %d (actual %d)",
+                LOGIN_BUDGET_MS, recomendado, PasswordHasher.DEFAULT_ITERATIONS));
+        assertTrue("DEFAULT_ITERATIONS fuera de COSTOS", medianaDefault >= 0);
+        assertTrue("login con DEFAULT_ITERATIONS: " + medianaDefault + " ms",
+                medianaDefault <= LOGIN_BUDGET_MS);
+    }
+
+    @Test
+    public void login_cambioDeCosto_vuelveADerivar() {
+        new PersonaRepository(database, new PasswordHasher(1_000))
+                .insert(new Persona(1, EMAIL, "Bench", "Login", CLAVE, "trabajador"));
+        assertEquals(1_000, PasswordHasher.iterationsOf(guardada()));
+
+        PersonaRepository personas = new PersonaRepository(database, new PasswordHasher(2_000));
+        assertNull(personas.authenticateTrabajador(EMAIL, "otra"));
+        assertEquals(1_000, PasswordHasher.iterationsOf(guardada()));
+        assertNotNull(personas.authenticateTrabajador(EMAIL, CLAVE));
+        assertEquals(2_000, PasswordHasher.iterationsOf(guardada()));
+    }
+
+    @Test
+    public void login_textoPlanoAntiguo_seDeriva() {
+        // Fila escrita por una versión anterior (sin pasar por el repositorio).
+        database.getWritableDatabase().execSQL("INSERT INTO " + TallerDbHelper.T_PERSONA +
+                " VALUES (1, '" + EMAIL + "', 'Bench', 'Login', '" + CLAVE + "', 'trabajador')");
+        PersonaRepository personas = new PersonaRepository(database);
+        assertNotNull(personas.authenticateTrabajador(EMAIL, CLAVE));
+        assertTrue(PasswordHasher.isHash(guardada()));
+        assertNotNull(personas.authenticateTrabajador(EMAIL, CLAVE));
+    }
+
+    private String guardada() {
+        try (Cursor c = database.getReadableDatabase().rawQuery("SELECT " + TallerDbHelper.C_PASSWORD +
+                " FROM " + TallerDbHelper.T_PERSONA + " WHERE " + TallerDbHelper.C_RUN + " = 1", null)) {
+            return c.moveToFirst() ? c.getString(0) : null;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: QueryPlanTest
+// == Rol:
+//    - Regresión de índices: ejecuta EXPLAIN QUERY PLAN sobre cada
+//      consulta de los repositorios y falla si una búsqueda filtrada
+//      vuelve a recorrer la tabla (SCAN) o a ordenar en memoria.
+//    - Los listados completos (listAll, count) recorren la tabla por
+//      naturaleza; para ellos solo se exige que no ordenen en un árbol
+//      temporal.
+//    - Verifica además que toda columna FK encabece algún índice, para
+//      que las cascadas ON DELETE/ON UPDATE no sean lineales.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class QueryPlanTest {
+
+    private static final String DB_TEST = "test_query_plan.db";
+
+    private Context ctx;
+    private TallerDatabase database;
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_TEST);
+        database = TallerDatabase.forTesting(ctx, DB_TEST);
+        db = database.getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        ctx.deleteDatabase(DB_TEST);
+    }
+
+    // ============================ PERSONA ==============================
+
+    @Test
+    public void persona_getByRun_usaClavePrimaria() {
+        assertSinScan(PersonaRepository.SQL_GET_BY_RUN, "1");
+    }
+
+    @Test
+    public void persona_listByTipo_usaIndiceYaOrdenado() {
+        assertSinScan(PersonaRepository.SQL_LIST_BY_TIPO, "cliente");
+    }
+
+    @Test
+    public void persona_countByTipo_usaIndice() {
+        assertSinScan(PersonaRepository.SQL_COUNT_BY_TIPO, "cliente");
+    }
+
+    @Test
+    public void persona_authenticateTrabajador_usaIndiceEmail() {
+        assertSinScan(PersonaRepository.SQL_AUTH_TRABAJADOR, "a@b.cl");
+    }
+
+    @Test
+    public void persona_updateYDelete_usanClavePrimaria() {
+        assertSinScan("UPDATE " + TallerDbHelper.T_PERSONA + " SET " + TallerDbHelper.C_EMAIL + " = ?" +
+                " WHERE " + TallerDbHelper.C_RUN + " = ?", "x", "1");
+        assertSinScan("DELETE FROM " + TallerDbHelper.T_PERSONA +
+                " WHERE " + TallerDbHelper.C_RUN + " = ?", "1");
+    }
+
+    // ============================ VEHICULO =============================
+
+    @Test
+    public void vehiculo_listByRunDueno_usaIndiceYaOrdenado() {
+        assertSinScan(VehiculoRepository.SQL_LIST_BY_RUN_DUENO, "1");
+    }
+
+    @Test
+    public void vehiculo_listadosCompletos_noOrdenanEnMemoria() {
+        assertSinOrdenTemporal(VehiculoRepository.SQL_LIST_ALL);
+        assertSinOrdenTemporal(VehiculoRepository.SQL_COUNT);
+    }
+
+    @Test
+    public void vehiculo_updateYDelete_usanClavePrimaria() {
+        assertSinScan("UPDATE " + TallerDbHelper.T_VEHICULO + " SET " + TallerDbHelper.V_COLOR + " = ?" +
+                " WHERE " + TallerDbHelper.V_PATENTE + " = ?", "x", "ABC123");
+        assertSinScan("DELETE FROM " + TallerDbHelper.T_VEHICULO +
+                " WHERE " + TallerDbHelper.V_PATENTE + " = ?", "ABC123");
+    }
+
+    // ========================= ORDEN_TRABAJO ===========================
+
+    @Test
+    public void orden_listByPatente_usaIndiceYaOrdenado() {
+        assertSinScan(OrdenRepository.SQL_LIST_BY_PATENTE, "ABC123");
+    }
+
+    @Test
+    public void orden_paginas_usanClaveSinOrdenar() {
+        assertSinScan(OrdenRepository.SQL_PAGE, "100", "50");
+        assertSinScan(OrdenRepository.SQL_PAGE_BY_PATENTE, "ABC123", "100", "50");
+    }
+
+    @Test
+    public void orden_listadosCompletos_noOrdenanEnMemoria() {
+        assertSinOrdenTemporal(OrdenRepository.SQL_LIST_ALL);
+        assertSinOrdenTemporal(OrdenRepository.SQL_COUNT);
+    }
+
+    @Test
+    public void orden_update_usaClavePrimaria() {
+        assertSinScan("UPDATE " + TallerDbHelper.T_ORDEN + " SET " + TallerDbHelper.O_NUMERO + " = ?" +
+                " WHERE " + TallerDbHelper.O_ID + " = ?", "x", "1");
+    }
+
+    // ========================= BÚSQUEDA (FTS) =========================
+
+    @Test
+    public void busqueda_personas_usaIndiceFtsYRowid() {
+        assertBusquedaFts(PersonaRepository.SQL_SEARCH_BY_TIPO, "jo*", "cliente");
+    }
+
+    @Test
+    public void busqueda_vehiculos_usaIndiceFtsYRowid() {
+        assertBusquedaFts(VehiculoRepository.SQL_SEARCH, "ab*");
+        assertBusquedaFts(VehiculoRepository.SQL_SEARCH_BY_RUN_DUENO, "ab*", "1");
+    }
+
+    @Test
+    public void busqueda_ordenes_usaIndiceFtsYRowid() {
+        assertBusquedaFts(OrdenRepository.SQL_SEARCH, "ot*");
+        assertBusquedaFts(OrdenRepository.SQL_SEARCH_BY_PATENTE, "ot*", "ABC123");
+    }
+
+    // ========================== RESÚMENES ==============================
+
+    @Test
+    public void resumen_lecturas_porClavePrimaria() {
+        assertSinScan(ResumenRepository.SQL_MES, "2025-01");
+        assertSinScan(ResumenRepository.SQL_MESES, "2025-01", "2025-12");
+        assertSinScan(ResumenRepository.SQL_VEHICULO, "AB1234");
+        assertSinScan(ResumenRepository.SQL_CLIENTE, "1");
+        assertSinScan(ResumenRepository.SQL_TIPO, "cliente");
+    }
+
+    // ========================== CASCADAS FK ============================
+
+    @Test
+    public void dashboard_contadores_usanIndiceSinOrdenar() {
+        QueryPlan plan = QueryPlan.explain(db, DashboardStats.SQL_COUNTERS, null);
+        assertFalse("TEMP B-TREE → " + plan, plan.usesTempBTree());
+        assertTrue("conteo de clientes sin índice → " + plan,
+                plan.toString().contains(TallerDbHelper.IDX_PERSONA_TIPO_NOMBRE));
+    }
+
+    @Test
+    public void columnasFk_encabezanUnIndice() {
+        for (String tabla : new String[]{ TallerDbHelper.T_VEHICULO, TallerDbHelper.T_ORDEN }) {
+            for (String col : columnasFk(tabla)) {
+                assertTrue("FK sin índice: " + tabla + "." + col,
+                        primerasColumnasDeIndices(tabla).contains(col));
+            }
+        }
+    }
+
+    // ============================ APOYO ================================
+
+    private void assertSinScan(String sql, String... args) {
+        QueryPlan plan = QueryPlan.explain(db, sql, args);
+        assertFalse("SCAN en: " + sql + " → " + plan, plan.hasScan());
+        assertFalse("TEMP B-TREE en: " + sql + " → " + plan, plan.usesTempBTree());
+    }
+
+    // La tabla FTS se "recorre" por su índice MATCH (idxNum distinto de
+    // 0, que es el recorrido completo) y la tabla base solo se toca por
+    // rowid. Los candidatos salen ya en docid DESC, sin ordenar aparte.
+    private void assertBusquedaFts(String sql, String... args) {
+        QueryPlan plan = QueryPlan.explain(db, sql, args);
+        for (String paso : plan.steps) {
+            if (!paso.startsWith("SCAN ")) continue;
+            assertTrue("SCAN en: " + sql + " → " + plan, paso.contains("VIRTUAL TABLE INDEX"));
+            assertFalse("FTS sin MATCH en: " + sql + " → " + plan, paso.contains("VIRTUAL TABLE INDEX 0:"));
+        }
+        assertFalse("TEMP B-TREE en: " + sql + " → " + plan, plan.usesTempBTree());
+    }
+
+    private void assertSinOrdenTemporal(String sql) {
+        QueryPlan plan = QueryPlan.explain(db, sql, null);
+        assertFalse("TEMP B-TREE en: " + sql + " → " + plan, plan.usesTempBTree());
+    }
+
+    private List<String> columnasFk(String tabla) {
+        List<String> out = new ArrayList<>();
+        try (Cursor c = db.rawQuery("PRAGMA foreign_key_list(" + tabla + ")", null)) {
+            int from = c.getColumnIndexOrThrow("from");
+            while (c.moveToNext()) out.add(c.getString(from));
+        }
+        return out;
+    }
+
+    private List<String> primerasColumnasDeIndices(String tabla) {
+        List<String> indices = new ArrayList<>();
+        try (Cursor c = db.rawQuery("PRAGMA index_list(" + tabla + ")", null)) {
+            int name = c.getColumnIndexOrThrow("name");
+            while (c.moveToNext()) indices.add(c.getString(name));
+        }
+        List<String> out = new ArrayList<>();
+        for (String idx : indices) {
+            try (Cursor c = db.rawQuery("PRAGMA index_info(" + idx + ")", null)) {
+                int seqno = c.getColumnIndexOrThrow("seqno");
+                int name = c.getColumnIndexOrThrow("name");
+                while (c.moveToNext()) {
+                    if (c.getInt(seqno) == 0) out.add(c.getString(name));
+                }
+            }
+        }
+        return out;
+    }
+}
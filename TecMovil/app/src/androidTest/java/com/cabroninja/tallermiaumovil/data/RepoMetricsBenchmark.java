@@ -0,0 +1,142 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.Persona;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: RepoMetricsBenchmark
+// == Rol:
+//    - Mide cuánto cuesta RepoMetrics (start + stop) por llamada y lo
+//      compara con la latencia media de las consultas más rápidas de
+//      PersonaRepository (getByRun y countByTipo): debe quedar bajo 1%.
+//    - Reporta también el A/B de esas consultas con la medición
+//      encendida y apagada, y verifica que se registra una llamada por
+//      invocación (y ninguna con la medición apagada).
+//    - Reporta en Logcat (tag "RepoMetricsBench").
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class RepoMetricsBenchmark {
+
+    private static final String TAG = "RepoMetricsBench";
+    private static final String DB_BENCH = "bench_repo_metrics.db";
+    private static final int PERSONAS = 1_000;
+    private static final int CONSULTAS = 5_000;
+    private static final int VACIAS = 1_000_000;
+    private static final double MAX_OVERHEAD = 0.01;
+
+    private Context ctx;
+    private TallerDatabase database;
+    private PersonaRepository personas;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_BENCH);
+        database = TallerDatabase.forTesting(ctx, DB_BENCH);
+        personas = new PersonaRepository(database);
+        List<Persona> lote = new ArrayList<>(PERSONAS);
+        for (int i = 1; i <= PERSONAS; i++) {
+            lote.add(new Persona(i, "p" + i + "@taller.cl", "Nombre" + i, "Apellido", "x", "cliente"));
+        }
+        assertEquals(PERSONAS, personas.insertAll(lote).inserted);
+        RepoMetrics.setEnabled(true);
+        RepoMetrics.reset();
+    }
+
+    @After
+    public void tearDown() {
+        RepoMetrics.setEnabled(true);
+        RepoMetrics.reset();
+        database.close();
+        ctx.deleteDatabase(DB_BENCH);
+    }
+
+    @Test
+    public void overhead_bajoUnPorCiento() {
+        // ---- Costo de la medición sola (sin consulta) ----
+        RepoMetrics.Op vacia = RepoMetrics.op("RepoMetricsBenchmark.vacia");
+        for (int i = 0; i < VACIAS / 10; i++) vacia.stop(RepoMetrics.start(), 1);   // calentamiento
+        long t0 = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < VACIAS; i++) vacia.stop(RepoMetrics.start(), 1);
+        double nsMedicion = (double) (SystemClock.elapsedRealtimeNanos() - t0) / VACIAS;
+
+        // ---- Consultas con la medición encendida y apagada ----
+        double nsGetOn = getByRun();
+        double nsCountOn = countByTipo();
+        RepoMetrics.setEnabled(false);
+        double nsGetOff = getByRun();
+        double nsCountOff = countByTipo();
+        RepoMetrics.setEnabled(true);
+
+        Log.i(TAG, String.format(Locale.US,
+                "medicion=%.0f ns/llamada | getByRun: on=%.1f us off=%.1f us (%.2f%%) | "
+                        + "countByTipo: on=%.1f us off=%.1f us (%.2f%%)",
+                nsMedicion, nsGetOn / 1000, nsGetOff / 1000, 100 * nsMedicion / nsGetOff,
+                nsCountOn / 1000, nsCountOff / 1000, 100 * nsMedicion / nsCountOff));
+        Log.i(TAG, RepoMetrics.toJson());
+
+        // El A/B directo es más ruidoso que la diferencia que busca: la
+        // condición usa el costo medido aislado contra la consulta.
+        assertTrue("getByRun: " + nsMedicion + " ns sobre " + nsGetOff,
+                nsMedicion < MAX_OVERHEAD * nsGetOff);
+        assertTrue("countByTipo: " + nsMedicion + " ns sobre " + nsCountOff,
+                nsMedicion < MAX_OVERHEAD * nsCountOff);
+    }
+
+    @Test
+    public void registraUnaLlamadaPorInvocacion() {
+        for (int i = 1; i <= 100; i++) personas.getByRun(i);
+        personas.getByRun(PERSONAS + 1);        // no existe: llamada sin filas
+        personas.listByTipo("cliente");
+        RepoMetrics.setEnabled(false);
+        personas.getByRun(1);
+        RepoMetrics.setEnabled(true);
+
+        RepoMetrics.Op get = RepoMetrics.op("PersonaRepository.getByRun");
+        assertEquals(101, get.calls());
+        assertEquals(100, get.rows());
+        assertEquals(101, get.latency().count());
+        assertTrue(get.latency().percentile(0.5) > 0);
+        assertEquals(PERSONAS, RepoMetrics.op("PersonaRepository.listByTipo").rows());
+        assertTrue(RepoMetrics.toJson().contains("\"op\":\"PersonaRepository.getByRun\",\"calls\":101,"));
+    }
+
+    // Latencia media (ns) de getByRun sobre RUNs existentes.
+    private double getByRun() {
+        for (int i = 0; i < CONSULTAS / 10; i++) personas.getByRun(1 + i % PERSONAS);
+        long t0 = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < CONSULTAS; i++) personas.getByRun(1 + i % PERSONAS);
+        return (double) (SystemClock.elapsedRealtimeNanos() - t0) / CONSULTAS;
+    }
+
+    // Latencia media (ns) de countByTipo (recorre idx_persona_tipo_nombre).
+    private double countByTipo() {
+        int n = CONSULTAS / 10;
+        countOnce();
+        long t0 = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < n; i++) countOnce();
+        return (double) (SystemClock.elapsedRealtimeNanos() - t0) / n;
+    }
+
+    private void countOnce() {
+        assertEquals(PERSONAS, personas.countByTipo("cliente"));
+    }
+}
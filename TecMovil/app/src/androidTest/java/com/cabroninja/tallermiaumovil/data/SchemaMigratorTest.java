@@ -0,0 +1,382 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+// ======================================================================
+// == Clase: SchemaMigratorTest
+// == Rol:
+//    - Construye una DB en la versión base (16) con 500.000 órdenes y
+//      verifica que la actualización vía TallerDbHelper conserva los
+//      datos, deja el esquema actual y termina en tiempo acotado.
+//    - Mide por separado cada paso registrado y una reconstrucción
+//      completa de orden_trabajo con copyAndSwap (tag "MigracionBench").
+//    - Simula una interrupción a mitad de copia y comprueba que la
+//      segunda ejecución reanuda sin duplicar ni perder filas: llamando
+//      a copyAndSwap directo y, con un paso con rebuild instalado en el
+//      registro, a través de TallerDbHelper (onUpgrade deja la
+//      reconstrucción pendiente, onOpen la corre, se corta y la
+//      siguiente apertura la termina).
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class SchemaMigratorTest {
+
+    private static final String TAG = "MigracionBench";
+    private static final String DB_TEST = "test_migracion.db";
+    private static final int ORDENES = 500_000;
+    private static final int VEHICULOS = 1_000;
+
+    // Cotas holgadas para un dispositivo de gama baja; detectan regresiones
+    // de orden de magnitud (p. ej. una copia fila a fila desde Java).
+    private static final long MAX_MS_UPGRADE = 60_000;
+    private static final long MAX_MS_COPY_AND_SWAP = 120_000;
+
+    private static final String CREATE_ORDEN = "CREATE TABLE %s (" +
+            TallerDbHelper.O_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            TallerDbHelper.O_NUMERO + " TEXT, " +
+            TallerDbHelper.O_FECHA + " TEXT, " +
+            TallerDbHelper.O_VALOR_NETO + " REAL, " +
+            TallerDbHelper.O_IVA + " REAL, " +
+            TallerDbHelper.O_OBSERVACION + " TEXT, " +
+            TallerDbHelper.O_PATENTE + " TEXT REFERENCES " + TallerDbHelper.T_VEHICULO +
+            "(" + TallerDbHelper.V_PATENTE + ") ON UPDATE CASCADE ON DELETE CASCADE)";
+    private static final String COLUMNAS_ORDEN =
+            TallerDbHelper.O_ID + ", " + TallerDbHelper.O_NUMERO + ", " + TallerDbHelper.O_FECHA + ", " +
+            TallerDbHelper.O_VALOR_NETO + ", " + TallerDbHelper.O_IVA + ", " +
+            TallerDbHelper.O_OBSERVACION + ", " + TallerDbHelper.O_PATENTE;
+
+    private Context ctx;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_TEST);
+    }
+
+    @After
+    public void tearDown() {
+        ctx.deleteDatabase(DB_TEST);
+    }
+
+    // ------------------------------------------------------------------
+    // == Test: upgradeDesdeBase_conservaDatos
+    //    - Abre la DB v16 poblada con TallerDatabase (dispara onUpgrade) y
+    //      verifica conteos, índices, bitácora y tiempo total.
+    // ------------------------------------------------------------------
+    @Test
+    public void upgradeDesdeBase_conservaDatos() {
+        crearBasePoblada();
+
+        long t0 = SystemClock.elapsedRealtime();
+        TallerDatabase database = TallerDatabase.forTesting(ctx, DB_TEST);
+        try {
+            SQLiteDatabase db = database.getWritableDatabase();
+            long ms = SystemClock.elapsedRealtime() - t0;
+            Log.i(TAG, String.format(Locale.US, "upgrade v%d→v%d con %d órdenes: %d ms",
+                    SchemaMigrator.BASE_VERSION, TallerDbHelper.DB_VERSION, ORDENES, ms));
+
+            assertEquals(TallerDbHelper.DB_VERSION, db.getVersion());
+            assertEquals(ORDENES, DatabaseUtils.queryNumEntries(db, TallerDbHelper.T_ORDEN));
+            assertEquals(VEHICULOS, DatabaseUtils.queryNumEntries(db, TallerDbHelper.T_VEHICULO));
+            assertEquals(1, DatabaseUtils.longForQuery(db,
+                    "SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name = ?",
+                    new String[]{ TallerDbHelper.IDX_ORDEN_PATENTE_ID }));
+            assertEquals(TallerDbHelper.DB_VERSION - SchemaMigrator.BASE_VERSION,
+                    DatabaseUtils.queryNumEntries(db, SchemaMigrator.T_BITACORA));
+            assertTrue("upgrade demasiado lento: " + ms + " ms", ms < MAX_MS_UPGRADE);
+        } finally {
+            database.close();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Test: pasos_medidosUnoPorUno
+    //    - Aplica cada paso registrado por separado sobre la DB v16 y
+    //      reporta su duración.
+    // ------------------------------------------------------------------
+    @Test
+    public void pasos_medidosUnoPorUno() {
+        SQLiteDatabase db = crearBasePoblada();
+        try {
+            for (Migration m : SchemaMigrator.getMigrations()) {
+                long t0 = SystemClock.elapsedRealtime();
+                SchemaMigrator.migrate(db, m.fromVersion, m.fromVersion + 1, SchemaMigrator.LOG_PROGRESS);
+                long ms = SystemClock.elapsedRealtime() - t0;
+                Log.i(TAG, String.format(Locale.US, "paso v%d→v%d (%s): %d ms",
+                        m.fromVersion, m.fromVersion + 1, m.description, ms));
+                assertTrue("paso " + m.description + " demasiado lento: " + ms + " ms", ms < MAX_MS_UPGRADE);
+            }
+            assertEquals(ORDENES, DatabaseUtils.queryNumEntries(db, TallerDbHelper.T_ORDEN));
+        } finally {
+            db.close();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Test: copyAndSwap_reconstruyeOrdenes
+    //    - Reconstruye orden_trabajo completa, con progreso por lote, y
+    //      verifica filas, ids, contador AUTOINCREMENT y FKs.
+    // ------------------------------------------------------------------
+    @Test
+    public void copyAndSwap_reconstruyeOrdenes() {
+        SQLiteDatabase db = crearBasePoblada();
+        try {
+            // Sin la última orden: el contador AUTOINCREMENT queda por encima
+            // de MAX(id) y debe sobrevivir a la reconstrucción.
+            db.execSQL("DELETE FROM " + TallerDbHelper.T_ORDEN + " WHERE " + TallerDbHelper.O_ID + " = ?",
+                    new Object[]{ ORDENES });
+            long checksum = checksumOrdenes(db);
+            final long[] avisos = {0};
+            long t0 = SystemClock.elapsedRealtime();
+            long filas = SchemaMigrator.copyAndSwap(db, 0, TallerDbHelper.T_ORDEN, CREATE_ORDEN,
+                    COLUMNAS_ORDEN, COLUMNAS_ORDEN, (v, step, done, total) -> avisos[0]++);
+            long ms = SystemClock.elapsedRealtime() - t0;
+            Log.i(TAG, String.format(Locale.US, "copyAndSwap %d órdenes: %d ms, %d avisos",
+                    filas, ms, avisos[0]));
+
+            assertEquals(ORDENES - 1, filas);
+            assertEquals(checksum, checksumOrdenes(db));
+            assertTrue("sin avisos por lote", avisos[0] >= ORDENES / SchemaMigrator.COPY_BATCH);
+            assertEquals(ORDENES + 1, insertarOrden(db));
+            try (Cursor c = db.rawQuery("PRAGMA foreign_key_check", null)) {
+                assertEquals(0, c.getCount());
+            }
+            assertTrue("copyAndSwap demasiado lento: " + ms + " ms", ms < MAX_MS_COPY_AND_SWAP);
+        } finally {
+            db.close();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Test: copyAndSwap_interrumpido_reanuda
+    //    - El primer intento se corta tras algunos lotes (excepción desde
+    //      el listener). El segundo continúa desde el último rowid copiado.
+    // ------------------------------------------------------------------
+    @Test
+    public void copyAndSwap_interrumpido_reanuda() {
+        SQLiteDatabase db = crearBasePoblada();
+        try {
+            long checksum = checksumOrdenes(db);
+            final long corte = 5L * SchemaMigrator.COPY_BATCH;
+            try {
+                SchemaMigrator.copyAndSwap(db, 0, TallerDbHelper.T_ORDEN, CREATE_ORDEN,
+                        COLUMNAS_ORDEN, COLUMNAS_ORDEN, (v, step, done, total) -> {
+                            if (done >= corte) throw new IllegalStateException("corte simulado");
+                        });
+                fail("se esperaba la interrupción");
+            } catch (IllegalStateException esperado) {
+                // La copia parcial queda confirmada en la tabla temporal
+            }
+            assertEquals(corte, DatabaseUtils.queryNumEntries(db,
+                    TallerDbHelper.T_ORDEN + SchemaMigrator.REBUILD_SUFFIX));
+            assertEquals(ORDENES, DatabaseUtils.queryNumEntries(db, TallerDbHelper.T_ORDEN));
+
+            final long[] primero = {-1};
+            long filas = SchemaMigrator.copyAndSwap(db, 0, TallerDbHelper.T_ORDEN, CREATE_ORDEN,
+                    COLUMNAS_ORDEN, COLUMNAS_ORDEN, (v, step, done, total) -> {
+                        if (primero[0] < 0) primero[0] = done;
+                    });
+
+            assertEquals(corte, primero[0]);
+            assertEquals(ORDENES, filas);
+            assertEquals(checksum, checksumOrdenes(db));
+        } finally {
+            db.close();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Test: upgrade_conReconstruccion_reanudaAlReabrir
+    //    - El último paso registrado se reemplaza por uno igual que además
+    //      reconstruye orden_trabajo (rebuild). La primera apertura se
+    //      corta a mitad de copia: la versión y los lotes copiados quedan
+    //      confirmados y el paso, pendiente. La segunda reanuda desde ahí.
+    // ------------------------------------------------------------------
+    @Test
+    public void upgrade_conReconstruccion_reanudaAlReabrir() {
+        SQLiteDatabase base = crearBasePoblada();
+        long checksum = checksumOrdenes(base);
+        base.close();
+
+        final long corte = 5L * SchemaMigrator.COPY_BATCH;
+        final boolean[] cortar = { true };
+        final long[] primero = { -1 };
+        List<Migration> pasos = new ArrayList<>(SchemaMigrator.getMigrations());
+        final Migration ultimo = pasos.remove(pasos.size() - 1);
+        pasos.add(new Migration(ultimo.fromVersion, ultimo.description + " + reconstrucción de órdenes") {
+            @Override
+            public void migrate(SQLiteDatabase db, SchemaMigrator.ProgressListener listener) {
+                ultimo.migrate(db, listener);
+            }
+
+            @Override
+            public boolean hasRebuild() {
+                return true;
+            }
+
+            @Override
+            public void rebuild(SQLiteDatabase db, SchemaMigrator.ProgressListener listener) {
+                assertTrue("rebuild dentro de una transacción", !db.inTransaction());
+                List<String> extras = indicesYTriggers(db, TallerDbHelper.T_ORDEN);
+                SchemaMigrator.copyAndSwap(db, fromVersion, TallerDbHelper.T_ORDEN, CREATE_ORDEN,
+                        COLUMNAS_ORDEN, COLUMNAS_ORDEN, (v, step, done, total) -> {
+                            if (primero[0] < 0) primero[0] = done;
+                            if (cortar[0] && done >= corte) throw new IllegalStateException("corte simulado");
+                        });
+                for (String sql : extras) db.execSQL(sql);
+            }
+        });
+        List<Migration> anterior = SchemaMigrator.install(pasos);
+        try {
+            TallerDatabase database = TallerDatabase.forTesting(ctx, DB_TEST);
+            try {
+                database.getWritableDatabase();
+                fail("se esperaba la interrupción");
+            } catch (IllegalStateException esperado) {
+                // onOpen falló; onUpgrade ya estaba confirmado
+            } finally {
+                database.close();
+            }
+
+            SQLiteDatabase raw = SQLiteDatabase.openDatabase(ctx.getDatabasePath(DB_TEST).getPath(), null,
+                    SQLiteDatabase.OPEN_READWRITE);
+            try {
+                assertEquals(TallerDbHelper.DB_VERSION, raw.getVersion());
+                assertEquals(corte, DatabaseUtils.queryNumEntries(raw,
+                        TallerDbHelper.T_ORDEN + SchemaMigrator.REBUILD_SUFFIX));
+                assertEquals(1, pendiente(raw));
+            } finally {
+                raw.close();
+            }
+
+            cortar[0] = false;
+            primero[0] = -1;
+            long t0 = SystemClock.elapsedRealtime();
+            database = TallerDatabase.forTesting(ctx, DB_TEST);
+            try {
+                SQLiteDatabase db = database.getWritableDatabase();
+                long ms = SystemClock.elapsedRealtime() - t0;
+                Log.i(TAG, String.format(Locale.US, "reapertura con reconstrucción pendiente: %d ms", ms));
+
+                assertEquals(corte, primero[0]);
+                assertEquals(ORDENES, DatabaseUtils.queryNumEntries(db, TallerDbHelper.T_ORDEN));
+                assertEquals(checksum, checksumOrdenes(db));
+                assertEquals(0, pendiente(db));
+                assertEquals(0, DatabaseUtils.longForQuery(db,
+                        "SELECT COUNT(*) FROM sqlite_master WHERE name = ?",
+                        new String[]{ TallerDbHelper.T_ORDEN + SchemaMigrator.REBUILD_SUFFIX }));
+                assertEquals(1, DatabaseUtils.longForQuery(db,
+                        "SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name = ?",
+                        new String[]{ TallerDbHelper.IDX_ORDEN_PATENTE_ID }));
+                assertTrue(SummaryTables.check(db).toString(), SummaryTables.check(db).isEmpty());
+                assertTrue("reapertura demasiado lenta: " + ms + " ms", ms < MAX_MS_COPY_AND_SWAP);
+            } finally {
+                database.close();
+            }
+        } finally {
+            SchemaMigrator.install(anterior);
+        }
+    }
+
+    // ============================ APOYO ================================
+
+    // SQL de los índices y triggers propios de la tabla (el DROP de
+    // copyAndSwap se los lleva).
+    private static List<String> indicesYTriggers(SQLiteDatabase db, String table) {
+        List<String> out = new ArrayList<>();
+        try (Cursor c = db.rawQuery("SELECT sql FROM sqlite_master WHERE tbl_name = ?" +
+                " AND type IN ('index', 'trigger') AND sql IS NOT NULL", new String[]{ table })) {
+            while (c.moveToNext()) out.add(c.getString(0));
+        }
+        return out;
+    }
+
+    private static long pendiente(SQLiteDatabase db) {
+        return DatabaseUtils.longForQuery(db, "SELECT pendiente FROM " + SchemaMigrator.T_BITACORA +
+                " WHERE version = ?", new String[]{ String.valueOf(TallerDbHelper.DB_VERSION) });
+    }
+
+    // Crea el archivo con el esquema base (v16) y lo puebla en una sola
+    // transacción; deja la conexión abierta sin claves foráneas.
+    private SQLiteDatabase crearBasePoblada() {
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(ctx.getDatabasePath(DB_TEST), null);
+        TallerDbHelper.createBaseSchema(db);
+        db.beginTransaction();
+        try {
+            SQLiteStatement persona = db.compileStatement("INSERT INTO " + TallerDbHelper.T_PERSONA +
+                    " VALUES (1, 'mig@taller.cl', 'Mig', 'Dueño', 'x', 'cliente')");
+            persona.executeInsert();
+            persona.close();
+
+            SQLiteStatement vehiculo = db.compileStatement("INSERT INTO " + TallerDbHelper.T_VEHICULO +
+                    " VALUES (?, 'Gris', 'Modelo', 1)");
+            for (int i = 0; i < VEHICULOS; i++) {
+                vehiculo.bindString(1, patente(i));
+                vehiculo.executeInsert();
+            }
+            vehiculo.close();
+
+            SQLiteStatement orden = db.compileStatement("INSERT INTO " + TallerDbHelper.T_ORDEN +
+                    " (" + TallerDbHelper.O_NUMERO + ", " + TallerDbHelper.O_FECHA + ", " +
+                    TallerDbHelper.O_VALOR_NETO + ", " + TallerDbHelper.O_IVA + ", " +
+                    TallerDbHelper.O_OBSERVACION + ", " + TallerDbHelper.O_PATENTE + ")" +
+                    " VALUES (?, '2025-01-01', ?, ?, 'migración', ?)");
+            for (int i = 0; i < ORDENES; i++) {
+                orden.bindString(1, "OT-" + i);
+                orden.bindDouble(2, 1000 + i % 997);
+                orden.bindDouble(3, (1000 + i % 997) * 0.19);
+                orden.bindString(4, patente(i % VEHICULOS));
+                orden.executeInsert();
+            }
+            orden.close();
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        db.setVersion(SchemaMigrator.BASE_VERSION);
+        return db;
+    }
+
+    private static String patente(int i) {
+        return String.format(Locale.ROOT, "MG%04d", i);
+    }
+
+    private static long checksumOrdenes(SQLiteDatabase db) {
+        return DatabaseUtils.longForQuery(db, "SELECT TOTAL(" + TallerDbHelper.O_ID + " * 31 + LENGTH(" +
+                TallerDbHelper.O_NUMERO + ") + " + TallerDbHelper.O_VALOR_NETO + ") FROM " +
+                TallerDbHelper.T_ORDEN, null);
+    }
+
+    // Inserta una orden sin id explícito y devuelve el id asignado.
+    private static long insertarOrden(SQLiteDatabase db) {
+        SQLiteStatement st = db.compileStatement("INSERT INTO " + TallerDbHelper.T_ORDEN +
+                " (" + TallerDbHelper.O_NUMERO + ", " + TallerDbHelper.O_PATENTE + ") VALUES ('nueva', ?)");
+        try {
+            st.bindString(1, patente(0));
+            return st.executeInsert();
+        } finally {
+            st.close();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.Persona;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: SearchBenchmark
+// == Rol:
+//    - Carga 1M personas (el índice FTS se llena por los triggers) y mide
+//      searchByTipo con los textos que produce escribir letra a letra:
+//      prefijos cortos y muy comunes, prefijos raros y varias palabras.
+//    - Reporta en Logcat (tag "SearchBench") la mediana y el peor caso
+//      de REPETICIONES consultas por texto.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class SearchBenchmark {
+
+    private static final String TAG = "SearchBench";
+    private static final String DB_BENCH = "bench_search.db";
+    private static final int PERSONAS = 1_000_000;
+    private static final int REPETICIONES = 15;
+    private static final long MAX_MS_MEDIANA = 100;
+
+    private static final String[] NOMBRES = { "José", "María", "Juan", "Pedro", "Ana",
+            "Luis", "Carla", "Jorge", "Sofía", "Diego" };
+    private static final String[] APELLIDOS = { "González", "Muñoz", "Rojas", "Díaz", "Pérez",
+            "Soto", "Contreras", "Silva", "Martínez", "Sepúlveda" };
+
+    private Context ctx;
+    private TallerDatabase database;
+    private PersonaRepository personas;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_BENCH);
+        database = TallerDatabase.forTesting(ctx, DB_BENCH);
+        personas = new PersonaRepository(database);
+        long t0 = SystemClock.elapsedRealtime();
+        BulkResult r = personas.insertAll(generar(PERSONAS));
+        Log.i(TAG, String.format(Locale.US, "carga de %d personas con índice FTS: %d ms",
+                PERSONAS, SystemClock.elapsedRealtime() - t0));
+        assertEquals(PERSONAS, r.inserted);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        ctx.deleteDatabase(DB_BENCH);
+    }
+
+    @Test
+    public void searchByTipo_1M() {
+        for (String texto : Arrays.asList("jo", "jos", "jose", "jose 12", "gonz jua",
+                "sepulveda", "p99999", "zz")) {
+            long[] ms = new long[REPETICIONES];
+            int hits = 0;
+            for (int i = 0; i < REPETICIONES; i++) {
+                long t0 = SystemClock.elapsedRealtimeNanos();
+                hits = personas.searchByTipo("cliente", texto, 0, OrdenRepository.PAGE_SIZE).size();
+                ms[i] = (SystemClock.elapsedRealtimeNanos() - t0) / 1_000_000;
+            }
+            Arrays.sort(ms);
+            long mediana = ms[REPETICIONES / 2];
+            Log.i(TAG, String.format(Locale.US, "\"%s\" | %d hits | mediana %d ms | peor %d ms",
+                    texto, hits, mediana, ms[REPETICIONES - 1]));
+            assertTrue("búsqueda \"" + texto + "\" lenta: " + mediana + " ms", mediana < MAX_MS_MEDIANA);
+        }
+    }
+
+    // Personas generadas bajo demanda (sin 1M objetos a la vez); 4 de
+    // cada 5 son clientes. Los trabajadores llevan una contraseña ya
+    // derivada (una sola derivación para toda la carga).
+    private static List<Persona> generar(final int n) {
+        final String clave = new PasswordHasher(PasswordHasher.DEFAULT_ITERATIONS).hash("x");
+        return new AbstractList<Persona>() {
+            @Override
+            public Persona get(int i) {
+                int run = i + 1;
+                return new Persona(run, "p" + run + "@taller.cl", NOMBRES[run % 10] + " " + (run % 977),
+                        APELLIDOS[(run / 10) % 10], clave, run % 5 == 0 ? "trabajador" : "cliente");
+            }
+
+            @Override
+            public int size() {
+                return n;
+            }
+        };
+    }
+}
@@ -0,0 +1,161 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: SearchIndexTest
+// == Rol:
+//    - Verifica que los triggers mantienen persona_fts, vehiculo_fts y
+//      orden_fts al día (alta, edición, borrado y cascadas), el ranking
+//      por columna, la paginación del ranking y la normalización del
+//      texto de búsqueda.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class SearchIndexTest {
+
+    private static final String DB_TEST = "test_search.db";
+
+    private Context ctx;
+    private TallerDatabase database;
+    private PersonaRepository personas;
+    private VehiculoRepository vehiculos;
+    private OrdenRepository ordenes;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_TEST);
+        database = TallerDatabase.forTesting(ctx, DB_TEST);
+        personas = new PersonaRepository(database);
+        vehiculos = new VehiculoRepository(database);
+        ordenes = new OrdenRepository(database);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        ctx.deleteDatabase(DB_TEST);
+    }
+
+    @Test
+    public void matchQuery_normalizaTexto() {
+        assertEquals("gonz* jua*", SearchIndex.matchQuery("  Gonz, JUA "));
+        assertEquals("ab* 12*", SearchIndex.matchQuery("AB-12"));
+        assertEquals("or*", SearchIndex.matchQuery("OR"));
+        assertNull(SearchIndex.matchQuery(null));
+        assertNull(SearchIndex.matchQuery(" \"*( "));
+        assertNull(SearchIndex.matchQuery("a"));
+    }
+
+    @Test
+    public void personas_triggersSiguenAltaEdicionYBorrado() {
+        personas.insert(new Persona(1, "uno@taller.cl", "José", "González", "x", "cliente"));
+        personas.insert(new Persona(2, "dos@taller.cl", "Juana", "Pérez", "x", "trabajador"));
+
+        // Tildes y mayúsculas no importan; el tipo filtra.
+        assertEquals(1, personas.searchByTipo("cliente", "jose gonz", 0, 10).size());
+        assertEquals(0, personas.searchByTipo("cliente", "juana", 0, 10).size());
+        assertEquals(1, personas.searchByTipo("trabajador", "juana", 0, 10).size());
+
+        Persona p = personas.getByRun(1);
+        p.nombre = "Zacarías";
+        personas.update(p);
+        assertEquals(0, personas.searchByTipo("cliente", "jose", 0, 10).size());
+        assertEquals(1, personas.searchByTipo("cliente", "zacarias", 0, 10).size());
+
+        personas.deleteByRun(1);
+        assertEquals(0, personas.searchByTipo("cliente", "zacarias", 0, 10).size());
+        assertIntegro();
+    }
+
+    @Test
+    public void ordenes_cascadaDeVehiculoLimpiaIndice() {
+        personas.insert(new Persona(1, "uno@taller.cl", "Ana", "Soto", "x", "cliente"));
+        vehiculos.insert(new Vehiculo("ABCD12", "Rojo", "Corolla", 1));
+        ordenes.insert(new OrdenTrabajo(0, "OT-77", "2025-01-01", 1000, 190, "cambio de frenos", "ABCD12"));
+
+        assertEquals(1, vehiculos.search("abcd", null, 0, 10).size());
+        assertEquals(1, vehiculos.search("corolla", 1, 0, 10).size());
+        assertEquals(0, vehiculos.search("corolla", 2, 0, 10).size());
+        assertEquals(1, ordenes.search("frenos", "ABCD12", 0, 10).size());
+
+        vehiculos.delete("ABCD12");
+        assertEquals(0, vehiculos.search("abcd", null, 0, 10).size());
+        assertEquals(0, ordenes.search("frenos", null, 0, 10).size());
+        assertIntegro();
+    }
+
+    @Test
+    public void ranking_nombrePesaMasQueEmail() {
+        // Más reciente (run mayor) pero solo coincide por email.
+        personas.insert(new Persona(1, "a@taller.cl", "Marcos", "Rojas", "x", "cliente"));
+        personas.insert(new Persona(2, "marcos@taller.cl", "Luis", "Díaz", "x", "cliente"));
+
+        List<Persona> r = personas.searchByTipo("cliente", "marcos", 0, 10);
+        assertEquals(2, r.size());
+        assertEquals(1, r.get(0).run);
+    }
+
+    @Test
+    public void paginas_delRankingSinDuplicados() {
+        List<Persona> lote = new ArrayList<>();
+        for (int i = 1; i <= 120; i++) {
+            lote.add(new Persona(i, "p" + i + "@taller.cl", i % 2 == 0 ? "Pedro" : "Pedro Pablo",
+                    "Muñoz", "x", "cliente"));
+        }
+        personas.insertAll(lote);
+
+        List<Persona> todo = personas.searchByTipo("cliente", "pedro", 0, 1000);
+        assertEquals(120, todo.size());
+        Set<Integer> vistos = new HashSet<>();
+        for (int offset = 0; offset < 120; offset += 25) {
+            List<Persona> pagina = personas.searchByTipo("cliente", "pedro", offset, 25);
+            for (int i = 0; i < pagina.size(); i++) {
+                assertEquals(todo.get(offset + i).run, pagina.get(i).run);
+                assertTrue(vistos.add(pagina.get(i).run));
+            }
+        }
+        assertEquals(120, vistos.size());
+    }
+
+    @Test
+    public void rebuild_conservaResultados() {
+        personas.insert(new Persona(1, "uno@taller.cl", "Carla", "Silva", "x", "cliente"));
+        vehiculos.insert(new Vehiculo("ZZ9900", "Azul", "Yaris", 1));
+        SearchIndex.rebuild(database.getWritableDatabase());
+        assertEquals(1, personas.searchByTipo("cliente", "carla", 0, 10).size());
+        assertEquals(1, vehiculos.search("yaris", null, 0, 10).size());
+        assertIntegro();
+    }
+
+    // Comando integrity-check de FTS4: falla si el índice no coincide
+    // con el contenido de su tabla.
+    private void assertIntegro() {
+        SQLiteDatabase db = database.getWritableDatabase();
+        for (String fts : new String[]{ SearchIndex.FTS_PERSONA, SearchIndex.FTS_VEHICULO, SearchIndex.FTS_ORDEN }) {
+            db.execSQL("INSERT INTO " + fts + "(" + fts + ") VALUES('integrity-check')");
+        }
+    }
+}
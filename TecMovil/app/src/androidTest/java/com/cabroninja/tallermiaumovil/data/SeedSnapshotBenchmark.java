@@ -0,0 +1,195 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: SeedSnapshotBenchmark
+// == Rol:
+//    - Compara el primer arranque con datos de referencia grandes
+//      (CLIENTES clientes con un vehículo cada uno y ORDENES órdenes):
+//        * inserciones: onCreate + insertAll por tabla (lo que hace
+//          DbSeeder hoy);
+//        * snapshot   : SeedSnapshot copia y verifica un archivo ya
+//          armado con esos mismos datos y lo abre.
+//      Mide desde "no existe el archivo" hasta la DB abierta y poblada.
+//    - Verifica que un snapshot con hash o versión incorrectos se
+//      rechaza sin dejar archivos y la DB se crea vacía.
+//    - Reporta en Logcat (tag "SeedSnapshotBench").
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class SeedSnapshotBenchmark {
+
+    private static final String TAG = "SeedSnapshotBench";
+    private static final String DB_REF = "bench_seed_ref.db";
+    private static final String DB_TARGET = "bench_seed_target.db";
+    private static final String MANIFEST = "bench_seed.properties";
+
+    private static final int CLIENTES = 2_000;
+    private static final int ORDENES = 20_000;
+    private static final int REPETICIONES = 3;
+
+    private Context ctx;
+    private File referencia;
+    private File manifiesto;
+
+    // Lee el snapshot desde archivos (rutas absolutas) en vez de assets.
+    private static final SeedSnapshot.Source ARCHIVOS = (c, path) -> {
+        File f = new File(path);
+        return f.exists() ? new FileInputStream(f) : null;
+    };
+
+    @Before
+    public void setUp() throws IOException {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_REF);
+        ctx.deleteDatabase(DB_TARGET);
+
+        // Snapshot de referencia en modo rollback (sin -wal), como el asset.
+        TallerDatabase ref = TallerDatabase.forTesting(ctx, DB_REF, DbPerfProfile.COMPATIBLE);
+        cargar(ref);
+        ref.close();
+        referencia = ctx.getDatabasePath(DB_REF);
+        manifiesto = new File(ctx.getFilesDir(), MANIFEST);
+        escribirManifiesto(TallerDbHelper.DB_VERSION, sha256(referencia));
+    }
+
+    @After
+    public void tearDown() {
+        ctx.deleteDatabase(DB_REF);
+        ctx.deleteDatabase(DB_TARGET);
+        assertTrue(!manifiesto.exists() || manifiesto.delete());
+    }
+
+    @Test
+    public void primerArranque_snapshotVsInserciones() {
+        long[] inserciones = new long[REPETICIONES];
+        long[] snapshot = new long[REPETICIONES];
+        for (int i = 0; i < REPETICIONES; i++) {
+            ctx.deleteDatabase(DB_TARGET);
+            long t0 = SystemClock.elapsedRealtime();
+            TallerDatabase db = TallerDatabase.forTesting(ctx, DB_TARGET);
+            db.getWritableDatabase();
+            cargar(db);
+            inserciones[i] = SystemClock.elapsedRealtime() - t0;
+            db.close();
+
+            ctx.deleteDatabase(DB_TARGET);
+            t0 = SystemClock.elapsedRealtime();
+            db = TallerDatabase.forTesting(ctx, DB_TARGET, snapshotDePrueba());
+            db.getWritableDatabase();
+            snapshot[i] = SystemClock.elapsedRealtime() - t0;
+            assertEquals(SeedSnapshot.Result.INSTALLED, db.getHelper().getSeedResult());
+            assertEquals(ORDENES, contar(db, TallerDbHelper.T_ORDEN));
+            db.close();
+        }
+        Arrays.sort(inserciones);
+        Arrays.sort(snapshot);
+        long a = inserciones[REPETICIONES / 2];
+        long b = snapshot[REPETICIONES / 2];
+        Log.i(TAG, String.format(Locale.US,
+                "primer arranque (%d clientes, %d OTs, %d KiB): inserciones %d ms | snapshot %d ms | %.1fx",
+                CLIENTES, ORDENES, referencia.length() / 1024, a, b, b == 0 ? 0.0 : (double) a / b));
+        assertTrue("snapshot " + b + " ms no supera a inserciones " + a + " ms", b < a);
+    }
+
+    @Test
+    public void snapshotInvalido_seRechazaYCreaVacia() throws IOException {
+        String sha = sha256(referencia);
+        String[][] casos = {
+                { String.valueOf(TallerDbHelper.DB_VERSION), sha.replace(sha.charAt(0), sha.charAt(0) == '0' ? '1' : '0') },
+                { String.valueOf(TallerDbHelper.DB_VERSION + 1), sha },
+                { String.valueOf(TallerDbHelper.DB_VERSION - 1), sha },   // user_version no coincide
+        };
+        for (String[] caso : casos) {
+            escribirManifiesto(Integer.parseInt(caso[0]), caso[1]);
+            ctx.deleteDatabase(DB_TARGET);
+            TallerDatabase db = TallerDatabase.forTesting(ctx, DB_TARGET, snapshotDePrueba());
+            db.getWritableDatabase();
+            assertEquals(SeedSnapshot.Result.REJECTED, db.getHelper().getSeedResult());
+            assertEquals(0, contar(db, TallerDbHelper.T_PERSONA));
+            assertFalse(new File(ctx.getDatabasePath(DB_TARGET).getPath() + ".seed-tmp").exists());
+            db.close();
+        }
+    }
+
+    // ============================ APOYO ================================
+
+    private SeedSnapshot snapshotDePrueba() {
+        return new SeedSnapshot(ARCHIVOS, referencia.getPath(), manifiesto.getPath());
+    }
+
+    private static void cargar(TallerDatabase db) {
+        List<Persona> personas = new ArrayList<>(CLIENTES);
+        List<Vehiculo> vehiculos = new ArrayList<>(CLIENTES);
+        for (int i = 1; i <= CLIENTES; i++) {
+            personas.add(new Persona(i, "cliente" + i + "@demo.cl", "Cliente", "N" + i, "x", "cliente"));
+            vehiculos.add(new Vehiculo(patente(i), "Gris", "Modelo " + (i % 40), i));
+        }
+        List<OrdenTrabajo> ordenes = new ArrayList<>(ORDENES);
+        for (int i = 0; i < ORDENES; i++) {
+            ordenes.add(new OrdenTrabajo(0, String.format(Locale.US, "OT-%06d", i),
+                    String.format(Locale.US, "2025-%02d-%02d", 1 + i % 12, 1 + i % 28),
+                    10_000 + i, 1_900 + i, "Servicio " + (i % 15), patente(1 + i % CLIENTES)));
+        }
+        new PersonaRepository(db).insertAll(personas);
+        new VehiculoRepository(db).insertAll(vehiculos);
+        new OrdenRepository(db).insertAll(ordenes);
+    }
+
+    private static String patente(int i) {
+        return String.format(Locale.US, "SD%04d", i);
+    }
+
+    private void escribirManifiesto(int version, String sha) throws IOException {
+        Properties p = new Properties();
+        p.setProperty(SeedSnapshot.KEY_VERSION, String.valueOf(version));
+        p.setProperty(SeedSnapshot.KEY_SHA256, sha);
+        try (OutputStream out = new FileOutputStream(manifiesto)) {
+            p.store(out, null);
+        }
+    }
+
+    private static String sha256(File f) throws IOException {
+        try (InputStream in = new FileInputStream(f)) {
+            return SeedSnapshot.sha256Hex(in);
+        }
+    }
+
+    private static int contar(TallerDatabase db, String tabla) {
+        try (Cursor c = db.getReadableDatabase().rawQuery("SELECT COUNT(*) FROM " + tabla, null)) {
+            c.moveToFirst();
+            return c.getInt(0);
+        }
+    }
+}
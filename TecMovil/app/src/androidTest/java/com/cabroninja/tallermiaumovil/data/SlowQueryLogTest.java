@@ -0,0 +1,180 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: SlowQueryLogTest
+// == Rol:
+//    - Con umbral 0 (toda llamada es "lenta") verifica que las
+//      llamadas de los repositorios quedan con SQL, argumentos sin la
+//      contraseña, filas y plan; que el búfer se limita a su capacidad;
+//      y que un registro nuevo sobre la misma carpeta (como tras un
+//      reinicio) recupera las mismas entradas.
+//    - La entrada de un update es la sentencia que corrió, con sus
+//      argumentos; la de una carga masiva avisa que va sin argumentos.
+//    - La consulta no escribe el archivo: lo hace el hilo escritor del
+//      registro, aun si la llamada corre dentro de una transacción.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class SlowQueryLogTest {
+
+    private static final String DB_TEST = "test_slow_query.db";
+    private static final int CAPACIDAD = 5;
+
+    private Context ctx;
+    private TallerDatabase database;
+    private File dir;
+    private SlowQueryLog log;
+    private SlowQueryLog anterior;
+    private long umbralAnterior;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_TEST);
+        database = TallerDatabase.forTesting(ctx, DB_TEST);
+        dir = new File(ctx.getCacheDir(), "slow_query_test");
+        log = new SlowQueryLog(dir, CAPACIDAD);
+        log.clear();
+        anterior = SlowQueryLog.install(log);
+        umbralAnterior = SlowQueryLog.getThresholdMs();
+        SlowQueryLog.setThresholdMs(0);
+        RepoMetrics.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        SlowQueryLog.setThresholdMs(umbralAnterior);
+        SlowQueryLog.install(anterior);
+        log.clear();
+        database.close();
+        ctx.deleteDatabase(DB_TEST);
+    }
+
+    @Test
+    public void registraSqlArgumentosYPlan_sinContrasena() {
+        PersonaRepository personas = new PersonaRepository(database, new PasswordHasher(1_000));
+        personas.insert(new Persona(1, "t@taller.cl", "Tomás", "Rey", "secreta", "trabajador"));
+        personas.getByRun(1);
+
+        List<SlowQueryLog.Entry> entries = log.entries();
+        assertEquals(2, entries.size());
+
+        SlowQueryLog.Entry get = entries.get(0);             // la más reciente
+        assertEquals("PersonaRepository.getByRun", get.op);
+        assertEquals(PersonaRepository.SQL_GET_BY_RUN, get.sql);
+        assertEquals("1", get.args.get(0));
+        assertEquals(Thread.currentThread().getName(), get.thread);
+        assertEquals(1, get.rows);
+        assertTrue(get.plan.toString(), get.plan.get(0).startsWith("SEARCH"));
+
+        SlowQueryLog.Entry insert = entries.get(1);
+        assertEquals("PersonaRepository.insert", insert.op);
+        assertEquals(SlowQueryLog.REDACTED, insert.args.get(4));
+        for (String a : insert.args) {
+            assertFalse(a, a != null && (a.contains("secreta") || PasswordHasher.isHash(a)));
+        }
+    }
+
+    @Test
+    public void updateYCargaMasiva_registranLoQueCorrio() {
+        VehiculoRepository vehiculos = new VehiculoRepository(database);
+        vehiculos.insert(new Vehiculo("SQL001", "Rojo", "A", null));
+        assertEquals(1, vehiculos.update(new Vehiculo("SQL001", "Azul", "B", null)));
+        vehiculos.upsertAll(Collections.singletonList(new Vehiculo("SQL001", "Gris", "C", null)));
+
+        List<SlowQueryLog.Entry> entries = log.entries();
+        SlowQueryLog.Entry upsert = entries.get(0);
+        assertEquals("VehiculoRepository.upsertAll", upsert.op);
+        assertTrue(upsert.args.isEmpty());
+        assertEquals(SlowQueryLog.SIN_ARGS, upsert.plan.get(0));
+
+        SlowQueryLog.Entry update = entries.get(1);
+        assertEquals("VehiculoRepository.update", update.op);
+        assertEquals(VehiculoRepository.SQL_UPDATE_BY_PATENTE, update.sql);
+        assertEquals(Arrays.asList("Azul", "B", null, "SQL001"), update.args);
+        assertFalse(update.plan.contains(SlowQueryLog.SIN_ARGS));
+    }
+
+    @Test
+    public void bufferAcotado_ySobreviveAReinicio() {
+        VehiculoRepository vehiculos = new VehiculoRepository(database);
+        for (int i = 0; i < 3 * CAPACIDAD + 2; i++) vehiculos.count();
+
+        List<SlowQueryLog.Entry> antes = log.entries();
+        assertEquals(CAPACIDAD, antes.size());
+
+        List<SlowQueryLog.Entry> despues = new SlowQueryLog(dir, CAPACIDAD).entries();
+        assertEquals(antes.size(), despues.size());
+        for (int i = 0; i < antes.size(); i++) {
+            assertEquals(antes.get(i).timeMillis, despues.get(i).timeMillis);
+            assertEquals(antes.get(i).sql, despues.get(i).sql);
+            assertEquals(antes.get(i).plan, despues.get(i).plan);
+        }
+
+        int lineas = 0;
+        File[] archivos = dir.listFiles();
+        assertNotNull(archivos);
+        for (File f : archivos) lineas += contarLineas(f);
+        assertTrue("líneas en disco: " + lineas, lineas <= 2 * CAPACIDAD);
+    }
+
+    @Test
+    public void escrituraEnElHiloEscritor_noEnElQueConsulta() throws Exception {
+        VehiculoRepository vehiculos = new VehiculoRepository(database);
+        CountDownLatch soltar = new CountDownLatch(1);
+        log.writer.execute(() -> {
+            try {
+                soltar.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        database.runInTransaction(vehiculos::count);
+        vehiculos.count();
+
+        assertFalse(new File(dir, "actual.jsonl").exists());
+        soltar.countDown();
+        assertEquals(2, log.entries().size());
+        assertTrue(new File(dir, "actual.jsonl").exists());
+    }
+
+    @Test
+    public void umbralApagado_noRegistra() {
+        SlowQueryLog.setThresholdMs(-1);
+        new OrdenRepository(database).count();
+        assertTrue(log.entries().isEmpty());
+    }
+
+    private static int contarLineas(File f) {
+        int n = 0;
+        try (java.io.BufferedReader r = new java.io.BufferedReader(new java.io.FileReader(f))) {
+            while (r.readLine() != null) n++;
+        } catch (java.io.IOException ex) {
+            throw new AssertionError(ex);
+        }
+        return n;
+    }
+}
@@ -0,0 +1,37 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.runner.RunWith;
+
+// ======================================================================
+// == Clase: SqliteTallerStoreTest
+// == Rol:
+//    - Corre TallerStoreConformance sobre SqliteTallerStore (los
+//      repositorios de la app) en una DB de prueba vacía.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class SqliteTallerStoreTest extends TallerStoreConformance {
+
+    private static final String DB_TEST = "test_taller_store.db";
+
+    private Context ctx;
+    private TallerDatabase database;
+
+    @Override
+    protected TallerStore open(PasswordHasher passwords) {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_TEST);
+        database = TallerDatabase.forTesting(ctx, DB_TEST);
+        return new SqliteTallerStore(database, passwords);
+    }
+
+    @Override
+    protected void close() {
+        database.close();
+        ctx.deleteDatabase(DB_TEST);
+    }
+}
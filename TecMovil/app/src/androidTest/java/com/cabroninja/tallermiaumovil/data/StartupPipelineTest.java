@@ -0,0 +1,153 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Looper;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: StartupPipelineTest
+// == Rol:
+//    - Verifica las etapas de arranque sobre una DB de prueba nueva:
+//        * whenReady avisa en el hilo principal con la base sembrada;
+//        * un segundo pipeline sobre la misma base no vuelve a sembrar;
+//        * un callback registrado después de terminar también recibe
+//          el aviso;
+//        * si abrir la base falla, whenReady recibe el error y el
+//          siguiente launch() reintenta.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class StartupPipelineTest {
+
+    private static final String DB_TEST = "test_startup.db";
+
+    private Context ctx;
+    private TallerDatabase database;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_TEST);
+        database = TallerDatabase.forTesting(ctx, DB_TEST);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        ctx.deleteDatabase(DB_TEST);
+    }
+
+    @Test
+    public void pipeline_abreYSiembra_avisaEnHiloPrincipal() throws Exception {
+        StartupPipeline pipeline = new StartupPipeline(database);
+        pipeline.launch();
+        assertNull(esperar(pipeline));
+        assertTrue(pipeline.isReady());
+        assertEquals(4, personas());
+
+        // Ya terminado: el aviso llega igual.
+        assertNull(esperar(pipeline));
+    }
+
+    @Test
+    public void pipeline_baseConDatos_noSiembraDeNuevo() throws Exception {
+        StartupPipeline primero = new StartupPipeline(database);
+        primero.launch();
+        esperar(primero);
+        new PersonaRepository(database).deleteByRun(11111111);
+
+        StartupPipeline segundo = new StartupPipeline(database);
+        segundo.launch();
+        segundo.launch();
+        assertNull(esperar(segundo));
+        assertEquals(3, personas());
+    }
+
+    @Test
+    public void pipeline_fallaAlAbrir_avisaErrorYReintenta() throws Exception {
+        // La carpeta de la base es un archivo: abrirla falla hasta que se
+        // reemplaza por una carpeta de verdad.
+        File carpeta = new File(ctx.getCacheDir(), "startup_reintento");
+        File dbFile = new File(new File(carpeta, "sub"), DB_TEST);
+        borrar(carpeta);
+        new FileOutputStream(carpeta).close();
+
+        TallerDatabase rota = TallerDatabase.forTesting(ctx, dbFile.getPath());
+        try {
+            StartupPipeline pipeline = new StartupPipeline(rota);
+            pipeline.launch();
+            assertNotNull(esperar(pipeline));
+            assertFalse(pipeline.isReady());
+
+            assertTrue(carpeta.delete() && carpeta.mkdirs());
+            pipeline.launch();
+            assertNull(esperar(pipeline));
+            assertTrue(pipeline.isReady());
+        } finally {
+            rota.close();
+            SQLiteDatabase.deleteDatabase(dbFile);
+            borrar(carpeta);
+        }
+    }
+
+    // Borra un archivo o una carpeta con su contenido.
+    private static void borrar(File f) throws IOException {
+        File[] hijos = f.listFiles();
+        if (hijos != null) for (File h : hijos) borrar(h);
+        if (f.exists() && !f.delete()) throw new IOException("No se pudo borrar " + f);
+    }
+
+    // Espera el aviso y devuelve el error recibido (null si terminó bien).
+    private Throwable esperar(StartupPipeline pipeline) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        AtomicBoolean enPrincipal = new AtomicBoolean();
+        pipeline.whenReady(new TallerAsync.Callback<Void>() {
+            @Override
+            public void onResult(Void value) {
+                enPrincipal.set(Looper.myLooper() == Looper.getMainLooper());
+                latch.countDown();
+            }
+
+            @Override
+            public void onError(Throwable ex) {
+                error.set(ex);
+                latch.countDown();
+            }
+        });
+        assertTrue("sin aviso del pipeline", latch.await(10, TimeUnit.SECONDS));
+        if (error.get() == null) assertTrue("aviso fuera del hilo principal", enPrincipal.get());
+        else assertFalse(pipeline.isReady());
+        return error.get();
+    }
+
+    private int personas() {
+        try (Cursor c = database.getReadableDatabase().rawQuery(
+                "SELECT COUNT(*) FROM " + TallerDbHelper.T_PERSONA, null)) {
+            c.moveToFirst();
+            return c.getInt(0);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: SummaryTablesTest
+// == Rol:
+//    - Verifica que los triggers de SummaryTables siguen cada escritura
+//      de los repositorios, incluidas las cascadas (cambio de dueño,
+//      borrado de vehículo y de persona), y que check() detecta y
+//      rebuild() corrige un resumen desalineado.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class SummaryTablesTest {
+
+    private static final String DB_TEST = "test_resumen.db";
+
+    private Context ctx;
+    private TallerDatabase database;
+    private PersonaRepository personas;
+    private VehiculoRepository vehiculos;
+    private OrdenRepository ordenes;
+    private ResumenRepository resumen;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_TEST);
+        database = TallerDatabase.forTesting(ctx, DB_TEST);
+        personas = new PersonaRepository(database);
+        vehiculos = new VehiculoRepository(database);
+        ordenes = new OrdenRepository(database);
+        resumen = new ResumenRepository(database);
+        personas.insert(new Persona(1, "a@taller.cl", "A", "Uno", "x", "cliente"));
+        personas.insert(new Persona(2, "b@taller.cl", "B", "Dos", "x", "cliente"));
+        personas.insert(new Persona(3, "t@taller.cl", "T", "Tres", "x", "trabajador"));
+        vehiculos.insert(new Vehiculo("RES001", "Rojo", "A", 1));
+        vehiculos.insert(new Vehiculo("RES002", "Azul", "B", 2));
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        ctx.deleteDatabase(DB_TEST);
+    }
+
+    @Test
+    public void ordenes_sumanPorMesVehiculoYCliente() {
+        long id = ordenes.insert(orden(0, "2025-03-10", 1000, 190, "RES001"));
+        ordenes.insert(orden(0, "2025-03-20", 500, 95, "RES001"));
+        ordenes.insert(orden(0, "2025-04-01", 200, 38, "RES002"));
+
+        assertIngresos(2, 178_500, resumen.porMes("2025-03"));
+        assertIngresos(2, 178_500, resumen.porVehiculo("RES001"));
+        assertIngresos(1, 23_800, resumen.porCliente(2));
+        Map<String, Ingresos> meses = resumen.porMeses("2025-01", "2025-12");
+        assertEquals(2, meses.size());
+
+        // Cambio de monto y de vehículo: sale de RES001/cliente 1.
+        ordenes.update(orden(id, "2025-04-15", 2000, 380, "RES002"));
+        assertIngresos(1, 59_500, resumen.porMes("2025-03"));
+        assertIngresos(2, 261_800, resumen.porMes("2025-04"));
+        assertIngresos(1, 59_500, resumen.porCliente(1));
+        assertIngresos(2, 261_800, resumen.porCliente(2));
+        assertTrue(resumen.verify().isEmpty());
+    }
+
+    @Test
+    public void cascadas_muevenTotales() {
+        ordenes.insert(orden(0, "2025-05-01", 100, 19, "RES001"));
+        ordenes.insert(orden(0, "2025-05-02", 100, 19, "RES002"));
+
+        // Cambio de dueño: RES001 pasa del cliente 1 al 2.
+        vehiculos.update(new Vehiculo("RES001", "Rojo", "A", 2));
+        assertSame(Ingresos.CERO, resumen.porCliente(1));
+        assertIngresos(2, 23_800, resumen.porCliente(2));
+
+        // Borrar la persona deja sus vehículos sin dueño (SET NULL).
+        personas.deleteByRun(2);
+        assertSame(Ingresos.CERO, resumen.porCliente(2));
+        assertEquals(1, resumen.countByTipo("cliente"));
+        assertIngresos(1, 11_900, resumen.porVehiculo("RES001"));
+
+        // Borrar un vehículo borra sus OTs (CASCADE).
+        vehiculos.delete("RES001");
+        assertSame(Ingresos.CERO, resumen.porVehiculo("RES001"));
+        assertIngresos(1, 11_900, resumen.porMes("2025-05"));
+        assertTrue(resumen.verify().isEmpty());
+    }
+
+    @Test
+    public void conteoPorTipo_igualAlDePersonaRepository() {
+        personas.upsertAll(Collections.singletonList(new Persona(1, "a@taller.cl", "A", "Uno", "x", "trabajador")));
+        for (String tipo : new String[]{ "cliente", "trabajador" }) {
+            assertEquals(tipo, personas.countByTipo(tipo), resumen.countByTipo(tipo));
+        }
+    }
+
+    @Test
+    public void check_detectaYRebuildCorrige() {
+        ordenes.insert(orden(0, "2025-06-01", 100, 19, "RES001"));
+        database.getWritableDatabase().execSQL("UPDATE " + SummaryTables.T_MES +
+                " SET " + SummaryTables.R_TOTAL + " = 1");
+        database.getWritableDatabase().execSQL("DELETE FROM " + SummaryTables.T_TIPO);
+        assertFalse(resumen.verify().isEmpty());
+
+        resumen.rebuild();
+        assertTrue(resumen.verify().toString(), resumen.verify().isEmpty());
+        assertIngresos(1, 11_900, resumen.porMes("2025-06"));
+        assertEquals(2, resumen.countByTipo("cliente"));
+    }
+
+    // ============================ APOYO ================================
+
+    private static OrdenTrabajo orden(long id, String fecha, double neto, double iva, String patente) {
+        return new OrdenTrabajo(id, "OT", fecha, neto, iva, "", patente);
+    }
+
+    private static void assertIngresos(int ordenes, long centavos, Ingresos actual) {
+        assertEquals("ordenes", ordenes, actual.ordenes);
+        assertEquals("centavos", centavos, actual.centavos);
+    }
+}
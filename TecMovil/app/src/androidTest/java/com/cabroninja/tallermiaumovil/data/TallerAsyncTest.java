@@ -0,0 +1,175 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Looper;
+import android.os.OperationCanceledException;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: TallerAsyncTest
+// == Rol:
+//    - Verifica el contrato de la fachada asíncrona con un dueño de
+//      ciclo de vida controlado por el test (sin Activity real):
+//        * las tareas corren fuera del hilo principal y el resultado
+//          llega en el hilo principal;
+//        * dos pedidos con la misma clave ejecutan una sola tarea;
+//        * tras ON_DESTROY no se entrega ningún resultado;
+//        * ON_DESTROY corta la consulta SQLite que ya corre.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class TallerAsyncTest {
+
+    private Instrumentation inst;
+    private Dueno dueno;
+    private TallerAsync async;
+
+    // Contexto + LifecycleOwner mínimo para TallerAsync.bind.
+    private static final class Dueno extends ContextWrapper implements LifecycleOwner {
+        final LifecycleRegistry registry = new LifecycleRegistry(this);
+
+        Dueno(Context base) {
+            super(base);
+        }
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return registry;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        inst = InstrumentationRegistry.getInstrumentation();
+        inst.runOnMainSync(() -> {
+            dueno = new Dueno(inst.getTargetContext());
+            dueno.registry.setCurrentState(Lifecycle.State.RESUMED);
+            async = TallerAsync.bind(dueno);
+        });
+    }
+
+    @Test
+    public void load_correEnFondoYEntregaEnPrincipal() throws Exception {
+        final CountDownLatch listo = new CountDownLatch(1);
+        final boolean[] tareaEnPrincipal = {true};
+        final boolean[] entregaEnPrincipal = {false};
+
+        inst.runOnMainSync(() -> async.load("hilos", () -> {
+            tareaEnPrincipal[0] = Looper.getMainLooper().isCurrentThread();
+            return 1;
+        }, v -> {
+            entregaEnPrincipal[0] = Looper.getMainLooper().isCurrentThread();
+            listo.countDown();
+        }));
+
+        assertTrue(listo.await(5, TimeUnit.SECONDS));
+        assertFalse(tareaEnPrincipal[0]);
+        assertTrue(entregaEnPrincipal[0]);
+    }
+
+    @Test
+    public void load_mismaClave_ejecutaUnaSolaVez() throws Exception {
+        final CountDownLatch soltar = new CountDownLatch(1);
+        final CountDownLatch entregas = new CountDownLatch(3);
+        final AtomicInteger ejecuciones = new AtomicInteger();
+
+        inst.runOnMainSync(() -> {
+            for (int i = 0; i < 3; i++) {
+                async.load("duplicada", () -> {
+                    ejecuciones.incrementAndGet();
+                    soltar.await();
+                    return 42;
+                }, v -> {
+                    assertEquals(42, (int) v);
+                    entregas.countDown();
+                });
+            }
+            assertTrue(async.isLoading("duplicada"));
+        });
+        soltar.countDown();
+
+        assertTrue(entregas.await(5, TimeUnit.SECONDS));
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    public void onDestroy_descartaResultadosPendientes() throws Exception {
+        final CountDownLatch soltar = new CountDownLatch(1);
+        final AtomicInteger entregas = new AtomicInteger();
+
+        inst.runOnMainSync(() -> async.load("lenta", () -> {
+            soltar.await(2, TimeUnit.SECONDS);
+            return 1;
+        }, v -> entregas.incrementAndGet()));
+
+        inst.runOnMainSync(() -> dueno.registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY));
+        soltar.countDown();
+        Thread.sleep(200);
+        inst.waitForIdleSync();
+
+        assertEquals(0, entregas.get());
+        inst.runOnMainSync(() -> assertFalse(async.isLoading("lenta")));
+    }
+
+    @Test
+    public void onDestroy_cortaConsultaEnCurso() throws Exception {
+        final String dbName = "test_async_cancel.db";
+        final Context ctx = inst.getTargetContext();
+        ctx.deleteDatabase(dbName);
+        final TallerDatabase database = TallerDatabase.forTesting(ctx, dbName);
+        final CountDownLatch empezo = new CountDownLatch(1);
+        final CountDownLatch termino = new CountDownLatch(1);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        try {
+            final SQLiteDatabase db = database.getReadableDatabase();
+            // Minutos de CPU en SQLite si nadie la corta.
+            inst.runOnMainSync(() -> async.load("eterna", () -> {
+                empezo.countDown();
+                try (Cursor c = db.rawQuery("WITH RECURSIVE n(x) AS (SELECT 1 UNION ALL"
+                        + " SELECT x + 1 FROM n WHERE x < 10000000000) SELECT count(*) FROM n",
+                        null, QuerySignal.current())) {
+                    c.moveToFirst();
+                    return c.getLong(0);
+                } catch (Throwable t) {
+                    error.set(t);
+                    throw t;
+                } finally {
+                    termino.countDown();
+                }
+            }, v -> { }));
+
+            assertTrue(empezo.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            inst.runOnMainSync(() -> dueno.registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY));
+
+            assertTrue(termino.await(5, TimeUnit.SECONDS));
+            assertTrue(error.get() instanceof OperationCanceledException);
+        } finally {
+            database.close();
+            ctx.deleteDatabase(dbName);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: TallerBackupBenchmark
+// == Rol:
+//    - Respalda una base con 1M de OTs y la restaura en otra vacía.
+//      Meta: cada paso en segundos (< 15 s), no minutos.
+//    - Verifica la restauración con agregados de orden_trabajo
+//      (conteo, sumas de id/montos/largos de texto) y con
+//      SummaryTables.check.
+//    - Reporta en Logcat (tag "BackupBench").
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class TallerBackupBenchmark {
+
+    private static final String TAG = "BackupBench";
+    private static final String DB_ORIGEN = "bench_backup_origen.db";
+    private static final String DB_DESTINO = "bench_backup_destino.db";
+    private static final int N = 1_000_000;
+    private static final int PATENTES = 2_000;
+    private static final long META_NS = 15_000_000_000L;
+
+    private static final String SQL_HUELLA =
+            "SELECT COUNT(*), SUM(id), TOTAL(valor_neto), TOTAL(iva), TOTAL(LENGTH(numero))," +
+            " TOTAL(LENGTH(observacion)), TOTAL(LENGTH(patente)) FROM " + TallerDbHelper.T_ORDEN;
+
+    private Context ctx;
+    private TallerDatabase origen;
+    private TallerDatabase destino;
+    private File file;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_ORIGEN);
+        ctx.deleteDatabase(DB_DESTINO);
+        origen = TallerDatabase.forTesting(ctx, DB_ORIGEN);
+        destino = TallerDatabase.forTesting(ctx, DB_DESTINO);
+        file = new File(ctx.getCacheDir(), "bench.tmbk");
+        List<Vehiculo> vehiculos = new ArrayList<>(PATENTES);
+        for (int i = 0; i < PATENTES; i++) vehiculos.add(new Vehiculo(patente(i), "rojo", "Modelo" + (i % 40), null));
+        new VehiculoRepository(origen).insertAll(vehiculos);
+        new OrdenRepository(origen).insertAll(generar(N));
+    }
+
+    @After
+    public void tearDown() {
+        origen.close();
+        destino.close();
+        ctx.deleteDatabase(DB_ORIGEN);
+        ctx.deleteDatabase(DB_DESTINO);
+        file.delete();
+    }
+
+    @Test
+    public void respaldoYRestauracion_1M() throws Exception {
+        long t0 = SystemClock.elapsedRealtimeNanos();
+        TallerBackup.Result r = new TallerBackup(origen).backup(file);
+        long tRespaldo = SystemClock.elapsedRealtimeNanos() - t0;
+
+        t0 = SystemClock.elapsedRealtimeNanos();
+        new TallerBackup(destino).restore(file);
+        long tRestaura = SystemClock.elapsedRealtimeNanos() - t0;
+
+        assertEquals(Long.valueOf(N), r.rows.get(TallerDbHelper.T_ORDEN));
+        assertEquals(huella(origen), huella(destino));
+        assertTrue(SummaryTables.check(destino.getReadableDatabase()).isEmpty());
+
+        double mb = r.fileBytes / 1e6;
+        Log.i(TAG, String.format(Locale.US,
+                "n=%d | archivo %.1f MB | respaldo %.2f s (%.1f MB/s) | restauración %.2f s (%.1f MB/s)",
+                N, mb, tRespaldo / 1e9, mb / (tRespaldo / 1e9), tRestaura / 1e9, mb / (tRestaura / 1e9)));
+        assertTrue("respaldo: " + tRespaldo, tRespaldo < META_NS);
+        assertTrue("restauración: " + tRestaura, tRestaura < META_NS);
+    }
+
+    // ============================ APOYO ================================
+
+    private static String huella(TallerDatabase database) {
+        try (Cursor c = database.getReadableDatabase().rawQuery(SQL_HUELLA, null)) {
+            c.moveToFirst();
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < c.getColumnCount(); i++) sb.append(c.getString(i)).append('|');
+            return sb.toString();
+        }
+    }
+
+    private static String patente(int i) {
+        return String.format(Locale.US, "BB%04d", i);
+    }
+
+    private static List<OrdenTrabajo> generar(final int n) {
+        return new AbstractList<OrdenTrabajo>() {
+            @Override
+            public OrdenTrabajo get(int i) {
+                String fecha = String.format(Locale.US, "2024-%02d-%02d", i % 12 + 1, i % 28 + 1);
+                double neto = 10_000 + (i % 500) * 10.5;
+                return new OrdenTrabajo(0, "OT-" + i, fecha, neto, neto * 0.19,
+                        i % 10 == 0 ? "cambio de aceite y filtro" : null, patente(i % PATENTES));
+            }
+
+            @Override
+            public int size() {
+                return n;
+            }
+        };
+    }
+}
@@ -0,0 +1,260 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+// ======================================================================
+// == Clase: TallerBackupTest
+// == Rol:
+//    - Ida y vuelta: respaldo de una base y restauración en otra (con
+//      datos previos) y en la misma (tras cambiarla). Las tres tablas
+//      deben quedar idénticas fila a fila y tipo a tipo, con resúmenes,
+//      índice FTS y triggers en orden. Hay más de un bloque de OTs.
+//    - Un archivo dañado, truncado o de otro formato se rechaza y la
+//      base destino no cambia; un error de SQLite al restaurar llega
+//      como IOException (con la causa) y tampoco cambia nada.
+//    - El respaldo no espera a una escritura en curso ni la incluye.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class TallerBackupTest {
+
+    private static final String DB_ORIGEN = "test_backup_origen.db";
+    private static final String DB_DESTINO = "test_backup_destino.db";
+    private static final int ORDENES = TallerBackup.BLOCK + 7;
+
+    private Context ctx;
+    private TallerDatabase origen;
+    private TallerDatabase destino;
+    private File file;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_ORIGEN);
+        ctx.deleteDatabase(DB_DESTINO);
+        origen = TallerDatabase.forTesting(ctx, DB_ORIGEN);
+        destino = TallerDatabase.forTesting(ctx, DB_DESTINO);
+        file = new File(ctx.getCacheDir(), "test.tmbk");
+        file.delete();
+
+        PersonaRepository personas = new PersonaRepository(origen, new PasswordHasher(1_000));
+        personas.insert(new Persona(11, "a@taller.cl", "Ñandú \"Pepe\"\n😀", "Soto", "clave", "cliente"));
+        personas.insert(new Persona(12, "b@taller.cl", "Ana", "Díaz", "otra", "trabajador"));
+        VehiculoRepository vehiculos = new VehiculoRepository(origen);
+        vehiculos.insert(new Vehiculo("AA1111", "rojo", "Yaris", 11));
+        vehiculos.insert(new Vehiculo("BB2222", null, "Corsa", null));
+        List<OrdenTrabajo> ordenes = new ArrayList<>();
+        for (int i = 0; i < ORDENES; i++) {
+            ordenes.add(new OrdenTrabajo(0, "OT-" + i, "2025-0" + (1 + i % 9) + "-15",
+                    10_000.25 + i, 1_900.5, i % 3 == 0 ? "cambio de aceite" : null,
+                    i % 2 == 0 ? "AA1111" : "BB2222"));
+        }
+        new OrdenRepository(origen).insertAll(ordenes);
+        origen.getWritableDatabase().execSQL("DELETE FROM " + TallerDbHelper.T_ORDEN + " WHERE id = 5");   // un hueco en los id
+
+        // Datos previos en destino: deben desaparecer.
+        new PersonaRepository(destino, new PasswordHasher(1_000))
+                .insert(new Persona(99, "z@taller.cl", "Zeta", "Zeta", "x", "cliente"));
+        new VehiculoRepository(destino).insert(new Vehiculo("ZZ9999", "azul", "Uno", 99));
+        new OrdenRepository(destino).insert(new OrdenTrabajo(0, "OT-Z", "2024-01-01", 1, 0, "zeta", "ZZ9999"));
+    }
+
+    @After
+    public void tearDown() {
+        origen.close();
+        destino.close();
+        ctx.deleteDatabase(DB_ORIGEN);
+        ctx.deleteDatabase(DB_DESTINO);
+        file.delete();
+    }
+
+    @Test
+    public void idaYVuelta_enOtraBase() throws Exception {
+        TallerBackup.Result r = new TallerBackup(origen).backup(file);
+        assertEquals(Long.valueOf(ORDENES - 1), r.rows.get(TallerDbHelper.T_ORDEN));
+        assertEquals(file.length(), r.fileBytes);
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        int triggers = triggers(destino);
+        TallerBackup.Result rr = new TallerBackup(destino).restore(file);
+        assertEquals(r.rows, rr.rows);
+        assertEquals(volcar(origen), volcar(destino));
+        assertEquals(triggers, triggers(destino));
+
+        SQLiteDatabase db = destino.getReadableDatabase();
+        assertTrue(SummaryTables.check(db).toString(), SummaryTables.check(db).isEmpty());
+        assertEquals(contar(db, "SELECT COUNT(*) FROM orden_trabajo WHERE observacion LIKE '%aceite%'"),
+                contar(db, "SELECT COUNT(*) FROM orden_fts WHERE orden_fts MATCH 'aceite'"));
+        assertEquals(0, contar(db, "SELECT COUNT(*) FROM orden_fts WHERE orden_fts MATCH 'zeta'"));
+        assertEquals(ORDENES - 1, destino.getStats().get().ordenes);
+
+        // Los triggers siguen manteniendo los resúmenes.
+        new OrdenRepository(destino).insert(new OrdenTrabajo(0, "OT-N", "2025-12-01", 5, 1, "nueva", "AA1111"));
+        assertTrue(SummaryTables.check(db).isEmpty());
+    }
+
+    @Test
+    public void idaYVuelta_enLaMismaBase() throws Exception {
+        List<String> antes = volcar(origen);
+        new TallerBackup(origen).backup(file);
+
+        new PersonaRepository(origen).deleteByRun(12);
+        new OrdenRepository(origen).insert(new OrdenTrabajo(0, "OT-X", "2025-01-01", 1, 0, "x", "AA1111"));
+        new TallerBackup(origen).restore(file);
+
+        assertEquals(antes, volcar(origen));
+        assertTrue(SummaryTables.check(origen.getReadableDatabase()).isEmpty());
+    }
+
+    @Test
+    public void archivoDanado_noCambiaNada() throws Exception {
+        new TallerBackup(origen).backup(file);
+        List<String> antes = volcar(destino);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long medio = raf.length() / 2;
+            raf.seek(medio);
+            int b = raf.read();
+            raf.seek(medio);
+            raf.write(b ^ 0x01);
+        }
+        restaurarFalla();
+        assertEquals(antes, volcar(destino));
+
+        new TallerBackup(origen).backup(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 100);
+        }
+        restaurarFalla();
+
+        new TallerBackup(origen).backup(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(4);
+            raf.writeInt(TallerBackup.FORMAT_VERSION + 1);
+        }
+        restaurarFalla();
+        assertEquals(antes, volcar(destino));
+    }
+
+    @Test
+    public void errorDeSqlite_esIOExceptionYNoCambiaNada() throws Exception {
+        new TallerBackup(origen).backup(file);
+        List<String> antes = volcar(destino);
+        // No es de las tres tablas: restore no lo quita y falla al
+        // recalcular los resúmenes.
+        destino.getWritableDatabase().execSQL("CREATE TRIGGER falla BEFORE INSERT ON " + SummaryTables.T_MES +
+                " BEGIN SELECT RAISE(ABORT, 'falla de prueba'); END");
+
+        try {
+            new TallerBackup(destino).restore(file);
+            fail("se esperaba IOException");
+        } catch (IOException esperado) {
+            assertTrue(String.valueOf(esperado.getCause()), esperado.getCause() instanceof SQLException);
+        }
+        assertEquals(antes, volcar(destino));
+    }
+
+    @Test
+    public void respaldo_noEsperaAUnaEscrituraEnCurso() throws Exception {
+        List<String> antes = volcar(origen);
+        CountDownLatch abierta = new CountDownLatch(1);
+        CountDownLatch seguir = new CountDownLatch(1);
+        Thread escritor = new Thread(() -> origen.runInTransaction(() -> {
+            new PersonaRepository(origen, new PasswordHasher(1_000))
+                    .insert(new Persona(77, "w@taller.cl", "En", "Curso", "x", "cliente"));
+            abierta.countDown();
+            try {
+                seguir.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        escritor.start();
+        assertTrue(abierta.await(10, TimeUnit.SECONDS));
+
+        // Con el candado de escritura tomado, BEGIN IMMEDIATE esperaría
+        // hasta que el escritor confirme.
+        long t0 = System.nanoTime();
+        new TallerBackup(origen).backup(file);
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        assertTrue("el escritor ya terminó", escritor.isAlive());
+        seguir.countDown();
+        escritor.join();
+        assertTrue("respaldo esperó " + ms + " ms", ms < 10_000);
+
+        new TallerBackup(destino).restore(file);
+        assertEquals(antes, volcar(destino));   // sin la fila no confirmada
+        assertNull(new PersonaRepository(destino).getByRun(77));
+    }
+
+    // ============================ APOYO ================================
+
+    private void restaurarFalla() {
+        try {
+            new TallerBackup(destino).restore(file);
+            fail("se esperaba IOException");
+        } catch (IOException esperado) {
+            // ok
+        }
+    }
+
+    // Las tres tablas, fila a fila en orden de rowid, con el tipo de
+    // cada valor.
+    private static List<String> volcar(TallerDatabase database) {
+        List<String> out = new ArrayList<>();
+        SQLiteDatabase db = database.getReadableDatabase();
+        for (String t : new String[]{ TallerDbHelper.T_PERSONA, TallerDbHelper.T_VEHICULO, TallerDbHelper.T_ORDEN }) {
+            try (Cursor c = db.rawQuery("SELECT rowid, * FROM " + t + " ORDER BY rowid", null)) {
+                while (c.moveToNext()) {
+                    StringBuilder sb = new StringBuilder(t);
+                    for (int i = 0; i < c.getColumnCount(); i++) {
+                        sb.append('|').append(c.getType(i)).append(':');
+                        if (c.getType(i) == Cursor.FIELD_TYPE_FLOAT) sb.append(Double.doubleToLongBits(c.getDouble(i)));
+                        else sb.append(c.getString(i));
+                    }
+                    out.add(sb.toString());
+                }
+            }
+        }
+        return out;
+    }
+
+    private static int triggers(TallerDatabase database) {
+        return contar(database.getReadableDatabase(), "SELECT COUNT(*) FROM sqlite_master WHERE type = 'trigger'");
+    }
+
+    private static int contar(SQLiteDatabase db, String sql) {
+        try (Cursor c = db.rawQuery(sql, null)) {
+            c.moveToFirst();
+            return c.getInt(0);
+        }
+    }
+}
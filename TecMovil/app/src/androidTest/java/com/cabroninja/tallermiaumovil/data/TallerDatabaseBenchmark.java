@@ -0,0 +1,113 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: TallerDatabaseBenchmark
+// == Rol:
+//    - Compara el patrón antiguo (un TallerDbHelper por repositorio y
+//      db.close() tras cada insert) contra el gestor compartido
+//      TallerDatabase.
+//    - Reporta en Logcat (tag "TallerDbBench") aperturas físicas de la
+//      DB y latencia media por insert de cada variante.
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class TallerDatabaseBenchmark {
+
+    private static final String TAG = "TallerDbBench";
+    private static final String DB_BENCH = "bench_conexion.db";
+    private static final int N = 500;
+
+    private Context ctx;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        ctx.deleteDatabase(DB_BENCH);
+    }
+
+    @After
+    public void tearDown() {
+        ctx.deleteDatabase(DB_BENCH);
+    }
+
+    // ------------------------------------------------------------------
+    // == Test: insertAbriendoYCerrando_vs_conexionCompartida
+    //    - Variante "antes": cada insert crea su helper y cierra la DB,
+    //      tal como hacían VehiculoRepository/OrdenRepository.
+    //    - Variante "después": VehiculoRepository sobre TallerDatabase.
+    //    - Verifica que la variante compartida abre la DB una sola vez.
+    // ------------------------------------------------------------------
+    @Test
+    public void insertAbriendoYCerrando_vs_conexionCompartida() {
+        prepararDueno();
+
+        // ---- Antes: helper nuevo + close() por insert ----
+        int abiertasAntes = TallerDbHelper.getOpenCount();
+        long t0 = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < N; i++) {
+            TallerDbHelper h = new TallerDbHelper(ctx, DB_BENCH);
+            SQLiteDatabase db = h.getWritableDatabase();
+            ContentValues cv = new ContentValues();
+            cv.put(TallerDbHelper.V_PATENTE, "OLD" + i);
+            cv.put(TallerDbHelper.V_MODELO, "Bench");
+            cv.put(TallerDbHelper.V_RUN_DUENO, 1);
+            db.insert(TallerDbHelper.T_VEHICULO, null, cv);
+            db.close();
+        }
+        long nsAntes = SystemClock.elapsedRealtimeNanos() - t0;
+        int aperturasAntes = TallerDbHelper.getOpenCount() - abiertasAntes;
+
+        // ---- Después: gestor compartido, conexión siempre abierta ----
+        TallerDatabase database = TallerDatabase.forTesting(ctx, DB_BENCH);
+        try {
+            VehiculoRepository repo = new VehiculoRepository(database);
+            int abiertasDespues = TallerDbHelper.getOpenCount();
+            long t1 = SystemClock.elapsedRealtimeNanos();
+            for (int i = 0; i < N; i++) {
+                repo.insert(new Vehiculo("NEW" + i, null, "Bench", 1));
+            }
+            long nsDespues = SystemClock.elapsedRealtimeNanos() - t1;
+            int aperturasDespues = TallerDbHelper.getOpenCount() - abiertasDespues;
+
+            Log.i(TAG, String.format(java.util.Locale.US,
+                    "inserts=%d | antes: aperturas=%d, %.1f us/insert | despues: aperturas=%d, %.1f us/insert",
+                    N, aperturasAntes, nsAntes / 1000.0 / N, aperturasDespues, nsDespues / 1000.0 / N));
+
+            assertEquals(N, aperturasAntes);
+            assertTrue("la conexión compartida no debe reabrir la DB", aperturasDespues <= 1);
+            assertEquals(2 * N, repo.count());
+        } finally {
+            database.close();
+        }
+    }
+
+    // Inserta el dueño (run = 1) que referencian los vehículos del benchmark.
+    private void prepararDueno() {
+        TallerDatabase database = TallerDatabase.forTesting(ctx, DB_BENCH);
+        try {
+            new PersonaRepository(database).insert(
+                    new Persona(1, "bench@taller.cl", "Bench", "Dueño", "x", "cliente"));
+        } finally {
+            database.close();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+
+// ======================================================================
+// == Clase: TestTallerDatabase
+// == Rol:
+//    - Para tests instrumentados de otros paquetes que abren Activities:
+//      instala una TallerDatabase.forTesting sobre un archivo desechable
+//      como gestor del proceso, con su propio StartupPipeline. Así
+//      getInstance(ctx) (repositorios, TallerAsync.bind, Activities)
+//      nunca abre ni modifica la DB real de la app.
+//    - restore() deja los anteriores, cierra la DB de prueba y borra su
+//      archivo (llamarlo en @After).
+// ======================================================================
+public final class TestTallerDatabase {
+
+    private final Context ctx;
+    private final String dbName;
+    private final TallerDatabase database;
+    private final TallerDatabase prevDatabase;
+    private final StartupPipeline prevPipeline;
+
+    private TestTallerDatabase(Context ctx, String dbName) {
+        this.ctx = ctx;
+        this.dbName = dbName;
+        ctx.deleteDatabase(dbName);
+        database = TallerDatabase.forTesting(ctx, dbName);
+        prevDatabase = TallerDatabase.install(database);
+        prevPipeline = StartupPipeline.install(new StartupPipeline(database));
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: install
+    //    Parámetros:
+    //      - ctx (Context): contexto de la app bajo prueba.
+    //      - dbName (String): archivo desechable (se borra antes y en
+    //        restore).
+    // ------------------------------------------------------------------
+    public static TestTallerDatabase install(Context ctx, String dbName) {
+        return new TestTallerDatabase(ctx.getApplicationContext(), dbName);
+    }
+
+    public TallerDatabase get() {
+        return database;
+    }
+
+    public void restore() {
+        StartupPipeline.install(prevPipeline);
+        TallerDatabase.install(prevDatabase);
+        database.close();
+        ctx.deleteDatabase(dbName);
+    }
+}
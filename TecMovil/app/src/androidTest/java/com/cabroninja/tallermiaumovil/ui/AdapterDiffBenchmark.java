@@ -0,0 +1,150 @@
+package com.cabroninja.tallermiaumovil.ui;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+// ======================================================================
+// == Clase: AdapterDiffBenchmark
+// == Rol:
+//    - Mide, para listas de 10k filas, el tiempo del diff (DiffUtil con
+//      detección de movimientos, igual que AsyncListDiffer) y cuántas
+//      filas notifica cada actualización típica:
+//        * recarga sin cambios (objetos nuevos, mismo contenido)
+//        * una fila editada
+//        * una fila nueva al inicio
+//        * 100 filas borradas
+//        * una página de 50 agregada al final
+//    - "Filas a bindear" = insertadas + cambiadas; con el submit()
+//      anterior (notifyDataSetChanged) se invalidaban las N filas.
+//    - Reporta en Logcat (tag "AdapterDiffBench").
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class AdapterDiffBenchmark {
+
+    private static final String TAG = "AdapterDiffBench";
+    private static final int N = 10_000;
+
+    @Test
+    public void personas_10k() {
+        List<Persona> base = personas(N);
+        medir("personas", PersonaAdapter.DIFF, base, personas(N), 0);
+
+        List<Persona> editada = personas(N);
+        editada.get(N / 2).nombre = "Editado";
+        medir("personas", PersonaAdapter.DIFF, base, editada, 1);
+
+        List<Persona> alta = personas(N);
+        alta.add(0, new Persona(-1, "nuevo@taller.cl", "Nuevo", "Cliente", "x", "cliente"));
+        medir("personas", PersonaAdapter.DIFF, base, alta, 1);
+    }
+
+    @Test
+    public void vehiculos_10k() {
+        List<Vehiculo> base = vehiculos(N);
+        medir("vehiculos", VehiculoAdapter.DIFF, base, vehiculos(N), 0);
+
+        List<Vehiculo> borrados = vehiculos(N);
+        for (int i = 0; i < 100; i++) borrados.remove(i * 90);
+        medir("vehiculos", VehiculoAdapter.DIFF, base, borrados, 0);
+    }
+
+    @Test
+    public void ordenes_10k() {
+        List<OrdenTrabajo> base = ordenes(0, N);
+        medir("ordenes", OrdenAdapter.DIFF, base, ordenes(0, N), 0);
+
+        List<OrdenTrabajo> pagina = ordenes(0, N + 50);
+        medir("ordenes", OrdenAdapter.DIFF, base, pagina, 50);
+
+        List<OrdenTrabajo> editada = ordenes(0, N);
+        editada.get(10).observacion = "editada";
+        medir("ordenes", OrdenAdapter.DIFF, base, editada, 1);
+    }
+
+    // ============================ APOYO ================================
+
+    private static <T> void medir(String lista, DiffUtil.ItemCallback<T> diff,
+                                  List<T> antes, List<T> despues, int esperadas) {
+        long t0 = SystemClock.elapsedRealtimeNanos();
+        DiffUtil.DiffResult r = DiffUtil.calculateDiff(callback(diff, antes, despues), true);
+        long ns = SystemClock.elapsedRealtimeNanos() - t0;
+
+        Contador c = new Contador();
+        r.dispatchUpdatesTo(c);
+        Log.i(TAG, String.format(Locale.US,
+                "%s | %d → %d filas | diff %.1f ms | a bindear %d (antes %d) | quitadas %d | movidas %d",
+                lista, antes.size(), despues.size(), ns / 1e6,
+                c.aBindear(), despues.size(), c.quitadas, c.movidas));
+        assertEquals(esperadas, c.aBindear());
+    }
+
+    private static <T> DiffUtil.Callback callback(final DiffUtil.ItemCallback<T> diff,
+                                                  final List<T> antes, final List<T> despues) {
+        return new DiffUtil.Callback() {
+            @Override public int getOldListSize() { return antes.size(); }
+            @Override public int getNewListSize() { return despues.size(); }
+            @Override public boolean areItemsTheSame(int o, int n) {
+                return diff.areItemsTheSame(antes.get(o), despues.get(n));
+            }
+            @Override public boolean areContentsTheSame(int o, int n) {
+                return diff.areContentsTheSame(antes.get(o), despues.get(n));
+            }
+        };
+    }
+
+    private static final class Contador implements ListUpdateCallback {
+        int insertadas, quitadas, movidas, cambiadas;
+
+        @Override public void onInserted(int p, int n) { insertadas += n; }
+        @Override public void onRemoved(int p, int n) { quitadas += n; }
+        @Override public void onMoved(int desde, int hasta) { movidas++; }
+        @Override public void onChanged(int p, int n, Object payload) { cambiadas += n; }
+
+        int aBindear() {
+            return insertadas + cambiadas;
+        }
+    }
+
+    private static List<Persona> personas(int n) {
+        List<Persona> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(new Persona(i + 1, "p" + i + "@taller.cl", "Nombre" + i, "Apellido", "x", "cliente"));
+        }
+        return out;
+    }
+
+    private static List<Vehiculo> vehiculos(int n) {
+        List<Vehiculo> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(new Vehiculo(String.format(Locale.US, "VH%05d", i), "Gris", "Modelo " + i, i + 1));
+        }
+        return out;
+    }
+
+    // OTs en orden id DESC, como las entrega la paginación.
+    private static List<OrdenTrabajo> ordenes(int desde, int hasta) {
+        List<OrdenTrabajo> out = new ArrayList<>(hasta - desde);
+        for (int i = desde; i < hasta; i++) {
+            long id = 1_000_000L - i;
+            out.add(new OrdenTrabajo(id, "OT-" + id, "2025-01-01", 1000, 190, "", "VH00001"));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,123 @@
+package com.cabroninja.tallermiaumovil.ui;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cabroninja.tallermiaumovil.R;
+import com.cabroninja.tallermiaumovil.model.Persona;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertNotNull;
+
+// ======================================================================
+// == Clase: ViewHolderBenchmark
+// == Rol:
+//    - Compara la búsqueda de vistas de PersonaAdapter antes (ocho
+//      nombres por getIdentifier, TextView descartable si no hay
+//      coincidencia) y ahora (RowLayout con R.id validados una vez).
+//    - Mide por separado:
+//        * solo la búsqueda de vistas sobre filas ya infladas;
+//        * crear ViewHolders completos (inflado + búsqueda);
+//        * bindear 10k filas sobre un pool de ViewHolders reciclados.
+//    - Reporta en Logcat (tag "ViewHolderBench").
+// ======================================================================
+@RunWith(AndroidJUnit4.class)
+public class ViewHolderBenchmark {
+
+    private static final String TAG = "ViewHolderBench";
+    private static final int FILAS = 500;
+    private static final int BINDS = 10_000;
+
+    private Context ctx;
+    private FrameLayout parent;
+
+    @Before
+    public void setUp() {
+        ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        parent = new FrameLayout(ctx);
+    }
+
+    @Test
+    public void busquedaDeVistas_getIdentifierVsRowLayout() {
+        List<View> filas = new ArrayList<>(FILAS);
+        LayoutInflater inflater = LayoutInflater.from(ctx);
+        for (int i = 0; i < FILAS; i++) filas.add(inflater.inflate(R.layout.item_cliente, parent, false));
+
+        long t0 = SystemClock.elapsedRealtimeNanos();
+        for (View v : filas) {
+            assertNotNull(findTextLegacy(v, "txtNombre", "txtNombre", "tvNombre", "tvNombreCliente",
+                    "tvPersonaNombre", "tvNombrePersona", "textNombre", "title"));
+            assertNotNull(findTextLegacy(v, "txtTelefono", "tvCorreo", "tvCorreoCliente",
+                    "tvPersonaCorreo", "tvCorreoPersona", "textCorreo", "subtitle"));
+        }
+        long legacy = SystemClock.elapsedRealtimeNanos() - t0;
+
+        t0 = SystemClock.elapsedRealtimeNanos();
+        for (View v : filas) assertNotNull(PersonaAdapter.ROW.views(v)[0]);
+        long actual = SystemClock.elapsedRealtimeNanos() - t0;
+
+        reportar("búsqueda getIdentifier", FILAS, legacy);
+        reportar("búsqueda RowLayout", FILAS, actual);
+    }
+
+    @Test
+    public void crearViewHolders() {
+        PersonaAdapter adapter = new PersonaAdapter(p -> { });
+        long t0 = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < FILAS; i++) adapter.onCreateViewHolder(parent, 0);
+        reportar("onCreateViewHolder", FILAS, SystemClock.elapsedRealtimeNanos() - t0);
+    }
+
+    @Test
+    public void bindear10k() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            PersonaAdapter adapter = new PersonaAdapter(p -> { });
+            List<Persona> lista = new ArrayList<>(BINDS);
+            for (int i = 0; i < BINDS; i++) {
+                lista.add(new Persona(i + 1, "p" + i + "@taller.cl", "Nombre" + i, "Apellido", "x", "cliente"));
+            }
+            adapter.submit(lista);   // primera lista: el differ la aplica sin diff
+
+            List<PersonaAdapter.VH> pool = new ArrayList<>();
+            for (int i = 0; i < 20; i++) pool.add(adapter.onCreateViewHolder(parent, 0));
+
+            long t0 = SystemClock.elapsedRealtimeNanos();
+            for (int i = 0; i < BINDS; i++) adapter.onBindViewHolder(pool.get(i % pool.size()), i);
+            reportar("onBindViewHolder", BINDS, SystemClock.elapsedRealtimeNanos() - t0);
+        });
+    }
+
+    // ============================ APOYO ================================
+
+    // Copia de la búsqueda anterior de PersonaAdapter (línea base).
+    private static TextView findTextLegacy(View v, String... candidates) {
+        for (String name : candidates) {
+            int id = v.getResources().getIdentifier(name, "id", v.getContext().getPackageName());
+            if (id != 0) {
+                View found = v.findViewById(id);
+                if (found instanceof TextView) return (TextView) found;
+            }
+        }
+        return new TextView(v.getContext());
+    }
+
+    private static void reportar(String variante, int n, long ns) {
+        Log.i(TAG, String.format(Locale.US, "%s | n=%d | %.2f ms | %.0f ops/s",
+                variante, n, ns / 1e6, n * 1e9 / ns));
+    }
+}
@@ -8,7 +8,7 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 
-import com.cabroninja.tallermiaumovil.data.PersonaRepository;
+import com.cabroninja.tallermiaumovil.data.TallerAsync;
 import com.cabroninja.tallermiaumovil.model.Persona;
 
 // ======================================================================
@@ -19,7 +19,8 @@ import com.cabroninja.tallermiaumovil.model.Persona;
 //    - Recoge RUN, nombre, apellido y email desde la UI, valida, y
 //      persiste usando PersonaRepository con tipo="cliente".
 // == Colaboradores clave:
-//    - PersonaRepository: inserta el modelo Persona en SQLite.
+//    - TallerAsync      : inserta el modelo Persona (PersonaRepository)
+//                         en SQLite fuera del hilo principal.
 //    - TallerDbHelper   : define el esquema y restricciones (email único,
 //                         RUN PK, tipo con CHECK).
 // == Atributos de clase:
@@ -37,7 +38,7 @@ public class AddClienteActivity extends AppCompatActivity {
     //      - Infla el layout activity_add_cliente.
     //      - Configura un Toolbar con título y botón de retroceso.
     //      - Obtiene referencias a los EditText y al botón Guardar.
-    //      - Crea un PersonaRepository para acceder a la DB.
+    //      - Crea la fachada TallerAsync para acceder a la DB en segundo plano.
     //      - En el click de Guardar:
     //           * Valida que RUN sea entero (NumberFormatException ⇒ error).
     //           * Valida que nombre, apellido y email no estén vacíos.
@@ -70,8 +71,8 @@ public class AddClienteActivity extends AppCompatActivity {
 
         Button btnGuardar = findViewById(R.id.btnGuardar);
 
-        // ---- Repositorio para persistencia ----
-        PersonaRepository repo = new PersonaRepository(this);
+        // ---- Repositorios (en segundo plano) para persistencia ----
+        TallerAsync async = TallerAsync.bind(this);
 
         // ---- Acción: Guardar cliente ----
         btnGuardar.setOnClickListener(v -> {
@@ -95,16 +96,18 @@ public class AddClienteActivity extends AppCompatActivity {
                 // - tipo = "cliente" (consistente con los contadores y listados)
                 Persona p = new Persona(run, email, nombre, apellido, "123456", "cliente");
 
-                // Inserción. insert() retorna rowId o -1 si falla
-                long id = repo.insert(p);
-
-                if (id != -1) {
-                    Toast.makeText(this, "Cliente agregado", Toast.LENGTH_SHORT).show();
-                    finish(); // volver a pantalla anterior
-                } else {
-                    // Posibles causas: RUN duplicado (PK) o email duplicado (UNIQUE)
-                    Toast.makeText(this, "RUN o email ya existe", Toast.LENGTH_LONG).show();
-                }
+                // Inserción en segundo plano. insert() retorna rowId o -1 si falla
+                btnGuardar.setEnabled(false);
+                async.write(() -> async.personas.insert(p), id -> {
+                    btnGuardar.setEnabled(true);
+                    if (id != -1) {
+                        Toast.makeText(this, "Cliente agregado", Toast.LENGTH_SHORT).show();
+                        finish(); // volver a pantalla anterior
+                    } else {
+                        // Posibles causas: RUN duplicado (PK) o email duplicado (UNIQUE)
+                        Toast.makeText(this, "RUN o email ya existe", Toast.LENGTH_LONG).show();
+                    }
+                });
             } catch (NumberFormatException ex) {
                 // RUN inválido: no es entero o cadena vacía
                 Toast.makeText(this, "RUN inválido", Toast.LENGTH_SHORT).show();
@@ -5,7 +5,7 @@ import android.widget.Button;
 import android.widget.EditText;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
-import com.cabroninja.tallermiaumovil.data.PersonaRepository;
+import com.cabroninja.tallermiaumovil.data.TallerAsync;
 import androidx.appcompat.widget.Toolbar;
 
 // ======================================================================
@@ -16,7 +16,8 @@ import androidx.appcompat.widget.Toolbar;
 //    - Pide el RUN, valida que sea numérico y solicita al repositorio
 //      que borre la fila en la tabla PERSONA (si existe).
 // == Colaboradores clave:
-//    - PersonaRepository: ejecuta la operación deleteByRun(run) en SQLite.
+//    - TallerAsync      : ejecuta personas.deleteByRun(run) en SQLite
+//                         fuera del hilo principal.
 // == Atributos:
 //    - (No hay atributos de instancia; los widgets/repos se manejan
 //      como variables locales dentro de onCreate()).
@@ -32,10 +33,10 @@ public class DeleteClienteActivity extends AppCompatActivity {
     //      - Infla el layout activity_delete_cliente.
     //      - Configura el Toolbar con título y botón de retroceso.
     //      - Obtiene referencias a EditText (etRun) y Button (btnEliminar).
-    //      - Crea un PersonaRepository para realizar el borrado.
+    //      - Crea la fachada TallerAsync para realizar el borrado en segundo plano.
     //      - En el click de "Eliminar":
     //           * Intenta parsear el RUN ingresado (NumberFormatException si falla).
-    //           * Llama a repo.deleteByRun(run) y muestra un Toast según
+    //           * Llama a personas.deleteByRun(run) y muestra un Toast según
     //             el número de filas afectadas.
     //           * En caso de éxito (>0), cierra la pantalla con finish().
     //    Retorno:
@@ -59,8 +60,8 @@ public class DeleteClienteActivity extends AppCompatActivity {
         EditText etRun = findViewById(R.id.etRun);
         Button btnEliminar = findViewById(R.id.btnEliminar);
 
-        // ---- Repositorio ----
-        PersonaRepository repo = new PersonaRepository(this);
+        // ---- Repositorios (en segundo plano) ----
+        TallerAsync async = TallerAsync.bind(this);
 
         // ---- Acción: Eliminar cliente por RUN ----
         btnEliminar.setOnClickListener(v -> {
@@ -68,15 +69,17 @@ public class DeleteClienteActivity extends AppCompatActivity {
                 // Intento parsear RUN como entero (PK de PERSONA)
                 int run = Integer.parseInt(etRun.getText().toString().trim());
 
-                // Borrado en BD; retorna filas afectadas (0 si no existe)
-                int rows = repo.deleteByRun(run);
-
-                if (rows > 0) {
-                    Toast.makeText(this, "Cliente eliminado", Toast.LENGTH_SHORT).show();
-                    finish(); // volver a la pantalla anterior
-                } else {
-                    Toast.makeText(this, "No existe cliente con ese RUN", Toast.LENGTH_SHORT).show();
-                }
+                // Borrado en BD (segundo plano); retorna filas afectadas (0 si no existe)
+                btnEliminar.setEnabled(false);
+                async.write(() -> async.personas.deleteByRun(run), rows -> {
+                    btnEliminar.setEnabled(true);
+                    if (rows > 0) {
+                        Toast.makeText(this, "Cliente eliminado", Toast.LENGTH_SHORT).show();
+                        finish(); // volver a la pantalla anterior
+                    } else {
+                        Toast.makeText(this, "No existe cliente con ese RUN", Toast.LENGTH_SHORT).show();
+                    }
+                });
             } catch (NumberFormatException ex) {
                 // RUN inválido: cadena vacía o no numérica
                 Toast.makeText(this, "RUN inválido", Toast.LENGTH_SHORT).show();
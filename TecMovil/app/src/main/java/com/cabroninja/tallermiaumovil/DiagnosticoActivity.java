@@ -0,0 +1,189 @@
+package com.cabroninja.tallermiaumovil;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.TextView;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.Toolbar;
+
+import com.cabroninja.tallermiaumovil.data.LatencyHistogram;
+import com.cabroninja.tallermiaumovil.data.MainThreadGuard;
+import com.cabroninja.tallermiaumovil.data.RepoMetrics;
+import com.cabroninja.tallermiaumovil.data.SlowQueryLog;
+import com.cabroninja.tallermiaumovil.data.TallerAsync;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+// ======================================================================
+// == Clase: DiagnosticoActivity
+// == Hereda de: AppCompatActivity
+// == Rol dentro de la app:
+//    - Pantalla oculta de diagnóstico: por cada método de los
+//      repositorios muestra llamadas, filas y latencia (media, p50, p90,
+//      p99 y máxima) medidas en este proceso por RepoMetrics.
+//    - Si MainThreadGuard vio accesos a la DB desde el hilo principal,
+//      los lista primero, agrupados por sitio de llamada.
+//    - Debajo, el registro de consultas lentas (SlowQueryLog, incluye
+//      las de ejecuciones anteriores) con su SQL, argumentos y plan; el
+//      umbral se elige con el botón "Umbral".
+//    - "Exportar JSON" comparte ambas cosas (correo, Drive...) para
+//      revisarlas fuera del dispositivo.
+// == Acceso:
+//    - Desde el menú lateral de MainActivity; la opción solo aparece en
+//      builds debug o tras una pulsación larga en la cabecera del menú.
+// ======================================================================
+public class DiagnosticoActivity extends AppCompatActivity {
+
+    // Umbrales que recorre el botón "Umbral" (ms; -1 = apagado).
+    private static final long[] UMBRALES = { 10, 25, 50, 100, 250, -1 };
+
+    private TextView tvMetricas;
+    private TextView tvLentas;
+    private Button btnUmbral;
+    private TallerAsync async;
+
+    // ------------------------------------------------------------------
+    // == Método: onCreate
+    //    Parámetros:
+    //      - savedInstanceState (Bundle): estado previo (no se usa).
+    //    Descripción:
+    //      - Configura la Toolbar con retroceso, conecta los botones y
+    //        pinta la tabla. Las cifras de RepoMetrics están en memoria
+    //        y se leen en el hilo principal; el registro de lentas se lee
+    //        de disco con TallerAsync.
+    //    Retorno:
+    //      - void (callback del ciclo de vida).
+    // ------------------------------------------------------------------
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_diagnostico);
+
+        // ---- Toolbar con back y título ----
+        Toolbar toolbar = findViewById(R.id.toolbar);
+        setSupportActionBar(toolbar);
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+            getSupportActionBar().setTitle("Diagnóstico");
+        }
+        toolbar.setNavigationOnClickListener(v -> finish());
+
+        // TallerAsync abre TallerDatabase, que deja listo SlowQueryLog.get().
+        async = TallerAsync.bind(this);
+
+        tvMetricas = findViewById(R.id.tvMetricas);
+        tvLentas = findViewById(R.id.tvLentas);
+        btnUmbral = findViewById(R.id.btnUmbral);
+        Button btnRefrescar = findViewById(R.id.btnRefrescar);
+        Button btnExportar = findViewById(R.id.btnExportar);
+        Button btnReiniciar = findViewById(R.id.btnReiniciar);
+        Button btnBorrarLentas = findViewById(R.id.btnBorrarLentas);
+
+        btnRefrescar.setOnClickListener(v -> pintar());
+        btnExportar.setOnClickListener(v -> exportar());
+        btnReiniciar.setOnClickListener(v -> {
+            RepoMetrics.reset();
+            MainThreadGuard.reset();
+            pintar();
+        });
+        btnUmbral.setOnClickListener(v -> {
+            SlowQueryLog.setThresholdMs(siguienteUmbral(SlowQueryLog.getThresholdMs()));
+            pintarUmbral();
+        });
+        btnBorrarLentas.setOnClickListener(v -> async.write(() -> {
+            SlowQueryLog.get().clear();
+            return null;
+        }, ignorado -> pintar()));
+
+        pintarUmbral();
+        pintar();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: pintar
+    //    Descripción:
+    //      - Primero las violaciones de MainThreadGuard, si hay. Luego
+    //        dos líneas por operación: el nombre y sus cifras en
+    //        microsegundos, alineadas en columnas. Al final pide el
+    //        registro de lentas.
+    // ------------------------------------------------------------------
+    private void pintar() {
+        StringBuilder sb = new StringBuilder();
+        String hiloPrincipal = MainThreadGuard.report();
+        if (!hiloPrincipal.isEmpty()) {
+            sb.append("DB en el hilo principal\n\n").append(hiloPrincipal).append('\n');
+        }
+        List<RepoMetrics.Op> ops = RepoMetrics.ops();
+        if (ops.isEmpty()) {
+            sb.append("Sin llamadas registradas.");
+        } else {
+            sb.append("Latencias en µs\n\n");
+            sb.append(String.format(Locale.US, "%7s %8s %8s %8s %8s %8s %8s%n",
+                    "llam.", "filas", "media", "p50", "p90", "p99", "máx"));
+            for (RepoMetrics.Op op : ops) {
+                LatencyHistogram h = op.latency();
+                sb.append('\n').append(op.name).append('\n');
+                sb.append(String.format(Locale.US, "%7d %8d %8.0f %8.0f %8.0f %8.0f %8.0f%n",
+                        op.calls(), op.rows(), h.meanNanos() / 1000.0,
+                        h.percentile(0.50) / 1000.0, h.percentile(0.90) / 1000.0,
+                        h.percentile(0.99) / 1000.0, h.maxNanos() / 1000.0));
+            }
+        }
+        tvMetricas.setText(sb.toString());
+        async.load("lentas", () -> SlowQueryLog.get().entries(), this::pintarLentas);
+    }
+
+    // Una entrada por bloque, de la más reciente a la más antigua.
+    private void pintarLentas(List<SlowQueryLog.Entry> lentas) {
+        if (lentas.isEmpty()) {
+            tvLentas.setText("Sin consultas lentas.");
+            return;
+        }
+        SimpleDateFormat fecha = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+        StringBuilder sb = new StringBuilder("Consultas lentas (" + lentas.size() + ")\n");
+        for (SlowQueryLog.Entry e : lentas) {
+            sb.append('\n').append(fecha.format(new Date(e.timeMillis)))
+                    .append(String.format(Locale.US, "  %.1f ms  %d filas%n", e.millis, e.rows));
+            sb.append(e.op).append('\n');
+            sb.append(e.sql).append('\n');
+            if (!e.args.isEmpty()) sb.append("args: ").append(e.args).append('\n');
+            for (String paso : e.plan) sb.append("plan: ").append(paso).append('\n');
+        }
+        tvLentas.setText(sb.toString());
+    }
+
+    private void pintarUmbral() {
+        long ms = SlowQueryLog.getThresholdMs();
+        btnUmbral.setText(ms < 0 ? "Umbral: apagado" : "Umbral: " + ms + " ms");
+    }
+
+    // El umbral que sigue a "actual" en UMBRALES (vuelve al primero).
+    private static long siguienteUmbral(long actual) {
+        for (int i = 0; i < UMBRALES.length; i++) {
+            if (UMBRALES[i] == actual) return UMBRALES[(i + 1) % UMBRALES.length];
+        }
+        return UMBRALES[0];
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: exportar
+    //    Descripción:
+    //      - Arma {"metrics":RepoMetrics.toJson(),"slow_queries":[...]}
+    //        en segundo plano (el registro se lee de disco) y lo comparte
+    //        con la app que elija el usuario.
+    // ------------------------------------------------------------------
+    private void exportar() {
+        async.load("exportar", () -> "{\"metrics\":" + RepoMetrics.toJson()
+                + ",\"slow_queries\":" + SlowQueryLog.get().toJson() + "}", json -> {
+            Intent send = new Intent(Intent.ACTION_SEND);
+            send.setType("text/plain");
+            send.putExtra(Intent.EXTRA_SUBJECT, "TallerMiau - diagnóstico de base de datos");
+            send.putExtra(Intent.EXTRA_TEXT, json);
+            startActivity(Intent.createChooser(send, "Exportar JSON"));
+        });
+    }
+}
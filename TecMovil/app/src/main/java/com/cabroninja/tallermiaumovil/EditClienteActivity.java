@@ -6,7 +6,7 @@ import android.widget.EditText;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
-import com.cabroninja.tallermiaumovil.data.PersonaRepository;
+import com.cabroninja.tallermiaumovil.data.TallerAsync;
 import com.cabroninja.tallermiaumovil.model.Persona;
 import androidx.appcompat.widget.Toolbar;
 
@@ -19,7 +19,8 @@ import androidx.appcompat.widget.Toolbar;
 //        1) Cargar por RUN (btnCargar) para traer los datos actuales.
 //        2) Editar campos y guardar cambios (btnGuardar) en la BD.
 // == Colaboradores clave:
-//    - PersonaRepository: lecturas/actualizaciones de PERSONA en SQLite.
+//    - TallerAsync      : lecturas/actualizaciones de PERSONA en SQLite
+//                         (PersonaRepository) fuera del hilo principal.
 //    - TallerDbHelper  : esquema y restricciones (PK run, UNIQUE email,
 //                        CHECK tipo en {'cliente','trabajador'}).
 // == Atributos de instancia:
@@ -37,11 +38,11 @@ public class EditClienteActivity extends AppCompatActivity {
     //      - Infla activity_edit_cliente.
     //      - Configura Toolbar con título y flecha de retroceso.
     //      - Obtiene referencias a EditText y Buttons.
-    //      - Instancia PersonaRepository para acceder a la base de datos.
+    //      - Crea la fachada TallerAsync para acceder a la base de datos.
     //      - Define dos acciones:
     //          * btnCargar: busca Persona por RUN y precarga los campos
     //            (solo si existe y su tipo == "cliente").
-    //          * btnGuardar: valida entradas y persiste con repo.update().
+    //          * btnGuardar: valida entradas y persiste con personas.update().
     //    Retorno:
     //      - void (callback del ciclo de vida).
     // ------------------------------------------------------------------
@@ -67,8 +68,8 @@ public class EditClienteActivity extends AppCompatActivity {
         Button btnCargar     = findViewById(R.id.btnCargar);
         Button btnGuardar    = findViewById(R.id.btnGuardar);
 
-        // ---- Repositorio ----
-        PersonaRepository repo = new PersonaRepository(this);
+        // ---- Repositorios (en segundo plano) ----
+        TallerAsync async = TallerAsync.bind(this);
 
         // ------------------------------------------------------------------
         // == Acción: btnCargar (buscar por RUN y precargar campos)
@@ -76,7 +77,7 @@ public class EditClienteActivity extends AppCompatActivity {
         //      - etRunBuscar: RUN a buscar (String que debe convertirse a int).
         //    Descripción:
         //      - Convierte RUN a int; si no es válido muestra error.
-        //      - Llama repo.getByRun(run) y verifica que sea "cliente".
+        //      - Llama personas.getByRun(run) en segundo plano y verifica que sea "cliente".
         //      - Si existe, coloca nombre/apellido/email en los EditText.
         //      - Si no existe o no es cliente, avisa con un Toast.
         //    Retorno:
@@ -85,14 +86,15 @@ public class EditClienteActivity extends AppCompatActivity {
         btnCargar.setOnClickListener(v -> {
             try {
                 int run = Integer.parseInt(etRunBuscar.getText().toString().trim());
-                Persona p = repo.getByRun(run);
-                if (p == null || !"cliente".equals(p.tipo)) {
-                    Toast.makeText(this, "No existe cliente con ese RUN", Toast.LENGTH_SHORT).show();
-                    return;
-                }
-                etNombre.setText(p.nombre);
-                etApellido.setText(p.apellido);
-                etEmail.setText(p.email);
+                async.load("cliente:" + run, () -> async.personas.getByRun(run), p -> {
+                    if (p == null || !"cliente".equals(p.tipo)) {
+                        Toast.makeText(this, "No existe cliente con ese RUN", Toast.LENGTH_SHORT).show();
+                        return;
+                    }
+                    etNombre.setText(p.nombre);
+                    etApellido.setText(p.apellido);
+                    etEmail.setText(p.email);
+                });
             } catch (NumberFormatException ex) {
                 Toast.makeText(this, "RUN inválido", Toast.LENGTH_SHORT).show();
             }
@@ -110,7 +112,7 @@ public class EditClienteActivity extends AppCompatActivity {
         //          * email/nombre/apellido: desde los EditText
         //          * password: "123456" (placeholder de demo; ver nota)
         //          * tipo: "cliente" (se mantiene la categoría)
-        //      - Llama repo.update(p) y muestra resultado por Toast.
+        //      - Llama personas.update(p) en segundo plano y muestra resultado por Toast.
         //      - Si filas afectadas > 0, cierra la Activity con finish().
         //    Retorno:
         //      - (no aplica; acción de UI con efectos en la BD y en la pantalla).
@@ -128,14 +130,16 @@ public class EditClienteActivity extends AppCompatActivity {
                 }
 
                 Persona p = new Persona(run, email, nombre, apellido, "123456", "cliente");
-                int rows = repo.update(p);
-
-                if (rows > 0) {
-                    Toast.makeText(this, "Cliente actualizado", Toast.LENGTH_SHORT).show();
-                    finish();
-                } else {
-                    Toast.makeText(this, "No se pudo actualizar", Toast.LENGTH_SHORT).show();
-                }
+                btnGuardar.setEnabled(false);
+                async.write(() -> async.personas.update(p), rows -> {
+                    btnGuardar.setEnabled(true);
+                    if (rows > 0) {
+                        Toast.makeText(this, "Cliente actualizado", Toast.LENGTH_SHORT).show();
+                        finish();
+                    } else {
+                        Toast.makeText(this, "No se pudo actualizar", Toast.LENGTH_SHORT).show();
+                    }
+                });
             } catch (NumberFormatException ex) {
                 Toast.makeText(this, "RUN inválido", Toast.LENGTH_SHORT).show();
             }
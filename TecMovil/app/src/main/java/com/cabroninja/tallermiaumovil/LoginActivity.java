@@ -10,20 +10,22 @@ import android.widget.Toast;
 import android.database.sqlite.SQLiteException;
 import android.util.Log;
 
-import com.cabroninja.tallermiaumovil.data.PersonaRepository;
+import com.cabroninja.tallermiaumovil.data.StartupMetrics;
+import com.cabroninja.tallermiaumovil.data.StartupPipeline;
+import com.cabroninja.tallermiaumovil.data.TallerAsync;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import com.cabroninja.tallermiaumovil.data.DbSeeder;
-
 // ======================================================================
 // == Clase: LoginActivity
 // == Hereda de: AppCompatActivity
 // == Rol dentro de la app:
 //    - Pantalla de autenticación para ingresar al sistema.
-//    - Inicializa (si es necesario) la base de datos con datos mínimos
-//      usando DbSeeder, de modo que exista al menos un trabajador para
-//      poder iniciar sesión.
+//    - Lanza StartupPipeline (abrir/migrar la base y sembrar datos
+//      mínimos con DbSeeder) en segundo plano y dibuja la pantalla sin
+//      esperarlo; el botón de ingreso se habilita cuando termina.
+//    - Reporta a StartupMetrics el primer frame y el momento en que el
+//      login queda usable.
 //    - Valida las credenciales contra SQLite a través de PersonaRepository,
 //      restringiendo el acceso a usuarios con tipo "trabajador".
 //    - Si el login es exitoso, guarda la sesión en SharedPreferences y
@@ -46,6 +48,26 @@ public class LoginActivity extends AppCompatActivity {
     // ------------------------------------------------------------------
     private static final String PREFS = "auth_prefs";
 
+    // ------------------------------------------------------------------
+    // == Atributo: prefs
+    //    - Tipo: String (volatile)
+    //    - Propósito: Archivo de sesión en uso; PREFS salvo en tests
+    //      instrumentados, que lo cambian con installSessionPrefs para
+    //      no pisar la sesión real. También lo lee MainActivity.
+    // ------------------------------------------------------------------
+    private static volatile String prefs = PREFS;
+
+    static String sessionPrefs() {
+        return prefs;
+    }
+
+    // Cambia el archivo de sesión (tests); devuelve el anterior.
+    static String installSessionPrefs(String name) {
+        String prev = prefs;
+        prefs = name;
+        return prev;
+    }
+
     // ------------------------------------------------------------------
     // == Atributo: KEY_EMAIL
     //    - Tipo: String (constante)
@@ -76,6 +98,14 @@ public class LoginActivity extends AppCompatActivity {
     // ------------------------------------------------------------------
     private Button btnLogin;
 
+    // ------------------------------------------------------------------
+    // == Atributo: async
+    //    - Tipo: TallerAsync
+    //    - Propósito: Ejecuta la autenticación contra SQLite fuera del
+    //      hilo principal y entrega el resultado a esta Activity.
+    // ------------------------------------------------------------------
+    private TallerAsync async;
+
     // ------------------------------------------------------------------
     // == Método: onCreate
     //    - Parámetros:
@@ -83,14 +113,17 @@ public class LoginActivity extends AppCompatActivity {
     //          si fue destruida y recreada por el sistema. Suele ser null
     //          en un arranque normal. Permite restaurar UI/estado.
     //    - Descripción detallada:
-    //        1) Llama a DbSeeder.seedIfEmpty(context) para asegurar que
-    //           existan datos mínimos (por ejemplo, un trabajador demo)
-    //           cuando la app se instala por primera vez o la DB está vacía.
-    //        2) Infla el layout de login.
-    //        3) Revisa SharedPreferences: si ya existe un email guardado,
+    //        1) Lanza StartupPipeline: abre/migra la DB y ejecuta
+    //           DbSeeder.seedIfEmpty en DbExecutor (datos mínimos, p. ej.
+    //           un trabajador demo, en la primera instalación). No espera.
+    //        2) Revisa SharedPreferences: si ya existe un email guardado,
     //           significa que hay sesión activa → navega a MainActivity y
-    //           cierra esta pantalla para evitar volver al login.
-    //        4) Inicializa referencias a las vistas (EditTexts y Button).
+    //           cierra esta pantalla sin inflar el layout de login.
+    //        3) Infla el layout de login (una sola vez) e inicializa las
+    //           referencias a las vistas (EditTexts y Button).
+    //        4) Deja el botón deshabilitado hasta que el pipeline avise
+    //           (whenStarted): así el primer intento no compite con la
+    //           migración ni llega antes que el trabajador demo.
     //        5) Conecta el botón “Iniciar sesión” con el método doLogin().
     //    - Retorno:
     //        * void (callback de ciclo de vida; no retorna valor).
@@ -99,13 +132,11 @@ public class LoginActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
-        // Semilla de datos: crea registros de ejemplo si la DB está vacía.
-        DbSeeder.seedIfEmpty(getApplicationContext());
-
-        setContentView(R.layout.activity_login);
+        // Base de datos: abrir, migrar y sembrar en segundo plano.
+        StartupPipeline.start(this);
 
         // Si ya hay sesión, salta a MainActivity.
-        SharedPreferences sp = getSharedPreferences(PREFS, MODE_PRIVATE);
+        SharedPreferences sp = getSharedPreferences(sessionPrefs(), MODE_PRIVATE);
         if (sp.contains(KEY_EMAIL)) {
             startActivity(new Intent(this, MainActivity.class));
             finish();
@@ -118,9 +149,27 @@ public class LoginActivity extends AppCompatActivity {
         etEmail = findViewById(R.id.etEmail);
         etPass  = findViewById(R.id.etPass);
         btnLogin = findViewById(R.id.btnLogin);
+        async = TallerAsync.bind(this);
+        StartupMetrics.trackFirstFrame(this);
 
-        // Acción del botón: ejecutar autenticación.
+        // Acción del botón: ejecutar autenticación (cuando la DB esté lista).
         btnLogin.setOnClickListener(v -> doLogin());
+        btnLogin.setEnabled(false);
+        async.whenStarted(new TallerAsync.Callback<Void>() {
+            @Override
+            public void onResult(Void value) {
+                btnLogin.setEnabled(true);
+                StartupMetrics.markLoginReady();
+                reportFullyDrawn();
+            }
+
+            @Override
+            public void onError(Throwable ex) {
+                // Se deja intentar: doLogin mostrará el error concreto.
+                btnLogin.setEnabled(true);
+                showError(ex);
+            }
+        });
     }
 
     // ------------------------------------------------------------------
@@ -133,16 +182,18 @@ public class LoginActivity extends AppCompatActivity {
     //        2) Lee y normaliza las entradas de email y password.
     //        3) Valida que ambos campos no estén vacíos; si lo están,
     //           marca error y devuelve el foco al campo correspondiente.
-    //        4) Crea PersonaRepository y llama a authenticateTrabajador(email, pass):
+    //        4) Deshabilita el botón y llama en segundo plano a
+    //           personas.authenticateTrabajador(email, pass) vía TallerAsync:
     //             - Si las credenciales son correctas y el usuario es
     //               de tipo “trabajador”, retorna un nombre visible (String).
     //             - Si falla la autenticación, retorna null.
-    //        5) Si el login es válido:
-    //             - Guarda email y nombre en SharedPreferences (PREFS).
+    //        5) De vuelta en el hilo principal, rehabilita el botón y,
+    //           si el login es válido:
+    //             - Guarda email y nombre en SharedPreferences (sessionPrefs()).
     //             - Navega a MainActivity y finaliza el login.
     //           Si no es válido:
     //             - Muestra un Toast “Credenciales inválidas”.
-    //        6) Manejo de errores:
+    //        6) Manejo de errores (showError):
     //             - SQLiteException: problemas de base de datos (corrupción,
     //               versión desactualizada, etc.). Sugiere borrar datos o reinstalar.
     //             - Exception genérica: muestra un mensaje de error inesperado y
@@ -171,38 +222,62 @@ public class LoginActivity extends AppCompatActivity {
             return;
         }
 
-        try {
-            PersonaRepository repo = new PersonaRepository(this);
-            String displayName = repo.authenticateTrabajador(
-                    email,
-                    pass
-            );
-
-            if (displayName != null) {
-                // Persistir sesión (email y nombre visible).
-                getSharedPreferences(PREFS, MODE_PRIVATE)
-                        .edit()
-                        .putString(KEY_EMAIL, email)
-                        .putString(KEY_NAME,  displayName)
-                        .apply();
-
-                // Ir al panel principal y cerrar el login.
-                startActivity(new Intent(this, MainActivity.class));
-                finish();
-            } else {
-                Toast.makeText(this, "Credenciales inválidas", Toast.LENGTH_SHORT).show();
-            }
+        // Si el arranque de la DB falló, lo reintenta (no hace nada si ya
+        // terminó bien o sigue en curso).
+        StartupPipeline.start(this);
+
+        // Evita un segundo intento mientras el primero sigue en curso.
+        btnLogin.setEnabled(false);
+        async.load("login", () -> async.personas.authenticateTrabajador(email, pass),
+                new TallerAsync.Callback<String>() {
+                    @Override
+                    public void onResult(String displayName) {
+                        btnLogin.setEnabled(true);
+                        if (displayName != null) {
+                            // Persistir sesión (email y nombre visible).
+                            getSharedPreferences(sessionPrefs(), MODE_PRIVATE)
+                                    .edit()
+                                    .putString(KEY_EMAIL, email)
+                                    .putString(KEY_NAME,  displayName)
+                                    .apply();
+
+                            // Ir al panel principal y cerrar el login.
+                            startActivity(new Intent(LoginActivity.this, MainActivity.class));
+                            finish();
+                        } else {
+                            Toast.makeText(LoginActivity.this, "Credenciales inválidas", Toast.LENGTH_SHORT).show();
+                        }
+                    }
 
-        } catch (SQLiteException ex) {
+                    @Override
+                    public void onError(Throwable ex) {
+                        btnLogin.setEnabled(true);
+                        showError(ex);
+                    }
+                });
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: showError
+    //    - Parámetros:
+    //        * ex (Throwable): error del arranque de la DB o del login.
+    //    - Descripción detallada:
+    //        * SQLiteException: problemas de base de datos (corrupción,
+    //          versión desactualizada, etc.). Sugiere borrar datos o reinstalar.
+    //        * Otra excepción: mensaje de error inesperado.
+    //        En ambos casos registra los detalles en Logcat.
+    // ------------------------------------------------------------------
+    private void showError(Throwable ex) {
+        if (ex instanceof SQLiteException) {
             Log.e(TAG, "SQLiteException en login", ex);
             Toast.makeText(
-                    this,
+                    LoginActivity.this,
                     "Base de datos no disponible o desactualizada. Borra datos de la app o reinstala.",
                     Toast.LENGTH_LONG
             ).show();
-        } catch (Exception ex) {
+        } else {
             Log.e(TAG, "Error inesperado en login", ex);
-            Toast.makeText(this, "Error inesperado al iniciar sesión.", Toast.LENGTH_SHORT).show();
+            Toast.makeText(LoginActivity.this, "Error inesperado al iniciar sesión.", Toast.LENGTH_SHORT).show();
         }
     }
 }
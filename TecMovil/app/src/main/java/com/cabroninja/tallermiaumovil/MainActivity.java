@@ -17,9 +17,8 @@ import androidx.drawerlayout.widget.DrawerLayout;
 
 import com.google.android.material.navigation.NavigationView;
 
-import com.cabroninja.tallermiaumovil.data.PersonaRepository;
-import com.cabroninja.tallermiaumovil.data.VehiculoRepository;
-import com.cabroninja.tallermiaumovil.data.OrdenRepository;
+import com.cabroninja.tallermiaumovil.data.DashboardStats;
+import com.cabroninja.tallermiaumovil.data.TallerAsync;
 
 // ======================================================================
 // == Clase: MainActivity
@@ -32,16 +31,12 @@ import com.cabroninja.tallermiaumovil.data.OrdenRepository;
 //    - Botones de navegación rápida y menú lateral (drawer).
 //    - Gestiona la navegación a PersonasActivity, VehiculosActivity,
 //      OrdenesActivity y ManageClientesActivity.
+//    - La opción "Diagnóstico" (DiagnosticoActivity) del menú lateral
+//      está oculta: se muestra en builds debug o con una pulsación larga
+//      en la cabecera del menú.
 // ======================================================================
 public class MainActivity extends AppCompatActivity implements NavigationView.OnNavigationItemSelectedListener {
 
-    // ------------------------------------------------------------------
-    // == Atributo: PREFS
-    //    Clave del archivo de preferencias compartidas (SharedPreferences)
-    //    donde se guarda el estado de autenticación.
-    // ------------------------------------------------------------------
-    private static final String PREFS = "auth_prefs";
-
     // ------------------------------------------------------------------
     // == Atributo: KEY_EMAIL
     //    Clave usada en SharedPreferences para persistir el email del
@@ -120,26 +115,12 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
     private Button btnGestionar;
 
     // ------------------------------------------------------------------
-    // == Atributo: personaRepo
-    //    Repositorio de acceso a datos de personas (tabla Persona).
-    //    Provee métodos como countByTipo("cliente") para contadores y
-    //    listados filtrados.
+    // == Atributo: async
+    //    Fachada asíncrona sobre los repositorios (personas, vehículos y
+    //    órdenes). Las consultas corren en DbExecutor y los resultados
+    //    llegan al hilo principal mientras esta Activity siga viva.
     // ------------------------------------------------------------------
-    private PersonaRepository personaRepo;
-
-    // ------------------------------------------------------------------
-    // == Atributo: vehiculoRepo
-    //    Repositorio de acceso a datos de vehículos. Centraliza queries
-    //    a SQLite para separar UI de datos.
-    // ------------------------------------------------------------------
-    private VehiculoRepository vehiculoRepo;
-
-    // ------------------------------------------------------------------
-    // == Atributo: ordenRepo
-    //    Repositorio de acceso a datos de órdenes de trabajo (OT).
-    //    Permite contar y listar órdenes de forma consistente.
-    // ------------------------------------------------------------------
-    private OrdenRepository ordenRepo;
+    private TallerAsync async;
 
     // ------------------------------------------------------------------
     // == Método: onCreate
@@ -156,9 +137,12 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
     //      3) Configura DrawerLayout + ActionBarDrawerToggle (botón
     //         "hamburguesa") y registra el listener del NavigationView.
     //      4) Carga el header del NavigationView y muestra nombre/email
-    //         del usuario autenticado.
+    //         del usuario autenticado. Una pulsación larga en el header
+    //         muestra la opción oculta "Diagnóstico" (visible siempre en
+    //         builds debug).
     //      5) Inicializa vistas del dashboard (TextViews y Buttons).
-    //      6) Instancia repositorios (SQLite) y refresca contadores.
+    //      6) Crea la fachada asíncrona de repositorios y refresca
+    //         contadores (en segundo plano).
     //      7) Configura los botones para navegar a las pantallas clave.
     //
     //    Retorna:
@@ -169,7 +153,8 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         super.onCreate(savedInstanceState);
 
         // Verificación de sesión: si no hay email guardado, ir a Login.
-        SharedPreferences sp = getSharedPreferences(PREFS, MODE_PRIVATE);
+        // (archivo de sesión compartido con LoginActivity)
+        SharedPreferences sp = getSharedPreferences(LoginActivity.sessionPrefs(), MODE_PRIVATE);
         if (!sp.contains(KEY_EMAIL)) {
             startActivity(new Intent(this, LoginActivity.class));
             finish();
@@ -199,6 +184,9 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         // Manejo de clics en el menú lateral (esta Activity es el listener).
         nav.setNavigationItemSelectedListener(this);
 
+        // Opción de diagnóstico: visible en debug, oculta en release.
+        nav.getMenu().findItem(R.id.nav_diagnostico).setVisible(BuildConfig.DEBUG);
+
         // ------- Header con datos del usuario (nombre y email) -------
         String displayName = sp.getString(KEY_NAME, "");
         String email = sp.getString(KEY_EMAIL, "");
@@ -216,6 +204,10 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
                 // Evita null en la UI; muestra vacío si no hay email.
                 tvEmail.setText(email != null ? email : "");
             }
+            headerView.setOnLongClickListener(v -> {
+                nav.getMenu().findItem(R.id.nav_diagnostico).setVisible(true);
+                return true;
+            });
         }
 
         // ------- Dashboard: saludo, contadores y botones -------
@@ -240,9 +232,7 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         tvGreeting.setText(saludo);
 
         // Repositorios (SQLite) para contadores y futuras consultas.
-        personaRepo  = new PersonaRepository(this);
-        vehiculoRepo = new VehiculoRepository(this);
-        ordenRepo    = new OrdenRepository(this);
+        async = TallerAsync.bind(this);
 
         // Cálculo inicial de contadores (Clientes/Vehículos/Órdenes).
         refreshCounters();
@@ -266,9 +256,8 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
     //
     //    Descripción:
     //      Refresca los contadores por si se realizaron cambios en otras
-    //      pantallas (por ejemplo, se agregó un cliente u orden).
-    //      Se usa try/catch defensivo para evitar que un error visual
-    //      bloquee el retorno a la pantalla principal.
+    //      pantallas (por ejemplo, se agregó un cliente u orden). Si la
+    //      carga inicial de onCreate sigue en vuelo, se agrupa con ella.
     //
     //    Retorna:
     //      - void: callback del ciclo de vida, no retorna valor.
@@ -276,7 +265,7 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
     @Override
     protected void onResume() {
         super.onResume();
-        try { refreshCounters(); } catch (Exception ignored) {}
+        if (async != null) refreshCounters();
     }
 
     // ------------------------------------------------------------------
@@ -291,6 +280,7 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
     //        * nav_clientes  -> abre PersonasActivity
     //        * nav_vehiculos -> abre VehiculosActivity
     //        * nav_ordenes   -> abre OrdenesActivity
+    //        * nav_diagnostico -> abre DiagnosticoActivity
     //        * nav_logout    -> limpia sesión y retorna a LoginActivity
     //      Tras procesar, cierra el drawer para volver al contenido.
     //
@@ -308,9 +298,11 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
             startActivity(new Intent(this, VehiculosActivity.class));
         } else if (id == R.id.nav_ordenes) {
             startActivity(new Intent(this, OrdenesActivity.class));
+        } else if (id == R.id.nav_diagnostico) {
+            startActivity(new Intent(this, DiagnosticoActivity.class));
         } else if (id == R.id.nav_logout) {
             // Cerrar sesión: limpiar SharedPreferences y volver al login.
-            getSharedPreferences(PREFS, MODE_PRIVATE).edit().clear().apply();
+            getSharedPreferences(LoginActivity.sessionPrefs(), MODE_PRIVATE).edit().clear().apply();
             startActivity(new Intent(this, LoginActivity.class));
             finish();
         }
@@ -325,24 +317,29 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
     //      - (sin parámetros).
     //
     //    Descripción:
-    //      Consulta SQLite mediante los repositorios y actualiza los
-    //      TextViews de contadores:
-    //        * Clientes: usa personaRepo.countByTipo("cliente") para
-    //          excluir a los trabajadores de este conteo.
-    //        * Vehículos: usa vehiculoRepo.count().
-    //        * Órdenes:   usa ordenRepo.count().
-    //      Convierte cada número a String y lo pinta en la UI.
+    //      Pinta los contadores (Clientes/Vehículos/Órdenes) del panel:
+    //        * Si DashboardStats tiene valores en caché (ninguna escritura
+    //          los invalidó), se pintan al instante sin tocar SQLite.
+    //        * Si no, se obtienen los tres con UNA consulta en segundo
+    //          plano (TallerAsync) y se pintan de vuelta en el hilo
+    //          principal.
+    //      Clientes excluye a los trabajadores (tipo = 'cliente').
     //
     //    Retorna:
     //      - void: no retorna valor, solo actualiza la interfaz.
     // ------------------------------------------------------------------
     private void refreshCounters() {
-        int countClientes  = personaRepo.countByTipo("cliente");
-        int countVehiculos = vehiculoRepo.count();
-        int countOrdenes   = ordenRepo.count();
+        DashboardStats.Snapshot cached = async.stats.peek();
+        if (cached != null) {
+            pintarContadores(cached);
+            return;
+        }
+        async.load("contadores", async.stats::get, this::pintarContadores);
+    }
 
-        tvCountClientes.setText(String.valueOf(countClientes));
-        tvCountVehiculos.setText(String.valueOf(countVehiculos));
-        tvCountOrdenes.setText(String.valueOf(countOrdenes));
+    private void pintarContadores(DashboardStats.Snapshot c) {
+        tvCountClientes.setText(String.valueOf(c.clientes));
+        tvCountVehiculos.setText(String.valueOf(c.vehiculos));
+        tvCountOrdenes.setText(String.valueOf(c.ordenes));
     }
 }
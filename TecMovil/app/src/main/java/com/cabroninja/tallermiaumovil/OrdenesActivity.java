@@ -1,17 +1,25 @@
 package com.cabroninja.tallermiaumovil;
 
 import android.os.Bundle;
+import android.view.Menu;
+
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cabroninja.tallermiaumovil.data.OrdenRepository;
+import com.cabroninja.tallermiaumovil.data.TableChange;
+import com.cabroninja.tallermiaumovil.data.TallerAsync;
+import com.cabroninja.tallermiaumovil.data.TallerDbHelper;
 import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
 import com.cabroninja.tallermiaumovil.ui.OrdenAdapter;
+import com.cabroninja.tallermiaumovil.ui.SearchBox;
 
 import java.util.List;
+import java.util.Objects;
 
 import androidx.appcompat.widget.Toolbar;
+import androidx.lifecycle.Lifecycle;
 
 // ======================================================================
 // == Clase: OrdenesActivity
@@ -21,18 +29,24 @@ import androidx.appcompat.widget.Toolbar;
 //    - Si recibe una patente por Intent (clave "patente"), filtra y
 //      muestra únicamente las OTs asociadas a ese vehículo.
 //    - Si no recibe patente, muestra todas las OTs registradas.
+//    - Carga por páginas (keyset sobre id DESC): primero PAGE_SIZE OTs
+//      y la siguiente página solo cuando el usuario se acerca al final.
+//    - Buscador en el Toolbar (SearchBox) por número u observación: las
+//      páginas pasan a ser del ranking de relevancia (por posición).
 // == Colaboradores clave:
-//    - OrdenRepository: fuente de datos (SQLite) para leer OTs.
+//    - TallerAsync    : lee páginas de OTs (OrdenRepository) fuera del
+//                       hilo principal.
 //    - OrdenAdapter   : adaptador que renderiza cada OT en la lista.
 // ======================================================================
 public class OrdenesActivity extends AppCompatActivity {
 
     // ------------------------------------------------------------------
-    // == Atributo: repo
-    //    Tipo: OrdenRepository
-    //    Rol : Acceso a SQLite para obtener listas de OrdenTrabajo.
+    // == Atributo: async
+    //    Tipo: TallerAsync
+    //    Rol : Acceso a SQLite en segundo plano para obtener páginas de
+    //          OrdenTrabajo. Agrupa pedidos repetidos de la misma página.
     // ------------------------------------------------------------------
-    private OrdenRepository repo;
+    private TallerAsync async;
 
     // ------------------------------------------------------------------
     // == Atributo: adapter
@@ -50,6 +64,39 @@ public class OrdenesActivity extends AppCompatActivity {
     // ------------------------------------------------------------------
     private String patente = null;
 
+    // ------------------------------------------------------------------
+    // == Atributo: PREFETCH
+    //    Tipo: int (constante)
+    //    Rol : Filas restantes bajo la última visible a partir de las
+    //          cuales se pide la página siguiente.
+    // ------------------------------------------------------------------
+    private static final int PREFETCH = 10;
+
+    // ------------------------------------------------------------------
+    // == Atributos: estado de paginación
+    //    - layoutManager: para saber cuál es la última fila visible.
+    //    - hayMas: false cuando la última página llegó incompleta.
+    //    - generacion: se incrementa en cada recarga; una página pedida
+    //      antes de la recarga se descarta al llegar.
+    //    - sucio: true si lo mostrado puede no reflejar orden_trabajo (aún
+    //      no se cargó o llegó un TableChange); onResume solo recarga
+    //      si está en true.
+    // ------------------------------------------------------------------
+    private LinearLayoutManager layoutManager;
+    private boolean hayMas = true;
+    private int generacion = 0;
+    private boolean sucio = true;
+
+    // ------------------------------------------------------------------
+    // == Atributos: búsqueda
+    //    - busqueda: texto del buscador, o null para la lista por id.
+    //    - posicion: hits del ranking ya pedidos; la página siguiente
+    //      empieza ahí (no en getItemCount(): un borrado quita filas sin
+    //      mover el ranking).
+    // ------------------------------------------------------------------
+    private String busqueda;
+    private int posicion;
+
     // ------------------------------------------------------------------
     // == Método: onCreate
     //    Parámetros:
@@ -60,6 +107,8 @@ public class OrdenesActivity extends AppCompatActivity {
     //      - Configura Toolbar con título y botón de retroceso.
     //      - Inicializa repositorio y lee el filtro "patente" del Intent.
     //      - Configura RecyclerView con LinearLayoutManager y OrdenAdapter.
+    //      - Registra un OnScrollListener que pide la página siguiente al
+    //        acercarse al final de la lista.
     //    Retorno:
     //      - void (callback del ciclo de vida).
     // ------------------------------------------------------------------
@@ -78,15 +127,47 @@ public class OrdenesActivity extends AppCompatActivity {
         toolbar.setNavigationOnClickListener(v -> finish());
 
         // Repositorio y filtro de patente (opcional)
-        repo = new OrdenRepository(this);
+        async = TallerAsync.bind(this);
         patente = getIntent().getStringExtra("patente");
 
         // Lista y adaptador
         RecyclerView rv = findViewById(R.id.recyclerClientes);
-        rv.setLayoutManager(new LinearLayoutManager(this));
+        layoutManager = new LinearLayoutManager(this);
+        rv.setLayoutManager(layoutManager);
 
         adapter = new OrdenAdapter();
         rv.setAdapter(adapter);
+
+        async.observe(this::onCambio, TallerDbHelper.T_ORDEN);
+
+        rv.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0 || !hayMas) return;
+                int ultima = layoutManager.findLastVisibleItemPosition();
+                if (ultima >= adapter.getItemCount() - PREFETCH) {
+                    cargarSiguiente();
+                }
+            }
+        });
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: onCreateOptionsMenu
+    //    Descripción:
+    //      - Agrega el buscador al Toolbar.
+    // ------------------------------------------------------------------
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_buscar, menu);
+        SearchBox.attach(menu.findItem(R.id.action_buscar), "Número u observación", this::buscar);
+        return true;
+    }
+
+    // Nuevo texto del buscador (null = volver a la lista por id).
+    private void buscar(String texto) {
+        busqueda = texto;
+        cargar();
     }
 
     // ------------------------------------------------------------------
@@ -94,15 +175,41 @@ public class OrdenesActivity extends AppCompatActivity {
     //    Parámetros:
     //      - (sin parámetros)
     //    Descripción:
-    //      - Al volver a primer plano, recarga la lista para reflejar
-    //        posibles cambios recientes en la base de datos.
+    //      - Al volver a primer plano, recarga la primera página solo si
+    //        orden_trabajo cambió mientras la pantalla no estaba visible.
     //    Retorno:
     //      - void.
     // ------------------------------------------------------------------
     @Override
     protected void onResume() {
         super.onResume();
-        cargar();
+        if (sucio) cargar();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: onCambio
+    //    Parámetros:
+    //      - c (TableChange): escritura confirmada en orden_trabajo
+    //        (incluye la cascada al borrar un vehículo, sin ids).
+    //    Descripción:
+    //      - Borrado con ids conocidos: se quitan las filas sin consultar.
+    //      - Cualquier otro cambio marca la lista como sucia y recarga la
+    //        primera página ya (si está visible) o en el próximo onResume.
+    //    Retorno:
+    //      - void.
+    // ------------------------------------------------------------------
+    private void onCambio(TableChange c) {
+        boolean cargando = async.isLoading(clave(primera()));
+        if (c.op == TableChange.Op.DELETE && c.keysKnown() && !cargando) {
+            adapter.removeKeys(c.keys);
+            return;
+        }
+        sucio = true;
+        if (!cargando && visible()) cargar();
+    }
+
+    private boolean visible() {
+        return getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.RESUMED);
     }
 
     // ------------------------------------------------------------------
@@ -110,21 +217,75 @@ public class OrdenesActivity extends AppCompatActivity {
     //    Parámetros:
     //      - (sin parámetros)
     //    Descripción:
-    //      - Si "patente" no es null, obtiene las OTs asociadas a esa
-    //        patente desde OrdenRepository.listByPatente(patente).
-    //      - En caso contrario, obtiene todas las OTs con listAll().
-    //      - Entrega la colección al adapter mediante submit() para
-    //        refrescar el RecyclerView.
+    //      - Pide en segundo plano la primera página (las PAGE_SIZE OTs
+    //        más recientes, o las más relevantes si hay búsqueda,
+    //        filtradas por patente si corresponde) y la entrega al adapter
+    //        mediante submit(), descartando las páginas anteriores.
+    //      - Si llegó un cambio mientras la consulta corría, se vuelve a
+    //        cargar.
     //    Retorno:
     //      - void.
     // ------------------------------------------------------------------
     private void cargar() {
-        List<OrdenTrabajo> lista;
-        if (patente != null) {
-            lista = repo.listByPatente(patente);
-        } else {
-            lista = repo.listAll();
-        }
-        adapter.submit(lista);
+        final int gen = ++generacion;
+        sucio = false;
+        pedirPagina(primera(), pagina -> {
+            if (gen != generacion) return;
+            hayMas = pagina.size() == OrdenRepository.PAGE_SIZE;
+            posicion = pagina.size();
+            adapter.submit(pagina);
+            if (sucio && visible()) cargar();
+        });
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: cargarSiguiente
+    //    Descripción:
+    //      - Pide la página que sigue a la última OT mostrada (o a la
+    //        última posición del ranking, si hay búsqueda) y la agrega al
+    //        final del adapter. Una página incompleta marca el fin.
+    //      - Mientras esa página está en vuelo, los eventos de scroll
+    //        siguientes piden la misma clave y no generan otra consulta.
+    //    Retorno:
+    //      - void.
+    // ------------------------------------------------------------------
+    private void cargarSiguiente() {
+        final int gen = generacion;
+        final long desde = busqueda != null ? posicion : adapter.getLastId();
+        pedirPagina(desde, pagina -> {
+            if (gen != generacion || desde != (busqueda != null ? posicion : adapter.getLastId())) return;
+            hayMas = pagina.size() == OrdenRepository.PAGE_SIZE;
+            posicion += pagina.size();
+            adapter.append(pagina);
+        });
+    }
+
+    // Pide en segundo plano una página de OTs, con o sin filtro de patente:
+    //   - sin búsqueda, "desde" es el id de la última OT mostrada (keyset);
+    //   - con búsqueda, es la posición en el ranking (offset).
+    // Una página de una búsqueda que ya no es la actual se descarta.
+    private void pedirPagina(long desde, TallerAsync.Callback<List<OrdenTrabajo>> callback) {
+        final String p = patente;
+        final String texto = busqueda;
+        async.load(clave(desde), () -> {
+            if (texto != null) {
+                return async.ordenes.search(texto, p, (int) desde, OrdenRepository.PAGE_SIZE);
+            }
+            return p != null
+                    ? async.ordenes.listPageByPatente(p, desde, OrdenRepository.PAGE_SIZE)
+                    : async.ordenes.listPage(desde, OrdenRepository.PAGE_SIZE);
+        }, pagina -> {
+            if (Objects.equals(texto, busqueda)) callback.onResult(pagina);
+        });
+    }
+
+    // Valor de "desde" para la primera página del modo actual.
+    private long primera() {
+        return busqueda != null ? 0 : OrdenRepository.FIRST_PAGE;
+    }
+
+    private String clave(long desde) {
+        String base = "ordenes:" + patente + ":" + desde;
+        return busqueda == null ? base : base + "?" + busqueda;
     }
 }
@@ -1,6 +1,7 @@
 package com.cabroninja.tallermiaumovil;
 
 import android.os.Bundle;
+import android.view.Menu;
 import android.widget.Toast;
 import android.content.Intent; // <-- agregado
 import androidx.appcompat.app.AppCompatActivity;
@@ -8,12 +9,19 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cabroninja.tallermiaumovil.data.PersonaRepository;
-import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.data.SearchIndex;
+import com.cabroninja.tallermiaumovil.data.TableChange;
+import com.cabroninja.tallermiaumovil.data.TallerAsync;
+import com.cabroninja.tallermiaumovil.data.TallerDbHelper;
+import com.cabroninja.tallermiaumovil.ui.CursorListAdapter;
 import com.cabroninja.tallermiaumovil.ui.PersonaAdapter;
-
-import java.util.List;
+import com.cabroninja.tallermiaumovil.ui.PersonaCursorAdapter;
+import com.cabroninja.tallermiaumovil.ui.SearchBox;
 
 import androidx.appcompat.widget.Toolbar;
+import androidx.lifecycle.Lifecycle;
+
+import java.util.Objects;
 
 // ======================================================================
 // == Clase: PersonasActivity
@@ -23,8 +31,10 @@ import androidx.appcompat.widget.Toolbar;
 //      RecyclerView y un PersonaAdapter.
 //    - Permite navegar a VehiculosActivity al tocar un cliente, pasando
 //      su RUN en el Intent (clave "run_cliente") para filtrar vehículos.
+//    - Buscador en el Toolbar (SearchBox): mientras hay texto la lista
+//      muestra los clientes que coinciden, ordenados por relevancia.
 // == Colaboradores clave:
-//    - PersonaRepository: acceso a SQLite (lee clientes).
+//    - TallerAsync      : lee clientes desde SQLite en segundo plano.
 //    - PersonaAdapter   : adapta List<Persona> al RecyclerView.
 //    - VehiculosActivity: destino al seleccionar un cliente.
 // ======================================================================
@@ -41,15 +51,69 @@ public class PersonasActivity extends AppCompatActivity {
     // == Atributo: adapter
     //    Tipo: PersonaAdapter
     //    Rol : Puente entre los datos (List<Persona>) y las celdas del RV.
+    //          Lista por defecto (completa y resultados del buscador):
+    //          DiffUtil + ids estables, un cambio rebindea solo sus filas.
     // ------------------------------------------------------------------
     private PersonaAdapter adapter;
 
     // ------------------------------------------------------------------
-    // == Atributo: repo
-    //    Tipo: PersonaRepository
-    //    Rol : Fuente de datos: provee listByTipo("cliente") desde SQLite.
+    // == Atributo: cursorAdapter
+    //    Tipo: PersonaCursorAdapter
+    //    Rol : Lista completa de clientes en modo cursor (ver
+    //          modoCursor): las filas se leen del resultado al bindear,
+    //          sin armar List<Persona>.
+    // ------------------------------------------------------------------
+    private PersonaCursorAdapter cursorAdapter;
+
+    // ------------------------------------------------------------------
+    // == Atributo: forzarCursor
+    //    Tipo: boolean
+    //    Rol : true si el Intent pidió el modo cursor
+    //          (CursorListAdapter.EXTRA_MODO_CURSOR) aunque haya pocos
+    //          clientes.
+    // ------------------------------------------------------------------
+    private boolean forzarCursor;
+
+    // ------------------------------------------------------------------
+    // == Atributo: modoCursor
+    //    Tipo: boolean
+    //    Rol : true si la última carga de la lista completa quedó en
+    //          modo cursor (forzarCursor o CursorListAdapter.UMBRAL_FILAS
+    //          clientes o más). Cada cambio recarga el cursor completo y
+    //          rebindea todo, y el scroll profundo rellena ventanas en el
+    //          hilo principal; a cambio la lista no se arma en memoria
+    //          (ver CursorAdapterBenchmark).
+    // ------------------------------------------------------------------
+    private boolean modoCursor;
+
+    // ------------------------------------------------------------------
+    // == Atributo: async
+    //    Tipo: TallerAsync
+    //    Rol : Fuente de datos: ejecuta personas.listByTipo("cliente")
+    //          fuera del hilo principal y entrega la lista al adapter.
+    // ------------------------------------------------------------------
+    private TallerAsync async;
+
+    // ------------------------------------------------------------------
+    // == Atributo: sucio
+    //    Tipo: boolean
+    //    Rol : true si la lista mostrada puede no reflejar la tabla
+    //          persona (aún no se cargó o llegó un TableChange). onResume
+    //          solo consulta si está en true.
     // ------------------------------------------------------------------
-    private PersonaRepository repo;
+    private boolean sucio = true;
+
+    // ------------------------------------------------------------------
+    // == Atributo: busqueda
+    //    Tipo: String
+    //    Rol : Texto del buscador, o null si se muestra la lista completa.
+    // ------------------------------------------------------------------
+    private String busqueda;
+
+    // Buscador del Toolbar (avisa si una búsqueda quedó en el tope).
+    private SearchBox buscador;
+
+    private static final String KEY = "clientes";
 
     // ------------------------------------------------------------------
     // == Método: onCreate
@@ -81,7 +145,8 @@ public class PersonasActivity extends AppCompatActivity {
         toolbar.setNavigationOnClickListener(v -> finish());
 
         // ---- Repositorio y lista ----
-        repo = new PersonaRepository(this);
+        async = TallerAsync.bind(this);
+        forzarCursor = getIntent().getBooleanExtra(CursorListAdapter.EXTRA_MODO_CURSOR, false);
 
         rv = findViewById(R.id.recyclerClientes);
         rv.setLayoutManager(new LinearLayoutManager(this));
@@ -89,14 +154,36 @@ public class PersonasActivity extends AppCompatActivity {
         // Adapter con callback al tocar un cliente:
         //   - Crea Intent hacia VehiculosActivity
         //   - Inserta "run_cliente" = p.run como extra para filtrar vehículos
-        adapter = new PersonaAdapter(
-                p -> {
-                    Intent i = new Intent(this, VehiculosActivity.class);
-                    i.putExtra("run_cliente", p.run);   // RUN del cliente seleccionado
-                    startActivity(i);
-                }
-        );
+        PersonaAdapter.OnClick abrirVehiculos = p -> {
+            Intent i = new Intent(this, VehiculosActivity.class);
+            i.putExtra("run_cliente", p.run);   // RUN del cliente seleccionado
+            i.putExtra(CursorListAdapter.EXTRA_MODO_CURSOR, forzarCursor);
+            startActivity(i);
+        };
+        adapter = new PersonaAdapter(abrirVehiculos);
+        cursorAdapter = new PersonaCursorAdapter(abrirVehiculos);
+        getLifecycle().addObserver(cursorAdapter);   // cierra el cursor en onDestroy
         rv.setAdapter(adapter);
+
+        async.observe(this::onCambio, TallerDbHelper.T_PERSONA);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: onCreateOptionsMenu
+    //    Descripción:
+    //      - Agrega el buscador al Toolbar.
+    // ------------------------------------------------------------------
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_buscar, menu);
+        buscador = SearchBox.attach(menu.findItem(R.id.action_buscar), "Nombre, apellido o email", this::buscar);
+        return true;
+    }
+
+    // Nuevo texto del buscador (null = volver a la lista completa).
+    private void buscar(String texto) {
+        busqueda = texto;
+        cargar();
     }
 
     // ------------------------------------------------------------------
@@ -105,14 +192,53 @@ public class PersonasActivity extends AppCompatActivity {
     //      - (sin parámetros)
     //    Descripción:
     //      - Callback del ciclo de vida que se dispara al volver a primer
-    //        plano. Recarga la lista para reflejar cambios recientes.
+    //        plano. Recarga la lista solo si persona cambió mientras la
+    //        pantalla no estaba visible (abrir y cerrar un detalle no
+    //        cuesta ninguna consulta).
     //    Retorno:
     //      - void.
     // ------------------------------------------------------------------
     @Override
     protected void onResume() {
         super.onResume();
-        cargar();
+        if (sucio) cargar();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: onCambio
+    //    Parámetros:
+    //      - c (TableChange): escritura confirmada en persona.
+    //    Descripción:
+    //      - Borrado con RUN conocidos: se quitan las filas del adapter
+    //        sin consultar. (Un cursor no admite quitar filas: con la
+    //        lista completa en modo cursor se vuelve a consultar.)
+    //      - Cualquier otro cambio (alta, edición, cambio de tipo) marca
+    //        la lista como sucia; si la pantalla está visible se recarga
+    //        ya, si no, en el próximo onResume.
+    //    Retorno:
+    //      - void.
+    // ------------------------------------------------------------------
+    private void onCambio(TableChange c) {
+        boolean cargando = async.isLoading(clave());
+        if (!usaCursor() && c.op == TableChange.Op.DELETE && c.keysKnown() && !cargando) {
+            adapter.removeKeys(c.keys);
+            return;
+        }
+        sucio = true;
+        if (!cargando && visible()) cargar();
+    }
+
+    private boolean visible() {
+        return getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.RESUMED);
+    }
+
+    // true si la lista actual es la completa en modo cursor.
+    private boolean usaCursor() {
+        return modoCursor && busqueda == null;
+    }
+
+    private String clave() {
+        return busqueda == null ? KEY : KEY + "?" + busqueda;
     }
 
     // ------------------------------------------------------------------
@@ -120,13 +246,56 @@ public class PersonasActivity extends AppCompatActivity {
     //    Parámetros:
     //      - (sin parámetros)
     //    Descripción:
-    //      - Obtiene desde PersonaRepository a todas las personas cuyo
-    //        tipo = "cliente" y las entrega al adapter mediante submit().
+    //      - Obtiene en segundo plano a todas las personas cuyo
+    //        tipo = "cliente" (o, con texto en el buscador, las que
+    //        coinciden) y las entrega al adapter mediante submit().
+    //      - La lista completa se abre como cursor: con
+    //        CursorListAdapter.UMBRAL_FILAS filas o más (o forzarCursor)
+    //        pasa tal cual a cursorAdapter (ninguna fila se convierte en
+    //        objeto antes de mostrarse); con menos se lee a la lista de
+    //        adapter (ver CursorListAdapter.Carga).
+    //      - Un resultado de una búsqueda que ya no es la actual se
+    //        descarta (el usuario siguió escribiendo).
+    //      - Si llegó un cambio mientras la consulta corría, su resultado
+    //        puede no incluirlo: se vuelve a cargar.
     //    Retorno:
     //      - void.
     // ------------------------------------------------------------------
     private void cargar() {
-        List<Persona> lista = repo.listByTipo("cliente");
-        adapter.submit(lista);
+        sucio = false;
+        final String texto = busqueda;
+        if (texto == null) {
+            final boolean forzar = forzarCursor;
+            async.load(clave(), () -> CursorListAdapter.Carga.de(
+                    async.personas.cursorByTipo("cliente"), forzar, PersonaRepository::read), carga -> {
+                if (busqueda != null) {
+                    carga.close();
+                    return;
+                }
+                modoCursor = carga.cursor != null;
+                if (modoCursor) {
+                    mostrar(cursorAdapter);
+                    cursorAdapter.swap(carga.cursor);
+                } else {
+                    mostrar(adapter);
+                    adapter.submit(carga.lista);
+                    cursorAdapter.swap(null);
+                }
+                if (sucio && visible()) cargar();
+            });
+            return;
+        }
+        async.load(clave(), () -> async.personas.searchByTipo("cliente", texto, 0, SearchIndex.CANDIDATES), lista -> {
+            if (!Objects.equals(texto, busqueda)) return;
+            mostrar(adapter);
+            adapter.submit(lista);
+            buscador.showResults(lista.size());
+            if (sucio && visible()) cargar();
+        });
+    }
+
+    // Pone en el RecyclerView el adapter del modo actual (cursor o lista).
+    private void mostrar(RecyclerView.Adapter<?> a) {
+        if (rv.getAdapter() != a) rv.setAdapter(a);
     }
 }
@@ -2,18 +2,29 @@ package com.cabroninja.tallermiaumovil;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.view.Menu;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.cabroninja.tallermiaumovil.data.SearchIndex;
+import com.cabroninja.tallermiaumovil.data.TableChange;
+import com.cabroninja.tallermiaumovil.data.TallerAsync;
+import com.cabroninja.tallermiaumovil.data.TallerDbHelper;
 import com.cabroninja.tallermiaumovil.data.VehiculoRepository;
 import com.cabroninja.tallermiaumovil.model.Vehiculo;
+import com.cabroninja.tallermiaumovil.ui.CursorListAdapter;
+import com.cabroninja.tallermiaumovil.ui.SearchBox;
 import com.cabroninja.tallermiaumovil.ui.VehiculoAdapter;
-
-import java.util.List;
+import com.cabroninja.tallermiaumovil.ui.VehiculoCursorAdapter;
 
 import androidx.appcompat.widget.Toolbar;
+import androidx.lifecycle.Lifecycle;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
 
 // ======================================================================
 // == Clase: VehiculosActivity
@@ -23,28 +34,62 @@ import androidx.appcompat.widget.Toolbar;
 //    - Si recibe un RUN de cliente vía Intent ("run_cliente"), filtra
 //      únicamente los vehículos cuyo dueño coincide con ese RUN.
 //    - Al tocar un vehículo, navega a OrdenesActivity pasando su patente.
+//    - Buscador en el Toolbar (SearchBox) por patente, modelo o color,
+//      respetando el filtro de dueño.
 // == Colaboradores clave:
-//    - VehiculoRepository: acceso a SQLite (listar por dueño o todos).
+//    - TallerAsync       : acceso a SQLite en segundo plano (listar por
+//                          dueño o todos).
 //    - VehiculoAdapter   : puente de datos para el RecyclerView.
 //    - OrdenesActivity   : destino al seleccionar un vehículo (muestra OTs).
 // ======================================================================
 public class VehiculosActivity extends AppCompatActivity {
 
     // ------------------------------------------------------------------
-    // == Atributo: repo
-    //    Tipo: VehiculoRepository
-    //    Rol : Fuente de datos para obtener listas de Vehiculo desde SQLite.
+    // == Atributo: async
+    //    Tipo: TallerAsync
+    //    Rol : Fuente de datos; obtiene listas de Vehiculo desde SQLite
+    //          fuera del hilo principal.
     // ------------------------------------------------------------------
-    private VehiculoRepository repo;
+    private TallerAsync async;
 
     // ------------------------------------------------------------------
     // == Atributo: adapter
     //    Tipo: VehiculoAdapter
     //    Rol : Adaptador del RecyclerView, renderiza cada Vehiculo y
     //          expone el callback de click para navegar a órdenes.
+    //          Lista por defecto (DiffUtil + ids estables).
     // ------------------------------------------------------------------
     private VehiculoAdapter adapter;
 
+    // ------------------------------------------------------------------
+    // == Atributo: cursorAdapter
+    //    Tipo: VehiculoCursorAdapter
+    //    Rol : Lista sin búsqueda en modo cursor (ver modoCursor):
+    //          filas leídas del resultado al bindear, sin armar
+    //          List<Vehiculo>.
+    // ------------------------------------------------------------------
+    private VehiculoCursorAdapter cursorAdapter;
+    private RecyclerView rv;
+
+    // ------------------------------------------------------------------
+    // == Atributo: forzarCursor
+    //    Tipo: boolean
+    //    Rol : true si el Intent pidió el modo cursor
+    //          (CursorListAdapter.EXTRA_MODO_CURSOR) aunque haya pocos
+    //          vehículos.
+    // ------------------------------------------------------------------
+    private boolean forzarCursor;
+
+    // ------------------------------------------------------------------
+    // == Atributo: modoCursor
+    //    Tipo: boolean
+    //    Rol : true si la última carga sin búsqueda quedó en modo cursor
+    //          (forzarCursor o CursorListAdapter.UMBRAL_FILAS filas o
+    //          más); igual que en PersonasActivity, cada cambio recarga
+    //          el cursor completo.
+    // ------------------------------------------------------------------
+    private boolean modoCursor;
+
     // ------------------------------------------------------------------
     // == Atributo: runCliente
     //    Tipo: int
@@ -54,6 +99,25 @@ public class VehiculosActivity extends AppCompatActivity {
     // ------------------------------------------------------------------
     private int runCliente = -1;
 
+    // ------------------------------------------------------------------
+    // == Atributo: sucio
+    //    Tipo: boolean
+    //    Rol : true si la lista puede no reflejar la tabla vehiculo (aún
+    //          no se cargó o llegó un TableChange). onResume solo
+    //          consulta si está en true.
+    // ------------------------------------------------------------------
+    private boolean sucio = true;
+
+    // ------------------------------------------------------------------
+    // == Atributo: busqueda
+    //    Tipo: String
+    //    Rol : Texto del buscador, o null si se muestra la lista completa.
+    // ------------------------------------------------------------------
+    private String busqueda;
+
+    // Buscador del Toolbar (avisa si una búsqueda quedó en el tope).
+    private SearchBox buscador;
+
     // ------------------------------------------------------------------
     // == Método: onCreate
     //    Parámetros:
@@ -62,10 +126,11 @@ public class VehiculosActivity extends AppCompatActivity {
     //    Descripción:
     //      - Infla el layout activity_vehiculos.
     //      - Configura el Toolbar con título y botón de retroceso.
-    //      - Inicializa el repositorio de vehículos.
+    //      - Inicializa la fachada asíncrona de repositorios.
     //      - Lee el extra "run_cliente" (si no viene, queda en -1 y se listan todos).
     //      - Configura el RecyclerView + LayoutManager + Adapter.
     //      - Define el callback de tap: abre OrdenesActivity con la patente.
+    //      - Se suscribe a los cambios de la tabla vehiculo.
     //    Retorno:
     //      - void (callback del ciclo de vida).
     // ------------------------------------------------------------------
@@ -85,22 +150,44 @@ public class VehiculosActivity extends AppCompatActivity {
         toolbar.setNavigationOnClickListener(v -> finish());
 
         // ---- Repositorio y filtro de cliente (opcional) ----
-        repo = new VehiculoRepository(this);
+        async = TallerAsync.bind(this);
         runCliente = getIntent().getIntExtra("run_cliente", -1);
+        forzarCursor = getIntent().getBooleanExtra(CursorListAdapter.EXTRA_MODO_CURSOR, false);
 
         // ---- Lista y adaptador ----
-        RecyclerView rv = findViewById(R.id.recyclerClientes);
+        rv = findViewById(R.id.recyclerClientes);
         rv.setLayoutManager(new LinearLayoutManager(this));
 
         // Callback de tap: abre OrdenesActivity pasando la patente
-        adapter = new VehiculoAdapter(
-                v -> {
-                    Intent i = new Intent(this, OrdenesActivity.class);
-                    i.putExtra("patente", v.patente);
-                    startActivity(i);
-                }
-        );
+        VehiculoAdapter.OnClick abrirOrdenes = v -> {
+            Intent i = new Intent(this, OrdenesActivity.class);
+            i.putExtra("patente", v.patente);
+            startActivity(i);
+        };
+        adapter = new VehiculoAdapter(abrirOrdenes);
+        cursorAdapter = new VehiculoCursorAdapter(abrirOrdenes);
+        getLifecycle().addObserver(cursorAdapter);   // cierra el cursor en onDestroy
         rv.setAdapter(adapter);
+
+        async.observe(this::onCambio, TallerDbHelper.T_VEHICULO);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: onCreateOptionsMenu
+    //    Descripción:
+    //      - Agrega el buscador al Toolbar.
+    // ------------------------------------------------------------------
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_buscar, menu);
+        buscador = SearchBox.attach(menu.findItem(R.id.action_buscar), "Patente, modelo o color", this::buscar);
+        return true;
+    }
+
+    // Nuevo texto del buscador (null = volver a la lista completa).
+    private void buscar(String texto) {
+        busqueda = texto;
+        cargar();
     }
 
     // ------------------------------------------------------------------
@@ -109,14 +196,52 @@ public class VehiculosActivity extends AppCompatActivity {
     //      - (sin parámetros)
     //    Descripción:
     //      - Callback del ciclo de vida al volver a primer plano.
-    //        Recarga la lista para reflejar posibles cambios.
+    //        Recarga la lista solo si vehiculo cambió mientras la
+    //        pantalla no estaba visible.
     //    Retorno:
     //      - void.
     // ------------------------------------------------------------------
     @Override
     protected void onResume() {
         super.onResume();
-        cargar();
+        if (sucio) cargar();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: onCambio
+    //    Parámetros:
+    //      - c (TableChange): escritura confirmada en vehiculo (incluye
+    //        el SET NULL de run_dueno al borrar un cliente).
+    //    Descripción:
+    //      - Borrado con patentes conocidas: se quitan las filas sin
+    //        consultar. Cualquier otro cambio (o cualquier cambio con la
+    //        lista completa en modo cursor) marca la lista como sucia y
+    //        la recarga ya (si está visible) o en el próximo onResume.
+    //    Retorno:
+    //      - void.
+    // ------------------------------------------------------------------
+    private void onCambio(TableChange c) {
+        boolean cargando = async.isLoading(clave());
+        if (!usaCursor() && c.op == TableChange.Op.DELETE && c.keysKnown() && !cargando) {
+            adapter.removeKeys(c.keys);
+            return;
+        }
+        sucio = true;
+        if (!cargando && visible()) cargar();
+    }
+
+    private boolean visible() {
+        return getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.RESUMED);
+    }
+
+    // true si la lista actual es la completa en modo cursor.
+    private boolean usaCursor() {
+        return modoCursor && busqueda == null;
+    }
+
+    private String clave() {
+        String base = runCliente > 0 ? "vehiculos:" + runCliente : "vehiculos";
+        return busqueda == null ? base : base + "?" + busqueda;
     }
 
     // ------------------------------------------------------------------
@@ -124,20 +249,62 @@ public class VehiculosActivity extends AppCompatActivity {
     //    Parámetros:
     //      - (sin parámetros)
     //    Descripción:
-    //      - Obtiene desde el repositorio:
+    //      - Obtiene en segundo plano:
     //          * Si runCliente > 0: lista filtrada por dueño.
     //          * Si no: lista completa de vehículos.
+    //          * Con texto en el buscador: los que coinciden (con el
+    //            mismo filtro de dueño), por relevancia.
     //        Luego entrega la colección al adapter mediante submit().
+    //      - Sin búsqueda abre el cursor equivalente: con
+    //        CursorListAdapter.UMBRAL_FILAS filas o más (o forzarCursor)
+    //        lo pasa a cursorAdapter; con menos lo lee a la lista de
+    //        adapter (CursorListAdapter.Carga).
+    //      - Un resultado de una búsqueda que ya no es la actual se
+    //        descarta.
+    //      - Si llegó un cambio mientras la consulta corría, se vuelve a
+    //        cargar.
     //    Retorno:
     //      - void.
     // ------------------------------------------------------------------
     private void cargar() {
-        List<Vehiculo> lista;
-        if ((runCliente > 0)) {
-            lista = repo.listByRunDueno(runCliente);
-        } else {
-            lista = repo.listAll();
+        sucio = false;
+        final String texto = busqueda;
+        final Integer dueno = runCliente > 0 ? runCliente : null;
+        if (texto == null) {
+            final boolean forzar = forzarCursor;
+            Callable<CursorListAdapter.Carga<Vehiculo>> consulta = () -> CursorListAdapter.Carga.de(
+                    dueno != null ? async.vehiculos.cursorByRunDueno(dueno) : async.vehiculos.cursorAll(),
+                    forzar, VehiculoRepository::read);
+            async.load(clave(), consulta, carga -> {
+                if (busqueda != null) {
+                    carga.close();
+                    return;
+                }
+                modoCursor = carga.cursor != null;
+                if (modoCursor) {
+                    mostrar(cursorAdapter);
+                    cursorAdapter.swap(carga.cursor);
+                } else {
+                    mostrar(adapter);
+                    adapter.submit(carga.lista);
+                    cursorAdapter.swap(null);
+                }
+                if (sucio && visible()) cargar();
+            });
+            return;
         }
-        adapter.submit(lista);
+        Callable<List<Vehiculo>> consulta = () -> async.vehiculos.search(texto, dueno, 0, SearchIndex.CANDIDATES);
+        async.load(clave(), consulta, lista -> {
+            if (!Objects.equals(texto, busqueda)) return;
+            mostrar(adapter);
+            adapter.submit(lista);
+            buscador.showResults(lista.size());
+            if (sucio && visible()) cargar();
+        });
+    }
+
+    // Pone en el RecyclerView el adapter del modo actual (cursor o lista).
+    private void mostrar(RecyclerView.Adapter<?> a) {
+        if (rv.getAdapter() != a) rv.setAdapter(a);
     }
 }
@@ -0,0 +1,104 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// ======================================================================
+// == Clase: BulkResult
+// == Rol dentro de la app:
+//    - Resultado de una carga masiva (insertAll / upsertAll) de los
+//      repositorios.
+//    - En vez de devolver -1 por fila, informa cuántas filas se
+//      insertaron o actualizaron y, para cada fila rechazada, su posición
+//      en la lista de entrada y el motivo (PK/UNIQUE/FK/CHECK).
+// ======================================================================
+public final class BulkResult {
+
+    // ------------------------------------------------------------------
+    // == Clase interna: Conflict
+    //    Rol: Una fila rechazada por una restricción de la tabla.
+    //      - index (int): posición en la lista de entrada.
+    //      - reason (String): mensaje de SQLite (restricción violada).
+    // ------------------------------------------------------------------
+    public static final class Conflict {
+        public final int index;
+        public final String reason;
+
+        Conflict(int index, String reason) {
+            this.index = index;
+            this.reason = reason;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + index + ": " + reason;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Atributos: contadores
+    //    - inserted (int): filas nuevas.
+    //    - updated  (int): filas existentes actualizadas (solo upsertAll).
+    // ------------------------------------------------------------------
+    public int inserted;
+    public int updated;
+
+    private final List<Conflict> conflicts = new ArrayList<>();
+
+    // ------------------------------------------------------------------
+    // == Atributos: claves afectadas (uso del paquete)
+    //    - Se guardan hasta TableChange.MAX_KEYS + 1: con una más ya se
+    //      sabe que el evento irá sin claves, no hace falta el resto.
+    // ------------------------------------------------------------------
+    final List<Object> insertedKeys = new ArrayList<>();
+    final List<Object> updatedKeys = new ArrayList<>();
+
+    BulkResult() { }
+
+    static void addKey(List<Object> keys, Object key) {
+        if (keys.size() <= TableChange.MAX_KEYS) keys.add(key);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: publish
+    //    Parámetros:
+    //      - bus (ChangeBus): canal de la base de datos escrita.
+    //      - table (String): tabla de la carga.
+    //    Descripción:
+    //      - Publica un TableChange INSERT y/o UPDATE con las claves
+    //        escritas (nada si la carga no cambió filas).
+    // ------------------------------------------------------------------
+    void publish(ChangeBus bus, String table) {
+        if (inserted > 0) bus.publish(TableChange.ofAll(table, TableChange.Op.INSERT, insertedKeys));
+        if (updated > 0) bus.publish(TableChange.ofAll(table, TableChange.Op.UPDATE, updatedKeys));
+    }
+
+    void addConflict(int index, String reason) {
+        conflicts.add(new Conflict(index, reason));
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getConflicts
+    //    Retorno:
+    //      - List<Conflict>: filas rechazadas, en orden de entrada.
+    // ------------------------------------------------------------------
+    public List<Conflict> getConflicts() {
+        return Collections.unmodifiableList(conflicts);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: hasConflicts
+    //    Retorno:
+    //      - boolean: true si al menos una fila fue rechazada.
+    // ------------------------------------------------------------------
+    public boolean hasConflicts() {
+        return !conflicts.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult{inserted=" + inserted + ", updated=" + updated +
+                ", conflicts=" + conflicts.size() + "}";
+    }
+}
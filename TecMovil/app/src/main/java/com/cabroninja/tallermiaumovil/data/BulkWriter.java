@@ -0,0 +1,116 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.database.sqlite.SQLiteConstraintException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.List;
+
+// ======================================================================
+// == Clase: BulkWriter (uso interno del paquete data)
+// == Rol dentro de la app:
+//    - Motor común de insertAll / upsertAll de los repositorios.
+//    - Ejecuta toda la carga en UNA transacción (un solo fsync al
+//      confirmar) y reutiliza sentencias compiladas: por fila solo se
+//      vuelven a enlazar los valores, sin ContentValues ni re-parseo SQL.
+//    - Upsert = UPDATE por clave; si no afectó filas, INSERT. Se evita
+//      la sintaxis ON CONFLICT ... DO UPDATE (requiere SQLite 3.24, no
+//      disponible en API 24).
+//    - Una fila que viola una restricción se registra como conflicto en
+//      BulkResult y la carga continúa (SQLite solo deshace la sentencia
+//      fallida, no la transacción).
+// ======================================================================
+final class BulkWriter {
+
+    // ------------------------------------------------------------------
+    // == Interface: Binder
+    //    Rol: Enlaza los campos de un elemento a los '?' de la sentencia.
+    // ------------------------------------------------------------------
+    interface Binder<T> {
+        void bind(SQLiteStatement st, T item);
+    }
+
+    // ------------------------------------------------------------------
+    // == Interface: Key
+    //    Rol: Clave primaria de un elemento ya escrito (para TableChange).
+    //         rowId es el devuelto por el INSERT, o -1 tras un UPDATE.
+    // ------------------------------------------------------------------
+    interface Key<T> {
+        Object of(T item, long rowId);
+    }
+
+    private BulkWriter() { }
+
+    // ------------------------------------------------------------------
+    // == Método: write
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión de escritura compartida.
+    //      - items (List<T>): filas a escribir, en orden.
+    //      - key (Key<T>): clave de cada fila escrita (BulkResult la
+    //        guarda para publicar el TableChange).
+    //      - updateSql (String): UPDATE por clave, o null para solo insertar.
+    //      - updateBinder (Binder<T>): enlaza el UPDATE (null si updateSql
+    //        es null).
+    //      - insertSql (String): INSERT de una fila.
+    //      - insertBinder (Binder<T>): enlaza el INSERT.
+    //    Retorno:
+    //      - BulkResult: filas insertadas/actualizadas y conflictos.
+    // ------------------------------------------------------------------
+    static <T> BulkResult write(SQLiteDatabase db, List<T> items, Key<T> key,
+                                String updateSql, Binder<T> updateBinder,
+                                String insertSql, Binder<T> insertBinder) {
+        BulkResult r = new BulkResult();
+        if (items == null || items.isEmpty()) return r;
+
+        db.beginTransaction();
+        SQLiteStatement update = updateSql != null ? db.compileStatement(updateSql) : null;
+        SQLiteStatement insert = db.compileStatement(insertSql);
+        try {
+            for (int i = 0; i < items.size(); i++) {
+                T item = items.get(i);
+                try {
+                    if (update != null) {
+                        update.clearBindings();
+                        updateBinder.bind(update, item);
+                        if (update.executeUpdateDelete() > 0) {
+                            r.updated++;
+                            BulkResult.addKey(r.updatedKeys, key.of(item, -1));
+                            continue;
+                        }
+                    }
+                    insert.clearBindings();
+                    insertBinder.bind(insert, item);
+                    long rowId = insert.executeInsert();
+                    if (rowId != -1) {
+                        r.inserted++;
+                        BulkResult.addKey(r.insertedKeys, key.of(item, rowId));
+                    } else {
+                        r.addConflict(i, "insert rechazado");
+                    }
+                } catch (SQLiteConstraintException ex) {
+                    r.addConflict(i, ex.getMessage());
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            if (update != null) update.close();
+            insert.close();
+            db.endTransaction();
+        }
+        return r;
+    }
+
+    // ------------------------------------------------------------------
+    // == Métodos: bindText / bindInteger
+    //    Descripción:
+    //      - bindString/bindLong no aceptan null; estos enlazan NULL
+    //        cuando el campo del modelo viene vacío.
+    // ------------------------------------------------------------------
+    static void bindText(SQLiteStatement st, int index, String value) {
+        if (value == null) st.bindNull(index); else st.bindString(index, value);
+    }
+
+    static void bindInteger(SQLiteStatement st, int index, Integer value) {
+        if (value == null) st.bindNull(index); else st.bindLong(index, value);
+    }
+}
@@ -0,0 +1,120 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import androidx.annotation.WorkerThread;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// ======================================================================
+// == Clase: ChangeBus
+// == Rol dentro de la app:
+//    - Canal de avisos de cambios de datos, uno por TallerDatabase.
+//    - Los repositorios publican un TableChange después de cada
+//      escritura confirmada (insert/update/delete y lotes), incluyendo
+//      los efectos de cascada sobre otras tablas.
+//    - Dentro de TallerDatabase.runInTransaction el aviso espera al
+//      commit de la transacción externa y se descarta si se revierte
+//      (ver CommitQueue): los oyentes nunca releen filas sin confirmar.
+//    - Las pantallas se suscriben (normalmente vía TallerAsync.observe)
+//      y vuelven a consultar solo cuando SU tabla cambió, en vez de
+//      recargar todo en cada onResume.
+// == Hilos:
+//    - publish() avisa de forma síncrona en el hilo que escribió (un
+//      hilo de DbExecutor), al volver la escritura o al confirmar su
+//      transacción. Los oyentes deben ser rápidos y no tocar
+//      vistas: TallerAsync reenvía los eventos al hilo principal.
+// == Límite:
+//    - Igual que DashboardStats, solo ve las escrituras hechas a través
+//      de los repositorios.
+// ======================================================================
+public final class ChangeBus {
+
+    // ------------------------------------------------------------------
+    // == Interface: Listener
+    //    Rol: Recibe cada cambio de las tablas a las que se suscribió.
+    // ------------------------------------------------------------------
+    public interface Listener {
+        void onChange(TableChange change);
+    }
+
+    // Suscripción: oyente + tablas que le interesan.
+    private static final class Entry {
+        final Listener listener;
+        final Set<String> tables;
+
+        Entry(Listener listener, Set<String> tables) {
+            this.listener = listener;
+            this.tables = tables;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Atributo: entries
+    //    Tipo: CopyOnWriteArrayList<Entry>
+    //    Rol : Las suscripciones cambian poco (al crear/destruir
+    //          pantallas) y se recorren en cada escritura: copiar al
+    //          modificar permite publicar sin bloqueos.
+    // ------------------------------------------------------------------
+    private final CopyOnWriteArrayList<Entry> entries = new CopyOnWriteArrayList<>();
+
+    // Transacciones de la base dueña del canal (CommitQueue); null si no
+    // hay SQLite detrás (MemoryTallerStore): se avisa de inmediato.
+    private final Deferrer commits;
+
+    ChangeBus() {
+        this(null);
+    }
+
+    ChangeBus(Deferrer commits) {
+        this.commits = commits;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: subscribe
+    //    Parámetros:
+    //      - listener (Listener): oyente a registrar.
+    //      - tables (String...): tablas de interés (TallerDbHelper.T_*).
+    // ------------------------------------------------------------------
+    public void subscribe(Listener listener, String... tables) {
+        entries.add(new Entry(listener, new HashSet<>(Arrays.asList(tables))));
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: unsubscribe
+    //    Parámetros:
+    //      - listener (Listener): oyente a retirar (todas sus tablas).
+    // ------------------------------------------------------------------
+    public void unsubscribe(Listener listener) {
+        for (Entry e : entries) {
+            if (e.listener == listener) entries.remove(e);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: publish
+    //    Parámetros:
+    //      - change (TableChange): escritura ya ejecutada.
+    //    Descripción:
+    //      - Avisa a cada oyente suscrito a change.table; dentro de
+    //        runInTransaction, recién al confirmar (Deferrer.defer).
+    //    Errores:
+    //      - IllegalStateException si se publica dentro de una
+    //        transacción abierta fuera de runInTransaction.
+    // ------------------------------------------------------------------
+    @WorkerThread
+    void publish(TableChange change) {
+        if (commits != null) {
+            commits.defer(() -> deliver(change));
+        } else {
+            deliver(change);
+        }
+    }
+
+    private void deliver(TableChange change) {
+        for (Entry e : entries) {
+            if (e.tables.contains(change.table)) e.listener.onChange(change);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteTransactionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// ======================================================================
+// == Clase: CommitQueue
+// == Rol dentro de la app:
+//    - Acciones que solo deben ocurrir si la escritura queda confirmada
+//      (los avisos de ChangeBus y los ajustes de DashboardStats). Fuera
+//      de una transacción corren de inmediato: cada escritura suelta ya
+//      se confirmó al volver.
+//    - Dentro de TallerDatabase.runInTransaction se encolan y corren,
+//      en orden, cuando la transacción MÁS EXTERNA se confirma. Si se
+//      revierte (excepción o una anidada que falló) se descartan: nadie
+//      se entera de filas que nunca existieron.
+//    - Una transacción abierta a mano (db.beginTransaction) no se puede
+//      seguir hasta su commit: defer() falla con IllegalStateException
+//      en vez de avisar antes de tiempo.
+// == Hilos:
+//    - Las transacciones de SQLiteDatabase son del hilo que las abrió;
+//      la cola también (ThreadLocal).
+// ======================================================================
+final class CommitQueue implements Deferrer {
+
+    private final TallerDbHelper helper;
+
+    // Acciones pendientes de la transacción externa de este hilo, o
+    // null si el hilo no está dentro de run().
+    private final ThreadLocal<List<Runnable>> pending = new ThreadLocal<>();
+
+    CommitQueue(TallerDbHelper helper) {
+        this.helper = helper;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: run
+    //    Parámetros:
+    //      - body (Runnable): escrituras a agrupar.
+    //    Descripción:
+    //      - Ejecuta body en una transacción. Anidado en otro run() solo
+    //        abre una transacción anidada: decide la externa.
+    //      - Si body lanza, la transacción se revierte y la excepción
+    //        sigue hacia el llamador.
+    // ------------------------------------------------------------------
+    void run(Runnable body) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        if (pending.get() != null) {
+            db.beginTransaction();
+            try {
+                body.run();
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            return;
+        }
+
+        List<Runnable> actions = new ArrayList<>();
+        Outcome outcome = new Outcome();
+        boolean committed = false;
+        pending.set(actions);
+        try {
+            db.beginTransactionWithListener(outcome);
+            try {
+                body.run();
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            // onCommit corre antes del COMMIT; si este fallara,
+            // endTransaction habría lanzado y no se llega aquí.
+            committed = outcome.commit;
+        } finally {
+            pending.remove();
+        }
+        if (committed) {
+            for (Runnable a : actions) a.run();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: defer
+    //    Parámetros:
+    //      - action (Runnable): efecto de una escritura ya ejecutada.
+    //    Descripción:
+    //      - Dentro de run(): lo encola hasta el commit externo.
+    //      - Fuera de toda transacción: lo ejecuta ya.
+    //    Errores:
+    //      - IllegalStateException si el hilo está en una transacción
+    //        abierta fuera de run().
+    // ------------------------------------------------------------------
+    @Override
+    public void defer(Runnable action) {
+        List<Runnable> actions = pending.get();
+        if (actions != null) {
+            actions.add(action);
+            return;
+        }
+        if (helper.getWritableDatabase().inTransaction()) {
+            throw new IllegalStateException(
+                    "Escritura dentro de una transacción ajena: usar TallerDatabase.runInTransaction");
+        }
+        action.run();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: inTransaction
+    //    Retorno:
+    //      - boolean: true si este hilo está dentro de run().
+    // ------------------------------------------------------------------
+    boolean inTransaction() {
+        return pending.get() != null;
+    }
+
+    // Cómo terminó la transacción externa (lo avisa SQLiteSession).
+    private static final class Outcome implements SQLiteTransactionListener {
+        boolean commit;
+
+        @Override public void onBegin() { }
+        @Override public void onCommit() { commit = true; }
+        @Override public void onRollback() { commit = false; }
+    }
+}
@@ -0,0 +1,157 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.database.Cursor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// ======================================================================
+// == Clase: DashboardStats
+// == Rol dentro de la app:
+//    - Contadores del panel principal (clientes, vehículos y órdenes)
+//      obtenidos en UNA sola consulta y guardados en memoria.
+//    - Los repositorios avisan cada escritura:
+//        * inserciones de efecto conocido → adjust() suma al valor en
+//          caché (no hace falta volver a consultar);
+//        * borrados/cambios de tipo (con cascadas posibles) → invalidate().
+//    - Dentro de TallerDatabase.runInTransaction, adjust() se aplica
+//      recién al confirmar la transacción externa (CommitQueue): si se
+//      revierte, la caché no queda sumando filas que no existen.
+//      invalidate() descarta de inmediato y otra vez al confirmar.
+//    - Así, volver al panel no cuesta ninguna consulta salvo que los
+//      datos hayan cambiado de una forma que no se pueda deducir.
+// == Concurrencia:
+//    - Cada adjust()/invalidate() incrementa "generation". Una consulta
+//      que empezó antes de una escritura no guarda su resultado (podría
+//      no incluirla); el siguiente get() vuelve a consultar.
+// == Límite:
+//    - Solo ve las escrituras hechas a través de los repositorios. Quien
+//      escriba SQL directo debe llamar a invalidate().
+// ======================================================================
+public final class DashboardStats {
+
+    // ------------------------------------------------------------------
+    // == Atributo: SQL_COUNTERS
+    //    Rol : Los tres conteos en una sola sentencia. El de clientes usa
+    //          idx_persona_tipo_nombre como índice cubriente.
+    // ------------------------------------------------------------------
+    static final String SQL_COUNTERS =
+            "SELECT " +
+            "(SELECT COUNT(*) FROM " + TallerDbHelper.T_PERSONA +
+            " WHERE " + TallerDbHelper.C_TIPO + " = 'cliente'), " +
+            "(SELECT COUNT(*) FROM " + TallerDbHelper.T_VEHICULO + "), " +
+            "(SELECT COUNT(*) FROM " + TallerDbHelper.T_ORDEN + ")";
+
+    // ------------------------------------------------------------------
+    // == Clase interna: Snapshot
+    //    Rol : Valores inmutables de los tres contadores.
+    // ------------------------------------------------------------------
+    public static final class Snapshot {
+        public final int clientes;
+        public final int vehiculos;
+        public final int ordenes;
+
+        Snapshot(int clientes, int vehiculos, int ordenes) {
+            this.clientes = clientes;
+            this.vehiculos = vehiculos;
+            this.ordenes = ordenes;
+        }
+    }
+
+    private final TallerDbHelper helper;
+    private final CommitQueue commits;
+    private final AtomicInteger queries = new AtomicInteger();
+
+    // Estado protegido por "this".
+    private Snapshot cached;
+    private long generation;
+
+    DashboardStats(TallerDbHelper helper, CommitQueue commits) {
+        this.helper = helper;
+        this.commits = commits;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: peek
+    //    Retorno:
+    //      - Snapshot: valores en caché, o null si hay que consultar.
+    //        No toca la base de datos (seguro en el hilo principal).
+    // ------------------------------------------------------------------
+    public synchronized Snapshot peek() {
+        return cached;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: get
+    //    Descripción:
+    //      - Devuelve la caché si es válida; si no, ejecuta SQL_COUNTERS
+    //        (en el hilo que llama: usar desde DbExecutor/TallerAsync).
+    //    Retorno:
+    //      - Snapshot: contadores actuales.
+    // ------------------------------------------------------------------
+    public Snapshot get() {
+        long gen;
+        synchronized (this) {
+            if (cached != null) return cached;
+            gen = generation;
+        }
+        Snapshot fresh;
+        try (Cursor c = helper.getReadableDatabase().rawQuery(SQL_COUNTERS, null, QuerySignal.current())) {
+            fresh = c.moveToFirst()
+                    ? new Snapshot(c.getInt(0), c.getInt(1), c.getInt(2))
+                    : new Snapshot(0, 0, 0);
+        }
+        queries.incrementAndGet();
+        synchronized (this) {
+            if (gen == generation) cached = fresh;
+        }
+        return fresh;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: adjust
+    //    Parámetros:
+    //      - clientes, vehiculos, ordenes (int): variación conocida de
+    //        cada contador tras una escritura.
+    //    Descripción:
+    //      - Aplica la variación a la caché (si existe) sin consultar,
+    //        ya o al confirmar la transacción (CommitQueue.defer).
+    // ------------------------------------------------------------------
+    void adjust(int clientes, int vehiculos, int ordenes) {
+        commits.defer(() -> apply(clientes, vehiculos, ordenes));
+    }
+
+    private synchronized void apply(int clientes, int vehiculos, int ordenes) {
+        generation++;
+        if (cached != null) {
+            cached = new Snapshot(cached.clientes + clientes,
+                    cached.vehiculos + vehiculos, cached.ordenes + ordenes);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: invalidate
+    //    Descripción:
+    //      - Descarta la caché; el próximo get() vuelve a consultar.
+    //      - Dentro de runInTransaction descarta también al confirmar:
+    //        un get() de otro hilo mientras tanto aún ve los datos
+    //        anteriores y podría guardarlos.
+    // ------------------------------------------------------------------
+    public void invalidate() {
+        drop();
+        if (commits.inTransaction()) commits.defer(this::drop);
+    }
+
+    private synchronized void drop() {
+        generation++;
+        cached = null;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getQueryCount
+    //    Retorno:
+    //      - int: consultas reales ejecutadas (para tests y diagnóstico).
+    // ------------------------------------------------------------------
+    public int getQueryCount() {
+        return queries.get();
+    }
+}
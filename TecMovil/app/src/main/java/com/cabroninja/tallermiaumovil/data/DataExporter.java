@@ -0,0 +1,382 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+// ======================================================================
+// == Clase: DataExporter
+// == Rol dentro de la app:
+//    - Vuelca persona, vehiculo y orden_trabajo a un archivo por tabla
+//      (CSV o JSON, opcionalmente .gz) para entregarlos fuera de la app
+//      (contabilidad).
+//    - Cada tabla se lee por páginas de rowid (keyset, igual que
+//      OrdenColumns): cada página es un cursor nuevo que se escribe fila
+//      a fila al Writer y se cierra. Ninguna fila se convierte en
+//      objeto del modelo, así la memoria usada no crece con la tabla.
+//    - Avisa el avance por tabla (filas escritas / total) a un Progress.
+// == Formatos:
+//    - CSV: RFC 4180 (coma, comillas dobles, fin de línea CRLF), UTF-8,
+//      con encabezado. NULL → campo vacío.
+//    - JSON: un arreglo de objetos, un objeto por línea. NULL → null.
+//    - Los REAL se escriben sin notación científica (12345678.5, no
+//      1.23456785E7).
+// == Datos:
+//    - La columna password de persona NO se exporta.
+//    - Cada página es una lectura consistente; una escritura que ocurra
+//      durante el volcado puede quedar o no (no se bloquea a la app).
+// == Archivos:
+//    - <dir>/<tabla>.csv|.json[.gz]. Se escriben como .tmp y se
+//      renombran al terminar: nunca queda un archivo a medias con el
+//      nombre final.
+// == Hilos:
+//    - export() lee la DB y escribe archivos: llamarlo desde
+//      DbExecutor/TallerAsync. Se corta con InterruptedIOException si
+//      el hilo se interrumpe.
+// ======================================================================
+public final class DataExporter {
+
+    // Filas por página (como OrdenColumns.PAGE).
+    static final int PAGE = 10_000;
+
+    private static final int BUFFER = 64 * 1024;
+
+    // ------------------------------------------------------------------
+    // == Enum: Format
+    //    Rol : Formato de salida y su extensión.
+    // ------------------------------------------------------------------
+    public enum Format {
+        CSV("csv"),
+        JSON("json");
+
+        public final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Interfaz: Progress
+    //    Rol : Avance por tabla. Se llama con rows = 0 al empezar una
+    //          tabla, tras cada página y al terminarla (rows == total
+    //          salvo cambios concurrentes). Corre en el hilo de export().
+    // ------------------------------------------------------------------
+    public interface Progress {
+        void onProgress(String table, long rows, long total);
+    }
+
+    // ------------------------------------------------------------------
+    // == Clase interna: Result
+    //    Rol : Resultado de una tabla: archivo, filas, bytes de datos
+    //          (sin comprimir) y bytes en disco.
+    // ------------------------------------------------------------------
+    public static final class Result {
+        public final String table;
+        public final File file;
+        public final long rows;
+        public final long dataBytes;
+        public final long fileBytes;
+
+        Result(String table, File file, long rows, long dataBytes, long fileBytes) {
+            this.table = table;
+            this.file = file;
+            this.rows = rows;
+            this.dataBytes = dataBytes;
+            this.fileBytes = fileBytes;
+        }
+    }
+
+    // Una tabla a exportar: nombre y columnas (en orden de salida).
+    private static final class Table {
+        final String name;
+        final String[] columns;
+        final String sqlPage;
+        final String sqlCount;
+
+        Table(String name, String... columns) {
+            this.name = name;
+            this.columns = columns;
+            this.sqlPage = "SELECT rowid, " + TextUtils.join(", ", columns) +
+                    " FROM " + name + " WHERE rowid > ? ORDER BY rowid LIMIT ";
+            this.sqlCount = "SELECT COUNT(*) FROM " + name;
+        }
+    }
+
+    private static final List<Table> TABLES = Collections.unmodifiableList(Arrays.asList(
+            new Table(TallerDbHelper.T_PERSONA,
+                    TallerDbHelper.C_RUN, TallerDbHelper.C_EMAIL, TallerDbHelper.C_NOMBRE,
+                    TallerDbHelper.C_APELLIDO, TallerDbHelper.C_TIPO),
+            new Table(TallerDbHelper.T_VEHICULO,
+                    TallerDbHelper.V_PATENTE, TallerDbHelper.V_COLOR, TallerDbHelper.V_MODELO,
+                    TallerDbHelper.V_RUN_DUENO),
+            new Table(TallerDbHelper.T_ORDEN,
+                    TallerDbHelper.O_ID, TallerDbHelper.O_NUMERO, TallerDbHelper.O_FECHA,
+                    TallerDbHelper.O_VALOR_NETO, TallerDbHelper.O_IVA, TallerDbHelper.O_OBSERVACION,
+                    TallerDbHelper.O_PATENTE)));
+
+    private final TallerDatabase database;
+    private final int pageRows;
+
+    // ------------------------------------------------------------------
+    // == Constructor: DataExporter
+    //    Parámetros:
+    //      - database (TallerDatabase): base de datos a exportar.
+    // ------------------------------------------------------------------
+    public DataExporter(TallerDatabase database) {
+        this(database, PAGE);
+    }
+
+    // Tests: páginas chicas para cruzar varios límites con pocas filas.
+    DataExporter(TallerDatabase database, int pageRows) {
+        this.database = database;
+        this.pageRows = pageRows;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: export
+    //    Parámetros:
+    //      - dir (File): carpeta de destino (se crea si no existe).
+    //      - format (Format): CSV o JSON.
+    //      - gzip (boolean): comprimir cada archivo (.gz).
+    //      - progress (Progress): avance por tabla, o null.
+    //    Descripción:
+    //      - Exporta persona, vehiculo y orden_trabajo, en ese orden.
+    //    Retorno:
+    //      - List<Result>: una entrada por tabla.
+    //    Errores:
+    //      - IOException si no se puede escribir (el .tmp se borra).
+    // ------------------------------------------------------------------
+    @WorkerThread
+    public List<Result> export(@NonNull File dir, @NonNull Format format, boolean gzip,
+                               @Nullable Progress progress) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("No se pudo crear " + dir);
+        SQLiteDatabase db = database.getReadableDatabase();
+        List<Result> out = new ArrayList<>(TABLES.size());
+        for (Table t : TABLES) out.add(exportTable(db, t, dir, format, gzip, progress));
+        return out;
+    }
+
+    private Result exportTable(SQLiteDatabase db, Table t, File dir, Format format, boolean gzip,
+                               @Nullable Progress progress) throws IOException {
+        File file = new File(dir, t.name + "." + format.extension + (gzip ? ".gz" : ""));
+        File tmp = new File(dir, file.getName() + ".tmp");
+        long total = count(db, t);
+        if (progress != null) progress.onProgress(t.name, 0, total);
+
+        long rows = 0;
+        CountingOutputStream counter;
+        boolean ok = false;
+        try (FileOutputStream fos = new FileOutputStream(tmp)) {
+            OutputStream sink = gzip ? new GZIPOutputStream(fos, BUFFER) : fos;
+            counter = new CountingOutputStream(sink);
+            Writer w = new BufferedWriter(new OutputStreamWriter(counter, StandardCharsets.UTF_8), BUFFER);
+
+            if (format == Format.CSV) {
+                writeCsvHeader(w, t.columns);
+            } else {
+                w.write("[\n");
+            }
+            String sql = t.sqlPage + pageRows;
+            String[] args = { Long.toString(Long.MIN_VALUE) };
+            while (true) {
+                if (Thread.interrupted()) throw new InterruptedIOException("Exportación cancelada");
+                int n = 0;
+                long last = 0;
+                try (Cursor c = db.rawQuery(sql, args)) {
+                    while (c.moveToNext()) {
+                        if (format == Format.CSV) {
+                            writeCsvRow(w, c, t.columns.length);
+                        } else {
+                            if (rows + n > 0) w.write(",\n");
+                            writeJsonRow(w, c, t.columns);
+                        }
+                        last = c.getLong(0);
+                        n++;
+                    }
+                }
+                args[0] = Long.toString(last);
+                rows += n;
+                if (n > 0 && progress != null) progress.onProgress(t.name, rows, total);
+                if (n < pageRows) break;
+            }
+            if (format == Format.JSON) w.write(rows > 0 ? "\n]\n" : "]\n");
+            w.flush();
+            if (gzip) ((GZIPOutputStream) sink).finish();
+            fos.getFD().sync();
+            ok = true;
+        } finally {
+            if (!ok) tmp.delete();
+        }
+        if ((file.exists() && !file.delete()) || !tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("No se pudo reemplazar " + file);
+        }
+        if (progress != null && rows != total) progress.onProgress(t.name, rows, rows);
+        return new Result(t.name, file, rows, counter.count, file.length());
+    }
+
+    private static long count(SQLiteDatabase db, Table t) {
+        try (Cursor c = db.rawQuery(t.sqlCount, null)) {
+            return c.moveToFirst() ? c.getLong(0) : 0;
+        }
+    }
+
+    // ============================ CSV ==================================
+
+    private static void writeCsvHeader(Writer w, String[] columns) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) w.write(',');
+            writeCsvText(w, columns[i]);
+        }
+        w.write("\r\n");
+    }
+
+    // Columnas 1..n del cursor (la 0 es el rowid de la página).
+    private static void writeCsvRow(Writer w, Cursor c, int n) throws IOException {
+        for (int i = 1; i <= n; i++) {
+            if (i > 1) w.write(',');
+            switch (c.getType(i)) {
+                case Cursor.FIELD_TYPE_NULL:
+                    break;
+                case Cursor.FIELD_TYPE_INTEGER:
+                    w.write(Long.toString(c.getLong(i)));
+                    break;
+                case Cursor.FIELD_TYPE_FLOAT:
+                    writeNumber(w, c.getDouble(i), "");
+                    break;
+                default:
+                    writeCsvText(w, c.getString(i));
+            }
+        }
+        w.write("\r\n");
+    }
+
+    // Entre comillas solo si hace falta (coma, comillas o salto de línea).
+    static void writeCsvText(Writer w, String s) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < s.length() && !quote; i++) {
+            char ch = s.charAt(i);
+            quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+        if (!quote) {
+            w.write(s);
+            return;
+        }
+        w.write('"');
+        int from = 0;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) == '"') {
+                w.write(s, from, i + 1 - from);
+                w.write('"');
+                from = i + 1;
+            }
+        }
+        w.write(s, from, s.length() - from);
+        w.write('"');
+    }
+
+    // ============================ JSON =================================
+
+    private static void writeJsonRow(Writer w, Cursor c, String[] columns) throws IOException {
+        w.write('{');
+        for (int i = 1; i <= columns.length; i++) {
+            if (i > 1) w.write(',');
+            w.write('"');
+            w.write(columns[i - 1]);   // nombres de columna: ASCII sin escapes
+            w.write("\":");
+            switch (c.getType(i)) {
+                case Cursor.FIELD_TYPE_NULL:
+                    w.write("null");
+                    break;
+                case Cursor.FIELD_TYPE_INTEGER:
+                    w.write(Long.toString(c.getLong(i)));
+                    break;
+                case Cursor.FIELD_TYPE_FLOAT:
+                    writeNumber(w, c.getDouble(i), "null");
+                    break;
+                default:
+                    writeJsonText(w, c.getString(i));
+            }
+        }
+        w.write('}');
+    }
+
+    static void writeJsonText(Writer w, String s) throws IOException {
+        w.write('"');
+        int from = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            String esc;
+            if (ch == '"') esc = "\\\"";
+            else if (ch == '\\') esc = "\\\\";
+            else if (ch == '\n') esc = "\\n";
+            else if (ch == '\r') esc = "\\r";
+            else if (ch == '\t') esc = "\\t";
+            else if (ch < 0x20 || ch == 0x2028 || ch == 0x2029) esc = String.format(Locale.US, "\\u%04x", (int) ch);
+            else continue;
+            w.write(s, from, i - from);
+            w.write(esc);
+            from = i + 1;
+        }
+        w.write(s, from, s.length() - from);
+        w.write('"');
+    }
+
+    // ============================ APOYO ================================
+
+    // Enteros sin ".0"; el resto en notación decimal simple. NaN/Infinito
+    // no son números válidos en CSV/JSON: se escribe "invalid".
+    static void writeNumber(Writer w, double d, String invalid) throws IOException {
+        if (Double.isNaN(d) || Double.isInfinite(d)) {
+            w.write(invalid);
+        } else if (d == Math.rint(d) && Math.abs(d) < 1e15) {
+            w.write(Long.toString((long) d));
+        } else {
+            w.write(BigDecimal.valueOf(d).toPlainString());
+        }
+    }
+
+    // Cuenta los bytes de datos (antes de comprimir).
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
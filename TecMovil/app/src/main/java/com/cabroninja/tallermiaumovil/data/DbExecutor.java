@@ -0,0 +1,68 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.os.Process;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// ======================================================================
+// == Clase: DbExecutor
+// == Rol dentro de la app:
+//    - Pool de hilos dedicado y acotado para todo el trabajo SQLite.
+//    - Ningún acceso a disco debe ejecutarse en el hilo principal: la UI
+//      encola tareas aquí (normalmente a través de TallerAsync) y recibe
+//      el resultado de vuelta en el hilo principal.
+// == Dimensionamiento:
+//    - THREADS hilos: SQLite serializa las escrituras; con WAL un lector
+//      puede avanzar mientras otro hilo escribe, más hilos no aportan.
+//    - QUEUE_CAPACITY tareas en cola como máximo. Si se llena, la tarea
+//      se rechaza (RejectedExecutionException) en vez de acumular
+//      trabajo sin límite; TallerAsync lo informa como error.
+//    - Los hilos corren con prioridad de fondo y se liberan tras
+//      KEEP_ALIVE_S segundos sin trabajo.
+// ======================================================================
+public final class DbExecutor {
+
+    static final int THREADS = 2;
+    static final int QUEUE_CAPACITY = 64;
+    private static final long KEEP_ALIVE_S = 30;
+
+    // ------------------------------------------------------------------
+    // == Atributo: INSTANCE
+    //    Tipo: ExecutorService (único del proceso, creado al cargar la clase)
+    // ------------------------------------------------------------------
+    private static final ExecutorService INSTANCE = create();
+
+    private DbExecutor() { }
+
+    // ------------------------------------------------------------------
+    // == Método: get
+    //    Retorno:
+    //      - ExecutorService: pool compartido para trabajo de base de datos.
+    // ------------------------------------------------------------------
+    public static ExecutorService get() {
+        return INSTANCE;
+    }
+
+    private static ExecutorService create() {
+        final AtomicInteger n = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                r.run();
+            }, "taller-db-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(THREADS, THREADS,
+                KEEP_ALIVE_S, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(QUEUE_CAPACITY), factory,
+                new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
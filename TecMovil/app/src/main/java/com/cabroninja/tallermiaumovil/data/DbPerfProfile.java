@@ -0,0 +1,183 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import com.cabroninja.tallermiaumovil.BuildConfig;
+
+import java.util.Locale;
+
+// ======================================================================
+// == Clase: DbPerfProfile
+// == Rol dentro de la app:
+//    - Perfil de rendimiento de SQLite que TallerDbHelper aplica en
+//      onConfigure (una vez por conexión primaria, antes de onCreate /
+//      onUpgrade / onOpen).
+//    - Agrupa: modo de journal (WAL o rollback), nivel de "synchronous",
+//      cache_size, mmap_size, temp_store y journal_size_limit.
+//    - El perfil activo se elige por build type con el campo
+//      BuildConfig.DB_PROFILE (ver app/build.gradle.kts).
+// == Perfiles disponibles:
+//    - COMPATIBLE : comportamiento histórico (rollback journal, FULL,
+//                   valores por defecto de SQLite). Sirve como línea base.
+//    - EQUILIBRADO: WAL + NORMAL, caché 8 MiB, mmap 32 MiB, temporales
+//                   en memoria y WAL acotado a 4 MiB.
+//    - RENDIMIENTO: igual que EQUILIBRADO pero con caché 16 MiB y mmap
+//                   128 MiB (pensado para tablets del taller).
+// ======================================================================
+public final class DbPerfProfile {
+
+    private static final String TAG = "DbPerfProfile";
+
+    // ------------------------------------------------------------------
+    // == Constantes: niveles de PRAGMA synchronous
+    // ------------------------------------------------------------------
+    public static final String SYNC_OFF    = "OFF";
+    public static final String SYNC_NORMAL = "NORMAL";
+    public static final String SYNC_FULL   = "FULL";
+
+    // ------------------------------------------------------------------
+    // == Constantes: valores de PRAGMA temp_store
+    // ------------------------------------------------------------------
+    public static final String TEMP_DEFAULT = "DEFAULT";
+    public static final String TEMP_FILE    = "FILE";
+    public static final String TEMP_MEMORY  = "MEMORY";
+
+    // ------------------------------------------------------------------
+    // == Perfiles predefinidos
+    //    cacheSize sigue la convención de SQLite: negativo = KiB,
+    //    positivo = páginas. 0 en mmapSize desactiva el mapeo.
+    //    journalSizeLimit -1 = sin límite.
+    // ------------------------------------------------------------------
+    public static final DbPerfProfile COMPATIBLE =
+            new DbPerfProfile("COMPATIBLE", false, SYNC_FULL, -2000, 0L, TEMP_DEFAULT, -1L);
+
+    public static final DbPerfProfile EQUILIBRADO =
+            new DbPerfProfile("EQUILIBRADO", true, SYNC_NORMAL, -8192, 32L * 1024 * 1024, TEMP_MEMORY, 4L * 1024 * 1024);
+
+    public static final DbPerfProfile RENDIMIENTO =
+            new DbPerfProfile("RENDIMIENTO", true, SYNC_NORMAL, -16384, 128L * 1024 * 1024, TEMP_MEMORY, 8L * 1024 * 1024);
+
+    // ------------------------------------------------------------------
+    // == Atributos del perfil (inmutables)
+    //    - nombre           : identificador (coincide con BuildConfig.DB_PROFILE).
+    //    - wal              : true ⇒ journal_mode=WAL (lectores no se
+    //                         bloquean con escrituras).
+    //    - synchronous      : OFF | NORMAL | FULL.
+    //    - cacheSize        : PRAGMA cache_size.
+    //    - mmapSize         : PRAGMA mmap_size (bytes).
+    //    - tempStore        : DEFAULT | FILE | MEMORY.
+    //    - journalSizeLimit : PRAGMA journal_size_limit (bytes).
+    // ------------------------------------------------------------------
+    public final String nombre;
+    public final boolean wal;
+    public final String synchronous;
+    public final int cacheSize;
+    public final long mmapSize;
+    public final String tempStore;
+    public final long journalSizeLimit;
+
+    // ------------------------------------------------------------------
+    // == Constructor: DbPerfProfile
+    //    Parámetros: ver atributos. Público para poder afinar perfiles
+    //    propios en benchmarks sin tocar los predefinidos.
+    // ------------------------------------------------------------------
+    public DbPerfProfile(String nombre, boolean wal, String synchronous, int cacheSize,
+                         long mmapSize, String tempStore, long journalSizeLimit) {
+        this.nombre = nombre;
+        this.wal = wal;
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.tempStore = tempStore;
+        this.journalSizeLimit = journalSizeLimit;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: fromName
+    //    Parámetros:
+    //      - nombre (String): "COMPATIBLE" | "EQUILIBRADO" | "RENDIMIENTO".
+    //    Descripción:
+    //      - Resuelve un perfil predefinido por nombre (sin distinguir
+    //        mayúsculas). Nombres desconocidos caen a EQUILIBRADO.
+    //    Retorno:
+    //      - DbPerfProfile: perfil encontrado.
+    // ------------------------------------------------------------------
+    public static DbPerfProfile fromName(String nombre) {
+        if (nombre != null) {
+            String n = nombre.trim().toUpperCase(Locale.ROOT);
+            if (COMPATIBLE.nombre.equals(n))  return COMPATIBLE;
+            if (RENDIMIENTO.nombre.equals(n)) return RENDIMIENTO;
+            if (EQUILIBRADO.nombre.equals(n)) return EQUILIBRADO;
+        }
+        Log.w(TAG, "Perfil desconocido '" + nombre + "', se usa EQUILIBRADO");
+        return EQUILIBRADO;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: forBuild
+    //    Retorno:
+    //      - DbPerfProfile: perfil configurado para el build type actual
+    //        (BuildConfig.DB_PROFILE).
+    // ------------------------------------------------------------------
+    public static DbPerfProfile forBuild() {
+        return fromName(BuildConfig.DB_PROFILE);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: apply
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión en onConfigure (fuera de
+    //        transacción, requisito para cambiar el modo de journal).
+    //    Descripción:
+    //      - Activa/desactiva WAL con la API de Android (así el pool de
+    //        conexiones sabe que puede abrir lectores concurrentes).
+    //      - Aplica los PRAGMA restantes. Algunos PRAGMA devuelven una
+    //        fila (mmap_size, journal_size_limit), por eso se ejecutan
+    //        con rawQuery y no con execSQL.
+    //      - Nota: las conexiones secundarias de lectura que abre el pool
+    //        en modo WAL no pasan por onConfigure; heredan WAL/synchronous
+    //        del framework pero no cache_size/mmap_size.
+    //    Retorno:
+    //      - void.
+    // ------------------------------------------------------------------
+    public void apply(SQLiteDatabase db) {
+        if (wal) {
+            db.enableWriteAheadLogging();
+        } else {
+            db.disableWriteAheadLogging();
+        }
+        pragma(db, "synchronous = " + synchronous);
+        pragma(db, "cache_size = " + cacheSize);
+        pragma(db, "mmap_size = " + mmapSize);
+        pragma(db, "temp_store = " + tempStore);
+        pragma(db, "journal_size_limit = " + journalSizeLimit);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: pragma
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión destino.
+    //      - asignacion (String): texto "nombre = valor".
+    //    Descripción:
+    //      - Ejecuta "PRAGMA <asignacion>" avanzando el cursor para que
+    //        la sentencia realmente se evalúe, y lo cierra.
+    // ------------------------------------------------------------------
+    private static void pragma(SQLiteDatabase db, String asignacion) {
+        try (Cursor c = db.rawQuery("PRAGMA " + asignacion, null)) {
+            c.moveToFirst();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: toString
+    //    Retorno:
+    //      - String: resumen legible del perfil (para logs/benchmarks).
+    // ------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return nombre + "{wal=" + wal + ", sync=" + synchronous + ", cache=" + cacheSize +
+                ", mmap=" + mmapSize + ", temp=" + tempStore + ", journalLimit=" + journalSizeLimit + "}";
+    }
+}
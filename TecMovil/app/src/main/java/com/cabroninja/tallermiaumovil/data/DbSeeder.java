@@ -8,11 +8,18 @@ import com.cabroninja.tallermiaumovil.model.Vehiculo;
 import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
 import com.cabroninja.tallermiaumovil.model.Persona;
 
+import java.util.Arrays;
+
 // ======================================================================
 // == Clase: DbSeeder
 // == Rol dentro de la app:
 //    - Inicializa (si es necesario) la base de datos con datos mínimos
 //      de ejemplo para poder usar la app inmediatamente en desarrollo.
+//    - Corre como etapa de StartupPipeline (en DbExecutor), nunca en el
+//      hilo principal.
+//    - Para datos de referencia grandes conviene un SeedSnapshot: si la
+//      DB llega instalada desde el asset, ya tiene personas y este
+//      sembrado se omite.
 //    - Solo si la tabla PERSONA está vacía: crea trabajadores demo,
 //      clientes demo, sus vehículos y algunas órdenes de trabajo.
 // ======================================================================
@@ -23,56 +30,66 @@ public class DbSeeder {
     //    Modificador: static (se usa sin instanciar la clase)
     //    Parámetros:
     //      - ctx (Context): contexto Android necesario para abrir/crear
-    //        la base de datos a través de TallerDbHelper.
+    //        la base de datos a través de TallerDatabase.
     //    Descripción detallada:
     //      1) Revisa un "toggle" local ENABLE_SEED. Si está desactivado,
     //         no hace nada.
-    //      2) Abre la DB en modo lectura y pregunta cuántas filas hay en
-    //         PERSONA. Si hay al menos 1, asume que la DB ya está poblada
-    //         y retorna sin cambios.
+    //      2) Abre la DB en modo lectura y pregunta si hay alguna fila en
+    //         PERSONA (EXISTS: se detiene en la primera, no cuenta la
+    //         tabla). Si la hay, asume que la DB ya está poblada y
+    //         retorna sin cambios.
     //      3) Si no hay personas, instancia los repositorios y realiza
     //         inserciones mínimas: 2 trabajadores (login), 2 clientes,
-    //         2 vehículos y 3 órdenes de trabajo de ejemplo.
+    //         2 vehículos y 3 órdenes de trabajo de ejemplo. Cada grupo
+    //         se carga con insertAll (una transacción por tabla).
     //    Retorno:
     //      - void (produce efectos persistiendo datos).
     // ------------------------------------------------------------------
     public static void seedIfEmpty(Context ctx){
+        seedIfEmpty(TallerDatabase.getInstance(ctx));
+    }
+
+    // Variante sobre un gestor explícito (StartupPipeline y tests).
+    static void seedIfEmpty(TallerDatabase database){
 
         final boolean ENABLE_SEED = true;
         if (!ENABLE_SEED) return;
 
         // 1) Si ya hay personas (cliente/trabajador), no hacemos nada
-        TallerDbHelper helper = new TallerDbHelper(ctx);
-        SQLiteDatabase rdb = helper.getReadableDatabase();
+        SQLiteDatabase rdb = database.getReadableDatabase();
         boolean hasPeople = false;
-        try (Cursor c = rdb.rawQuery("SELECT COUNT(*) FROM " + TallerDbHelper.T_PERSONA, null)) {
+        try (Cursor c = rdb.rawQuery("SELECT EXISTS(SELECT 1 FROM " + TallerDbHelper.T_PERSONA + ")", null)) {
             if (c.moveToFirst()) {
                 hasPeople = c.getInt(0) > 0;
             }
         }
         if (hasPeople) return;
 
-        // 2) Insertar personas (usando modelo Persona + PersonaRepository)
-        PersonaRepository pr = new PersonaRepository(ctx);
-
-        // Trabajadores (permiten iniciar sesión)
-        pr.insert(new Persona(99999991, "mecanico1@taller.cl", "Mecánico", "Uno", "123456", "trabajador"));
-        pr.insert(new Persona(99999992, "admin@taller.cl", "Admin", "General", "admin123", "trabajador"));
+        // 2) Insertar personas (usando modelo Persona + PersonaRepository).
+        //    PersonaRepository guarda derivadas (PBKDF2) las contraseñas
+        //    de los trabajadores; aquí van en texto plano.
+        PersonaRepository pr = new PersonaRepository(database);
 
-        // Clientes (para probar listados/relaciones)
-        pr.insert(new Persona(11111111, "ana@demo.cl", "Ana", "Pérez", "123456", "cliente"));
-        pr.insert(new Persona(22222222, "benja@demo.cl", "Benjamín", "Silva", "123456", "cliente"));
+        pr.insertAll(Arrays.asList(
+                // Trabajadores (permiten iniciar sesión)
+                new Persona(99999991, "mecanico1@taller.cl", "Mecánico", "Uno", "123456", "trabajador"),
+                new Persona(99999992, "admin@taller.cl", "Admin", "General", "admin123", "trabajador"),
+                // Clientes (para probar listados/relaciones)
+                new Persona(11111111, "ana@demo.cl", "Ana", "Pérez", "123456", "cliente"),
+                new Persona(22222222, "benja@demo.cl", "Benjamín", "Silva", "123456", "cliente")));
 
         // 3) Vehículos y Órdenes asociados a clientes
-        VehiculoRepository rv = new VehiculoRepository(ctx);
-        OrdenRepository ro = new OrdenRepository(ctx);
+        VehiculoRepository rv = new VehiculoRepository(database);
+        OrdenRepository ro = new OrdenRepository(database);
 
-        rv.insert(new Vehiculo("ABC123", "Azul", "Toyota Yaris 1.5", 11111111));
-        rv.insert(new Vehiculo("XYZ987", "Rojo", "Chevrolet Corsa 1.6", 22222222));
+        rv.insertAll(Arrays.asList(
+                new Vehiculo("ABC123", "Azul", "Toyota Yaris 1.5", 11111111),
+                new Vehiculo("XYZ987", "Rojo", "Chevrolet Corsa 1.6", 22222222)));
 
         // O_ID se autogenera en la DB (id=0 aquí solo es placeholder)
-        ro.insert(new OrdenTrabajo(0, "OT-0001", "2025-11-07", 100000, 19000, "Mantención", "ABC123"));
-        ro.insert(new OrdenTrabajo(0, "OT-0002", "2025-11-06", 200000, 38000, "Frenos", "ABC123"));
-        ro.insert(new OrdenTrabajo(0, "OT-0003", "2025-11-07", 150000, 28500, "Cambio de aceite", "XYZ987"));
+        ro.insertAll(Arrays.asList(
+                new OrdenTrabajo(0, "OT-0001", "2025-11-07", 100000, 19000, "Mantención", "ABC123"),
+                new OrdenTrabajo(0, "OT-0002", "2025-11-06", 200000, 38000, "Frenos", "ABC123"),
+                new OrdenTrabajo(0, "OT-0003", "2025-11-07", 150000, 28500, "Cambio de aceite", "XYZ987")));
     }
 }
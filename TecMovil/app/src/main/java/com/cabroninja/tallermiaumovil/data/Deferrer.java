@@ -0,0 +1,17 @@
+package com.cabroninja.tallermiaumovil.data;
+
+// ======================================================================
+// == Interface: Deferrer
+// == Rol dentro de la app:
+//    - Dónde deja ChangeBus un aviso hasta que la escritura quede
+//      confirmada. La implementa CommitQueue (transacciones SQLite);
+//      sin base detrás (MemoryTallerStore) no hay ninguna y se avisa de
+//      inmediato.
+//    - Java puro: ChangeBus también se compila en :bench, sin Android.
+// ======================================================================
+interface Deferrer {
+
+    // Ejecuta action ahora o al confirmar la transacción en curso; si
+    // esta se revierte, nunca.
+    void defer(Runnable action);
+}
@@ -0,0 +1,43 @@
+package com.cabroninja.tallermiaumovil.data;
+
+// ======================================================================
+// == Clase: Ingresos
+// == Rol dentro de la app:
+//    - Valor inmutable que devuelve ResumenRepository para un mes, un
+//      vehículo o un cliente: cantidad de OTs y su total (neto + IVA).
+// ======================================================================
+public final class Ingresos {
+
+    // ------------------------------------------------------------------
+    // == Atributo: CERO
+    //    Rol : Clave sin OTs (las tablas de resumen no guardan ceros).
+    // ------------------------------------------------------------------
+    public static final Ingresos CERO = new Ingresos(0, 0);
+
+    // ------------------------------------------------------------------
+    // == Atributos: valores
+    //    - ordenes (int): OTs contadas.
+    //    - centavos (long): suma de total() en centavos.
+    // ------------------------------------------------------------------
+    public final int ordenes;
+    public final long centavos;
+
+    Ingresos(int ordenes, long centavos) {
+        this.ordenes = ordenes;
+        this.centavos = centavos;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: total
+    //    Retorno:
+    //      - double: el total en pesos (como OrdenTrabajo.total()).
+    // ------------------------------------------------------------------
+    public double total() {
+        return centavos / 100.0;
+    }
+
+    @Override
+    public String toString() {
+        return ordenes + " OT, $" + total();
+    }
+}
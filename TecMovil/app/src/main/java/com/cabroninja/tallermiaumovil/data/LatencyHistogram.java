@@ -0,0 +1,126 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// ======================================================================
+// == Clase: LatencyHistogram
+// == Rol dentro de la app:
+//    - Histograma de latencias sin locks al estilo HdrHistogram: cubetas
+//      log-lineales (cada potencia de 2 se parte en SUB cubetas iguales),
+//      así el error relativo de cualquier percentil queda bajo 1/SUB
+//      (6,25%) desde 1 ns hasta MAX_NANOS, con un arreglo fijo.
+//    - record() es un par de sumas atómicas: lo pueden llamar muchos
+//      hilos a la vez sin coordinarse (RepoMetrics lo usa en cada
+//      llamada a un repositorio).
+//    - Las lecturas (count, percentile, max) son aproximadas mientras
+//      otros hilos registran: sirven para diagnóstico, no para cuadrar.
+// ======================================================================
+public final class LatencyHistogram {
+
+    // Bits de sub-cubeta: 16 cubetas por potencia de 2.
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+
+    // ------------------------------------------------------------------
+    // == Atributo: MAX_NANOS
+    //    Rol : Mayor latencia distinguible (2^36 ns ≈ 68 s); las más
+    //          largas caen en la última cubeta.
+    // ------------------------------------------------------------------
+    static final long MAX_NANOS = (1L << 36) - 1;
+
+    static final int BUCKETS = bucket(MAX_NANOS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    // ------------------------------------------------------------------
+    // == Método: record
+    //    Parámetros:
+    //      - nanos (long): duración medida (negativa cuenta como 0).
+    // ------------------------------------------------------------------
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(Math.min(v, MAX_NANOS)));
+        total.increment();
+        sumNanos.add(v);
+        maxNanos.accumulate(v);
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    public double meanNanos() {
+        long n = total.sum();
+        return n == 0 ? 0 : (double) sumNanos.sum() / n;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: percentile
+    //    Parámetros:
+    //      - q (double): cuantil entre 0 y 1 (0.5 = mediana, 0.99 = p99).
+    //    Retorno:
+    //      - long: límite superior (ns) de la cubeta que contiene ese
+    //        cuantil, como highestEquivalentValue de HdrHistogram; nunca
+    //        mayor que el máximo registrado. 0 si está vacío.
+    // ------------------------------------------------------------------
+    public long percentile(double q) {
+        long[] snapshot = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(Math.min(1.0, Math.max(0.0, q)) * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return Math.min(highestValue(i), maxNanos.get());
+        }
+        return maxNanos.get();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: reset
+    //    Descripción:
+    //      - Vuelve a cero. Un record() concurrente puede quedar a medias
+    //        (contado en una cifra y no en otra); aceptable en diagnóstico.
+    // ------------------------------------------------------------------
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.reset();
+        sumNanos.reset();
+        maxNanos.reset();
+    }
+
+    // ============================ CUBETAS ==============================
+
+    // Valores bajo SUB tienen cubeta propia; luego SUB por potencia de 2.
+    static int bucket(long v) {
+        if (v < SUB) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+        return (exp - SUB_BITS + 1) * SUB + sub;
+    }
+
+    static long lowestValue(int bucket) {
+        if (bucket < SUB) return bucket;
+        int exp = bucket / SUB + SUB_BITS - 1;
+        return (long) (SUB + bucket % SUB) << (exp - SUB_BITS);
+    }
+
+    static long highestValue(int bucket) {
+        if (bucket < SUB) return bucket;
+        int exp = bucket / SUB + SUB_BITS - 1;
+        return lowestValue(bucket) + (1L << (exp - SUB_BITS)) - 1;
+    }
+}
@@ -0,0 +1,230 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.os.Looper;
+import android.util.Log;
+
+import com.cabroninja.tallermiaumovil.BuildConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+
+// ======================================================================
+// == Clase: MainThreadGuard
+// == Rol dentro de la app:
+//    - Detecta accesos a la base de datos desde el hilo principal. Lo
+//      llama TallerDbHelper en cada getWritableDatabase /
+//      getReadableDatabase, que es por donde pasa toda llamada de los
+//      repositorios (y de DashboardStats, OrdenColumns...).
+//    - Agrupa por sitio de llamada: la operación (primer método de
+//      data/ en la pila, p. ej. "PersonaRepository.getByRun") y el
+//      primer marco fuera de data/ que la pidió (la Activity y línea).
+//      La primera vez que aparece un sitio se escribe en Logcat con la
+//      pila completa; las siguientes solo suman al contador.
+//    - Con MAX_SITES sitios guardados, los accesos desde sitios nuevos
+//      solo suman a un contador de desborde (sin pila en Logcat).
+//    - Se ve en DiagnosticoActivity y lo revisa MainThreadDbTest, que
+//      recorre las Activities y falla si queda alguna violación.
+// == Costo:
+//    - Encendido solo en builds debug. Apagado, cada apertura de la
+//      conexión paga una lectura volátil.
+// == Límite:
+//    - No ve los rellenos de ventana que SQLiteCursor hace en el hilo
+//      del bind (ver ui/CursorListAdapter): no pasan por el helper.
+// ======================================================================
+public final class MainThreadGuard {
+
+    private static final String TAG = "MainThreadGuard";
+
+    private static final String DATA_PKG = MainThreadGuard.class.getPackage().getName() + ".";
+
+    // Sitios distintos que se guardan; los accesos desde sitios nuevos
+    // después de llenarse solo suman a "overflow".
+    static final int MAX_SITES = 64;
+
+    private static volatile boolean enabled = BuildConfig.DEBUG;
+
+    // Clave "op <- sitio" → violación, en orden de aparición. Se protege
+    // con su propio monitor.
+    private static final LinkedHashMap<String, Violation> SITES = new LinkedHashMap<>();
+
+    // Accesos desde sitios que no cupieron en SITES (protegido por SITES).
+    private static int overflow;
+
+    private MainThreadGuard() { }
+
+    // ------------------------------------------------------------------
+    // == Clase interna: Violation
+    //    Rol : Un sitio de llamada que tocó la DB en el hilo principal,
+    //          con la pila de la primera vez y cuántas veces pasó.
+    // ------------------------------------------------------------------
+    public static final class Violation {
+        public final String op;
+        public final String site;
+        private final StackTraceElement[] stack;
+        private int count = 1;
+
+        Violation(String op, String site, StackTraceElement[] stack) {
+            this.op = op;
+            this.site = site;
+            this.stack = stack;
+        }
+
+        public synchronized int count() {
+            return count;
+        }
+
+        // Pila de la primera vez, un marco por línea.
+        public String trace() {
+            StringBuilder sb = new StringBuilder();
+            for (StackTraceElement e : stack) sb.append("    at ").append(e).append('\n');
+            return sb.toString();
+        }
+
+        private synchronized void increment() {
+            count++;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: check
+    //    Descripción:
+    //      - Si el guardia está encendido y el hilo actual es el
+    //        principal, registra el acceso (ver record).
+    // ------------------------------------------------------------------
+    static void check() {
+        if (!enabled) return;
+        Looper main = Looper.getMainLooper();
+        if (main == null || !main.isCurrentThread()) return;
+        Throwable where = new Throwable("Acceso a la base de datos en el hilo principal");
+        Violation v = record(where.getStackTrace());
+        if (v != null) Log.w(TAG, v.op + " desde " + v.site, where);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: record
+    //    Parámetros:
+    //      - stack (StackTraceElement[]): pila del acceso, empezando
+    //        dentro de data/.
+    //    Descripción:
+    //      - Suma al sitio si ya existe; si no, lo crea mientras haya
+    //        menos de MAX_SITES, y si no cabe suma a overflow.
+    //    Retorno:
+    //      - Violation: el sitio nuevo, o null si ya existía o no cupo
+    //        (no hay que escribir la pila en Logcat).
+    // ------------------------------------------------------------------
+    static Violation record(StackTraceElement[] stack) {
+        String op = "?";
+        String site = "?";
+        for (StackTraceElement e : stack) {
+            String cls = e.getClassName();
+            if (!cls.startsWith(DATA_PKG)) {
+                site = e.toString();
+                break;
+            }
+            if ("?".equals(op) && !isPlumbing(cls)) {
+                op = simpleName(cls) + "." + e.getMethodName();
+            }
+        }
+        String key = op + " <- " + site;
+        synchronized (SITES) {
+            Violation v = SITES.get(key);
+            if (v != null) {
+                v.increment();
+                return null;
+            }
+            if (SITES.size() >= MAX_SITES) {
+                overflow++;
+                return null;
+            }
+            v = new Violation(op, site, stack);
+            SITES.put(key, v);
+            return v;
+        }
+    }
+
+    // Marcos que solo entregan la conexión: no son "la operación".
+    private static boolean isPlumbing(String cls) {
+        return cls.equals(MainThreadGuard.class.getName())
+                || cls.equals(TallerDbHelper.class.getName())
+                || cls.equals(TallerDatabase.class.getName());
+    }
+
+    // "pkg.Clase$Interna" → "Clase$Interna".
+    private static String simpleName(String cls) {
+        return cls.substring(cls.lastIndexOf('.') + 1);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: setEnabled
+    //    Descripción:
+    //      - Enciende o apaga el guardia (por defecto, BuildConfig.DEBUG).
+    // ------------------------------------------------------------------
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: violations
+    //    Retorno:
+    //      - List<Violation>: sitios registrados, el más repetido primero.
+    // ------------------------------------------------------------------
+    public static List<Violation> violations() {
+        List<Violation> out;
+        synchronized (SITES) {
+            out = new ArrayList<>(SITES.values());
+        }
+        Collections.sort(out, (a, b) -> Integer.compare(b.count(), a.count()));
+        return out;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: overflow
+    //    Retorno:
+    //      - int: accesos desde sitios que no cupieron (MAX_SITES).
+    // ------------------------------------------------------------------
+    public static int overflow() {
+        synchronized (SITES) {
+            return overflow;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: reset
+    //    Descripción:
+    //      - Olvida los sitios registrados (botón "Reiniciar" y tests).
+    // ------------------------------------------------------------------
+    public static void reset() {
+        synchronized (SITES) {
+            SITES.clear();
+            overflow = 0;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: report
+    //    Retorno:
+    //      - String: un bloque por sitio (veces, operación, sitio y la
+    //        pila de la primera vez) y el desborde, o "" si no hay
+    //        violaciones.
+    // ------------------------------------------------------------------
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        for (Violation v : violations()) {
+            sb.append(String.format(Locale.US, "%d× %s%n  desde %s%n", v.count(), v.op, v.site));
+            sb.append(v.trace());
+        }
+        int fuera = overflow();
+        if (fuera > 0) {
+            sb.append(String.format(Locale.US, "%d× en sitios sin registrar (límite de %d sitios)%n",
+                    fuera, MAX_SITES));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,219 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// ======================================================================
+// == Clase: MemoryOrdenes (uso interno del paquete data)
+// == Rol dentro de la app:
+//    - OrdenStore de MemoryTallerStore.
+//    - Índices:
+//        * byId      : hash id → fila (update, count).
+//        * idOrder   : id ordenado (listAll, listPage, búsqueda).
+//        * byPatente : hash patente → OTs ordenadas por id (como
+//                      idx_orden_patente_id; también el ON DELETE CASCADE).
+//    - Los ids siguen AUTOINCREMENT: crecen siempre, aunque se borre la
+//      OT más nueva.
+// ======================================================================
+final class MemoryOrdenes implements OrdenStore {
+
+    private static final float[] SEARCH_WEIGHTS = { 3f, 1f };
+
+    // ------------------------------------------------------------------
+    // == Clase interna: Row
+    //    Rol: Fila inmutable de OT con sus palabras para la búsqueda
+    //         (numero, observacion: columnas de orden_fts).
+    // ------------------------------------------------------------------
+    static final class Row implements MemorySearch.Indexed {
+        final long id;
+        final String numero;
+        final String fecha;
+        final double valorNeto;
+        final double iva;
+        final String observacion;
+        final String patente;
+        private final String[][] words;
+
+        Row(long id, OrdenTrabajo o) {
+            this.id = id;
+            numero = o.numero;
+            fecha = o.fecha;
+            valorNeto = o.valorNeto;
+            iva = o.iva;
+            observacion = o.observacion;
+            patente = o.patente;
+            words = MemorySearch.index(numero, observacion);
+        }
+
+        OrdenTrabajo toOrden() {
+            return new OrdenTrabajo(id, numero, fecha, valorNeto, iva, observacion, patente);
+        }
+
+        @Override
+        public String[][] words() {
+            return words;
+        }
+    }
+
+    private final MemoryTallerStore store;
+
+    private final ConcurrentHashMap<Long, Row> byId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Row> idOrder = new ConcurrentSkipListMap<>();
+    private final Map<String, ConcurrentSkipListMap<Long, Row>> byPatente = new ConcurrentHashMap<>();
+
+    // Mayor id entregado (sqlite_sequence).
+    private long seq;
+
+    MemoryOrdenes(MemoryTallerStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public long insert(OrdenTrabajo o) {
+        long id;
+        synchronized (store.lock) {
+            if (violation(o.patente) != null) return -1;
+            id = ++seq;
+            put(new Row(id, o), null);
+        }
+        store.bus.publish(TableChange.of(MemoryTallerStore.T_ORDEN, TableChange.Op.INSERT, id));
+        return id;
+    }
+
+    @Override
+    public BulkResult insertAll(List<OrdenTrabajo> ordenes) {
+        return write(ordenes, false);
+    }
+
+    @Override
+    public BulkResult upsertAll(List<OrdenTrabajo> ordenes) {
+        return write(ordenes, true);
+    }
+
+    // Ver MemoryPersonas.write. Con upsert, una OT nueva conserva su id
+    // si trae uno (> 0), igual que OrdenRepository.
+    private BulkResult write(List<OrdenTrabajo> ordenes, boolean upsert) {
+        BulkResult r = new BulkResult();
+        if (ordenes == null || ordenes.isEmpty()) return r;
+        synchronized (store.lock) {
+            for (int i = 0; i < ordenes.size(); i++) {
+                OrdenTrabajo o = ordenes.get(i);
+                String reason = violation(o.patente);
+                Row old = upsert ? byId.get(o.id) : null;
+                if (reason != null) {
+                    r.addConflict(i, reason);
+                } else if (old != null) {
+                    put(new Row(o.id, o), old);
+                    r.updated++;
+                    BulkResult.addKey(r.updatedKeys, o.id);
+                } else {
+                    long id = upsert && o.id > 0 ? o.id : seq + 1;
+                    seq = Math.max(seq, id);
+                    put(new Row(id, o), null);
+                    r.inserted++;
+                    BulkResult.addKey(r.insertedKeys, id);
+                }
+            }
+        }
+        r.publish(store.bus, MemoryTallerStore.T_ORDEN);
+        return r;
+    }
+
+    @Override
+    public List<OrdenTrabajo> listAll() {
+        return copy(idOrder.descendingMap().values(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<OrdenTrabajo> listByPatente(String patente) {
+        ConcurrentSkipListMap<Long, Row> rows = patente != null ? byPatente.get(patente) : null;
+        if (rows == null) return new ArrayList<>();
+        return copy(rows.descendingMap().values(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<OrdenTrabajo> listPage(long beforeId, int limit) {
+        return copy(idOrder.headMap(beforeId, false).descendingMap().values(), limit);
+    }
+
+    @Override
+    public List<OrdenTrabajo> listPageByPatente(String patente, long beforeId, int limit) {
+        ConcurrentSkipListMap<Long, Row> rows = patente != null ? byPatente.get(patente) : null;
+        if (rows == null) return new ArrayList<>();
+        return copy(rows.headMap(beforeId, false).descendingMap().values(), limit);
+    }
+
+    @Override
+    public List<OrdenTrabajo> search(String texto, String patente, int offset, int limit) {
+        return MemorySearch.rankedPage(texto, idOrder.descendingMap().values(), SEARCH_WEIGHTS,
+                r -> patente == null || patente.equals(r.patente), Row::toOrden, offset, limit);
+    }
+
+    @Override
+    public int update(OrdenTrabajo o) {
+        synchronized (store.lock) {
+            Row old = byId.get(o.id);
+            if (old == null) return 0;
+            String reason = violation(o.patente);
+            if (reason != null) throw new IllegalStateException(reason);
+            put(new Row(o.id, o), old);
+        }
+        store.bus.publish(TableChange.of(MemoryTallerStore.T_ORDEN, TableChange.Op.UPDATE, o.id));
+        return 1;
+    }
+
+    @Override
+    public int count() {
+        return byId.size();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: deleteByPatente
+    //    Descripción:
+    //      - ON DELETE CASCADE al borrar un vehículo. Se llama con el
+    //        lock tomado.
+    // ------------------------------------------------------------------
+    void deleteByPatente(String patente) {
+        ConcurrentSkipListMap<Long, Row> rows = byPatente.remove(patente);
+        if (rows == null) return;
+        for (Long id : rows.keySet()) {
+            byId.remove(id);
+            idOrder.remove(id);
+        }
+    }
+
+    // La patente debe existir en vehiculo (o ser null).
+    private String violation(String patente) {
+        if (patente != null && !store.vehiculos.exists(patente)) return MemoryTallerStore.FOREIGN_KEY;
+        return null;
+    }
+
+    // Con el lock tomado; mismo orden que MemoryPersonas.put.
+    private void put(Row row, Row old) {
+        byId.put(row.id, row);
+        idOrder.put(row.id, row);
+        if (row.patente != null) {
+            byPatente.computeIfAbsent(row.patente, k -> new ConcurrentSkipListMap<>()).put(row.id, row);
+        }
+        if (old != null && old.patente != null && !old.patente.equals(row.patente)) {
+            ConcurrentSkipListMap<Long, Row> rows = byPatente.get(old.patente);
+            rows.remove(old.id);
+            if (rows.isEmpty()) byPatente.remove(old.patente);
+        }
+    }
+
+    private static List<OrdenTrabajo> copy(Collection<Row> rows, int limit) {
+        List<OrdenTrabajo> out = new ArrayList<>(Math.min(Math.max(limit, 0), 256));
+        for (Row r : rows) {
+            if (out.size() >= limit) break;
+            out.add(r.toOrden());
+        }
+        return out;
+    }
+}
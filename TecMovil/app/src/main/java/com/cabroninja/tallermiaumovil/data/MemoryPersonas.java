@@ -0,0 +1,294 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import com.cabroninja.tallermiaumovil.model.Persona;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// ======================================================================
+// == Clase: MemoryPersonas (uso interno del paquete data)
+// == Rol dentro de la app:
+//    - PersonaStore de MemoryTallerStore.
+//    - Índices:
+//        * byRun   : hash run → fila (getByRun, PK).
+//        * runOrder: run ordenado (búsqueda de texto, docid DESC).
+//        * byEmail : hash email → fila (UNIQUE y login).
+//        * byTipo  : por tipo, filas ordenadas por nombre, apellido y
+//                    run (como idx_persona_tipo_nombre) con su conteo.
+// ======================================================================
+final class MemoryPersonas implements PersonaStore {
+
+    private static final float[] SEARCH_WEIGHTS = { 2f, 2f, 1f };
+
+    private static final Comparator<Row> BY_NOMBRE = (a, b) -> {
+        int c = MemoryTallerStore.BINARY.compare(a.nombre, b.nombre);
+        if (c == 0) c = MemoryTallerStore.BINARY.compare(a.apellido, b.apellido);
+        return c != 0 ? c : Integer.compare(a.run, b.run);
+    };
+
+    // ------------------------------------------------------------------
+    // == Clase interna: Row
+    //    Rol: Fila inmutable de persona con sus palabras para la búsqueda
+    //         (nombre, apellido, email: las columnas de persona_fts).
+    // ------------------------------------------------------------------
+    static final class Row implements MemorySearch.Indexed {
+        final int run;
+        final String email;
+        final String nombre;
+        final String apellido;
+        final String password;
+        final String tipo;
+        private final String[][] words;
+
+        Row(int run, String email, String nombre, String apellido, String password, String tipo) {
+            this.run = run;
+            this.email = email;
+            this.nombre = nombre;
+            this.apellido = apellido;
+            this.password = password;
+            this.tipo = tipo;
+            words = MemorySearch.index(nombre, apellido, email);
+        }
+
+        Persona toPersona() {
+            return new Persona(run, email, nombre, apellido, password, tipo);
+        }
+
+        @Override
+        public String[][] words() {
+            return words;
+        }
+    }
+
+    // Filas de un tipo; count evita el size() lineal del skip list.
+    private static final class TipoIndex {
+        final ConcurrentSkipListMap<Row, Row> rows = new ConcurrentSkipListMap<>(BY_NOMBRE);
+        volatile int count;
+    }
+
+    private final MemoryTallerStore store;
+    private final PasswordHasher passwords;
+
+    private final ConcurrentHashMap<Integer, Row> byRun = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, Row> runOrder = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Row> byEmail = new ConcurrentHashMap<>();
+    private final Map<String, TipoIndex> byTipo = new ConcurrentHashMap<>();
+
+    MemoryPersonas(MemoryTallerStore store, PasswordHasher passwords) {
+        this.store = store;
+        this.passwords = passwords;
+        byTipo.put("cliente", new TipoIndex());
+        byTipo.put("trabajador", new TipoIndex());
+    }
+
+    @Override
+    public long insert(Persona p) {
+        Row row = row(p);
+        synchronized (store.lock) {
+            if (violation(row, null) != null) return -1;
+            put(row, null);
+        }
+        store.bus.publish(TableChange.of(MemoryTallerStore.T_PERSONA, TableChange.Op.INSERT, p.run));
+        return p.run;
+    }
+
+    @Override
+    public BulkResult insertAll(List<Persona> personas) {
+        return write(personas, false);
+    }
+
+    @Override
+    public BulkResult upsertAll(List<Persona> personas) {
+        return write(personas, true);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: write
+    //    Descripción:
+    //      - Igual que BulkWriter: con upsert primero actualiza por RUN y
+    //        solo si no existe inserta; una fila que viola una restricción
+    //        queda como conflicto y la carga sigue. Las contraseñas se
+    //        derivan antes de tomar el lock (PBKDF2 es lento a propósito).
+    // ------------------------------------------------------------------
+    private BulkResult write(List<Persona> personas, boolean upsert) {
+        BulkResult r = new BulkResult();
+        if (personas == null || personas.isEmpty()) return r;
+        List<Row> rows = new ArrayList<>(personas.size());
+        for (Persona p : personas) rows.add(row(p));
+
+        synchronized (store.lock) {
+            for (int i = 0; i < rows.size(); i++) {
+                Row row = rows.get(i);
+                Row old = upsert ? byRun.get(row.run) : null;
+                String reason = violation(row, old);
+                if (reason != null) {
+                    r.addConflict(i, reason);
+                } else if (old != null) {
+                    put(row, old);
+                    r.updated++;
+                    BulkResult.addKey(r.updatedKeys, row.run);
+                } else {
+                    put(row, null);
+                    r.inserted++;
+                    BulkResult.addKey(r.insertedKeys, row.run);
+                }
+            }
+        }
+        r.publish(store.bus, MemoryTallerStore.T_PERSONA);
+        return r;
+    }
+
+    @Override
+    public int update(Persona p) {
+        Row row = row(p);
+        synchronized (store.lock) {
+            Row old = byRun.get(p.run);
+            if (old == null) return 0;
+            String reason = violation(row, old);
+            if (reason != null) throw new IllegalStateException(reason);
+            put(row, old);
+        }
+        store.bus.publish(TableChange.of(MemoryTallerStore.T_PERSONA, TableChange.Op.UPDATE, p.run));
+        return 1;
+    }
+
+    @Override
+    public int deleteByRun(int run) {
+        synchronized (store.lock) {
+            Row old = byRun.remove(run);
+            if (old == null) return 0;
+            runOrder.remove(run);
+            byEmail.remove(old.email, old);
+            TipoIndex t = byTipo.get(old.tipo);
+            t.rows.remove(old);
+            t.count--;
+            store.vehiculos.clearOwner(run);
+        }
+        store.bus.publish(TableChange.of(MemoryTallerStore.T_PERSONA, TableChange.Op.DELETE, run));
+        store.bus.publish(TableChange.unknown(MemoryTallerStore.T_VEHICULO, TableChange.Op.UPDATE));
+        return 1;
+    }
+
+    @Override
+    public Persona getByRun(int run) {
+        Row r = byRun.get(run);
+        return r != null ? r.toPersona() : null;
+    }
+
+    @Override
+    public List<Persona> listByTipo(String tipo) {
+        TipoIndex t = tipo != null ? byTipo.get(tipo) : null;
+        List<Persona> out = new ArrayList<>(t != null ? t.count : 0);
+        if (t == null) return out;
+        for (Row r : t.rows.values()) out.add(r.toPersona());
+        return out;
+    }
+
+    @Override
+    public int countByTipo(String tipo) {
+        TipoIndex t = tipo != null ? byTipo.get(tipo) : null;
+        return t != null ? t.count : 0;
+    }
+
+    @Override
+    public List<Persona> searchByTipo(String tipo, String texto, int offset, int limit) {
+        return MemorySearch.rankedPage(texto, runOrder.descendingMap().values(), SEARCH_WEIGHTS,
+                r -> r.tipo.equals(tipo), Row::toPersona, offset, limit);
+    }
+
+    @Override
+    public String authenticateTrabajador(String email, String plainPassword) {
+        Row r = email != null ? byEmail.get(email) : null;
+        if (r == null || !"trabajador".equals(r.tipo)) return null;
+        if (!passwords.verify(plainPassword, r.password)) return null;
+        if (passwords.needsRehash(r.password)) rehash(r, plainPassword);
+        String full = Persona.nombreCompleto(r.nombre, r.apellido).trim();
+        return full.isEmpty() ? null : full;
+    }
+
+    // Igual que PersonaRepository.rehash: solo si nadie cambió la
+    // contraseña entre la verificación y este punto.
+    private void rehash(Row r, String plainPassword) {
+        String hash = passwords.hash(plainPassword);
+        synchronized (store.lock) {
+            Row cur = byRun.get(r.run);
+            if (cur == null || !cur.password.equals(r.password)) return;
+            put(new Row(cur.run, cur.email, cur.nombre, cur.apellido, hash, cur.tipo), cur);
+        }
+        store.bus.publish(TableChange.of(MemoryTallerStore.T_PERSONA, TableChange.Op.UPDATE, r.run));
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: exists (para la FK de vehiculo.run_dueno)
+    // ------------------------------------------------------------------
+    boolean exists(int run) {
+        return byRun.containsKey(run);
+    }
+
+    private Row row(Persona p) {
+        return new Row(p.run, p.email, p.nombre, p.apellido, credential(p), p.tipo);
+    }
+
+    // Mismo criterio que PersonaRepository.credential.
+    private String credential(Persona p) {
+        if (!"trabajador".equals(p.tipo) || p.password == null || PasswordHasher.isHash(p.password)) {
+            return p.password;
+        }
+        return passwords.hash(p.password);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: violation
+    //    Parámetros:
+    //      - row (Row): fila a escribir.
+    //      - old (Row): fila que reemplaza (mismo RUN), o null si inserta.
+    //    Retorno:
+    //      - String: restricción violada (en el orden en que SQLite las
+    //        revisa), o null si la fila es válida.
+    // ------------------------------------------------------------------
+    private String violation(Row row, Row old) {
+        String t = MemoryTallerStore.T_PERSONA;
+        if (row.email == null) return MemoryTallerStore.notNull(t, "email");
+        if (row.nombre == null) return MemoryTallerStore.notNull(t, "nombre");
+        if (row.apellido == null) return MemoryTallerStore.notNull(t, "apellido");
+        if (row.password == null) return MemoryTallerStore.notNull(t, "password");
+        if (row.tipo == null) return MemoryTallerStore.notNull(t, "tipo");
+        if (!byTipo.containsKey(row.tipo)) return MemoryTallerStore.check("tipo IN ('cliente','trabajador')");
+        if (old == null && byRun.containsKey(row.run)) return MemoryTallerStore.unique(t, "run");
+        Row sameEmail = byEmail.get(row.email);
+        if (sameEmail != null && sameEmail.run != row.run) return MemoryTallerStore.unique(t, "email");
+        return null;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: put
+    //    Descripción:
+    //      - Escribe row en todos los índices y luego quita lo que quedó
+    //        de old: un lector concurrente nunca encuentra el RUN ausente.
+    //        Se llama con el lock tomado.
+    // ------------------------------------------------------------------
+    private void put(Row row, Row old) {
+        byRun.put(row.run, row);
+        runOrder.put(row.run, row);
+        byEmail.put(row.email, row);
+        TipoIndex t = byTipo.get(row.tipo);
+        t.rows.put(row, row);
+        if (old == null) {
+            t.count++;
+            return;
+        }
+        if (!old.email.equals(row.email)) byEmail.remove(old.email, old);
+        TipoIndex oldT = byTipo.get(old.tipo);
+        if (oldT != t) {
+            oldT.rows.remove(old);
+            oldT.count--;
+            t.count++;
+        } else if (BY_NOMBRE.compare(old, row) != 0) {
+            t.rows.remove(old);
+        }
+    }
+}
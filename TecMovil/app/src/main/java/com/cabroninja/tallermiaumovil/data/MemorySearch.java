@@ -0,0 +1,134 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// ======================================================================
+// == Clase: MemorySearch (uso interno del paquete data)
+// == Rol dentro de la app:
+//    - Búsqueda de texto de MemoryTallerStore: reproduce lo que hacen las
+//      tablas FTS4 + SearchIndex sin SQLite.
+//    - Cada fila guarda sus palabras ya normalizadas (SearchText.words,
+//      como unicode61); una búsqueda recorre las filas de la más nueva a
+//      la más antigua (docid DESC) contando, por palabra y columna, los
+//      aciertos de la fila y las filas con aciertos: los mismos números
+//      que matchinfo('pcnx'), así el ranking y la página son iguales.
+//    - Es un recorrido completo (el idf necesita contar todas las
+//      filas): con 1M filas cuesta decenas de ms, igual que un prefijo
+//      común en FTS.
+// ======================================================================
+final class MemorySearch {
+
+    // ------------------------------------------------------------------
+    // == Interface: Indexed
+    //    Rol: Fila con sus palabras por columna indexada, en el mismo
+    //         orden que las columnas de la tabla FTS (y los pesos).
+    // ------------------------------------------------------------------
+    interface Indexed {
+        String[][] words();
+    }
+
+    private MemorySearch() { }
+
+    // ------------------------------------------------------------------
+    // == Método: index
+    //    Parámetros:
+    //      - columns (String...): valores de las columnas indexadas.
+    //    Retorno:
+    //      - String[][]: palabras de cada columna (para Indexed.words).
+    // ------------------------------------------------------------------
+    static String[][] index(String... columns) {
+        String[][] out = new String[columns.length][];
+        for (int i = 0; i < columns.length; i++) out[i] = SearchText.words(columns[i]);
+        return out;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: rankedPage
+    //    Parámetros:
+    //      - texto (String): texto del usuario (ver SearchText.queryTokens).
+    //      - newestFirst (Iterable<R>): todas las filas, docid DESC.
+    //      - weights (float[]): peso por columna.
+    //      - filter (Predicate<R>): condición extra (tipo, dueño, patente).
+    //      - toModel (Function<R, T>): copia de la fila que se entrega.
+    //      - offset/limit (int): página dentro del ranking.
+    //    Descripción:
+    //      - Candidatas = las filas que tienen todas las palabras (como
+    //        prefijo, en cualquier columna) y pasan el filtro, docid DESC;
+    //        se puntúan con SearchText.term y se ordenan por tramos con
+    //        SearchText.rankedPage, como el motor SQLite.
+    //    Retorno:
+    //      - List<T>: la página (vacía si no hay nada que buscar).
+    // ------------------------------------------------------------------
+    static <R extends Indexed, T> List<T> rankedPage(String texto, Iterable<R> newestFirst,
+                                                     float[] weights, Predicate<R> filter,
+                                                     Function<R, T> toModel, int offset, int limit) {
+        String[] prefixes = prefixes(texto);
+        if (prefixes == null) return new ArrayList<>();
+
+        int cols = weights.length;
+        int cells = prefixes.length * cols;
+        int[] docsWithHits = new int[cells];
+        int[] hits = new int[cells];
+        List<R> candidates = new ArrayList<>();
+        List<int[]> candidateHits = new ArrayList<>();
+        int rows = 0;
+
+        for (R row : newestFirst) {
+            rows++;
+            String[][] words = row.words();
+            boolean all = true;
+            for (int p = 0; p < prefixes.length; p++) {
+                boolean any = false;
+                for (int col = 0; col < cols; col++) {
+                    int n = count(words[col], prefixes[p]);
+                    hits[p * cols + col] = n;
+                    if (n > 0) {
+                        docsWithHits[p * cols + col]++;
+                        any = true;
+                    }
+                }
+                all &= any;
+            }
+            if (all && filter.test(row)) {
+                candidates.add(row);
+                candidateHits.add(hits.clone());
+            }
+        }
+
+        final int total = rows;
+        return SearchText.rankedPage(offset, limit, (start, ranking) -> {
+            int end = Math.min(candidates.size(), start + SearchText.CANDIDATES);
+            for (int i = start; i < end; i++) {
+                int[] h = candidateHits.get(i);
+                double score = 0;
+                for (int cell = 0; cell < cells; cell++) {
+                    if (h[cell] == 0) continue;
+                    score += SearchText.term(weights[cell % cols], h[cell], total, docsWithHits[cell]);
+                }
+                ranking.add(toModel.apply(candidates.get(i)), score);
+            }
+        });
+    }
+
+    // Palabras de la consulta normalizadas igual que las filas ("José" → "jose").
+    private static String[] prefixes(String texto) {
+        List<String> tokens = SearchText.queryTokens(texto);
+        if (tokens == null) return null;
+        List<String> out = new ArrayList<>(tokens.size());
+        for (String t : tokens) {
+            for (String w : SearchText.words(t)) out.add(w);
+        }
+        return out.isEmpty() ? null : out.toArray(new String[0]);
+    }
+
+    private static int count(String[] words, String prefix) {
+        int n = 0;
+        for (String w : words) {
+            if (w.startsWith(prefix)) n++;
+        }
+        return n;
+    }
+}
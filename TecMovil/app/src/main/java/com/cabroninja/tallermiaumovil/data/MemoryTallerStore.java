@@ -0,0 +1,121 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import java.util.Comparator;
+
+// ======================================================================
+// == Clase: MemoryTallerStore
+// == Rol dentro de la app:
+//    - TallerStore sin disco: personas, vehículos y OTs viven en mapas
+//      concurrentes con índices hash (búsqueda exacta) y ordenados
+//      (listados, paginación y recorrido para la búsqueda de texto).
+//    - Pensado para kioscos sin almacenamiento y para tests que
+//      necesitan lecturas de menos de un microsegundo; cumple el mismo
+//      contrato que SqliteTallerStore (TallerStoreConformance).
+//    - Concurrencia:
+//        * las escrituras toman un único lock (los ON DELETE cruzan
+//          tablas) y publican su TableChange al soltarlo;
+//        * las lecturas no bloquean: recorren los mapas concurrentes y
+//          siempre ven filas completas (inmutables), aunque un listado
+//          que corre junto a una escritura puede ver o no esa escritura.
+//    - Reproduce las restricciones del esquema (PK, UNIQUE, NOT NULL,
+//      CHECK, FK con SET NULL/CASCADE) con los mismos mensajes que
+//      SQLite. Diferencia conocida: una patente null se rechaza (SQLite
+//      la aceptaría en una PRIMARY KEY de texto; la app nunca la usa).
+//    - No mantiene DashboardStats ni las tablas resumen_*.
+// ======================================================================
+public final class MemoryTallerStore implements TallerStore {
+
+    // Nombres de las tablas (los de TallerDbHelper, que es de Android).
+    static final String T_PERSONA = "persona";
+    static final String T_VEHICULO = "vehiculo";
+    static final String T_ORDEN = "orden_trabajo";
+
+    static final String FOREIGN_KEY = "FOREIGN KEY constraint failed";
+
+    // ------------------------------------------------------------------
+    // == Atributo: BINARY
+    //    Rol : Orden de texto de SQLite (memcmp sobre UTF-8), que coincide
+    //          con comparar code points; String.compareTo compara UTF-16 y
+    //          difiere para caracteres fuera del plano básico.
+    // ------------------------------------------------------------------
+    static final Comparator<String> BINARY = MemoryTallerStore::compareBinary;
+
+    final Object lock = new Object();
+    final ChangeBus bus;
+
+    final MemoryPersonas personas;
+    final MemoryVehiculos vehiculos;
+    final MemoryOrdenes ordenes;
+
+    // ------------------------------------------------------------------
+    // == Constructor: MemoryTallerStore
+    //    Parámetros:
+    //      - passwords (PasswordHasher): costo de las contraseñas de
+    //        trabajadores (las guarda derivadas, igual que SQLite).
+    // ------------------------------------------------------------------
+    public MemoryTallerStore(PasswordHasher passwords) {
+        this(passwords, new ChangeBus());
+    }
+
+    MemoryTallerStore(PasswordHasher passwords, ChangeBus bus) {
+        this.bus = bus;
+        personas = new MemoryPersonas(this, passwords);
+        vehiculos = new MemoryVehiculos(this);
+        ordenes = new MemoryOrdenes(this);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getChangeBus
+    //    Retorno:
+    //      - ChangeBus: recibe un TableChange por cada escritura (mismas
+    //        tablas, operaciones y claves que los repositorios).
+    // ------------------------------------------------------------------
+    public ChangeBus getChangeBus() {
+        return bus;
+    }
+
+    @Override
+    public PersonaStore personas() {
+        return personas;
+    }
+
+    @Override
+    public VehiculoStore vehiculos() {
+        return vehiculos;
+    }
+
+    @Override
+    public OrdenStore ordenes() {
+        return ordenes;
+    }
+
+    // ------------------------------------------------------------------
+    // == Métodos: notNull / unique / check
+    //    Retorno:
+    //      - String: mensaje de SQLite para la restricción violada.
+    // ------------------------------------------------------------------
+    static String notNull(String table, String column) {
+        return "NOT NULL constraint failed: " + table + "." + column;
+    }
+
+    static String unique(String table, String column) {
+        return "UNIQUE constraint failed: " + table + "." + column;
+    }
+
+    static String check(String expression) {
+        return "CHECK constraint failed: " + expression;
+    }
+
+    private static int compareBinary(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) return ca < cb ? -1 : 1;
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+}
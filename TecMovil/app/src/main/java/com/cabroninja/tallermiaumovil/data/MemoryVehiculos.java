@@ -0,0 +1,240 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// ======================================================================
+// == Clase: MemoryVehiculos (uso interno del paquete data)
+// == Rol dentro de la app:
+//    - VehiculoStore de MemoryTallerStore.
+//    - Índices:
+//        * byPatente   : hash patente → fila (PK, FK de las OTs).
+//        * patenteOrder: patente ordenada (listAll).
+//        * byRowId     : rowid ordenado (búsqueda, docid DESC). El rowid
+//                        se asigna como en SQLite: el mayor + 1.
+//        * byDueno     : hash run_dueno → vehículos ordenados por patente
+//                        (como idx_vehiculo_run_dueno).
+// ======================================================================
+final class MemoryVehiculos implements VehiculoStore {
+
+    private static final float[] SEARCH_WEIGHTS = { 3f, 1f, 1f };
+
+    // ------------------------------------------------------------------
+    // == Clase interna: Row
+    //    Rol: Fila inmutable de vehículo con su rowid y sus palabras para
+    //         la búsqueda (patente, modelo, color: columnas de vehiculo_fts).
+    // ------------------------------------------------------------------
+    static final class Row implements MemorySearch.Indexed {
+        final long rowId;
+        final String patente;
+        final String color;
+        final String modelo;
+        final Integer runDueno;
+        private final String[][] words;
+
+        Row(long rowId, String patente, String color, String modelo, Integer runDueno) {
+            this.rowId = rowId;
+            this.patente = patente;
+            this.color = color;
+            this.modelo = modelo;
+            this.runDueno = runDueno;
+            words = MemorySearch.index(patente, modelo, color);
+        }
+
+        Vehiculo toVehiculo() {
+            return new Vehiculo(patente, color, modelo, runDueno);
+        }
+
+        @Override
+        public String[][] words() {
+            return words;
+        }
+    }
+
+    private final MemoryTallerStore store;
+
+    private final ConcurrentHashMap<String, Row> byPatente = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Row> patenteOrder =
+            new ConcurrentSkipListMap<>(MemoryTallerStore.BINARY);
+    private final ConcurrentSkipListMap<Long, Row> byRowId = new ConcurrentSkipListMap<>();
+    private final Map<Integer, ConcurrentSkipListMap<String, Row>> byDueno = new ConcurrentHashMap<>();
+
+    MemoryVehiculos(MemoryTallerStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public long insert(Vehiculo v) {
+        long rowId;
+        synchronized (store.lock) {
+            if (violation(v.patente, v.runDueno, false) != null) return -1;
+            rowId = nextRowId();
+            put(new Row(rowId, v.patente, v.color, v.modelo, v.runDueno), null);
+        }
+        store.bus.publish(TableChange.of(MemoryTallerStore.T_VEHICULO, TableChange.Op.INSERT, v.patente));
+        return rowId;
+    }
+
+    @Override
+    public BulkResult insertAll(List<Vehiculo> vehiculos) {
+        return write(vehiculos, false);
+    }
+
+    @Override
+    public BulkResult upsertAll(List<Vehiculo> vehiculos) {
+        return write(vehiculos, true);
+    }
+
+    // Ver MemoryPersonas.write: mismo flujo que BulkWriter.
+    private BulkResult write(List<Vehiculo> vehiculos, boolean upsert) {
+        BulkResult r = new BulkResult();
+        if (vehiculos == null || vehiculos.isEmpty()) return r;
+        synchronized (store.lock) {
+            for (int i = 0; i < vehiculos.size(); i++) {
+                Vehiculo v = vehiculos.get(i);
+                Row old = upsert && v.patente != null ? byPatente.get(v.patente) : null;
+                if (old != null) {
+                    Integer runDueno = v.runDueno != null ? v.runDueno : old.runDueno;
+                    String reason = violation(v.patente, runDueno, true);
+                    if (reason != null) {
+                        r.addConflict(i, reason);
+                        continue;
+                    }
+                    put(new Row(old.rowId, v.patente, v.color, v.modelo, runDueno), old);
+                    r.updated++;
+                    BulkResult.addKey(r.updatedKeys, v.patente);
+                    continue;
+                }
+                String reason = violation(v.patente, v.runDueno, false);
+                if (reason != null) {
+                    r.addConflict(i, reason);
+                    continue;
+                }
+                put(new Row(nextRowId(), v.patente, v.color, v.modelo, v.runDueno), null);
+                r.inserted++;
+                BulkResult.addKey(r.insertedKeys, v.patente);
+            }
+        }
+        r.publish(store.bus, MemoryTallerStore.T_VEHICULO);
+        return r;
+    }
+
+    @Override
+    public List<Vehiculo> listByRunDueno(int runDueno) {
+        ConcurrentSkipListMap<String, Row> owned = byDueno.get(runDueno);
+        List<Vehiculo> out = new ArrayList<>();
+        if (owned == null) return out;
+        for (Row r : owned.values()) out.add(r.toVehiculo());
+        return out;
+    }
+
+    @Override
+    public List<Vehiculo> listAll() {
+        List<Vehiculo> out = new ArrayList<>(byPatente.size());
+        for (Row r : patenteOrder.values()) out.add(r.toVehiculo());
+        return out;
+    }
+
+    @Override
+    public List<Vehiculo> search(String texto, Integer runDueno, int offset, int limit) {
+        return MemorySearch.rankedPage(texto, byRowId.descendingMap().values(), SEARCH_WEIGHTS,
+                r -> runDueno == null || runDueno.equals(r.runDueno), Row::toVehiculo, offset, limit);
+    }
+
+    @Override
+    public int update(Vehiculo v) {
+        synchronized (store.lock) {
+            Row old = v.patente != null ? byPatente.get(v.patente) : null;
+            if (old == null) return 0;
+            Integer runDueno = v.runDueno != null ? v.runDueno : old.runDueno;
+            String reason = violation(v.patente, runDueno, true);
+            if (reason != null) throw new IllegalStateException(reason);
+            put(new Row(old.rowId, v.patente, v.color, v.modelo, runDueno), old);
+        }
+        store.bus.publish(TableChange.of(MemoryTallerStore.T_VEHICULO, TableChange.Op.UPDATE, v.patente));
+        return 1;
+    }
+
+    @Override
+    public int delete(String patente) {
+        synchronized (store.lock) {
+            Row old = patente != null ? byPatente.remove(patente) : null;
+            if (old == null) return 0;
+            patenteOrder.remove(patente);
+            byRowId.remove(old.rowId);
+            if (old.runDueno != null) removeOwned(old.runDueno, patente);
+            store.ordenes.deleteByPatente(patente);
+        }
+        store.bus.publish(TableChange.of(MemoryTallerStore.T_VEHICULO, TableChange.Op.DELETE, patente));
+        store.bus.publish(TableChange.unknown(MemoryTallerStore.T_ORDEN, TableChange.Op.DELETE));
+        return 1;
+    }
+
+    @Override
+    public int count() {
+        return byPatente.size();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: exists (para la FK de orden_trabajo.patente)
+    // ------------------------------------------------------------------
+    boolean exists(String patente) {
+        return byPatente.containsKey(patente);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: clearOwner
+    //    Descripción:
+    //      - ON DELETE SET NULL de run_dueno al borrar una persona. Se
+    //        llama con el lock tomado.
+    // ------------------------------------------------------------------
+    void clearOwner(int run) {
+        ConcurrentSkipListMap<String, Row> owned = byDueno.remove(run);
+        if (owned == null) return;
+        for (Row r : owned.values()) {
+            Row orphan = new Row(r.rowId, r.patente, r.color, r.modelo, null);
+            byPatente.put(r.patente, orphan);
+            patenteOrder.put(r.patente, orphan);
+            byRowId.put(r.rowId, orphan);
+        }
+    }
+
+    private long nextRowId() {
+        return byRowId.isEmpty() ? 1 : byRowId.lastKey() + 1;
+    }
+
+    // PK y FK, en el orden de SQLite (la FK se revisa al final).
+    private String violation(String patente, Integer runDueno, boolean existing) {
+        String t = MemoryTallerStore.T_VEHICULO;
+        if (patente == null) return MemoryTallerStore.notNull(t, "patente");
+        if (!existing && byPatente.containsKey(patente)) return MemoryTallerStore.unique(t, "patente");
+        if (runDueno != null && !store.personas.exists(runDueno)) return MemoryTallerStore.FOREIGN_KEY;
+        return null;
+    }
+
+    // Con el lock tomado; mismo orden que MemoryPersonas.put.
+    private void put(Row row, Row old) {
+        byPatente.put(row.patente, row);
+        patenteOrder.put(row.patente, row);
+        byRowId.put(row.rowId, row);
+        if (row.runDueno != null) {
+            byDueno.computeIfAbsent(row.runDueno,
+                    k -> new ConcurrentSkipListMap<>(MemoryTallerStore.BINARY)).put(row.patente, row);
+        }
+        if (old != null && old.runDueno != null && !old.runDueno.equals(row.runDueno)) {
+            removeOwned(old.runDueno, old.patente);
+        }
+    }
+
+    private void removeOwned(int runDueno, String patente) {
+        ConcurrentSkipListMap<String, Row> owned = byDueno.get(runDueno);
+        if (owned == null) return;
+        owned.remove(patente);
+        if (owned.isEmpty()) byDueno.remove(runDueno);
+    }
+}
@@ -0,0 +1,89 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.database.sqlite.SQLiteDatabase;
+
+// ======================================================================
+// == Clase: Migration (abstracta)
+// == Rol dentro de la app:
+//    - Un paso de migración de esquema desde fromVersion a fromVersion+1.
+//    - SchemaMigrator ejecuta los pasos en orden, registra cada uno en la
+//      tabla de bitácora y omite los ya aplicados.
+//    - Un paso puede tener dos partes: migrate (cambios de esquema,
+//      dentro de la transacción de onUpgrade) y, opcionalmente, rebuild
+//      (reconstrucciones con copyAndSwap, al abrir la base y fuera de
+//      esa transacción: cada lote se confirma y un corte se reanuda).
+// == Reglas para escribir un paso:
+//    - Debe preservar los datos (ALTER TABLE ... ADD COLUMN, índices, o
+//      SchemaMigrator.copyAndSwap para reconstruir una tabla).
+//    - Se ejecuta con claves foráneas desactivadas (se activan en
+//      TallerDbHelper.onOpen); al final el motor corre foreign_key_check.
+//    - Debe ser idempotente (IF NOT EXISTS, copyAndSwap reanudable), por
+//      si se reintenta tras una interrupción.
+// ======================================================================
+public abstract class Migration {
+
+    // ------------------------------------------------------------------
+    // == Atributo: fromVersion
+    //    Tipo: int
+    //    Rol : Versión de origen; el paso deja la DB en fromVersion + 1.
+    // ------------------------------------------------------------------
+    public final int fromVersion;
+
+    // ------------------------------------------------------------------
+    // == Atributo: description
+    //    Tipo: String
+    //    Rol : Texto corto para bitácora, logs y reporte de progreso.
+    // ------------------------------------------------------------------
+    public final String description;
+
+    // ------------------------------------------------------------------
+    // == Constructor: Migration
+    //    Parámetros:
+    //      - fromVersion (int): versión de origen del paso.
+    //      - description (String): descripción legible.
+    // ------------------------------------------------------------------
+    protected Migration(int fromVersion, String description) {
+        this.fromVersion = fromVersion;
+        this.description = description;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: migrate
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión de escritura.
+    //      - listener (SchemaMigrator.ProgressListener): receptor del
+    //        progreso (nunca null; puede ignorar los avisos).
+    //    Retorno:
+    //      - void. Ante un error debe lanzar excepción: el paso no se
+    //        registra como aplicado.
+    // ------------------------------------------------------------------
+    public abstract void migrate(SQLiteDatabase db, SchemaMigrator.ProgressListener listener);
+
+    // ------------------------------------------------------------------
+    // == Método: hasRebuild
+    //    Retorno:
+    //      - boolean: true si el paso tiene parte rebuild (sobrescribir
+    //        junto con rebuild).
+    // ------------------------------------------------------------------
+    public boolean hasRebuild() {
+        return false;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: rebuild
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión de escritura, fuera de toda
+    //        transacción y con claves foráneas desactivadas.
+    //      - listener (SchemaMigrator.ProgressListener): receptor del
+    //        progreso.
+    //    Descripción:
+    //      - Parte pesada del paso (SchemaMigrator.copyAndSwap). Corre
+    //        después de migrate, al abrir la base
+    //        (SchemaMigrator.finishRebuilds); si el proceso muere se
+    //        vuelve a llamar en la siguiente apertura y copyAndSwap sigue
+    //        desde el último lote confirmado. Debe dejar recreados los
+    //        índices y triggers de la tabla reconstruida.
+    // ------------------------------------------------------------------
+    public void rebuild(SQLiteDatabase db, SchemaMigrator.ProgressListener listener) {
+    }
+}
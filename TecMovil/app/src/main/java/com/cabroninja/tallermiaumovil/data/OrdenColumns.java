@@ -0,0 +1,228 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+// ======================================================================
+// == Clase: OrdenColumns
+// == Rol dentro de la app:
+//    - Mantiene un OrdenSnapshot (orden_trabajo en arreglos primitivos)
+//      al día con la base de datos, para los cálculos de ingresos que
+//      recorren todas las OTs (total, por patente, por mes).
+//    - La primera llamada a get() carga la tabla completa; después se
+//      suscribe a ChangeBus y aplica solo lo que cambió:
+//        * INSERT/UPDATE con claves → relee esas filas por id;
+//        * DELETE con claves        → marca las filas como borradas;
+//        * cualquier evento sin claves (lotes grandes, cascadas de
+//          VehiculoRepository.delete) → recarga completa.
+//    - Con más de un cuarto de filas borradas se recarga todo para que
+//      los recorridos no paguen filas muertas.
+// == Hilos:
+//    - get() consulta la DB: llamarlo desde DbExecutor/TallerAsync.
+//      peek() no la toca (seguro en el hilo principal).
+//    - Los avisos de ChangeBus llegan en el hilo escritor y solo se
+//      encolan (no bloquean la escritura mientras otro hilo recarga).
+// == Límite:
+//    - Igual que DashboardStats, solo ve las escrituras hechas a través
+//      de los repositorios. Quien escriba SQL directo debe llamar a
+//      invalidate().
+// ======================================================================
+public final class OrdenColumns {
+
+    // ------------------------------------------------------------------
+    // == Atributo: SQL_COLUMNS
+    //    Rol : Proyección ya convertida a las columnas del snapshot:
+    //          fecha → días desde 1970-01-01 (NULL si no es una fecha) y
+    //          neto + IVA → centavos. SQLite hace la conversión, así la
+    //          carga no arma un String de fecha por fila.
+    // ------------------------------------------------------------------
+    static final String SQL_COLUMNS =
+            "SELECT " + TallerDbHelper.O_ID + ", " +
+            "CAST(julianday(" + TallerDbHelper.O_FECHA + ") - 2440587.5 AS INTEGER), " +
+            "CAST(ROUND((IFNULL(" + TallerDbHelper.O_VALOR_NETO + ", 0) + IFNULL(" +
+            TallerDbHelper.O_IVA + ", 0)) * 100) AS INTEGER), " +
+            TallerDbHelper.O_PATENTE +
+            " FROM " + TallerDbHelper.T_ORDEN;
+
+    static final int PAGE = 10_000;
+
+    // Carga por páginas de id (keyset): cada página es una búsqueda en la
+    // PK, sin que el CursorWindow tenga que saltar filas ya leídas.
+    static final String SQL_AFTER =
+            SQL_COLUMNS + " WHERE " + TallerDbHelper.O_ID + " > ? ORDER BY " +
+            TallerDbHelper.O_ID + " LIMIT " + PAGE;
+
+    private final TallerDbHelper helper;
+
+    // Estado protegido por "this" (carga y aplicación de cambios).
+    private OrdenSnapshot.Builder builder;
+
+    // Último snapshot publicado (lectura sin bloqueo desde peek()).
+    private volatile OrdenSnapshot current;
+
+    // Cambios recibidos y aún no aplicados; protegido por "pending".
+    private final List<TableChange> pending = new ArrayList<>();
+
+    private int reloads;
+
+    // ------------------------------------------------------------------
+    // == Constructor: OrdenColumns
+    //    Parámetros:
+    //      - helper (TallerDbHelper): conexión compartida.
+    //      - bus (ChangeBus): avisos de la misma base de datos.
+    //    Descripción:
+    //      - Solo se suscribe; no consulta nada hasta el primer get().
+    // ------------------------------------------------------------------
+    OrdenColumns(TallerDbHelper helper, ChangeBus bus) {
+        this.helper = helper;
+        bus.subscribe(this::enqueue, TallerDbHelper.T_ORDEN);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: peek
+    //    Retorno:
+    //      - OrdenSnapshot: último snapshot armado (puede no incluir los
+    //        cambios más recientes), o null si nunca se cargó.
+    // ------------------------------------------------------------------
+    @Nullable
+    public OrdenSnapshot peek() {
+        return current;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: get
+    //    Descripción:
+    //      - Carga la tabla la primera vez; después aplica los cambios
+    //        encolados desde la llamada anterior (sin cambios, no toca la
+    //        base de datos).
+    //    Retorno:
+    //      - OrdenSnapshot: estado actual; inmutable, se puede pasar a
+    //        otro hilo y recorrer sin bloqueo.
+    // ------------------------------------------------------------------
+    @WorkerThread
+    public synchronized OrdenSnapshot get() {
+        List<TableChange> changes;
+        synchronized (pending) {
+            changes = new ArrayList<>(pending);
+            pending.clear();
+        }
+        if (builder == null) {
+            reload();
+        } else if (!changes.isEmpty()) {
+            apply(changes);
+        }
+        return current;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: invalidate
+    //    Descripción:
+    //      - Descarta el estado; el próximo get() recarga la tabla.
+    // ------------------------------------------------------------------
+    public synchronized void invalidate() {
+        builder = null;
+        synchronized (pending) {
+            pending.clear();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getReloadCount
+    //    Retorno:
+    //      - int: cargas completas hechas (para tests y diagnóstico).
+    // ------------------------------------------------------------------
+    public synchronized int getReloadCount() {
+        return reloads;
+    }
+
+    // ============================ APOYO ================================
+
+    // Hilo escritor: solo encola.
+    private void enqueue(TableChange change) {
+        synchronized (pending) {
+            pending.add(change);
+        }
+    }
+
+    private void apply(List<TableChange> changes) {
+        // Ordenados por id: las altas se agregan en orden creciente.
+        TreeSet<Long> reread = new TreeSet<>();
+        for (TableChange ch : changes) {
+            if (!ch.keysKnown()) {
+                reload();
+                return;
+            }
+            if (ch.op == TableChange.Op.DELETE) {
+                for (String k : ch.keys) builder.delete(Long.parseLong(k));
+            } else {
+                for (String k : ch.keys) reread.add(Long.parseLong(k));
+            }
+        }
+        if (!reread.isEmpty() && !reread(reread)) {
+            reload();
+            return;
+        }
+        if (builder.borradas() > builder.size() / 4) {
+            reload();
+            return;
+        }
+        current = builder.snapshot();
+    }
+
+    // Relee las OTs indicadas (altas y cambios). false si una fila no se
+    // puede ubicar (id intermedio nuevo, p. ej. upsertAll con id propio).
+    private boolean reread(TreeSet<Long> set) {
+        List<String> ids = new ArrayList<>(set.size());
+        for (Long id : set) ids.add(String.valueOf(id));
+        SQLiteDatabase db = helper.getReadableDatabase();
+        for (int from = 0; from < ids.size(); from += TableChange.MAX_KEYS) {
+            List<String> part = ids.subList(from, Math.min(ids.size(), from + TableChange.MAX_KEYS));
+            StringBuilder in = new StringBuilder();
+            for (int i = 0; i < part.size(); i++) in.append(i == 0 ? "?" : ",?");
+            String sql = SQL_COLUMNS + " WHERE " + TallerDbHelper.O_ID + " IN (" + in + ") ORDER BY " +
+                    TallerDbHelper.O_ID;
+            try (Cursor c = db.rawQuery(sql, part.toArray(new String[0]), QuerySignal.current())) {
+                while (c.moveToNext()) {
+                    long id = c.getLong(0);
+                    int dia = c.isNull(1) ? OrdenSnapshot.SIN_FECHA : c.getInt(1);
+                    long cents = c.getLong(2);
+                    String patente = c.getString(3);
+                    if (id > builder.maxId()) {
+                        builder.append(id, dia, cents, patente);
+                    } else if (!builder.update(id, dia, cents, patente)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private void reload() {
+        OrdenSnapshot.Builder b = new OrdenSnapshot.Builder();
+        SQLiteDatabase db = helper.getReadableDatabase();
+        long after = 0;
+        int read;
+        do {
+            read = 0;
+            try (Cursor c = db.rawQuery(SQL_AFTER, new String[]{ String.valueOf(after) }, QuerySignal.current())) {
+                while (c.moveToNext()) {
+                    after = c.getLong(0);
+                    b.append(after, c.isNull(1) ? OrdenSnapshot.SIN_FECHA : c.getInt(1),
+                            c.getLong(2), c.getString(3));
+                    read++;
+                }
+            }
+        } while (read == PAGE);
+        builder = b;
+        reloads++;
+        current = b.snapshot();
+    }
+}
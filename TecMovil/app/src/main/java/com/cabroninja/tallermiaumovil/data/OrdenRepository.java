@@ -4,6 +4,7 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 
 import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
 import java.util.ArrayList;
@@ -28,28 +29,167 @@ import java.util.List;
 //      * O_PATENTE     : FK a T_VEHICULO.V_PATENTE (String). Requiere
 //                        que exista la patente si las claves foráneas están activas.
 // ======================================================================
-public class OrdenRepository {
+public class OrdenRepository implements OrdenStore {
 
     // ------------------------------------------------------------------
     // == Atributo: helper
     //    Tipo: TallerDbHelper
     //    Propósito:
     //      - Gestiona la creación/configuración de la base de datos.
-    //      - Provee conexiones de lectura/escritura por operación.
+    //      - Es el helper compartido de TallerDatabase (una sola conexión
+    //        abierta para todo el proceso).
     // ------------------------------------------------------------------
     private final TallerDbHelper helper;
 
+    // ------------------------------------------------------------------
+    // == Atributo: stats
+    //    Tipo: DashboardStats
+    //    Propósito:
+    //      - Caché de contadores del panel; cada OT insertada suma 1 sin
+    //        volver a consultar.
+    // ------------------------------------------------------------------
+    private final DashboardStats stats;
+
+    // ------------------------------------------------------------------
+    // == Atributo: bus
+    //    Tipo: ChangeBus
+    //    Propósito:
+    //      - Avisa a las pantallas suscritas de cada escritura confirmada
+    //        (ver TableChange).
+    // ------------------------------------------------------------------
+    private final ChangeBus bus;
+
+    // ------------------------------------------------------------------
+    // == Atributos: SQL de lectura
+    //    Propósito:
+    //      - Sentencias fijas del repositorio; package-private para que
+    //        QueryPlanTest verifique su plan de ejecución.
+    // ------------------------------------------------------------------
+    private static final String COLS =
+            TallerDbHelper.O_ID + "," +
+            TallerDbHelper.O_NUMERO + "," +
+            TallerDbHelper.O_FECHA + "," +
+            TallerDbHelper.O_VALOR_NETO + "," +
+            TallerDbHelper.O_IVA + "," +
+            TallerDbHelper.O_OBSERVACION + "," +
+            TallerDbHelper.O_PATENTE;
+
+    static final String SQL_LIST_ALL =
+            "SELECT " + COLS + " FROM " + TallerDbHelper.T_ORDEN +
+            " ORDER BY " + TallerDbHelper.O_ID + " DESC";
+
+    static final String SQL_LIST_BY_PATENTE =
+            "SELECT " + COLS + " FROM " + TallerDbHelper.T_ORDEN +
+            " WHERE " + TallerDbHelper.O_PATENTE + " = ?" +
+            " ORDER BY " + TallerDbHelper.O_ID + " DESC";
+
+    static final String SQL_COUNT =
+            "SELECT COUNT(*) FROM " + TallerDbHelper.T_ORDEN;
+
+    // Paginación por clave (keyset): la página siguiente empieza en el id
+    // inmediatamente menor al último entregado. A diferencia de OFFSET, el
+    // costo de cada página no crece con lo ya recorrido.
+    static final String SQL_PAGE =
+            "SELECT " + COLS + " FROM " + TallerDbHelper.T_ORDEN +
+            " WHERE " + TallerDbHelper.O_ID + " < ?" +
+            " ORDER BY " + TallerDbHelper.O_ID + " DESC LIMIT ?";
+
+    static final String SQL_PAGE_BY_PATENTE =
+            "SELECT " + COLS + " FROM " + TallerDbHelper.T_ORDEN +
+            " WHERE " + TallerDbHelper.O_PATENTE + " = ? AND " + TallerDbHelper.O_ID + " < ?" +
+            " ORDER BY " + TallerDbHelper.O_ID + " DESC LIMIT ?";
+
+    // Búsqueda de texto sobre orden_fts (ver SearchIndex.rankedPage). El
+    // docid es el id de la OT, así que los candidatos salen por id DESC.
+    private static final String SQL_SEARCH_BASE =
+            "SELECT " + SearchIndex.qualify("o", COLS) +
+            ", matchinfo(" + SearchIndex.FTS_ORDEN + ", '" + SearchIndex.MATCHINFO + "')" +
+            " FROM " + SearchIndex.FTS_ORDEN +
+            " JOIN " + TallerDbHelper.T_ORDEN + " o ON o." + TallerDbHelper.O_ID + " = " + SearchIndex.FTS_ORDEN + ".docid" +
+            " WHERE " + SearchIndex.FTS_ORDEN + " MATCH ?";
+    private static final String SQL_SEARCH_ORDER =
+            " ORDER BY " + SearchIndex.FTS_ORDEN + ".docid DESC" + SearchIndex.WINDOW;
+
+    static final String SQL_SEARCH = SQL_SEARCH_BASE + SQL_SEARCH_ORDER;
+
+    static final String SQL_SEARCH_BY_PATENTE =
+            SQL_SEARCH_BASE + " AND o." + TallerDbHelper.O_PATENTE + " = ?" + SQL_SEARCH_ORDER;
+
+    // Peso de cada columna de orden_fts (numero, observacion).
+    private static final float[] SEARCH_WEIGHTS = { 3f, 1f };
+
+    // ------------------------------------------------------------------
+    // == Atributos: M_* (RepoMetrics)
+    //    Rol : Latencia y filas de cada método público.
+    // ------------------------------------------------------------------
+    private static final RepoMetrics.Op M_INSERT = RepoMetrics.op("OrdenRepository.insert");
+    private static final RepoMetrics.Op M_INSERT_ALL = RepoMetrics.op("OrdenRepository.insertAll");
+    private static final RepoMetrics.Op M_UPSERT_ALL = RepoMetrics.op("OrdenRepository.upsertAll");
+    private static final RepoMetrics.Op M_LIST_ALL = RepoMetrics.op("OrdenRepository.listAll");
+    private static final RepoMetrics.Op M_LIST_BY_PATENTE = RepoMetrics.op("OrdenRepository.listByPatente");
+    private static final RepoMetrics.Op M_PAGE = RepoMetrics.op("OrdenRepository.listPage");
+    private static final RepoMetrics.Op M_PAGE_BY_PATENTE = RepoMetrics.op("OrdenRepository.listPageByPatente");
+    private static final RepoMetrics.Op M_SEARCH = RepoMetrics.op("OrdenRepository.search");
+    private static final RepoMetrics.Op M_UPDATE = RepoMetrics.op("OrdenRepository.update");
+    private static final RepoMetrics.Op M_COUNT = RepoMetrics.op("OrdenRepository.count");
+
+    // ------------------------------------------------------------------
+    // == Atributo: PAGE_SIZE
+    //    Tipo: int (constante)
+    //    Rol : Tamaño de página por defecto para las listas de OTs.
+    // ------------------------------------------------------------------
+    public static final int PAGE_SIZE = 50;
+
+    // ------------------------------------------------------------------
+    // == Atributo: FIRST_PAGE
+    //    Tipo: long (constante)
+    //    Rol : Valor de "beforeId" para pedir la primera página.
+    // ------------------------------------------------------------------
+    public static final long FIRST_PAGE = Long.MAX_VALUE;
+
+    // ------------------------------------------------------------------
+    // == Atributos: SQL de carga masiva (insertAll / upsertAll)
+    //    Propósito:
+    //      - Se compilan una vez por carga y se reutilizan en cada fila.
+    //      - SQL_INSERT incluye O_ID: con NULL la DB lo autogenera; con un
+    //        valor (upsertAll de una OT que ya tenía id) se respeta.
+    // ------------------------------------------------------------------
+    static final String SQL_INSERT =
+            "INSERT INTO " + TallerDbHelper.T_ORDEN + " (" + COLS + ") VALUES (?,?,?,?,?,?,?)";
+
+    static final String SQL_UPDATE_BY_ID =
+            "UPDATE " + TallerDbHelper.T_ORDEN + " SET " +
+            TallerDbHelper.O_NUMERO + " = ?, " +
+            TallerDbHelper.O_FECHA + " = ?, " +
+            TallerDbHelper.O_VALOR_NETO + " = ?, " +
+            TallerDbHelper.O_IVA + " = ?, " +
+            TallerDbHelper.O_OBSERVACION + " = ?, " +
+            TallerDbHelper.O_PATENTE + " = ?" +
+            " WHERE " + TallerDbHelper.O_ID + " = ?";
+
     // ------------------------------------------------------------------
     // == Constructor: OrdenRepository
     //    Parámetros:
     //      - ctx (Context): contexto Android para inicializar el helper.
     //    Descripción:
-    //      - Crea el repositorio y deja lista la infraestructura para
-    //        ejecutar operaciones sobre T_ORDEN.
+    //      - Crea el repositorio sobre la conexión compartida de
+    //        TallerDatabase, lista para operar sobre T_ORDEN.
     //    Retorno:
     //      - (constructor) instancia configurada.
     // ------------------------------------------------------------------
-    public OrdenRepository(Context ctx){ helper = new TallerDbHelper(ctx); }
+    public OrdenRepository(Context ctx){ this(TallerDatabase.getInstance(ctx)); }
+
+    // ------------------------------------------------------------------
+    // == Constructor: OrdenRepository (gestor explícito)
+    //    Parámetros:
+    //      - database (TallerDatabase): gestor de conexión a usar
+    //        (tests/benchmarks sobre una DB aislada).
+    // ------------------------------------------------------------------
+    OrdenRepository(TallerDatabase database){
+        helper = database.getHelper();
+        stats = database.getStats();
+        bus = database.getChangeBus();
+    }
 
     // ------------------------------------------------------------------
     // == Método: insert
@@ -64,12 +204,15 @@ public class OrdenRepository {
     //          * patente     (String) — FK a vehículo (debe existir si FK activo)
     //    Descripción detallada:
     //      - Mapea los campos a ContentValues e inserta en T_ORDEN.
-    //      - Cierra la conexión de escritura explícitamente tras el insert.
+    //      - No cierra la conexión: es compartida (TallerDatabase) y
+    //        cerrarla descartaría la caché de páginas de SQLite.
     //      - Si hay claves foráneas, fallará si la patente no existe en T_VEHICULO.
     //    Retorno:
     //      - long: rowId autogenerado (O_ID) si tuvo éxito; -1 si falló.
     // ------------------------------------------------------------------
+    @Override
     public long insert(OrdenTrabajo o){
+        long t0 = RepoMetrics.start();
         SQLiteDatabase db = helper.getWritableDatabase();
         ContentValues cv = new ContentValues();
         cv.put(TallerDbHelper.O_NUMERO, o.numero);
@@ -79,10 +222,87 @@ public class OrdenRepository {
         cv.put(TallerDbHelper.O_OBSERVACION, o.observacion);
         cv.put(TallerDbHelper.O_PATENTE, o.patente);
         long id = db.insert(TallerDbHelper.T_ORDEN, null, cv);
-        db.close();
+        if (id != -1) {
+            stats.adjust(0, 0, 1);
+            bus.publish(TableChange.of(TallerDbHelper.T_ORDEN, TableChange.Op.INSERT, id));
+        }
+        M_INSERT.stop(t0, id != -1 ? 1 : 0, db, SQL_INSERT,
+                new Object[]{ null, o.numero, o.fecha, o.valorNeto, o.iva, o.observacion, o.patente });
         return id;
     }
 
+    // ------------------------------------------------------------------
+    // == Método: insertAll
+    //    Parámetros:
+    //      - ordenes (List<OrdenTrabajo>): OTs a insertar, en orden. Igual
+    //        que insert(), se ignora o.id y la DB asigna uno nuevo.
+    //    Descripción detallada:
+    //      - Una sola transacción y una sentencia compilada reutilizada
+    //        (ver BulkWriter): un fsync por carga y no por fila.
+    //      - Una OT con patente inexistente (FK) queda como conflicto y la
+    //        carga continúa.
+    //    Retorno:
+    //      - BulkResult: insertadas y conflictos (índice + motivo).
+    // ------------------------------------------------------------------
+    @Override
+    public BulkResult insertAll(List<OrdenTrabajo> ordenes){
+        long t0 = RepoMetrics.start();
+        SQLiteDatabase db = helper.getWritableDatabase();
+        BulkResult r = BulkWriter.write(db, ordenes, ORDEN_KEY,
+                null, null, SQL_INSERT, (st, o) -> bindInsert(st, o, false));
+        if (r.inserted > 0) stats.adjust(0, 0, r.inserted);
+        r.publish(bus, TallerDbHelper.T_ORDEN);
+        M_INSERT_ALL.stop(t0, r.inserted, db, SQL_INSERT, null);
+        return r;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: upsertAll
+    //    Parámetros:
+    //      - ordenes (List<OrdenTrabajo>): OTs a insertar o actualizar.
+    //    Descripción detallada:
+    //      - Si o.id > 0: UPDATE por O_ID; si ese id no existía, INSERT
+    //        conservando el id. Si o.id <= 0: INSERT con id autogenerado.
+    //    Retorno:
+    //      - BulkResult: insertadas, actualizadas y conflictos.
+    // ------------------------------------------------------------------
+    @Override
+    public BulkResult upsertAll(List<OrdenTrabajo> ordenes){
+        long t0 = RepoMetrics.start();
+        SQLiteDatabase db = helper.getWritableDatabase();
+        BulkResult r = BulkWriter.write(db, ordenes, ORDEN_KEY,
+                SQL_UPDATE_BY_ID, OrdenRepository::bindUpdate,
+                SQL_INSERT, (st, o) -> bindInsert(st, o, true));
+        if (r.inserted > 0) stats.adjust(0, 0, r.inserted);
+        r.publish(bus, TallerDbHelper.T_ORDEN);
+        M_UPSERT_ALL.stop(t0, r.inserted + r.updated, db, SQL_UPDATE_BY_ID, null);
+        return r;
+    }
+
+    // Clave de cada OT escrita: el rowId asignado (INSERT) o su id (UPDATE).
+    private static final BulkWriter.Key<OrdenTrabajo> ORDEN_KEY =
+            (o, rowId) -> rowId != -1 ? rowId : o.id;
+
+    private static void bindInsert(SQLiteStatement st, OrdenTrabajo o, boolean keepId){
+        if (keepId && o.id > 0) st.bindLong(1, o.id); else st.bindNull(1);
+        BulkWriter.bindText(st, 2, o.numero);
+        BulkWriter.bindText(st, 3, o.fecha);
+        st.bindDouble(4, o.valorNeto);
+        st.bindDouble(5, o.iva);
+        BulkWriter.bindText(st, 6, o.observacion);
+        BulkWriter.bindText(st, 7, o.patente);
+    }
+
+    private static void bindUpdate(SQLiteStatement st, OrdenTrabajo o){
+        BulkWriter.bindText(st, 1, o.numero);
+        BulkWriter.bindText(st, 2, o.fecha);
+        st.bindDouble(3, o.valorNeto);
+        st.bindDouble(4, o.iva);
+        BulkWriter.bindText(st, 5, o.observacion);
+        BulkWriter.bindText(st, 6, o.patente);
+        st.bindLong(7, o.id);
+    }
+
     // ------------------------------------------------------------------
     // == Método: listAll
     //    Parámetros:
@@ -91,21 +311,24 @@ public class OrdenRepository {
     //      - Devuelve todas las órdenes ordenadas por O_ID DESC (más recientes primero).
     //      - Selecciona todas las columnas principales y mapea cada fila a
     //        un objeto OrdenTrabajo (incluyendo el O_ID autogenerado).
+    //      - Carga la tabla completa en memoria: para pantallas usar
+    //        listPage, que entrega páginas de tamaño fijo.
     //    Retorno:
     //      - List<OrdenTrabajo>: lista (posiblemente vacía) con todas las OTs.
     // ------------------------------------------------------------------
+    @Override
     public List<OrdenTrabajo> listAll(){
+        long t0 = RepoMetrics.start();
         List<OrdenTrabajo> out = new ArrayList<>();
-        try (Cursor c = helper.getReadableDatabase().query(
-                TallerDbHelper.T_ORDEN,
-                new String[]{TallerDbHelper.O_ID, TallerDbHelper.O_NUMERO, TallerDbHelper.O_FECHA, TallerDbHelper.O_VALOR_NETO, TallerDbHelper.O_IVA, TallerDbHelper.O_OBSERVACION, TallerDbHelper.O_PATENTE},
-                null, null, null, null, TallerDbHelper.O_ID + " DESC")) {
+        SQLiteDatabase db = helper.getReadableDatabase();
+        try (Cursor c = db.rawQuery(SQL_LIST_ALL, null, QuerySignal.current())) {
             while (c.moveToNext()) {
                 out.add(new OrdenTrabajo(
                         c.getLong(0), c.getString(1), c.getString(2), c.getDouble(3), c.getDouble(4), c.getString(5), c.getString(6)
                 ));
             }
         }
+        M_LIST_ALL.stop(t0, out.size(), db, SQL_LIST_ALL, null);
         return out;
     }
 
@@ -115,24 +338,113 @@ public class OrdenRepository {
     //      - patente (String): identificador del vehículo (PK en T_VEHICULO)
     //        cuyas órdenes asociadas se desean consultar.
     //    Descripción detallada:
-    //      - Filtra T_ORDEN por O_PATENTE = ? y ordena por O_ID DESC.
+    //      - Filtra T_ORDEN por O_PATENTE = ? y ordena por O_ID DESC
+    //        (recorre idx_orden_patente_id hacia atrás, sin ordenar).
     //      - Mapea cada fila a OrdenTrabajo y la agrega a la lista de salida.
     //    Retorno:
     //      - List<OrdenTrabajo>: lista de OTs ligadas a la patente.
     // ------------------------------------------------------------------
+    @Override
     public List<OrdenTrabajo> listByPatente(String patente){
+        long t0 = RepoMetrics.start();
         List<OrdenTrabajo> out = new ArrayList<>();
-        try (Cursor c = helper.getReadableDatabase().query(
-                TallerDbHelper.T_ORDEN,
-                new String[]{TallerDbHelper.O_ID, TallerDbHelper.O_NUMERO, TallerDbHelper.O_FECHA, TallerDbHelper.O_VALOR_NETO, TallerDbHelper.O_IVA, TallerDbHelper.O_OBSERVACION, TallerDbHelper.O_PATENTE},
-                TallerDbHelper.O_PATENTE + " = ?",
-                new String[]{ patente }, null, null, TallerDbHelper.O_ID + " DESC")) {
+        SQLiteDatabase db = helper.getReadableDatabase();
+        String[] args = { patente };
+        try (Cursor c = db.rawQuery(SQL_LIST_BY_PATENTE, args, QuerySignal.current())) {
             while (c.moveToNext()) {
                 out.add(new OrdenTrabajo(
                         c.getLong(0), c.getString(1), c.getString(2), c.getDouble(3), c.getDouble(4), c.getString(5), c.getString(6)
                 ));
             }
         }
+        M_LIST_BY_PATENTE.stop(t0, out.size(), db, SQL_LIST_BY_PATENTE, args);
+        return out;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: listPage
+    //    Parámetros:
+    //      - beforeId (long): id de la última OT ya mostrada; FIRST_PAGE
+    //        para empezar desde la más reciente.
+    //      - limit (int): máximo de filas de la página.
+    //    Descripción detallada:
+    //      - Devuelve las OTs con O_ID < beforeId en orden O_ID DESC.
+    //        SQLite busca directamente en la clave primaria: cada página
+    //        cuesta lo mismo sin importar cuántas OTs hay antes.
+    //      - Para pedir la siguiente página se pasa el id del último
+    //        elemento recibido. Una página con menos de "limit" filas
+    //        indica que no quedan más.
+    //    Retorno:
+    //      - List<OrdenTrabajo>: página (posiblemente vacía).
+    // ------------------------------------------------------------------
+    @Override
+    public List<OrdenTrabajo> listPage(long beforeId, int limit){
+        return query(M_PAGE, SQL_PAGE, new String[]{ String.valueOf(beforeId), String.valueOf(limit) }, limit);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: listPageByPatente
+    //    Parámetros:
+    //      - patente (String): vehículo cuyas OTs se listan.
+    //      - beforeId (long): id de la última OT ya mostrada, o FIRST_PAGE.
+    //      - limit (int): máximo de filas de la página.
+    //    Descripción detallada:
+    //      - Igual que listPage, acotado a una patente. Recorre
+    //        idx_orden_patente_id (patente, id) hacia atrás desde beforeId.
+    //    Retorno:
+    //      - List<OrdenTrabajo>: página (posiblemente vacía).
+    // ------------------------------------------------------------------
+    @Override
+    public List<OrdenTrabajo> listPageByPatente(String patente, long beforeId, int limit){
+        return query(M_PAGE_BY_PATENTE, SQL_PAGE_BY_PATENTE,
+                new String[]{ patente, String.valueOf(beforeId), String.valueOf(limit) }, limit);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: search
+    //    Parámetros:
+    //      - texto (String): lo escrito en el buscador; cada palabra se
+    //        busca como prefijo en numero u observacion.
+    //      - patente (String): si no es null, solo OTs de ese vehículo.
+    //      - offset, limit (int): página dentro del ranking (a diferencia
+    //        de listPage, el orden es por relevancia, no por id).
+    //    Descripción detallada:
+    //      - Búsqueda en orden_fts; el número de OT pesa más que la
+    //        observación. Ordena por tramos de SearchIndex.CANDIDATES
+    //        coincidencias, de la más reciente a la más antigua.
+    //    Retorno:
+    //      - List<OrdenTrabajo>: página de resultados (vacía si el texto
+    //        no alcanza SearchIndex.MIN_CHARS).
+    // ------------------------------------------------------------------
+    @Override
+    public List<OrdenTrabajo> search(String texto, String patente, int offset, int limit){
+        long t0 = RepoMetrics.start();
+        SQLiteDatabase db = helper.getReadableDatabase();
+        String match = SearchIndex.matchQuery(texto);
+        String sql = patente != null ? SQL_SEARCH_BY_PATENTE : SQL_SEARCH;
+        String[] args = patente != null ? new String[]{ match, patente, "0" } : new String[]{ match, "0" };
+        List<OrdenTrabajo> out = match == null ? new ArrayList<>()
+                : SearchIndex.rankedPage(db, sql, args, SEARCH_WEIGHTS,
+                        c -> new OrdenTrabajo(c.getLong(0), c.getString(1), c.getString(2),
+                                c.getDouble(3), c.getDouble(4), c.getString(5), c.getString(6)),
+                        offset, limit);
+        M_SEARCH.stop(t0, out.size(), db, sql, args);
+        return out;
+    }
+
+    // Ejecuta una SELECT de COLS y mapea cada fila a OrdenTrabajo.
+    private List<OrdenTrabajo> query(RepoMetrics.Op op, String sql, String[] args, int capacity){
+        long t0 = RepoMetrics.start();
+        List<OrdenTrabajo> out = new ArrayList<>(capacity);
+        SQLiteDatabase db = helper.getReadableDatabase();
+        try (Cursor c = db.rawQuery(sql, args, QuerySignal.current())) {
+            while (c.moveToNext()) {
+                out.add(new OrdenTrabajo(
+                        c.getLong(0), c.getString(1), c.getString(2), c.getDouble(3), c.getDouble(4), c.getString(5), c.getString(6)
+                ));
+            }
+        }
+        op.stop(t0, out.size(), db, sql, args);
         return out;
     }
 
@@ -147,7 +459,9 @@ public class OrdenRepository {
     //    Retorno:
     //      - int: número de filas afectadas (0 si no existe ese O_ID).
     // ------------------------------------------------------------------
+    @Override
     public int update(OrdenTrabajo o){
+        long t0 = RepoMetrics.start();
         ContentValues cv = new ContentValues();
         cv.put(TallerDbHelper.O_NUMERO, o.numero);
         cv.put(TallerDbHelper.O_FECHA, o.fecha);
@@ -155,9 +469,14 @@ public class OrdenRepository {
         cv.put(TallerDbHelper.O_IVA, o.iva);
         cv.put(TallerDbHelper.O_OBSERVACION, o.observacion);
         cv.put(TallerDbHelper.O_PATENTE, o.patente);
-        return helper.getWritableDatabase().update(
+        SQLiteDatabase db = helper.getWritableDatabase();
+        int rows = db.update(
                 TallerDbHelper.T_ORDEN, cv,
                 TallerDbHelper.O_ID + " = ?", new String[]{ String.valueOf(o.id) });
+        if (rows > 0) bus.publish(TableChange.of(TallerDbHelper.T_ORDEN, TableChange.Op.UPDATE, o.id));
+        M_UPDATE.stop(t0, rows, db, SQL_UPDATE_BY_ID,
+                new Object[]{ o.numero, o.fecha, o.valorNeto, o.iva, o.observacion, o.patente, o.id });
+        return rows;
     }
 
     // ------------------------------------------------------------------
@@ -170,14 +489,14 @@ public class OrdenRepository {
     //    Retorno:
     //      - int: cantidad total de órdenes (0 si no hay filas).
     // ------------------------------------------------------------------
+    @Override
     public int count() {
+        long t0 = RepoMetrics.start();
         SQLiteDatabase db = helper.getReadableDatabase();
-        try (Cursor c = db.rawQuery("SELECT COUNT(*) FROM " + TallerDbHelper.T_ORDEN, null)) {
-            if (c.moveToFirst()) {
-                return c.getInt(0);
-            } else {
-                return 0;
-            }
+        try (Cursor c = db.rawQuery(SQL_COUNT, null, QuerySignal.current())) {
+            int n = c.moveToFirst() ? c.getInt(0) : 0;
+            M_COUNT.stop(t0, 1, db, SQL_COUNT, null);
+            return n;
         }
     }
 }
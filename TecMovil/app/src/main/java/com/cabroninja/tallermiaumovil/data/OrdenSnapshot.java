@@ -0,0 +1,392 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// ======================================================================
+// == Clase: OrdenSnapshot
+// == Rol dentro de la app:
+//    - Copia de solo lectura de orden_trabajo en columnas de arreglos
+//      primitivos, para cálculos de ingresos (total general, por patente,
+//      por mes) sin armar un OrdenTrabajo por fila:
+//        * ids       : long[]  (orden ascendente, como el id de la DB)
+//        * dias      : int[]   (fecha como días desde 1970-01-01)
+//        * centavos  : long[]  (total = neto + IVA, en centavos)
+//        * patentes  : int[]   (código en el diccionario de patentes)
+//    - Los recorridos y agrupaciones no reservan memoria: escriben en
+//      arreglos que entrega quien llama (ver totalPorPatente/totalPorMes).
+//    - Java puro (sin Android): se prueba en test/ con JUnit local.
+// == Inmutabilidad:
+//    - Un snapshot ve las filas [0, size) de sus arreglos y nunca cambia.
+//      Builder agrega filas después de size sin copiar (un snapshot
+//      anterior no las ve) y copia los arreglos antes de modificar una
+//      fila ya publicada (update/delete).
+// == Fechas:
+//    - java.time.LocalDate exige API 26 (minSdk es 24): la conversión
+//      entre fecha civil y días se hace con aritmética entera
+//      (epochDay/mes).
+// ======================================================================
+public final class OrdenSnapshot {
+
+    // ------------------------------------------------------------------
+    // == Atributo: SIN_FECHA
+    //    Rol : Valor de dias[i] cuando la fecha de la OT es nula o no es
+    //          "aaaa-mm-dd". Esas filas cuentan en los totales generales
+    //          pero no en los filtrados por fecha ni por mes.
+    // ------------------------------------------------------------------
+    public static final int SIN_FECHA = Integer.MIN_VALUE;
+
+    // Código de patente de una fila borrada (se omite en todo cálculo).
+    static final int BORRADA = -1;
+
+    static final OrdenSnapshot EMPTY = new Builder().snapshot();
+
+    private final long[] ids;
+    private final int[] dias;
+    private final long[] centavos;
+    private final int[] patentes;
+    private final String[] diccionario;
+    private final int size;
+    private final int patentesSize;
+    private final int borradas;
+
+    private OrdenSnapshot(Builder b) {
+        ids = b.ids;
+        dias = b.dias;
+        centavos = b.centavos;
+        patentes = b.patentes;
+        diccionario = b.diccionario;
+        size = b.size;
+        patentesSize = b.diccionarioSize;
+        borradas = b.borradas;
+    }
+
+    // ============================ CONSULTA =============================
+
+    // ------------------------------------------------------------------
+    // == Método: size / count
+    //    Retorno:
+    //      - size : filas del snapshot, incluidas las borradas (índices
+    //               válidos para id(i), dia(i), ...).
+    //      - count: órdenes vigentes.
+    // ------------------------------------------------------------------
+    public int size() {
+        return size;
+    }
+
+    public int count() {
+        return size - borradas;
+    }
+
+    // Id más alto visto (0 si está vacío); las altas posteriores son mayores.
+    public long maxId() {
+        return size == 0 ? 0 : ids[size - 1];
+    }
+
+    public long id(int i) {
+        return ids[i];
+    }
+
+    public int dia(int i) {
+        return dias[i];
+    }
+
+    public long centavos(int i) {
+        return centavos[i];
+    }
+
+    // Código de patente de la fila i, o BORRADA.
+    public int patente(int i) {
+        return patentes[i];
+    }
+
+    // ------------------------------------------------------------------
+    // == Métodos: diccionario de patentes
+    //    - patentesSize(): cantidad de códigos (tamaño de los arreglos de
+    //      totalPorPatente).
+    //    - patenteDe(codigo): texto de un código.
+    //    - codigoDe(patente): código de un texto, o -1 si no aparece.
+    // ------------------------------------------------------------------
+    public int patentesSize() {
+        return patentesSize;
+    }
+
+    public String patenteDe(int codigo) {
+        return diccionario[codigo];
+    }
+
+    public int codigoDe(String patente) {
+        for (int c = 0; c < patentesSize; c++) {
+            if (diccionario[c].equals(patente)) return c;
+        }
+        return -1;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: indexOf
+    //    Parámetros:
+    //      - id (long): id de la OT.
+    //    Retorno:
+    //      - int: índice de la fila (búsqueda binaria), o -1 si no está
+    //        o fue borrada.
+    // ------------------------------------------------------------------
+    public int indexOf(long id) {
+        int i = Arrays.binarySearch(ids, 0, size, id);
+        return i >= 0 && patentes[i] != BORRADA ? i : -1;
+    }
+
+    // ============================ AGREGADOS ============================
+
+    // ------------------------------------------------------------------
+    // == Método: totalCentavos
+    //    Retorno:
+    //      - long: suma de total() de todas las OTs vigentes, en centavos.
+    // ------------------------------------------------------------------
+    public long totalCentavos() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            if (patentes[i] != BORRADA) sum += centavos[i];
+        }
+        return sum;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: totalCentavos (rango de fechas)
+    //    Parámetros:
+    //      - desdeDia (int): primer día incluido (epochDay).
+    //      - hastaDia (int): primer día excluido.
+    //    Retorno:
+    //      - long: suma de las OTs vigentes con fecha en [desde, hasta).
+    // ------------------------------------------------------------------
+    public long totalCentavos(int desdeDia, int hastaDia) {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            int d = dias[i];
+            if (d >= desdeDia && d < hastaDia && d != SIN_FECHA && patentes[i] != BORRADA) {
+                sum += centavos[i];
+            }
+        }
+        return sum;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: totalPorPatente
+    //    Parámetros:
+    //      - out (long[]): destino de largo >= patentesSize(); se pone en
+    //        cero y out[codigo] queda con el total de esa patente.
+    //    Retorno:
+    //      - long[]: el mismo out (sin reservar memoria).
+    // ------------------------------------------------------------------
+    public long[] totalPorPatente(long[] out) {
+        if (out.length < patentesSize) {
+            throw new IllegalArgumentException("out.length " + out.length + " < " + patentesSize);
+        }
+        Arrays.fill(out, 0, patentesSize, 0L);
+        for (int i = 0; i < size; i++) {
+            int c = patentes[i];
+            if (c != BORRADA) out[c] += centavos[i];
+        }
+        return out;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: totalPorMes
+    //    Parámetros:
+    //      - primerMes (int): mes de out[0], en formato mes() (año*12 +
+    //        mes-1).
+    //      - out (long[]): un casillero por mes consecutivo; se pone en
+    //        cero. Las OTs fuera de [primerMes, primerMes + out.length)
+    //        o sin fecha se ignoran.
+    //    Retorno:
+    //      - long[]: el mismo out (sin reservar memoria).
+    // ------------------------------------------------------------------
+    public long[] totalPorMes(int primerMes, long[] out) {
+        Arrays.fill(out, 0L);
+        // Las fechas suelen venir casi ordenadas por id: se recuerda el
+        // rango de días del último mes calculado para no repetir la
+        // conversión civil en cada fila.
+        int mesDesde = 1, mesHasta = 0, k = -1;
+        for (int i = 0; i < size; i++) {
+            int d = dias[i];
+            if (d == SIN_FECHA || patentes[i] == BORRADA) continue;
+            if (d < mesDesde || d >= mesHasta) {
+                int m = mes(d);
+                mesDesde = primerDia(m);
+                mesHasta = primerDia(m + 1);
+                k = m - primerMes;
+            }
+            if (k >= 0 && k < out.length) out[k] += centavos[i];
+        }
+        return out;
+    }
+
+    // ============================ FECHAS ===============================
+
+    // ------------------------------------------------------------------
+    // == Método: epochDay
+    //    Parámetros:
+    //      - anio, mes (1..12), dia (1..31): fecha civil (gregoriana).
+    //    Retorno:
+    //      - int: días desde 1970-01-01 (igual que LocalDate.toEpochDay).
+    // ------------------------------------------------------------------
+    public static int epochDay(int anio, int mes, int dia) {
+        int y = mes <= 2 ? anio - 1 : anio;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (mes > 2 ? mes - 3 : mes + 9) + 2) / 5 + dia - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: mes
+    //    Parámetros:
+    //      - epochDay (int): días desde 1970-01-01.
+    //    Retorno:
+    //      - int: año*12 + (mes-1); meses consecutivos dan enteros
+    //        consecutivos (índice directo en totalPorMes).
+    // ------------------------------------------------------------------
+    public static int mes(int epochDay) {
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int doe = z - era * 146097;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int m = mp < 10 ? mp + 3 : mp - 9;
+        int y = yoe + era * 400 + (m <= 2 ? 1 : 0);
+        return y * 12 + (m - 1);
+    }
+
+    // Primer día (epochDay) de un mes en formato mes().
+    public static int primerDia(int mes) {
+        return epochDay(Math.floorDiv(mes, 12), Math.floorMod(mes, 12) + 1, 1);
+    }
+
+    // ==================================================================
+    // == Clase interna: Builder
+    // == Rol:
+    //    - Estado mutable detrás de los snapshots. Un solo hilo escritor
+    //      (OrdenColumns lo usa bajo su propio lock).
+    //    - append requiere ids crecientes (como los asigna la DB).
+    // ==================================================================
+    static final class Builder {
+
+        private static final int INITIAL = 1024;
+
+        private long[] ids = new long[INITIAL];
+        private int[] dias = new int[INITIAL];
+        private long[] centavos = new long[INITIAL];
+        private int[] patentes = new int[INITIAL];
+        private int size;
+        private int borradas;
+
+        private String[] diccionario = new String[64];
+        private int diccionarioSize;
+        private final Map<String, Integer> codigos = new HashMap<>();
+
+        // true si un snapshot publicado comparte los arreglos de filas.
+        private boolean compartido;
+
+        int size() {
+            return size;
+        }
+
+        int borradas() {
+            return borradas;
+        }
+
+        long maxId() {
+            return size == 0 ? 0 : ids[size - 1];
+        }
+
+        // --------------------------------------------------------------
+        // == Método: append
+        //    Parámetros:
+        //      - id (long): mayor que maxId().
+        //      - dia (int): epochDay o SIN_FECHA.
+        //      - cents (long): total en centavos.
+        //      - patente (String): patente del vehículo.
+        //    Retorno:
+        //      - boolean: false (sin cambios) si id no es mayor que maxId.
+        // --------------------------------------------------------------
+        boolean append(long id, int dia, long cents, String patente) {
+            if (size > 0 && id <= ids[size - 1]) return false;
+            if (size == ids.length) grow(size * 2);
+            ids[size] = id;
+            dias[size] = dia;
+            centavos[size] = cents;
+            patentes[size] = codigo(patente);
+            size++;
+            return true;
+        }
+
+        // --------------------------------------------------------------
+        // == Método: update
+        //    Retorno:
+        //      - boolean: false si el id no está (p. ej. ya borrado).
+        // --------------------------------------------------------------
+        boolean update(long id, int dia, long cents, String patente) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i < 0 || patentes[i] == BORRADA) return false;
+            unshare();
+            dias[i] = dia;
+            centavos[i] = cents;
+            patentes[i] = codigo(patente);
+            return true;
+        }
+
+        // --------------------------------------------------------------
+        // == Método: delete
+        //    Descripción:
+        //      - Marca la fila como BORRADA (no la quita: los índices de
+        //        las demás no cambian). OrdenColumns reconstruye todo
+        //        cuando las borradas pasan de un cuarto.
+        // --------------------------------------------------------------
+        boolean delete(long id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i < 0 || patentes[i] == BORRADA) return false;
+            unshare();
+            patentes[i] = BORRADA;
+            centavos[i] = 0;
+            borradas++;
+            return true;
+        }
+
+        // --------------------------------------------------------------
+        // == Método: snapshot
+        //    Retorno:
+        //      - OrdenSnapshot: vista inmutable del estado actual.
+        // --------------------------------------------------------------
+        OrdenSnapshot snapshot() {
+            compartido = true;
+            return new OrdenSnapshot(this);
+        }
+
+        private int codigo(String patente) {
+            String p = patente != null ? patente : "";
+            Integer c = codigos.get(p);
+            if (c != null) return c;
+            if (diccionarioSize == diccionario.length) {
+                // Copia: un snapshot anterior sigue leyendo el arreglo viejo.
+                diccionario = Arrays.copyOf(diccionario, diccionarioSize * 2);
+            }
+            diccionario[diccionarioSize] = p;
+            codigos.put(p, diccionarioSize);
+            return diccionarioSize++;
+        }
+
+        private void unshare() {
+            if (compartido) grow(ids.length);
+        }
+
+        private void grow(int capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            dias = Arrays.copyOf(dias, capacity);
+            centavos = Arrays.copyOf(centavos, capacity);
+            patentes = Arrays.copyOf(patentes, capacity);
+            compartido = false;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+
+import java.util.List;
+
+// ======================================================================
+// == Interface: OrdenStore
+// == Rol dentro de la app:
+//    - Operaciones de datos de OrdenTrabajo, sin atarse a un motor (ver
+//      PersonaStore). Las implementan OrdenRepository y
+//      MemoryTallerStore.
+//    - El id lo asigna el motor en insert/insertAll (creciente, nunca
+//      reutilizado); upsertAll conserva el id propio de cada OT. La
+//      patente debe existir en vehiculo (o ser null).
+// ======================================================================
+public interface OrdenStore {
+
+    // id asignado, o -1 si se rechazó.
+    long insert(OrdenTrabajo o);
+
+    BulkResult insertAll(List<OrdenTrabajo> ordenes);
+
+    BulkResult upsertAll(List<OrdenTrabajo> ordenes);
+
+    // Todas, de la más nueva a la más antigua (id DESC).
+    List<OrdenTrabajo> listAll();
+
+    List<OrdenTrabajo> listByPatente(String patente);
+
+    // Hasta limit OTs con id < beforeId, id DESC (paginación keyset).
+    List<OrdenTrabajo> listPage(long beforeId, int limit);
+
+    List<OrdenTrabajo> listPageByPatente(String patente, long beforeId, int limit);
+
+    // patente null = todas.
+    List<OrdenTrabajo> search(String texto, String patente, int offset, int limit);
+
+    int update(OrdenTrabajo o);
+
+    int count();
+}
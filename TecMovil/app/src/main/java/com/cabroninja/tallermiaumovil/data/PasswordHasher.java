@@ -0,0 +1,193 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+// ======================================================================
+// == Clase: PasswordHasher
+// == Rol dentro de la app:
+//    - Deriva y verifica las contraseñas de los trabajadores con PBKDF2
+//      (HMAC-SHA1), una sal aleatoria por contraseña y un número de
+//      iteraciones configurable.
+//    - Formato guardado en persona.password (texto, autodescriptivo):
+//        pbkdf2$<iteraciones>$<sal hex>$<hash hex>
+//      Cada valor lleva sus propias iteraciones: subir el costo no
+//      invalida las contraseñas existentes, solo las marca para volver a
+//      derivarse en el próximo login (needsRehash).
+//    - Acepta valores antiguos en texto plano (bases creadas antes de
+//      este formato): verify los compara en tiempo constante y
+//      needsRehash pide reemplazarlos.
+// == Por qué HMAC-SHA1:
+//    - PBKDF2WithHmacSHA256 existe desde API 26 (minSdk es 24). Para
+//      PBKDF2 el costo lo fijan las iteraciones; SHA-1 como PRF no tiene
+//      debilidades conocidas en este uso.
+// == Hilos:
+//    - hash/verify tardan decenas de ms por diseño: llamarlos solo desde
+//      DbExecutor/TallerAsync, nunca en el hilo principal.
+//    - Java puro (sin Android): se prueba en test/ con JUnit local.
+// ======================================================================
+public final class PasswordHasher {
+
+    // ------------------------------------------------------------------
+    // == Atributo: DEFAULT_ITERATIONS
+    //    Rol : Costo de las contraseñas nuevas. Se elige con
+    //          PasswordHashBenchmark en el equipo de referencia: el mayor
+    //          valor con el que el login (consulta + verificación +
+    //          rehash) queda dentro de su presupuesto de latencia.
+    // ------------------------------------------------------------------
+    public static final int DEFAULT_ITERATIONS = 20_000;
+
+    static final String PREFIX = "pbkdf2";
+    static final String ALGORITHM = "PBKDF2WithHmacSHA1";
+    static final int SALT_BYTES = 16;
+    static final int HASH_BITS = 256;
+
+    private static final char SEP = '$';
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final int iterations;
+    private final SecureRandom random = new SecureRandom();
+
+    // ------------------------------------------------------------------
+    // == Constructor: PasswordHasher
+    //    Parámetros:
+    //      - iterations (int): iteraciones de PBKDF2 para hash() y
+    //        referencia de needsRehash(); mayor que cero.
+    // ------------------------------------------------------------------
+    public PasswordHasher(int iterations) {
+        if (iterations < 1) throw new IllegalArgumentException("iterations < 1: " + iterations);
+        this.iterations = iterations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: hash
+    //    Parámetros:
+    //      - plain (String): contraseña en texto plano.
+    //    Retorno:
+    //      - String: valor a guardar (formato pbkdf2$...), con sal nueva.
+    // ------------------------------------------------------------------
+    public String hash(String plain) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] dk = derive(plain, salt, iterations);
+        return PREFIX + SEP + iterations + SEP + hex(salt) + SEP + hex(dk);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: verify
+    //    Parámetros:
+    //      - plain (String): contraseña ingresada.
+    //      - stored (String): valor de persona.password.
+    //    Descripción:
+    //      - Con formato pbkdf2: deriva con la sal y las iteraciones
+    //        guardadas y compara en tiempo constante.
+    //      - Sin formato (texto plano antiguo): compara en tiempo
+    //        constante. Un valor pbkdf2 mal formado nunca coincide.
+    //    Retorno:
+    //      - boolean: true si la contraseña es correcta.
+    // ------------------------------------------------------------------
+    public boolean verify(String plain, String stored) {
+        if (plain == null || stored == null) return false;
+        if (!isHash(stored)) {
+            return MessageDigest.isEqual(plain.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$", -1);
+        if (parts.length != 4) return false;
+        int iter;
+        byte[] salt;
+        byte[] expected;
+        try {
+            iter = Integer.parseInt(parts[1]);
+            salt = unhex(parts[2]);
+            expected = unhex(parts[3]);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        if (iter < 1 || salt.length == 0 || expected.length == 0) return false;
+        byte[] actual = derive(plain, salt, iter, expected.length * 8);
+        return MessageDigest.isEqual(actual, expected);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: needsRehash
+    //    Parámetros:
+    //      - stored (String): valor de persona.password ya verificado.
+    //    Retorno:
+    //      - boolean: true si está en texto plano o se derivó con otras
+    //        iteraciones que las de este hasher.
+    // ------------------------------------------------------------------
+    public boolean needsRehash(String stored) {
+        return iterationsOf(stored) != iterations;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: isHash
+    //    Retorno:
+    //      - boolean: true si el valor ya tiene el formato pbkdf2$...
+    //        (los repositorios no vuelven a derivarlo).
+    // ------------------------------------------------------------------
+    public static boolean isHash(String stored) {
+        return stored != null && stored.startsWith(PREFIX + SEP);
+    }
+
+    // Iteraciones de un valor guardado (-1 si no es pbkdf2 o no se lee).
+    static int iterationsOf(String stored) {
+        if (!isHash(stored)) return -1;
+        int start = PREFIX.length() + 1;
+        int end = stored.indexOf(SEP, start);
+        try {
+            return end < 0 ? -1 : Integer.parseInt(stored.substring(start, end));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    // ============================ APOYO ================================
+
+    static byte[] derive(String plain, byte[] salt, int iterations) {
+        return derive(plain, salt, iterations, HASH_BITS);
+    }
+
+    private static byte[] derive(String plain, byte[] salt, int iterations, int bits) {
+        PBEKeySpec spec = new PBEKeySpec(plain.toCharArray(), salt, iterations, bits);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException ex) {
+            // PBKDF2WithHmacSHA1 está en todas las versiones soportadas.
+            throw new IllegalStateException(ALGORITHM + " no disponible", ex);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            out[2 * i] = HEX[(bytes[i] >> 4) & 0xF];
+            out[2 * i + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(out);
+    }
+
+    private static byte[] unhex(String s) {
+        if (s.length() % 2 != 0) throw new IllegalArgumentException("hex impar");
+        byte[] out = new byte[s.length() / 2];
+        for (int i = 0; i < out.length; i++) {
+            int hi = Character.digit(s.charAt(2 * i), 16);
+            int lo = Character.digit(s.charAt(2 * i + 1), 16);
+            if (hi < 0 || lo < 0) throw new IllegalArgumentException("hex inválido");
+            out[i] = (byte) ((hi << 4) | lo);
+        }
+        return out;
+    }
+}
@@ -5,10 +5,14 @@ import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteException;
+import android.database.sqlite.SQLiteStatement;
 import android.util.Log;
 
+import androidx.annotation.WorkerThread;
+
 import com.cabroninja.tallermiaumovil.model.Persona;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,7 +25,7 @@ import java.util.List;
 //    - Aísla a la UI de los detalles SQL, usando TallerDbHelper para
 //      gestionar la conexión y el ciclo de vida de la base de datos.
 // ======================================================================
-public class PersonaRepository {
+public class PersonaRepository implements PersonaStore {
 
     // ------------------------------------------------------------------
     // == Atributo: TAG
@@ -30,29 +34,184 @@ public class PersonaRepository {
     // ------------------------------------------------------------------
     private static final String TAG = "PersonaRepository";
 
+    // ------------------------------------------------------------------
+    // == Atributos: SQL de lectura
+    //    Propósito:
+    //      - Sentencias fijas de este repositorio. Son package-private
+    //        para que QueryPlanTest ejecute EXPLAIN QUERY PLAN sobre
+    //        exactamente el mismo SQL que usa la app.
+    // ------------------------------------------------------------------
+    private static final String COLS =
+            TallerDbHelper.C_RUN + "," +
+            TallerDbHelper.C_EMAIL + "," +
+            TallerDbHelper.C_NOMBRE + "," +
+            TallerDbHelper.C_APELLIDO + "," +
+            TallerDbHelper.C_PASSWORD + "," +
+            TallerDbHelper.C_TIPO;
+
+    // Posición de cada columna en COLS (filas de cursorByTipo).
+    public static final int COL_RUN = 0;
+    public static final int COL_EMAIL = 1;
+    public static final int COL_NOMBRE = 2;
+    public static final int COL_APELLIDO = 3;
+
+    static final String SQL_GET_BY_RUN =
+            "SELECT " + COLS +
+            " FROM " + TallerDbHelper.T_PERSONA +
+            " WHERE " + TallerDbHelper.C_RUN + " = ?";
+
+    static final String SQL_LIST_BY_TIPO =
+            "SELECT " + COLS +
+            " FROM " + TallerDbHelper.T_PERSONA +
+            " WHERE " + TallerDbHelper.C_TIPO + " = ?" +
+            " ORDER BY " + TallerDbHelper.C_NOMBRE + ", " + TallerDbHelper.C_APELLIDO;
+
+    static final String SQL_COUNT_BY_TIPO =
+            "SELECT COUNT(*) FROM " + TallerDbHelper.T_PERSONA +
+            " WHERE " + TallerDbHelper.C_TIPO + " = ?";
+
+    static final String SQL_AUTH_TRABAJADOR =
+            "SELECT " +
+            TallerDbHelper.C_RUN + ", " +
+            TallerDbHelper.C_NOMBRE + ", " +
+            TallerDbHelper.C_APELLIDO + ", " +
+            TallerDbHelper.C_PASSWORD +
+            " FROM " + TallerDbHelper.T_PERSONA +
+            " WHERE " + TallerDbHelper.C_EMAIL + " = ? AND " +
+            TallerDbHelper.C_TIPO  + " = 'trabajador'";
+
+    // Búsqueda de texto: candidatos de persona_fts (los más recientes
+    // primero) unidos a persona por rowid; ver SearchIndex.rankedPage.
+    static final String SQL_SEARCH_BY_TIPO =
+            "SELECT " + SearchIndex.qualify("p", COLS) +
+            ", matchinfo(" + SearchIndex.FTS_PERSONA + ", '" + SearchIndex.MATCHINFO + "')" +
+            " FROM " + SearchIndex.FTS_PERSONA +
+            " JOIN " + TallerDbHelper.T_PERSONA + " p ON p.rowid = " + SearchIndex.FTS_PERSONA + ".docid" +
+            " WHERE " + SearchIndex.FTS_PERSONA + " MATCH ? AND p." + TallerDbHelper.C_TIPO + " = ?" +
+            " ORDER BY " + SearchIndex.FTS_PERSONA + ".docid DESC" + SearchIndex.WINDOW;
+
+    // Peso de cada columna de persona_fts (nombre, apellido, email).
+    private static final float[] SEARCH_WEIGHTS = { 2f, 2f, 1f };
+
+    // ------------------------------------------------------------------
+    // == Atributos: M_* (RepoMetrics)
+    //    Rol : Latencia y filas de cada método público (las muestra
+    //          DiagnosticoActivity).
+    // ------------------------------------------------------------------
+    private static final RepoMetrics.Op M_INSERT = RepoMetrics.op("PersonaRepository.insert");
+    private static final RepoMetrics.Op M_INSERT_ALL = RepoMetrics.op("PersonaRepository.insertAll");
+    private static final RepoMetrics.Op M_UPSERT_ALL = RepoMetrics.op("PersonaRepository.upsertAll");
+    private static final RepoMetrics.Op M_UPDATE = RepoMetrics.op("PersonaRepository.update");
+    private static final RepoMetrics.Op M_DELETE = RepoMetrics.op("PersonaRepository.deleteByRun");
+    private static final RepoMetrics.Op M_GET = RepoMetrics.op("PersonaRepository.getByRun");
+    private static final RepoMetrics.Op M_LIST = RepoMetrics.op("PersonaRepository.listByTipo");
+    private static final RepoMetrics.Op M_CURSOR = RepoMetrics.op("PersonaRepository.cursorByTipo");
+    private static final RepoMetrics.Op M_COUNT = RepoMetrics.op("PersonaRepository.countByTipo");
+    private static final RepoMetrics.Op M_SEARCH = RepoMetrics.op("PersonaRepository.searchByTipo");
+    private static final RepoMetrics.Op M_AUTH = RepoMetrics.op("PersonaRepository.authenticateTrabajador");
+
+    // ------------------------------------------------------------------
+    // == Atributos: SQL de carga masiva (insertAll / upsertAll)
+    //    Propósito:
+    //      - Se compilan una vez por carga y se reutilizan en cada fila.
+    // ------------------------------------------------------------------
+    static final String SQL_INSERT =
+            "INSERT INTO " + TallerDbHelper.T_PERSONA + " (" + COLS + ") VALUES (?,?,?,?,?,?)";
+
+    static final String SQL_UPDATE_BY_RUN =
+            "UPDATE " + TallerDbHelper.T_PERSONA + " SET " +
+            TallerDbHelper.C_EMAIL + " = ?, " +
+            TallerDbHelper.C_NOMBRE + " = ?, " +
+            TallerDbHelper.C_APELLIDO + " = ?, " +
+            TallerDbHelper.C_PASSWORD + " = ?, " +
+            TallerDbHelper.C_TIPO + " = ?" +
+            " WHERE " + TallerDbHelper.C_RUN + " = ?";
+
+    // Lo que ejecuta deleteByRun (SQLiteDatabase.delete); SlowQueryLog lo
+    // registra junto a SQL_INSERT / SQL_UPDATE_BY_RUN para insert/update.
+    static final String SQL_DELETE_BY_RUN =
+            "DELETE FROM " + TallerDbHelper.T_PERSONA + " WHERE " + TallerDbHelper.C_RUN + " = ?";
+
+    // Rehash tras un login: solo si la contraseña sigue siendo la que se
+    // verificó (no pisa un cambio hecho entre medio).
+    static final String SQL_REHASH =
+            "UPDATE " + TallerDbHelper.T_PERSONA + " SET " + TallerDbHelper.C_PASSWORD + " = ?" +
+            " WHERE " + TallerDbHelper.C_RUN + " = ? AND " + TallerDbHelper.C_PASSWORD + " = ?";
+
     // ------------------------------------------------------------------
     // == Atributo: helper
     //    Tipo: TallerDbHelper
     //    Propósito:
     //      - Puerta de entrada a SQLite (hereda de SQLiteOpenHelper).
-    //      - Crea/actualiza el esquema (onCreate/onUpgrade) y provee
-    //        instancias de lectura/escritura (getReadableDatabase / getWritableDatabase).
+    //      - Es el helper ÚNICO del proceso (TallerDatabase), por lo que
+    //        todos los repositorios comparten la misma conexión abierta.
     // ------------------------------------------------------------------
     private final TallerDbHelper helper;
 
+    // ------------------------------------------------------------------
+    // == Atributo: stats
+    //    Tipo: DashboardStats
+    //    Propósito:
+    //      - Caché de contadores del panel; cada escritura exitosa la
+    //        ajusta (insert de cliente) o la invalida (update/delete).
+    // ------------------------------------------------------------------
+    private final DashboardStats stats;
+
+    // ------------------------------------------------------------------
+    // == Atributo: bus
+    //    Tipo: ChangeBus
+    //    Propósito:
+    //      - Avisa a las pantallas suscritas de cada escritura confirmada
+    //        (ver TableChange).
+    // ------------------------------------------------------------------
+    private final ChangeBus bus;
+
+    // ------------------------------------------------------------------
+    // == Atributo: passwords
+    //    Tipo: PasswordHasher
+    //    Propósito:
+    //      - Deriva la contraseña de cada trabajador antes de guardarla y
+    //        la verifica en authenticateTrabajador (ver PasswordHasher).
+    // ------------------------------------------------------------------
+    private final PasswordHasher passwords;
+
     // ------------------------------------------------------------------
     // == Constructor: PersonaRepository
     //    Parámetros:
     //      - ctx (Context): contexto Android que el helper usará para
     //        abrir/crear la base de datos y acceder a recursos.
     //    Descripción:
-    //      - Inicializa el helper de base de datos que sostiene todas
-    //        las operaciones de este repositorio.
+    //      - Toma el helper compartido desde TallerDatabase (no abre
+    //        una conexión nueva por repositorio).
     //    Retorno:
     //      - (constructor) Crea una instancia lista para usar.
     // ------------------------------------------------------------------
     public PersonaRepository(Context ctx) {
-        this.helper = new TallerDbHelper(ctx);
+        this(TallerDatabase.getInstance(ctx));
+    }
+
+    // ------------------------------------------------------------------
+    // == Constructor: PersonaRepository (gestor explícito)
+    //    Parámetros:
+    //      - database (TallerDatabase): gestor de conexión a usar
+    //        (tests/benchmarks sobre una DB aislada).
+    // ------------------------------------------------------------------
+    PersonaRepository(TallerDatabase database) {
+        this(database, database.getPasswordHasher());
+    }
+
+    // ------------------------------------------------------------------
+    // == Constructor: PersonaRepository (hasher explícito)
+    //    Parámetros:
+    //      - database (TallerDatabase): gestor de conexión a usar.
+    //      - passwords (PasswordHasher): costo distinto al de la base
+    //        (tests de rehash y benchmarks).
+    // ------------------------------------------------------------------
+    PersonaRepository(TallerDatabase database, PasswordHasher passwords) {
+        this.helper = database.getHelper();
+        this.stats = database.getStats();
+        this.bus = database.getChangeBus();
+        this.passwords = passwords;
     }
 
     // ============================== CRUD ===============================
@@ -65,10 +224,14 @@ public class PersonaRepository {
     //    Descripción:
     //      - Inserta una Persona en T_PERSONA mapeando cada campo a
     //        ContentValues. No valida unicidad (salvo restricciones SQL).
+    //      - La contraseña de un trabajador se guarda derivada (ver
+    //        credential); p no se modifica.
     //    Retorno:
     //      - long: rowId de la nueva fila si tuvo éxito, o -1 si falló.
     // ------------------------------------------------------------------
+    @Override
     public long insert(Persona p) {
+        long t0 = RepoMetrics.start();
 
         ContentValues v = new ContentValues(); // como un diccionario
 
@@ -76,9 +239,125 @@ public class PersonaRepository {
         v.put(TallerDbHelper.C_EMAIL, p.email);
         v.put(TallerDbHelper.C_NOMBRE, p.nombre);
         v.put(TallerDbHelper.C_APELLIDO, p.apellido);
-        v.put(TallerDbHelper.C_PASSWORD, p.password);
+        String password = credential(p);
+        v.put(TallerDbHelper.C_PASSWORD, password);
         v.put(TallerDbHelper.C_TIPO, p.tipo);
-        return helper.getWritableDatabase().insert(TallerDbHelper.T_PERSONA, null, v);
+        SQLiteDatabase db = helper.getWritableDatabase();
+        long id = db.insert(TallerDbHelper.T_PERSONA, null, v);
+        if (id != -1) {
+            if ("cliente".equals(p.tipo)) stats.adjust(1, 0, 0);
+            bus.publish(TableChange.of(TallerDbHelper.T_PERSONA, TableChange.Op.INSERT, p.run));
+        }
+        M_INSERT.stop(t0, id != -1 ? 1 : 0, db, SQL_INSERT,
+                new Object[]{ p.run, p.email, p.nombre, p.apellido, password, p.tipo });
+        return id;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: insertAll
+    //    Parámetros:
+    //      - personas (List<Persona>): filas a insertar, en orden.
+    //    Descripción:
+    //      - Inserta todas en una sola transacción reutilizando una
+    //        sentencia compilada (ver BulkWriter). Una fila con RUN o
+    //        email repetido no aborta la carga: queda como conflicto.
+    //      - Cada trabajador con contraseña en texto plano cuesta una
+    //        derivación PBKDF2: para cargas grandes, pasar valores ya
+    //        derivados (PasswordHasher.hash), que se guardan tal cual.
+    //    Retorno:
+    //      - BulkResult: insertadas y conflictos (índice + motivo).
+    // ------------------------------------------------------------------
+    @Override
+    public BulkResult insertAll(List<Persona> personas) {
+        long t0 = RepoMetrics.start();
+        SQLiteDatabase db = helper.getWritableDatabase();
+        BulkResult r = BulkWriter.write(db, withCredentials(personas), RUN_KEY,
+                null, null, SQL_INSERT, PersonaRepository::bindInsert);
+        if (r.inserted > 0) stats.invalidate();
+        r.publish(bus, TallerDbHelper.T_PERSONA);
+        M_INSERT_ALL.stop(t0, r.inserted, db, SQL_INSERT, null);
+        return r;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: upsertAll
+    //    Parámetros:
+    //      - personas (List<Persona>): filas a insertar o actualizar.
+    //    Descripción:
+    //      - Por cada persona: UPDATE por RUN; si no existía, INSERT.
+    //        Todo en una transacción con sentencias reutilizadas.
+    //    Retorno:
+    //      - BulkResult: insertadas, actualizadas y conflictos (p. ej.
+    //        email ya usado por otro RUN).
+    // ------------------------------------------------------------------
+    @Override
+    public BulkResult upsertAll(List<Persona> personas) {
+        long t0 = RepoMetrics.start();
+        SQLiteDatabase db = helper.getWritableDatabase();
+        BulkResult r = BulkWriter.write(db, withCredentials(personas), RUN_KEY,
+                SQL_UPDATE_BY_RUN, PersonaRepository::bindUpdate,
+                SQL_INSERT, PersonaRepository::bindInsert);
+        if (r.inserted > 0 || r.updated > 0) stats.invalidate();
+        r.publish(bus, TallerDbHelper.T_PERSONA);
+        M_UPSERT_ALL.stop(t0, r.inserted + r.updated, db, SQL_UPDATE_BY_RUN, null);
+        return r;
+    }
+
+    private static final BulkWriter.Key<Persona> RUN_KEY = (p, rowId) -> p.run;
+
+    // ------------------------------------------------------------------
+    // == Método: credential
+    //    Parámetros:
+    //      - p (Persona): persona a escribir.
+    //    Descripción:
+    //      - Trabajador con contraseña en texto plano → PasswordHasher.hash.
+    //        Un valor ya derivado, o la de un cliente (los clientes no
+    //        inician sesión), se guarda tal cual.
+    //    Retorno:
+    //      - String: valor para la columna C_PASSWORD.
+    // ------------------------------------------------------------------
+    private String credential(Persona p) {
+        if (!"trabajador".equals(p.tipo) || p.password == null || PasswordHasher.isHash(p.password)) {
+            return p.password;
+        }
+        return passwords.hash(p.password);
+    }
+
+    // Vista de la lista con la contraseña ya derivada: se calcula al leer
+    // cada fila (BulkWriter lee una vez por fila), sin copiar la lista.
+    private List<Persona> withCredentials(final List<Persona> in) {
+        return new AbstractList<Persona>() {
+            @Override
+            public Persona get(int i) {
+                Persona p = in.get(i);
+                String stored = credential(p);
+                return stored == p.password ? p
+                        : new Persona(p.run, p.email, p.nombre, p.apellido, stored, p.tipo);
+            }
+
+            @Override
+            public int size() {
+                return in.size();
+            }
+        };
+    }
+
+    private static void bindInsert(SQLiteStatement st, Persona p) {
+        st.bindLong(1, p.run);
+        BulkWriter.bindText(st, 2, p.email);
+        BulkWriter.bindText(st, 3, p.nombre);
+        BulkWriter.bindText(st, 4, p.apellido);
+        BulkWriter.bindText(st, 5, p.password);
+        BulkWriter.bindText(st, 6, p.tipo);
+    }
+
+    private static void bindUpdate(SQLiteStatement st, Persona p) {
+        BulkWriter.bindText(st, 1, p.email);
+        BulkWriter.bindText(st, 2, p.nombre);
+        BulkWriter.bindText(st, 3, p.apellido);
+        BulkWriter.bindText(st, 4, p.password);
+        BulkWriter.bindText(st, 5, p.tipo);
+        st.bindLong(6, p.run);
     }
 
     // ------------------------------------------------------------------
@@ -91,17 +370,29 @@ public class PersonaRepository {
     //    Retorno:
     //      - int: número de filas afectadas (0 si no existía el RUN).
     // ------------------------------------------------------------------
+    @Override
     public int update(Persona p) {
+        long t0 = RepoMetrics.start();
         ContentValues v = new ContentValues();
         v.put(TallerDbHelper.C_EMAIL, p.email);
         v.put(TallerDbHelper.C_NOMBRE, p.nombre);
         v.put(TallerDbHelper.C_APELLIDO, p.apellido);
-        v.put(TallerDbHelper.C_PASSWORD, p.password);
+        String password = credential(p);
+        v.put(TallerDbHelper.C_PASSWORD, password);
         v.put(TallerDbHelper.C_TIPO, p.tipo);
-        return helper.getWritableDatabase().update(TallerDbHelper.T_PERSONA, v,
+        SQLiteDatabase db = helper.getWritableDatabase();
+        int rows = db.update(TallerDbHelper.T_PERSONA, v,
                 TallerDbHelper.C_RUN + " = ?",
                 new String[]{ String.valueOf(p.run) }
         );
+        // El tipo pudo cambiar (cliente <-> trabajador)
+        if (rows > 0) {
+            stats.invalidate();
+            bus.publish(TableChange.of(TallerDbHelper.T_PERSONA, TableChange.Op.UPDATE, p.run));
+        }
+        M_UPDATE.stop(t0, rows, db, SQL_UPDATE_BY_RUN,
+                new Object[]{ p.email, p.nombre, p.apellido, password, p.tipo, p.run });
+        return rows;
     }
 
     // ------------------------------------------------------------------
@@ -114,12 +405,24 @@ public class PersonaRepository {
     //    Retorno:
     //      - int: número de filas eliminadas (0 si no se encontró).
     // ------------------------------------------------------------------
+    @Override
     public int deleteByRun(int run) {
-        return helper.getWritableDatabase().delete(
+        long t0 = RepoMetrics.start();
+        SQLiteDatabase db = helper.getWritableDatabase();
+        String[] args = { String.valueOf(run) };
+        int rows = db.delete(
                 TallerDbHelper.T_PERSONA,
                 TallerDbHelper.C_RUN + " = ?",
-                new String[]{ String.valueOf(run) }
+                args
         );
+        if (rows > 0) {
+            stats.invalidate();
+            bus.publish(TableChange.of(TallerDbHelper.T_PERSONA, TableChange.Op.DELETE, run));
+            // ON DELETE SET NULL dejó sin dueño a sus vehículos (si tenía)
+            bus.publish(TableChange.unknown(TallerDbHelper.T_VEHICULO, TableChange.Op.UPDATE));
+        }
+        M_DELETE.stop(t0, rows, db, SQL_DELETE_BY_RUN, args);
+        return rows;
     }
 
 
@@ -136,29 +439,23 @@ public class PersonaRepository {
     //      - Persona: entidad encontrada; o null si no hay resultados
     //        o si ocurrió un error (registrado en Logcat).
     // ------------------------------------------------------------------
+    @Override
     public Persona getByRun(int run) {
+        long t0 = RepoMetrics.start();
+        Persona p = null;
         SQLiteDatabase db = helper.getReadableDatabase();
-        try (Cursor c = db.rawQuery(
-                "SELECT " +
-                        TallerDbHelper.C_RUN + "," +
-                        TallerDbHelper.C_EMAIL + "," +
-                        TallerDbHelper.C_NOMBRE + "," +
-                        TallerDbHelper.C_APELLIDO + "," +
-                        TallerDbHelper.C_PASSWORD + "," +
-                        TallerDbHelper.C_TIPO +
-                        " FROM " + TallerDbHelper.T_PERSONA +
-                        " WHERE " + TallerDbHelper.C_RUN + " = ?",
-                new String[]{ String.valueOf(run) })) {
+        String[] args = { String.valueOf(run) };
+        try (Cursor c = db.rawQuery(SQL_GET_BY_RUN, args, QuerySignal.current())) {
             if (c.moveToFirst()) {
-                return new Persona(
+                p = new Persona(
                         c.getInt(0), c.getString(1), c.getString(2),
                         c.getString(3), c.getString(4), c.getString(5));
             }
-            return null;
         } catch (Exception ex) {
             Log.e(TAG, "getByRun error", ex);
-            return null;
         }
+        M_GET.stop(t0, p != null ? 1 : 0, db, SQL_GET_BY_RUN, args);
+        return p;
     }
 
     // ------------------------------------------------------------------
@@ -168,34 +465,66 @@ public class PersonaRepository {
     //        según el CHECK de la tabla.
     //    Descripción:
     //      - Devuelve las personas cuyo C_TIPO coincide con el parámetro,
-    //        ordenadas por nombre y apellido.
+    //        ordenadas por nombre y apellido (el índice
+    //        idx_persona_tipo_nombre entrega las filas ya ordenadas).
     //    Retorno:
     //      - List<Persona>: lista (posiblemente vacía) de resultados.
     // ------------------------------------------------------------------
+    @Override
     public List<Persona> listByTipo(String tipo) {
+        long t0 = RepoMetrics.start();
         List<Persona> out = new ArrayList<>();
         SQLiteDatabase db = helper.getReadableDatabase();
-        try (Cursor c = db.rawQuery(
-                "SELECT " +
-                        TallerDbHelper.C_RUN + "," +
-                        TallerDbHelper.C_EMAIL + "," +
-                        TallerDbHelper.C_NOMBRE + "," +
-                        TallerDbHelper.C_APELLIDO + "," +
-                        TallerDbHelper.C_PASSWORD + "," +
-                        TallerDbHelper.C_TIPO +
-                        " FROM " + TallerDbHelper.T_PERSONA +
-                        " WHERE " + TallerDbHelper.C_TIPO + " = ?" +
-                        " ORDER BY " + TallerDbHelper.C_NOMBRE + ", " + TallerDbHelper.C_APELLIDO,
-                new String[]{ tipo })) {
+        String[] args = { tipo };
+        try (Cursor c = db.rawQuery(SQL_LIST_BY_TIPO, args, QuerySignal.current())) {
             while (c.moveToNext()) {
                 out.add(new Persona(
                         c.getInt(0), c.getString(1), c.getString(2),
                         c.getString(3), c.getString(4), c.getString(5)));
             }
         }
+        M_LIST.stop(t0, out.size(), db, SQL_LIST_BY_TIPO, args);
         return out;
     }
 
+    // ------------------------------------------------------------------
+    // == Método: cursorByTipo
+    //    Parámetros:
+    //      - tipo (String): “cliente” o “trabajador”.
+    //    Descripción:
+    //      - Misma consulta que listByTipo, pero sin armar ninguna
+    //        Persona: devuelve el cursor (columnas COL_*) con el total ya
+    //        contado y la primera ventana cargada, para que el hilo
+    //        principal no toque disco al mostrarlo (CursorListAdapter).
+    //    Retorno:
+    //      - Cursor: resultado abierto; quien lo recibe debe cerrarlo.
+    // ------------------------------------------------------------------
+    public Cursor cursorByTipo(String tipo) {
+        long t0 = RepoMetrics.start();
+        SQLiteDatabase db = helper.getReadableDatabase();
+        String[] args = { tipo };
+        Cursor c = db.rawQuery(SQL_LIST_BY_TIPO, args, QuerySignal.current());
+        try {
+            M_CURSOR.stop(t0, c.getCount(), db, SQL_LIST_BY_TIPO, args);
+            return c;
+        } catch (RuntimeException ex) {
+            c.close();
+            throw ex;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: read
+    //    Parámetros:
+    //      - c (Cursor): cursor de cursorByTipo posicionado en una fila.
+    //    Retorno:
+    //      - Persona: la fila actual como entidad (p. ej. la que se tocó).
+    // ------------------------------------------------------------------
+    public static Persona read(Cursor c) {
+        return new Persona(c.getInt(0), c.getString(1), c.getString(2),
+                c.getString(3), c.getString(4), c.getString(5));
+    }
+
     // ------------------------------------------------------------------
     // == Método: countByTipo
     //    Parámetros:
@@ -205,16 +534,49 @@ public class PersonaRepository {
     //    Retorno:
     //      - int: cantidad de filas que cumplen la condición.
     // ------------------------------------------------------------------
+    @Override
     public int countByTipo(String tipo) {
+        long t0 = RepoMetrics.start();
         SQLiteDatabase db = helper.getReadableDatabase();
-        try (Cursor c = db.rawQuery(
-                "SELECT COUNT(*) FROM " + TallerDbHelper.T_PERSONA +
-                        " WHERE " + TallerDbHelper.C_TIPO + " = ?",
-                new String[]{ tipo })) {
-            return c.moveToFirst() ? c.getInt(0) : 0;
+        String[] args = { tipo };
+        try (Cursor c = db.rawQuery(SQL_COUNT_BY_TIPO, args, QuerySignal.current())) {
+            int n = c.moveToFirst() ? c.getInt(0) : 0;
+            M_COUNT.stop(t0, 1, db, SQL_COUNT_BY_TIPO, args);
+            return n;
         }
     }
 
+    // ------------------------------------------------------------------
+    // == Método: searchByTipo
+    //    Parámetros:
+    //      - tipo (String): “cliente” o “trabajador”.
+    //      - texto (String): lo escrito en el buscador; cada palabra se
+    //        busca como prefijo en nombre, apellido o email.
+    //      - offset, limit (int): página dentro del ranking.
+    //    Descripción:
+    //      - Búsqueda en persona_fts ordenada por relevancia (nombre y
+    //        apellido pesan más que email), por tramos de
+    //        SearchIndex.CANDIDATES coincidencias de la más reciente a
+    //        la más antigua.
+    //    Retorno:
+    //      - List<Persona>: página de resultados (vacía si el texto no
+    //        alcanza SearchIndex.MIN_CHARS).
+    // ------------------------------------------------------------------
+    @Override
+    public List<Persona> searchByTipo(String tipo, String texto, int offset, int limit) {
+        long t0 = RepoMetrics.start();
+        SQLiteDatabase db = helper.getReadableDatabase();
+        String match = SearchIndex.matchQuery(texto);
+        String[] args = { match, tipo, "0" };
+        List<Persona> out = match == null ? new ArrayList<>()
+                : SearchIndex.rankedPage(db, SQL_SEARCH_BY_TIPO, args, SEARCH_WEIGHTS,
+                        c -> new Persona(c.getInt(0), c.getString(1), c.getString(2),
+                                c.getString(3), c.getString(4), c.getString(5)),
+                        offset, limit);
+        M_SEARCH.stop(t0, out.size(), db, SQL_SEARCH_BY_TIPO, args);
+        return out;
+    }
+
     // ====================== AUTENTICACIÓN (trabajador) =================
 
     // ------------------------------------------------------------------
@@ -225,46 +587,71 @@ public class PersonaRepository {
     //        se capturó del formulario de login.
     //    Descripción:
     //      - Busca una persona por email cuyo tipo sea 'trabajador'.
-    //      - Recupera nombre, apellido y password almacenado.
-    //      - Compara la contraseña ingresada (plainPassword) con la
-    //        almacenada (passDb) usando igualdad directa de String.
+    //      - Recupera run, nombre, apellido y password almacenado.
+    //      - Verifica la contraseña ingresada con PasswordHasher (PBKDF2
+    //        con la sal y las iteraciones guardadas; un valor antiguo en
+    //        texto plano se compara en tiempo constante).
+    //      - Si coincide y el valor guardado está en texto plano o usa
+    //        otras iteraciones que las configuradas, lo vuelve a derivar
+    //        y lo guarda (rehash): subir el costo migra cada cuenta en su
+    //        próximo login. Un rehash fallido no impide el ingreso.
     //      - Si coincide, arma y devuelve el nombre completo (nombre + apellido).
     //      - Si no coincide o no existe registro, devuelve null.
+    //      - Deriva PBKDF2 (decenas de ms): solo fuera del hilo principal.
     //    Retorno:
     //      - String: nombre completo del trabajador autenticado; o null
     //        si las credenciales no son válidas o no existe el email/tipo.
-// ------------------------------------------------------------------
+    // ------------------------------------------------------------------
+    @Override
+    @WorkerThread
     public String authenticateTrabajador(String email, String plainPassword) {
+        long t0 = RepoMetrics.start();
+        String full = autenticar(email, plainPassword);
+        // Sin SQL para SlowQueryLog: casi todo el tiempo es PBKDF2 (lento
+        // a propósito), no la consulta.
+        M_AUTH.stop(t0, full != null ? 1 : 0);
+        return full;
+    }
+
+    private String autenticar(String email, String plainPassword) {
         try {
             SQLiteDatabase db = helper.getReadableDatabase();
-            try (Cursor c = db.rawQuery(
-                    "SELECT " +
-                            TallerDbHelper.C_NOMBRE + ", " +
-                            TallerDbHelper.C_APELLIDO + ", " +
-                            TallerDbHelper.C_PASSWORD +
-                            " FROM " + TallerDbHelper.T_PERSONA +
-                            " WHERE " + TallerDbHelper.C_EMAIL + " = ? AND " +
-                            TallerDbHelper.C_TIPO  + " = 'trabajador'",
-                    new String[]{ email })) {
-
+            int run;
+            String nombre;
+            String apellido;
+            String passDb;
+            try (Cursor c = db.rawQuery(SQL_AUTH_TRABAJADOR, new String[]{ email }, QuerySignal.current())) {
                 if (!c.moveToFirst()) return null;
-
-                String nombre   = c.getString(0);
-                String apellido = c.getString(1);
-                String passDb   = c.getString(2);
-
-                if (plainPassword != null && plainPassword.equals(passDb)) {
-                    String full = (nombre != null ? nombre : "") +
-                            ((apellido != null && !apellido.isEmpty()) ? (" " + apellido) : "");
-                    full = full.trim();
-                    return full.isEmpty() ? null : full;
-                } else {
-                    return null;
-                }
+                run      = c.getInt(0);
+                nombre   = c.getString(1);
+                apellido = c.getString(2);
+                passDb   = c.getString(3);
             }
+
+            if (!passwords.verify(plainPassword, passDb)) return null;
+            if (passwords.needsRehash(passDb)) rehash(run, plainPassword, passDb);
+
+            String full = (nombre != null ? nombre : "") +
+                    ((apellido != null && !apellido.isEmpty()) ? (" " + apellido) : "");
+            full = full.trim();
+            return full.isEmpty() ? null : full;
         } catch (SQLiteException ex) {
             Log.e(TAG, "authenticateTrabajador: SQLiteException", ex);
             return null;
         }
     }
+
+    // Guarda la contraseña recién verificada con el costo actual.
+    private void rehash(int run, String plainPassword, String passDb) {
+        try (SQLiteStatement st = helper.getWritableDatabase().compileStatement(SQL_REHASH)) {
+            st.bindString(1, passwords.hash(plainPassword));
+            st.bindLong(2, run);
+            st.bindString(3, passDb);
+            if (st.executeUpdateDelete() > 0) {
+                bus.publish(TableChange.of(TallerDbHelper.T_PERSONA, TableChange.Op.UPDATE, run));
+            }
+        } catch (SQLiteException ex) {
+            Log.w(TAG, "No se pudo actualizar el hash de la contraseña", ex);
+        }
+    }
 }
@@ -0,0 +1,48 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import com.cabroninja.tallermiaumovil.model.Persona;
+
+import java.util.List;
+
+// ======================================================================
+// == Interface: PersonaStore
+// == Rol dentro de la app:
+//    - Operaciones de datos de Persona, sin atarse a un motor: las
+//      implementan PersonaRepository (SQLite) y MemoryTallerStore (en
+//      memoria); TallerStoreConformance verifica que se comporten igual.
+//    - Contrato común (el de PersonaRepository):
+//        * una fila que viola una restricción (PK, UNIQUE, NOT NULL,
+//          CHECK) no se escribe: insert devuelve -1, insertAll/upsertAll
+//          la informan como conflicto y update lanza RuntimeException;
+//        * los trabajadores guardan la contraseña derivada
+//          (PasswordHasher) salvo que ya venga derivada.
+// ======================================================================
+public interface PersonaStore {
+
+    // rowId (= RUN) de la nueva fila, o -1 si se rechazó.
+    long insert(Persona p);
+
+    BulkResult insertAll(List<Persona> personas);
+
+    BulkResult upsertAll(List<Persona> personas);
+
+    // Filas afectadas (0 si el RUN no existe).
+    int update(Persona p);
+
+    // Filas borradas; los vehículos de esa persona quedan sin dueño.
+    int deleteByRun(int run);
+
+    // null si no existe.
+    Persona getByRun(int run);
+
+    // Ordenadas por nombre, apellido (y RUN en empates).
+    List<Persona> listByTipo(String tipo);
+
+    int countByTipo(String tipo);
+
+    // Página del ranking de búsqueda (ver SearchText).
+    List<Persona> searchByTipo(String tipo, String texto, int offset, int limit);
+
+    // Nombre completo si las credenciales son válidas; si no, null.
+    String authenticateTrabajador(String email, String plainPassword);
+}
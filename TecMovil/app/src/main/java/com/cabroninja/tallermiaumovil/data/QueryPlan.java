@@ -0,0 +1,113 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// ======================================================================
+// == Clase: QueryPlan
+// == Rol dentro de la app:
+//    - Utilidad para obtener el plan de ejecución de SQLite
+//      (EXPLAIN QUERY PLAN) de una sentencia y clasificarlo.
+//    - La usan los tests de regresión de índices y las herramientas de
+//      diagnóstico para detectar recorridos completos de tabla.
+// == Formato:
+//    - Cada paso del plan es el texto de la columna "detail", p. ej.
+//      "SEARCH persona USING INDEX idx_persona_tipo_nombre (tipo=?)" o
+//      "SCAN orden_trabajo". Versiones antiguas de SQLite (API 24)
+//      escriben "SCAN TABLE x"/"SEARCH TABLE x"; ambos se reconocen.
+// ======================================================================
+public final class QueryPlan {
+
+    // ------------------------------------------------------------------
+    // == Atributo: steps
+    //    Tipo: List<String> (inmutable)
+    //    Rol : Pasos del plan en el orden que los reporta SQLite.
+    // ------------------------------------------------------------------
+    public final List<String> steps;
+
+    private QueryPlan(List<String> steps) {
+        this.steps = Collections.unmodifiableList(steps);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: explain
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión sobre la que se planifica.
+    //      - sql (String): sentencia a analizar (SELECT/UPDATE/DELETE).
+    //      - args (String[]): argumentos de los '?' (pueden ser ficticios;
+    //        SQLite no los usa para planificar).
+    //    Descripción:
+    //      - Ejecuta "EXPLAIN QUERY PLAN <sql>" y recoge la columna detail.
+    //    Retorno:
+    //      - QueryPlan: plan obtenido.
+    // ------------------------------------------------------------------
+    public static QueryPlan explain(SQLiteDatabase db, String sql, String[] args) {
+        List<String> out = new ArrayList<>();
+        try (Cursor c = db.rawQuery("EXPLAIN QUERY PLAN " + sql, args)) {
+            int col = c.getColumnIndex("detail");
+            if (col < 0) col = c.getColumnCount() - 1;
+            while (c.moveToNext()) {
+                out.add(c.getString(col));
+            }
+        }
+        return new QueryPlan(out);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: hasScan
+    //    Retorno:
+    //      - boolean: true si algún paso recorre una tabla o índice
+    //        completo ("SCAN ..."), aunque sea en orden de índice.
+    // ------------------------------------------------------------------
+    public boolean hasScan() {
+        for (String s : steps) {
+            if (s.startsWith("SCAN ")) return true;
+        }
+        return false;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: hasTableScan
+    //    Retorno:
+    //      - boolean: true si algún paso recorre la tabla sin ningún
+    //        índice (el caso más caro: lectura de todas las páginas).
+    // ------------------------------------------------------------------
+    public boolean hasTableScan() {
+        for (String s : steps) {
+            if (s.startsWith("SCAN ") && !s.contains(" USING ")) return true;
+        }
+        return false;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: usesTempBTree
+    //    Retorno:
+    //      - boolean: true si SQLite tuvo que ordenar/agrupar en un árbol
+    //        temporal (ORDER BY / GROUP BY sin índice que lo cubra).
+    // ------------------------------------------------------------------
+    public boolean usesTempBTree() {
+        for (String s : steps) {
+            if (s.contains("TEMP B-TREE")) return true;
+        }
+        return false;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: toString
+    //    Retorno:
+    //      - String: pasos separados por " | " (para logs y asserts).
+    // ------------------------------------------------------------------
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (String s : steps) {
+            if (sb.length() > 0) sb.append(" | ");
+            sb.append(s);
+        }
+        return sb.toString();
+    }
+}
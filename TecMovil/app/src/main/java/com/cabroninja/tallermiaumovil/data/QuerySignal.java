@@ -0,0 +1,54 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.os.CancellationSignal;
+
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.Callable;
+
+// ======================================================================
+// == Clase: QuerySignal
+// == Rol dentro de la app:
+//    - La CancellationSignal de la lectura que corre en este hilo. Los
+//      repositorios la pasan a rawQuery(sql, args, signal): al
+//      cancelarla, SQLite corta la consulta en curso (la interrupción
+//      del hilo no la detiene) con OperationCanceledException y el hilo
+//      de DbExecutor queda libre.
+//    - TallerAsync.load la fija para cada lectura y la cancela en
+//      onDestroy de su Activity. Fuera de eso es null: la consulta no
+//      se puede cancelar, como antes.
+//    - Las interfaces *Store no la mencionan (son Java puro, también se
+//      compilan en :bench); por eso viaja por hilo y no por parámetro.
+// ======================================================================
+final class QuerySignal {
+
+    private static final ThreadLocal<CancellationSignal> CURRENT = new ThreadLocal<>();
+
+    private QuerySignal() { }
+
+    // Señal de la lectura en curso en este hilo, o null.
+    @Nullable
+    static CancellationSignal current() {
+        return CURRENT.get();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: call
+    //    Parámetros:
+    //      - signal (CancellationSignal): señal de esta lectura.
+    //      - task (Callable<T>): lectura; sus rawQuery usan signal.
+    //    Retorno:
+    //      - T: lo que devuelve task. Si signal ya estaba cancelada o se
+    //        cancela mientras corre, OperationCanceledException.
+    // ------------------------------------------------------------------
+    static <T> T call(CancellationSignal signal, Callable<T> task) throws Exception {
+        signal.throwIfCanceled();
+        CancellationSignal prev = CURRENT.get();
+        CURRENT.set(signal);
+        try {
+            return task.call();
+        } finally {
+            CURRENT.set(prev);
+        }
+    }
+}
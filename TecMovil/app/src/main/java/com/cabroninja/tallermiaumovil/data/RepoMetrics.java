@@ -0,0 +1,198 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// ======================================================================
+// == Clase: RepoMetrics
+// == Rol dentro de la app:
+//    - Cifras por operación de los repositorios (una Op por método
+//      público): llamadas, filas devueltas o escritas y un
+//      LatencyHistogram con la duración de cada llamada.
+//    - Todo es por proceso y sin locks (LongAdder y arreglos atómicos):
+//      medir cuesta dos System.nanoTime y unas sumas, muy por debajo del
+//      1% de cualquier consulta (RepoMetricsBenchmark lo verifica).
+//    - Las lee DiagnosticoActivity y se exportan con toJson().
+//    - Las llamadas que pasan su SQL a stop y superan el umbral de
+//      SlowQueryLog quedan además en ese registro.
+// == Uso en un repositorio:
+//        private static final RepoMetrics.Op M_GET = RepoMetrics.op("PersonaRepository.getByRun");
+//        long t0 = RepoMetrics.start();
+//        ...
+//        M_GET.stop(t0, filas, db, SQL_GET_BY_RUN, args);
+//    Una llamada que termina en excepción no se registra.
+// ======================================================================
+public final class RepoMetrics {
+
+    private static final ConcurrentHashMap<String, Op> OPS = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled = true;
+
+    private RepoMetrics() { }
+
+    // ------------------------------------------------------------------
+    // == Clase interna: Op
+    //    Rol : Cifras de una operación. Los repositorios guardan su Op en
+    //          un campo estático, así registrar no busca nada por nombre.
+    // ------------------------------------------------------------------
+    public static final class Op {
+        public final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        Op(String name) {
+            this.name = name;
+        }
+
+        // ------------------------------------------------------------------
+        // == Método: stop
+        //    Parámetros:
+        //      - t0 (long): valor de RepoMetrics.start() al entrar.
+        //      - rowCount (long): filas leídas/escritas (0 si no aplica).
+        // ------------------------------------------------------------------
+        void stop(long t0, long rowCount) {
+            if (t0 == 0) return;
+            record(System.nanoTime() - t0, rowCount);
+        }
+
+        // ------------------------------------------------------------------
+        // == Método: stop (con sentencia)
+        //    Parámetros:
+        //      - t0, rowCount: como en stop(t0, rowCount).
+        //      - db (SQLiteDatabase): conexión usada (para el EXPLAIN).
+        //      - sql (String): sentencia principal de la llamada. Las
+        //        escrituras con ContentValues pasan su SQL equivalente.
+        //      - args (Object[]): argumentos de los '?', o null.
+        //    Descripción:
+        //      - Mide igual que stop y, si la llamada superó el umbral,
+        //        la deja en SlowQueryLog.
+        // ------------------------------------------------------------------
+        void stop(long t0, long rowCount, SQLiteDatabase db, String sql, Object[] args) {
+            if (t0 == 0) return;
+            long nanos = System.nanoTime() - t0;
+            record(nanos, rowCount);
+            if (SlowQueryLog.isSlow(nanos)) SlowQueryLog.capture(name, db, sql, args, nanos, rowCount);
+        }
+
+        private void record(long nanos, long rowCount) {
+            latency.record(nanos);
+            calls.increment();
+            if (rowCount > 0) rows.add(rowCount);
+        }
+
+        public long calls() {
+            return calls.sum();
+        }
+
+        public long rows() {
+            return rows.sum();
+        }
+
+        public LatencyHistogram latency() {
+            return latency;
+        }
+
+        void reset() {
+            calls.reset();
+            rows.reset();
+            latency.reset();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: op
+    //    Parámetros:
+    //      - name (String): "Repositorio.método".
+    //    Retorno:
+    //      - Op: la operación con ese nombre (la misma en cada llamada).
+    // ------------------------------------------------------------------
+    static Op op(String name) {
+        Op op = OPS.get(name);
+        if (op != null) return op;
+        OPS.putIfAbsent(name, new Op(name));
+        return OPS.get(name);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: start
+    //    Retorno:
+    //      - long: marca de tiempo para Op.stop, o 0 si la medición está
+    //        apagada (entonces stop no registra nada).
+    // ------------------------------------------------------------------
+    static long start() {
+        if (!enabled) return 0;
+        long t = System.nanoTime();
+        return t != 0 ? t : 1;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: setEnabled
+    //    Descripción:
+    //      - Enciende o apaga la medición de todo el proceso (encendida
+    //        por defecto). Apagada, cada llamada paga solo una lectura
+    //        volátil.
+    // ------------------------------------------------------------------
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: ops
+    //    Retorno:
+    //      - List<Op>: operaciones con al menos una llamada, por nombre.
+    // ------------------------------------------------------------------
+    public static List<Op> ops() {
+        List<Op> out = new ArrayList<>();
+        for (Op op : OPS.values()) {
+            if (op.calls() > 0) out.add(op);
+        }
+        Collections.sort(out, (a, b) -> a.name.compareTo(b.name));
+        return out;
+    }
+
+    // Vuelve a cero todas las cifras (las Op siguen registradas).
+    public static void reset() {
+        for (Op op : OPS.values()) op.reset();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: toJson
+    //    Retorno:
+    //      - String: objeto JSON con una entrada por operación:
+    //          {"ops":[{"op":"PersonaRepository.getByRun","calls":12,
+    //            "rows":12,"mean_us":85.2,"p50_us":80.0,"p90_us":...,
+    //            "p99_us":...,"max_us":...}]}
+    //        Los nombres no llevan caracteres que haya que escapar.
+    // ------------------------------------------------------------------
+    public static String toJson() {
+        StringBuilder sb = new StringBuilder("{\"ops\":[");
+        List<Op> ops = ops();
+        for (int i = 0; i < ops.size(); i++) {
+            Op op = ops.get(i);
+            LatencyHistogram h = op.latency;
+            if (i > 0) sb.append(',');
+            sb.append(String.format(Locale.US,
+                    "{\"op\":\"%s\",\"calls\":%d,\"rows\":%d,\"mean_us\":%.1f,"
+                            + "\"p50_us\":%.1f,\"p90_us\":%.1f,\"p99_us\":%.1f,\"max_us\":%.1f}",
+                    op.name, op.calls(), op.rows(), h.meanNanos() / 1000.0,
+                    micros(h.percentile(0.50)), micros(h.percentile(0.90)),
+                    micros(h.percentile(0.99)), micros(h.maxNanos())));
+        }
+        return sb.append("]}").toString();
+    }
+
+    static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+}
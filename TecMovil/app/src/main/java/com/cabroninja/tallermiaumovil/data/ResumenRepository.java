@@ -0,0 +1,192 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// ======================================================================
+// == Clase: ResumenRepository
+// == Rol dentro de la app:
+//    - Lectura de las tablas de resumen de SummaryTables: ingresos por
+//      mes, por vehículo y por cliente, y personas por tipo.
+//    - Cada consulta es una búsqueda por PK en una tabla pequeña: no
+//      depende de cuántas OTs o personas haya.
+//    - Solo lectura: los triggers mantienen las tablas; rebuild() y
+//      verify() son para mantenimiento.
+// ======================================================================
+public class ResumenRepository {
+
+    // ------------------------------------------------------------------
+    // == Atributos: SQL de lectura
+    //    Propósito:
+    //      - Package-private para que QueryPlanTest verifique su plan.
+    // ------------------------------------------------------------------
+    static final String SQL_MES =
+            "SELECT " + SummaryTables.R_ORDENES + ", " + SummaryTables.R_TOTAL +
+            " FROM " + SummaryTables.T_MES + " WHERE " + SummaryTables.R_MES + " = ?";
+
+    static final String SQL_MESES =
+            "SELECT " + SummaryTables.R_MES + ", " + SummaryTables.R_ORDENES + ", " + SummaryTables.R_TOTAL +
+            " FROM " + SummaryTables.T_MES + " WHERE " + SummaryTables.R_MES + " BETWEEN ? AND ?" +
+            " ORDER BY " + SummaryTables.R_MES;
+
+    static final String SQL_VEHICULO =
+            "SELECT " + SummaryTables.R_ORDENES + ", " + SummaryTables.R_TOTAL +
+            " FROM " + SummaryTables.T_VEHICULO + " WHERE " + SummaryTables.R_PATENTE + " = ?";
+
+    static final String SQL_CLIENTE =
+            "SELECT " + SummaryTables.R_ORDENES + ", " + SummaryTables.R_TOTAL +
+            " FROM " + SummaryTables.T_CLIENTE + " WHERE " + SummaryTables.R_RUN + " = ?";
+
+    static final String SQL_TIPO =
+            "SELECT " + SummaryTables.R_PERSONAS +
+            " FROM " + SummaryTables.T_TIPO + " WHERE " + SummaryTables.R_TIPO + " = ?";
+
+    // ------------------------------------------------------------------
+    // == Atributos: M_* (RepoMetrics)
+    //    Rol : Latencia y filas de cada método público.
+    // ------------------------------------------------------------------
+    private static final RepoMetrics.Op M_MES = RepoMetrics.op("ResumenRepository.porMes");
+    private static final RepoMetrics.Op M_MESES = RepoMetrics.op("ResumenRepository.porMeses");
+    private static final RepoMetrics.Op M_VEHICULO = RepoMetrics.op("ResumenRepository.porVehiculo");
+    private static final RepoMetrics.Op M_CLIENTE = RepoMetrics.op("ResumenRepository.porCliente");
+    private static final RepoMetrics.Op M_TIPO = RepoMetrics.op("ResumenRepository.countByTipo");
+    private static final RepoMetrics.Op M_REBUILD = RepoMetrics.op("ResumenRepository.rebuild");
+    private static final RepoMetrics.Op M_VERIFY = RepoMetrics.op("ResumenRepository.verify");
+
+    private final TallerDbHelper helper;
+
+    // ------------------------------------------------------------------
+    // == Constructor: ResumenRepository
+    //    Parámetros:
+    //      - ctx (Context): contexto Android.
+    // ------------------------------------------------------------------
+    public ResumenRepository(Context ctx) { this(TallerDatabase.getInstance(ctx)); }
+
+    // ------------------------------------------------------------------
+    // == Constructor: ResumenRepository (gestor explícito)
+    //    Parámetros:
+    //      - database (TallerDatabase): gestor de conexión a usar
+    //        (tests/benchmarks sobre una DB aislada).
+    // ------------------------------------------------------------------
+    ResumenRepository(TallerDatabase database) {
+        helper = database.getHelper();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: porMes
+    //    Parámetros:
+    //      - mes (String): 'aaaa-mm' (como el prefijo de O_FECHA).
+    //    Retorno:
+    //      - Ingresos: OTs y total del mes (Ingresos.CERO si no hay).
+    // ------------------------------------------------------------------
+    public Ingresos porMes(String mes) {
+        return ingresos(M_MES, SQL_MES, mes);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: porMeses
+    //    Parámetros:
+    //      - desde, hasta (String): meses 'aaaa-mm', ambos incluidos.
+    //    Retorno:
+    //      - Map<String, Ingresos>: meses con OTs, en orden (los meses
+    //        sin OTs no aparecen).
+    // ------------------------------------------------------------------
+    public Map<String, Ingresos> porMeses(String desde, String hasta) {
+        long t0 = RepoMetrics.start();
+        Map<String, Ingresos> out = new LinkedHashMap<>();
+        SQLiteDatabase db = helper.getReadableDatabase();
+        String[] args = { desde, hasta };
+        try (Cursor c = db.rawQuery(SQL_MESES, args)) {
+            while (c.moveToNext()) {
+                out.put(c.getString(0), new Ingresos(c.getInt(1), c.getLong(2)));
+            }
+        }
+        M_MESES.stop(t0, out.size(), db, SQL_MESES, args);
+        return out;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: porVehiculo
+    //    Parámetros:
+    //      - patente (String): patente del vehículo.
+    //    Retorno:
+    //      - Ingresos: OTs y total del vehículo.
+    // ------------------------------------------------------------------
+    public Ingresos porVehiculo(String patente) {
+        return ingresos(M_VEHICULO, SQL_VEHICULO, patente);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: porCliente
+    //    Parámetros:
+    //      - run (int): RUN del dueño.
+    //    Retorno:
+    //      - Ingresos: OTs y total de los vehículos que hoy son suyos.
+    // ------------------------------------------------------------------
+    public Ingresos porCliente(int run) {
+        return ingresos(M_CLIENTE, SQL_CLIENTE, String.valueOf(run));
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: countByTipo
+    //    Parámetros:
+    //      - tipo (String): “cliente” o “trabajador”.
+    //    Retorno:
+    //      - int: personas de ese tipo (mismo valor que
+    //        PersonaRepository.countByTipo, sin recorrer el índice).
+    // ------------------------------------------------------------------
+    public int countByTipo(String tipo) {
+        long t0 = RepoMetrics.start();
+        SQLiteDatabase db = helper.getReadableDatabase();
+        String[] args = { tipo };
+        try (Cursor c = db.rawQuery(SQL_TIPO, args)) {
+            int n = c.moveToFirst() ? c.getInt(0) : 0;
+            M_TIPO.stop(t0, 1, db, SQL_TIPO, args);
+            return n;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: rebuild
+    //    Descripción:
+    //      - Recalcula todas las tablas de resumen (ver
+    //        SummaryTables.rebuild). Recorre las tablas base completas.
+    // ------------------------------------------------------------------
+    public void rebuild() {
+        long t0 = RepoMetrics.start();
+        SummaryTables.rebuild(helper.getWritableDatabase());
+        M_REBUILD.stop(t0, 0);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: verify
+    //    Retorno:
+    //      - List<String>: diferencias entre los resúmenes y los datos
+    //        (vacía si cuadran). Ver SummaryTables.check.
+    // ------------------------------------------------------------------
+    public List<String> verify() {
+        long t0 = RepoMetrics.start();
+        List<String> diffs = SummaryTables.check(helper.getReadableDatabase());
+        M_VERIFY.stop(t0, diffs.size());
+        return diffs;
+    }
+
+    // ============================ APOYO ================================
+
+    private Ingresos ingresos(RepoMetrics.Op op, String sql, String key) {
+        long t0 = RepoMetrics.start();
+        SQLiteDatabase db = helper.getReadableDatabase();
+        String[] args = { key };
+        try (Cursor c = db.rawQuery(sql, args)) {
+            boolean found = c.moveToFirst();
+            Ingresos out = found ? new Ingresos(c.getInt(0), c.getLong(1)) : Ingresos.CERO;
+            op.stop(t0, found ? 1 : 0, db, sql, args);
+            return out;
+        }
+    }
+}
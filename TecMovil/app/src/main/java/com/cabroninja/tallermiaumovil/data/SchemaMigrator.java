@@ -0,0 +1,404 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+import android.database.sqlite.SQLiteStatement;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+// ======================================================================
+// == Clase: SchemaMigrator
+// == Rol dentro de la app:
+//    - Motor de migraciones incrementales que conserva los datos.
+//      Reemplaza la estrategia DROP & CREATE de onUpgrade.
+//    - Mantiene la lista ordenada de pasos (Migration) N → N+1 y los
+//      aplica uno por uno, registrando cada paso en la bitácora
+//      T_BITACORA (versión, descripción, fecha y duración).
+//    - Ofrece copyAndSwap: reconstrucción de una tabla por lotes
+//      (copiar a "<tabla>__nueva", borrar la original y renombrar), con
+//      memoria acotada, reporte de progreso y reanudación.
+// == Atomicidad y reanudación:
+//    - migrate corre dentro de onUpgrade, que SQLiteOpenHelper envuelve
+//      en una sola transacción: si el proceso muere, nada queda a medias
+//      y el próximo arranque repite desde la versión original. Por eso
+//      ahí solo van cambios de esquema (Migration.migrate).
+//    - Las reconstrucciones (Migration.rebuild) quedan anotadas como
+//      pendientes en la bitácora y las corre finishRebuilds desde
+//      TallerDbHelper.onOpen, ya fuera de esa transacción: cada lote de
+//      copyAndSwap se confirma por separado y, si el proceso muere, la
+//      siguiente apertura sigue desde el último rowid copiado. El paso
+//      sale de pendientes solo al terminar.
+// ======================================================================
+public final class SchemaMigrator {
+
+    private static final String TAG = "SchemaMigrator";
+
+    // ------------------------------------------------------------------
+    // == Atributo: BASE_VERSION
+    //    Tipo: int (constante)
+    //    Rol : Primera versión con esquema conocido (persona, vehiculo,
+    //          orden_trabajo tal como los crea TallerDbHelper.onCreate).
+    //          Versiones anteriores no se pueden migrar: se recrean.
+    // ------------------------------------------------------------------
+    public static final int BASE_VERSION = 16;
+
+    // ------------------------------------------------------------------
+    // == Atributo: COPY_BATCH
+    //    Tipo: int (constante)
+    //    Rol : Filas por lote en copyAndSwap. Acota el trabajo por
+    //          sentencia y la frecuencia de avisos de progreso.
+    // ------------------------------------------------------------------
+    public static final int COPY_BATCH = 5000;
+
+    // ------------------------------------------------------------------
+    // == Atributos: nombres de la bitácora y sufijo de reconstrucción
+    // ------------------------------------------------------------------
+    static final String T_BITACORA = "schema_migracion";
+    static final String REBUILD_SUFFIX = "__nueva";
+
+    // ------------------------------------------------------------------
+    // == Interface: ProgressListener
+    //    Rol:
+    //      - Recibe avisos de avance: versión del paso, etapa, unidades
+    //        hechas y total (filas en copias; 0/1 en pasos simples).
+    // ------------------------------------------------------------------
+    public interface ProgressListener {
+        void onProgress(int fromVersion, String step, long done, long total);
+    }
+
+    // ------------------------------------------------------------------
+    // == Atributo: LOG_PROGRESS
+    //    Rol : Listener por defecto; escribe el avance en Logcat.
+    // ------------------------------------------------------------------
+    public static final ProgressListener LOG_PROGRESS = (v, step, done, total) ->
+            Log.i(TAG, String.format(Locale.US, "v%d→v%d %s: %d/%d", v, v + 1, step, done, total));
+
+    // ------------------------------------------------------------------
+    // == Atributo: MIGRATIONS
+    //    Tipo: List<Migration> (ordenada por fromVersion, sin huecos)
+    //    Rol : Registro de pasos. Para un nuevo cambio de esquema:
+    //          1) agregar aquí el paso DB_VERSION → DB_VERSION+1;
+    //          2) subir TallerDbHelper.DB_VERSION.
+    //          migrations es el registro en uso: MIGRATIONS salvo en
+    //          tests (install).
+    // ------------------------------------------------------------------
+    private static final List<Migration> MIGRATIONS;
+    private static volatile List<Migration> migrations;
+
+    static {
+        List<Migration> m = new ArrayList<>();
+
+        // v16 → v17: índices secundarios de consultas frecuentes y FKs.
+        m.add(new Migration(16, "Índices secundarios") {
+            @Override
+            public void migrate(SQLiteDatabase db, ProgressListener listener) {
+                TallerDbHelper.createIndexes(db);
+            }
+        });
+
+        // v17 → v18: índice de texto completo (FTS4) y sus triggers.
+        m.add(new Migration(17, "Índice de búsqueda") {
+            @Override
+            public void migrate(SQLiteDatabase db, ProgressListener listener) {
+                SearchIndex.create(db);
+            }
+        });
+
+        // v18 → v19: tablas de resumen (ingresos y conteos) y sus triggers.
+        m.add(new Migration(18, "Tablas de resumen") {
+            @Override
+            public void migrate(SQLiteDatabase db, ProgressListener listener) {
+                SummaryTables.create(db);
+            }
+        });
+
+        MIGRATIONS = Collections.unmodifiableList(m);
+        migrations = MIGRATIONS;
+    }
+
+    private SchemaMigrator() { }
+
+    // ------------------------------------------------------------------
+    // == Método: getMigrations
+    //    Retorno:
+    //      - List<Migration>: pasos registrados, en orden.
+    // ------------------------------------------------------------------
+    public static List<Migration> getMigrations() {
+        return migrations;
+    }
+
+    // Reemplaza el registro de pasos (tests: un paso con rebuild a través
+    // de onUpgrade/onOpen); devuelve el anterior.
+    static List<Migration> install(List<Migration> steps) {
+        synchronized (SchemaMigrator.class) {
+            List<Migration> prev = migrations;
+            migrations = steps;
+            return prev;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: migrate
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión de escritura (claves foráneas
+    //        desactivadas, como en onCreate/onUpgrade).
+    //      - oldV (int): versión actual (>= BASE_VERSION).
+    //      - newV (int): versión destino.
+    //      - listener (ProgressListener): receptor de progreso.
+    //    Descripción:
+    //      1) Asegura la bitácora.
+    //      2) Para cada versión v en [oldV, newV) busca el paso v → v+1;
+    //         si ya figura en la bitácora lo omite, si no lo ejecuta y lo
+    //         registra con su duración (con rebuild: como pendiente, lo
+    //         termina finishRebuilds).
+    //      3) Verifica integridad referencial (foreign_key_check).
+    //    Retorno:
+    //      - void. Lanza IllegalStateException si falta un paso y
+    //        SQLiteException si quedan filas huérfanas.
+    // ------------------------------------------------------------------
+    public static void migrate(SQLiteDatabase db, int oldV, int newV, ProgressListener listener) {
+        if (oldV < BASE_VERSION) {
+            throw new IllegalArgumentException("Versión " + oldV + " anterior a BASE_VERSION " + BASE_VERSION);
+        }
+        ensureJournal(db);
+        for (int v = oldV; v < newV; v++) {
+            Migration step = find(v);
+            if (isApplied(db, v)) {
+                listener.onProgress(v, step.description + " (ya aplicada)", 1, 1);
+                continue;
+            }
+            listener.onProgress(v, step.description, 0, 1);
+            long t0 = SystemClock.elapsedRealtime();
+            step.migrate(db, listener);
+            long ms = SystemClock.elapsedRealtime() - t0;
+            db.execSQL("INSERT INTO " + T_BITACORA + " (version, descripcion, aplicada, duracion_ms, pendiente)" +
+                            " VALUES (?, ?, datetime('now'), ?, ?)",
+                    new Object[]{ v + 1, step.description, ms, step.hasRebuild() ? 1 : 0 });
+            listener.onProgress(v, step.description, 1, 1);
+            Log.i(TAG, "Migración v" + v + "→v" + (v + 1) + " (" + step.description + ") en " + ms + " ms");
+        }
+        checkForeignKeys(db);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: finishRebuilds
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión de escritura, fuera de toda
+    //        transacción y con claves foráneas desactivadas
+    //        (TallerDbHelper.onOpen, antes de activarlas).
+    //      - listener (ProgressListener): receptor de progreso.
+    //    Descripción:
+    //      - Corre, en orden de versión, el rebuild de cada paso marcado
+    //        como pendiente en la bitácora; al terminar cada uno verifica
+    //        FKs, suma su duración y lo marca hecho. Sin pendientes es
+    //        una sola consulta.
+    //    Retorno:
+    //      - void. Si un rebuild lanza, el paso sigue pendiente y la
+    //        excepción sube (la apertura falla; la siguiente reanuda).
+    // ------------------------------------------------------------------
+    static void finishRebuilds(SQLiteDatabase db, ProgressListener listener) {
+        if (db.inTransaction()) {
+            throw new IllegalStateException("finishRebuilds debe correr fuera de una transacción");
+        }
+        if (DatabaseUtils.longForQuery(db, "SELECT COUNT(*) FROM sqlite_master" +
+                " WHERE type = 'table' AND name = '" + T_BITACORA + "'", null) == 0) {
+            return;
+        }
+        ensureJournal(db);
+        List<Integer> pending = new ArrayList<>();
+        try (Cursor c = db.rawQuery("SELECT version FROM " + T_BITACORA +
+                " WHERE pendiente = 1 ORDER BY version", null)) {
+            while (c.moveToNext()) pending.add(c.getInt(0));
+        }
+        for (int version : pending) {
+            Migration step = find(version - 1);
+            long t0 = SystemClock.elapsedRealtime();
+            step.rebuild(db, listener);
+            checkForeignKeys(db);
+            long ms = SystemClock.elapsedRealtime() - t0;
+            db.execSQL("UPDATE " + T_BITACORA + " SET pendiente = 0, duracion_ms = duracion_ms + ?" +
+                    " WHERE version = ?", new Object[]{ ms, version });
+            Log.i(TAG, "Reconstrucción v" + (version - 1) + "→v" + version +
+                    " (" + step.description + ") en " + ms + " ms");
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: resetJournal
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión de escritura.
+    //    Descripción:
+    //      - Borra la bitácora; se usa cuando el esquema se recrea desde
+    //        cero (versiones anteriores a BASE_VERSION).
+    // ------------------------------------------------------------------
+    static void resetJournal(SQLiteDatabase db) {
+        db.execSQL("DROP TABLE IF EXISTS " + T_BITACORA);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: copyAndSwap
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión de escritura, FKs desactivadas.
+    //      - fromVersion (int): paso al que pertenece (para el progreso).
+    //      - table (String): tabla a reconstruir.
+    //      - createTemplate (String): CREATE TABLE con "%s" en lugar del
+    //        nombre, p. ej. "CREATE TABLE %s (id INTEGER PRIMARY KEY, ...)".
+    //      - columns (String): columnas destino separadas por coma.
+    //      - selectColumns (String): expresiones origen en el mismo orden
+    //        (permite transformar datos al copiar).
+    //      - batchSize (int): filas por lote.
+    //      - listener (ProgressListener): avisos por lote.
+    //    Descripción:
+    //      1) Crea "<tabla>__nueva" si no existe (si existe, es una copia
+    //         interrumpida y se reanuda desde su MAX(rowid)).
+    //      2) Copia por lotes ordenados por rowid, preservando el rowid;
+    //         ninguna fila pasa por la memoria de Java.
+    //      3) En una transacción: DROP de la original, RENAME de la nueva
+    //         y restauración del contador AUTOINCREMENT si lo había.
+    //      - Los índices y triggers de la tabla original desaparecen con
+    //        el DROP: el paso que llama debe recrearlos.
+    //    Retorno:
+    //      - long: filas presentes en la tabla reconstruida.
+    // ------------------------------------------------------------------
+    public static long copyAndSwap(SQLiteDatabase db, int fromVersion, String table, String createTemplate,
+                                   String columns, String selectColumns, int batchSize,
+                                   ProgressListener listener) {
+        String tmp = table + REBUILD_SUFFIX;
+        String step = "Copiando " + table;
+        db.execSQL(String.format(Locale.ROOT, createTemplate, "IF NOT EXISTS " + tmp));
+
+        // Si la tabla tiene INTEGER PRIMARY KEY, esa columna ES el rowid y ya
+        // viaja en "columns"; si no, se copia el rowid explícitamente.
+        boolean alias = hasRowidAlias(db, table);
+        String insertCols = alias ? columns : "rowid, " + columns;
+        String selectCols = alias ? selectColumns : "rowid, " + selectColumns;
+
+        long total = DatabaseUtils.queryNumEntries(db, table);
+        long copied = DatabaseUtils.queryNumEntries(db, tmp);
+        long seq = autoincrementSeq(db, table);
+
+        SQLiteStatement copy = db.compileStatement(
+                "INSERT INTO " + tmp + " (" + insertCols + ")" +
+                " SELECT " + selectCols + " FROM " + table +
+                " WHERE rowid > ? ORDER BY rowid LIMIT ?");
+        SQLiteStatement lastRowid = db.compileStatement("SELECT IFNULL(MAX(rowid), 0) FROM " + tmp);
+        try {
+            long from = lastRowid.simpleQueryForLong();
+            listener.onProgress(fromVersion, step, copied, total);
+            while (true) {
+                copy.bindLong(1, from);
+                copy.bindLong(2, batchSize);
+                int n = copy.executeUpdateDelete();
+                if (n <= 0) break;
+                copied += n;
+                from = lastRowid.simpleQueryForLong();
+                listener.onProgress(fromVersion, step, copied, total);
+            }
+        } finally {
+            copy.close();
+            lastRowid.close();
+        }
+
+        boolean own = !db.inTransaction();
+        if (own) db.beginTransaction();
+        try {
+            db.execSQL("DROP TABLE " + table);
+            db.execSQL("ALTER TABLE " + tmp + " RENAME TO " + table);
+            if (seq > 0) {
+                db.execSQL("UPDATE sqlite_sequence SET seq = ? WHERE name = ? AND seq < ?",
+                        new Object[]{ seq, table, seq });
+            }
+            if (own) db.setTransactionSuccessful();
+        } finally {
+            if (own) db.endTransaction();
+        }
+        listener.onProgress(fromVersion, step, copied, total);
+        return copied;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: copyAndSwap (lote por defecto)
+    //    Descripción:
+    //      - Igual que el anterior, con COPY_BATCH filas por lote.
+    // ------------------------------------------------------------------
+    public static long copyAndSwap(SQLiteDatabase db, int fromVersion, String table, String createTemplate,
+                                   String columns, String selectColumns, ProgressListener listener) {
+        return copyAndSwap(db, fromVersion, table, createTemplate, columns, selectColumns, COPY_BATCH, listener);
+    }
+
+    // ============================ APOYO ================================
+
+    private static Migration find(int fromVersion) {
+        for (Migration m : migrations) {
+            if (m.fromVersion == fromVersion) return m;
+        }
+        throw new IllegalStateException("No hay migración registrada desde v" + fromVersion);
+    }
+
+    private static void ensureJournal(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + T_BITACORA + " (" +
+                "version INTEGER PRIMARY KEY, " +
+                "descripcion TEXT NOT NULL, " +
+                "aplicada TEXT NOT NULL, " +
+                "duracion_ms INTEGER NOT NULL, " +
+                "pendiente INTEGER NOT NULL DEFAULT 0)");
+        // Bitácoras de antes de las reconstrucciones diferidas.
+        boolean hasPending = false;
+        try (Cursor c = db.rawQuery("PRAGMA table_info(" + T_BITACORA + ")", null)) {
+            int name = c.getColumnIndexOrThrow("name");
+            while (c.moveToNext()) hasPending |= "pendiente".equals(c.getString(name));
+        }
+        if (!hasPending) {
+            db.execSQL("ALTER TABLE " + T_BITACORA + " ADD COLUMN pendiente INTEGER NOT NULL DEFAULT 0");
+        }
+    }
+
+    private static boolean isApplied(SQLiteDatabase db, int fromVersion) {
+        return DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM " + T_BITACORA + " WHERE version = ?",
+                new String[]{ String.valueOf(fromVersion + 1) }) > 0;
+    }
+
+    // Verdadero si la tabla tiene una única PK declarada INTEGER (alias de rowid).
+    private static boolean hasRowidAlias(SQLiteDatabase db, String table) {
+        int pkCols = 0;
+        boolean integerPk = false;
+        try (Cursor c = db.rawQuery("PRAGMA table_info(" + table + ")", null)) {
+            int type = c.getColumnIndexOrThrow("type");
+            int pk = c.getColumnIndexOrThrow("pk");
+            while (c.moveToNext()) {
+                if (c.getInt(pk) > 0) {
+                    pkCols++;
+                    integerPk = "INTEGER".equalsIgnoreCase(c.getString(type));
+                }
+            }
+        }
+        return pkCols == 1 && integerPk;
+    }
+
+    // Último valor AUTOINCREMENT de la tabla (0 si no usa AUTOINCREMENT).
+    private static long autoincrementSeq(SQLiteDatabase db, String table) {
+        if (DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = 'sqlite_sequence'", null) == 0) {
+            return 0;
+        }
+        return DatabaseUtils.longForQuery(db,
+                "SELECT IFNULL(MAX(seq), 0) FROM sqlite_sequence WHERE name = ?", new String[]{ table });
+    }
+
+    private static void checkForeignKeys(SQLiteDatabase db) {
+        try (Cursor c = db.rawQuery("PRAGMA foreign_key_check", null)) {
+            if (c.moveToFirst()) {
+                throw new SQLiteException("Migración dejó " + c.getCount() +
+                        " fila(s) con FK inválida; primera en tabla " + c.getString(0));
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.List;
+
+// ======================================================================
+// == Clase: SearchIndex
+// == Rol dentro de la app:
+//    - Índice de texto completo (FTS4) sobre las tres entidades:
+//        * persona_fts  : nombre, apellido, email
+//        * vehiculo_fts : patente, modelo, color
+//        * orden_fts    : numero, observacion
+//    - Son tablas de contenido externo (content="..."): el texto no se
+//      duplica, solo se guarda el índice invertido. El docid de cada
+//      fila es el rowid de la fila en su tabla.
+//    - Cuatro triggers por tabla lo mantienen al día (alta, cambio de
+//      las columnas indexadas y borrado), así que ningún repositorio
+//      tiene que acordarse de actualizarlo.
+//    - Utilidades compartidas por los repositorios: matchQuery() arma
+//      la expresión MATCH y rankedPage() ordena por relevancia y pagina
+//      por tramos de CANDIDATES (la parte sin Android está en
+//      SearchText).
+// == Por qué FTS4 y no FTS5:
+//    - FTS5 no viene en el SQLite de todas las versiones soportadas
+//      (minSdk 24); FTS4 sí. bm25() se reemplaza por el puntaje de
+//      SearchText.score(), calculado en Java desde matchinfo().
+// == Mantenimiento:
+//    - vehiculo no tiene alias de rowid (su PK es TEXT): VACUUM o un
+//      copyAndSwap pueden renumerar sus rowid. Un paso de SchemaMigrator
+//      que reconstruya persona, vehiculo u orden_trabajo debe terminar
+//      con create(db) (recrea los triggers que cayeron con la tabla) y
+//      rebuild(db).
+// ======================================================================
+public final class SearchIndex {
+
+    // ------------------------------------------------------------------
+    // == Atributos: tablas virtuales
+    // ------------------------------------------------------------------
+    public static final String FTS_PERSONA  = "persona_fts";
+    public static final String FTS_VEHICULO = "vehiculo_fts";
+    public static final String FTS_ORDEN    = "orden_fts";
+
+    // ------------------------------------------------------------------
+    // == Atributo: CANDIDATES
+    //    Rol : Largo de cada tramo que se ordena por relevancia (ver
+    //          SearchText).
+    // ------------------------------------------------------------------
+    public static final int CANDIDATES = SearchText.CANDIDATES;
+
+    // Final de las consultas FTS de los repositorios (tras ORDER BY docid
+    // DESC): un tramo; rankedPage llena el OFFSET.
+    static final String WINDOW = " LIMIT " + CANDIDATES + " OFFSET ?";
+
+    // ------------------------------------------------------------------
+    // == Atributo: MIN_CHARS
+    //    Rol : Largo mínimo del texto para buscar (ver SearchText).
+    // ------------------------------------------------------------------
+    public static final int MIN_CHARS = SearchText.MIN_CHARS;
+
+    // Formato de matchinfo: p (frases), c (columnas), n (filas), x (por
+    // frase y columna: aciertos en la fila, en total y filas con aciertos).
+    static final String MATCHINFO = "pcnx";
+
+    // ------------------------------------------------------------------
+    // == Interface: RowReader
+    //    Rol : Convierte la fila actual del cursor en una entidad.
+    // ------------------------------------------------------------------
+    interface RowReader<T> {
+        T read(Cursor c);
+    }
+
+    private SearchIndex() { }
+
+    // ------------------------------------------------------------------
+    // == Método: create
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión de escritura con las tablas
+    //        base ya creadas.
+    //    Descripción:
+    //      - Crea (si no existen) las tres tablas FTS y sus triggers, y
+    //        reconstruye el índice desde las filas existentes (paso
+    //        v17 → v18 de SchemaMigrator).
+    //    Retorno:
+    //      - void.
+    // ------------------------------------------------------------------
+    static void create(SQLiteDatabase db) {
+        createFor(db, FTS_PERSONA, TallerDbHelper.T_PERSONA,
+                TallerDbHelper.C_NOMBRE, TallerDbHelper.C_APELLIDO, TallerDbHelper.C_EMAIL);
+        createFor(db, FTS_VEHICULO, TallerDbHelper.T_VEHICULO,
+                TallerDbHelper.V_PATENTE, TallerDbHelper.V_MODELO, TallerDbHelper.V_COLOR);
+        createFor(db, FTS_ORDEN, TallerDbHelper.T_ORDEN,
+                TallerDbHelper.O_NUMERO, TallerDbHelper.O_OBSERVACION);
+        rebuild(db);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: rebuild
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión de escritura.
+    //    Descripción:
+    //      - Regenera los tres índices desde sus tablas de contenido
+    //        (comando 'rebuild' de FTS4). Necesario tras cargar datos
+    //        sin triggers o si los rowid de una tabla cambiaron.
+    //    Retorno:
+    //      - void.
+    // ------------------------------------------------------------------
+    public static void rebuild(SQLiteDatabase db) {
+        for (String fts : new String[]{ FTS_PERSONA, FTS_VEHICULO, FTS_ORDEN }) {
+            db.execSQL("INSERT INTO " + fts + "(" + fts + ") VALUES('rebuild')");
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: matchQuery
+    //    Descripción:
+    //      - Ver SearchText.matchQuery ("gonz jua" → "gonz* jua*").
+    //    Retorno:
+    //      - String: expresión MATCH, o null si no hay nada que buscar.
+    // ------------------------------------------------------------------
+    public static String matchQuery(String input) {
+        return SearchText.matchQuery(input);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: rankedPage
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión de lectura.
+    //      - sql (String): consulta FTS del repositorio; su última columna
+    //        es matchinfo(fts, MATCHINFO) y termina en ORDER BY docid
+    //        DESC + WINDOW.
+    //      - args (String[]): argumentos de la consulta; el último es el
+    //        OFFSET de WINDOW (lo fija rankedPage, tramo por tramo).
+    //      - weights (float[]): peso de cada columna indexada.
+    //      - reader (RowReader<T>): arma la entidad desde la fila.
+    //      - offset, limit (int): página pedida dentro del ranking.
+    //    Descripción:
+    //      - Lee los tramos que toca la página (SearchText.rankedPage),
+    //        calcula SearchText.score() de cada candidato y ordena cada
+    //        tramo de mayor a menor; a igual puntaje queda primero el más
+    //        reciente (SearchText.Ranking).
+    //    Retorno:
+    //      - List<T>: hasta limit entidades a partir de offset.
+    // ------------------------------------------------------------------
+    static <T> List<T> rankedPage(SQLiteDatabase db, String sql, String[] args, float[] weights,
+                                  RowReader<T> reader, int offset, int limit) {
+        return SearchText.rankedPage(offset, limit, (start, ranking) -> {
+            args[args.length - 1] = String.valueOf(start);
+            try (Cursor c = db.rawQuery(sql, args, QuerySignal.current())) {
+                int mi = c.getColumnCount() - 1;
+                while (c.moveToNext()) {
+                    ranking.add(reader.read(c), SearchText.score(c.getBlob(mi), weights));
+                }
+            }
+        });
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: qualify
+    //    Descripción:
+    //      - Antepone el alias a una lista de columnas "a,b,c". Las tablas
+    //        FTS tienen columnas con el mismo nombre que su tabla base.
+    // ------------------------------------------------------------------
+    static String qualify(String alias, String cols) {
+        return alias + "." + cols.replace(",", "," + alias + ".");
+    }
+
+    // ============================ APOYO ================================
+
+    private static void createFor(SQLiteDatabase db, String fts, String table, String... cols) {
+        String list = join(cols, "");
+        String news = join(cols, "new.");
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + fts + " USING fts4(" +
+                "content=\"" + table + "\", " + list + ", tokenize=unicode61, prefix=\"2,3\")");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + fts + "_ai AFTER INSERT ON " + table + " BEGIN " +
+                "INSERT INTO " + fts + "(docid, " + list + ") VALUES (new.rowid, " + news + "); END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + fts + "_bu BEFORE UPDATE OF " + list + " ON " + table + " BEGIN " +
+                "DELETE FROM " + fts + " WHERE docid = old.rowid; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + fts + "_au AFTER UPDATE OF " + list + " ON " + table + " BEGIN " +
+                "INSERT INTO " + fts + "(docid, " + list + ") VALUES (new.rowid, " + news + "); END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + fts + "_bd BEFORE DELETE ON " + table + " BEGIN " +
+                "DELETE FROM " + fts + " WHERE docid = old.rowid; END");
+    }
+
+    private static String join(String[] cols, String prefix) {
+        StringBuilder sb = new StringBuilder();
+        for (String c : cols) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(prefix).append(c);
+        }
+        return sb.toString();
+    }
+}
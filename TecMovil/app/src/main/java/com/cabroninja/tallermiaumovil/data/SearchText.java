@@ -0,0 +1,231 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// ======================================================================
+// == Clase: SearchText
+// == Rol dentro de la app:
+//    - Parte de la búsqueda de texto que no depende de Android: arma la
+//      expresión MATCH, puntúa cada coincidencia desde matchinfo() y
+//      ordena/pagina el resultado por tramos (ver CANDIDATES).
+//    - La usan SearchIndex (app), MemorySearch (backend en memoria) y el
+//      backend JDBC del módulo :bench, así todos buscan y ordenan igual.
+// ======================================================================
+public final class SearchText {
+
+    // ------------------------------------------------------------------
+    // == Atributo: MIN_CHARS
+    //    Rol : Largo mínimo del texto para buscar. Con una letra el
+    //          prefijo no usa los índices de prefijo (2 y 3 letras) y
+    //          recorre casi todo el vocabulario.
+    // ------------------------------------------------------------------
+    public static final int MIN_CHARS = 2;
+
+    // ------------------------------------------------------------------
+    // == Atributo: CANDIDATES
+    //    Rol : Largo de un tramo: las coincidencias se toman de a
+    //          CANDIDATES (por rowid, de las más recientes a las más
+    //          antiguas) y cada tramo se ordena por relevancia. El ranking
+    //          entrega primero el tramo 0 ordenado, luego el tramo 1, etc.,
+    //          así la paginación sigue más allá del primer tramo.
+    //        - Acota el costo de cada página con prefijos muy comunes
+    //          ("a", "jo"): lee a lo sumo los tramos que la página toca,
+    //          no todas las coincidencias (unos pocos ms aun con 1M filas).
+    // ------------------------------------------------------------------
+    public static final int CANDIDATES = 500;
+
+    // Máximo de palabras que se llevan a la consulta (las demás se ignoran).
+    static final int MAX_TOKENS = 8;
+
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private SearchText() { }
+
+    // ------------------------------------------------------------------
+    // == Método: matchQuery
+    //    Parámetros:
+    //      - input (String): texto escrito por el usuario.
+    //    Descripción:
+    //      - Separa el texto en palabras (letras y dígitos; tildes y
+    //        mayúsculas las normaliza el tokenizador unicode61) y busca
+    //        cada una como prefijo: "gonz jua" → "gonz* jua*" (todas
+    //        deben aparecer, en cualquier columna).
+    //      - Los signos se descartan, así que la entrada nunca produce
+    //        una expresión MATCH inválida.
+    //    Retorno:
+    //      - String: expresión MATCH, o null si no hay nada que buscar
+    //        (vacío o más corto que MIN_CHARS).
+    // ------------------------------------------------------------------
+    public static String matchQuery(String input) {
+        List<String> tokens = queryTokens(input);
+        if (tokens == null) return null;
+        StringBuilder sb = new StringBuilder();
+        for (String t : tokens) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(t).append('*');
+        }
+        return sb.toString();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: queryTokens
+    //    Parámetros:
+    //      - input (String): texto escrito por el usuario.
+    //    Retorno:
+    //      - List<String>: palabras (en minúsculas, hasta MAX_TOKENS) que
+    //        matchQuery busca como prefijo, o null si no hay nada que
+    //        buscar. Las usa MemorySearch para buscar sin FTS.
+    // ------------------------------------------------------------------
+    static List<String> queryTokens(String input) {
+        if (input == null) return null;
+        List<String> out = new ArrayList<>();
+        int chars = 0;
+        Matcher m = TOKEN.matcher(input.toLowerCase(Locale.ROOT));
+        while (m.find() && out.size() < MAX_TOKENS) {
+            out.add(m.group());
+            chars += m.group().length();
+        }
+        return chars >= MIN_CHARS ? out : null;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: words
+    //    Parámetros:
+    //      - text (String): valor de una columna indexada (puede ser null).
+    //    Descripción:
+    //      - Separa el texto como el tokenizador unicode61 de FTS4:
+    //        secuencias de letras y dígitos, en minúsculas y sin tildes
+    //        ("González" → "gonzalez"). También se aplica a las palabras
+    //        de queryTokens, así ambos lados comparan igual.
+    //    Retorno:
+    //      - String[]: palabras en orden (vacío si no hay texto).
+    // ------------------------------------------------------------------
+    static String[] words(String text) {
+        if (text == null || text.isEmpty()) return new String[0];
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> out = new ArrayList<>();
+        Matcher m = TOKEN.matcher(folded.toLowerCase(Locale.ROOT));
+        while (m.find()) out.add(m.group());
+        return out.toArray(new String[0]);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: score
+    //    Parámetros:
+    //      - matchinfo (byte[]): blob de matchinfo(fts, 'pcnx'), enteros
+    //        de 32 bits en el orden de bytes del equipo.
+    //      - weights (float[]): peso por columna.
+    //    Descripción:
+    //      - Suma, por cada palabra y columna, peso × aciertos en la fila
+    //        × ln(1 + filas / filas con la palabra): una palabra rara pesa
+    //        más que una que aparece en todas partes (idf).
+    //    Retorno:
+    //      - double: relevancia (mayor es mejor).
+    // ------------------------------------------------------------------
+    static double score(byte[] matchinfo, float[] weights) {
+        IntBuffer mi = ByteBuffer.wrap(matchinfo).order(ByteOrder.nativeOrder()).asIntBuffer();
+        int phrases = mi.get(0);
+        int cols = mi.get(1);
+        int rows = mi.get(2);
+        double score = 0;
+        for (int p = 0; p < phrases; p++) {
+            for (int col = 0; col < cols; col++) {
+                int base = 3 + 3 * (p * cols + col);
+                int hitsRow = mi.get(base);
+                int docsWithHits = mi.get(base + 2);
+                if (hitsRow == 0) continue;
+                score += term(weights[col], hitsRow, rows, docsWithHits);
+            }
+        }
+        return score;
+    }
+
+    // Aporte de una palabra en una columna (MemorySearch lo usa con sus
+    // propios conteos, así el puntaje es idéntico al de matchinfo).
+    static double term(float weight, int hitsRow, int rows, int docsWithHits) {
+        return weight * hitsRow * Math.log(1.0 + (double) rows / docsWithHits);
+    }
+
+    // ------------------------------------------------------------------
+    // == Interface: Window
+    //    Rol : Lee un tramo de candidatos: a lo sumo CANDIDATES
+    //          coincidencias desde la posición start (docid DESC), cada
+    //          una con su puntaje, en ranking.
+    // ------------------------------------------------------------------
+    interface Window<T, E extends Exception> {
+        void read(int start, Ranking<T> ranking) throws E;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: rankedPage
+    //    Parámetros:
+    //      - offset, limit (int): página pedida dentro del ranking.
+    //      - window (Window<T, E>): lector de un tramo del motor.
+    //    Descripción:
+    //      - Lee solo los tramos que la página toca (uno, o dos si cruza
+    //        un borde), ordena cada uno y corta la página. Se detiene en
+    //        el primer tramo incompleto: no hay más coincidencias.
+    //    Retorno:
+    //      - List<T>: hasta limit elementos a partir de offset.
+    // ------------------------------------------------------------------
+    static <T, E extends Exception> List<T> rankedPage(int offset, int limit, Window<T, E> window) throws E {
+        List<T> out = new ArrayList<>();
+        long end = (long) offset + limit;
+        for (int start = offset - offset % CANDIDATES; start < end; start += CANDIDATES) {
+            Ranking<T> ranking = new Ranking<>();
+            window.read(start, ranking);
+            int from = Math.max(offset, start) - start;
+            out.addAll(ranking.page(from, (int) Math.min(end - start, CANDIDATES) - from));
+            if (ranking.size() < CANDIDATES) break;
+        }
+        return out;
+    }
+
+    // ------------------------------------------------------------------
+    // == Clase interna: Ranking
+    //    Rol : Acumula los candidatos de un tramo (en el orden de la
+    //          consulta, docid DESC) con su puntaje y entrega una página
+    //          ordenada por relevancia.
+    // ------------------------------------------------------------------
+    static final class Ranking<T> {
+        private final List<Hit<T>> hits = new ArrayList<>();
+
+        void add(T item, double score) {
+            hits.add(new Hit<>(item, score));
+        }
+
+        int size() {
+            return hits.size();
+        }
+
+        // Collections.sort es estable: los empates conservan docid DESC.
+        List<T> page(int offset, int limit) {
+            Collections.sort(hits, (a, b) -> Double.compare(b.score, a.score));
+            List<T> out = new ArrayList<>(Math.max(0, Math.min(limit, hits.size() - offset)));
+            for (int i = offset; i < hits.size() && i < offset + limit; i++) {
+                out.add(hits.get(i).item);
+            }
+            return out;
+        }
+    }
+
+    private static final class Hit<T> {
+        final T item;
+        final double score;
+
+        Hit(T item, double score) {
+            this.item = item;
+            this.score = score;
+        }
+    }
+}
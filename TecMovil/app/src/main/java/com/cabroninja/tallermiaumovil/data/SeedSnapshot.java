@@ -0,0 +1,252 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.content.res.AssetManager;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Properties;
+
+// ======================================================================
+// == Clase: SeedSnapshot
+// == Rol dentro de la app:
+//    - Instala una base de datos prearmada (asset) la primera vez que se
+//      abre la DB, en lugar de crear el esquema y sembrar fila a fila.
+//      Pensado para datos de referencia grandes: catálogo de modelos,
+//      órdenes de demostración o la carga inicial de clientes de una
+//      sucursal.
+//    - Dos assets:
+//        * seed/taller_seed.db         : archivo SQLite (journal DELETE,
+//                                        sin -wal/-shm pendientes);
+//        * seed/taller_seed.properties : manifiesto con
+//            version=<PRAGMA user_version del archivo>
+//            sha256=<hash hex del archivo>
+//    - Pasos (solo si el archivo de la DB todavía no existe):
+//        1) lee el manifiesto; sin manifiesto no hay snapshot (la DB se
+//           crea como siempre: onCreate + DbSeeder);
+//        2) rechaza versiones fuera de [BASE_VERSION, DB_VERSION]: una
+//           anterior se migra al abrir (onUpgrade), una posterior no se
+//           puede abrir;
+//        3) copia el asset a "<db>.seed-tmp" por bloques, calculando el
+//           SHA-256 en el mismo recorrido, y sincroniza a disco;
+//        4) compara el hash, abre la copia en solo lectura y revisa
+//           user_version y PRAGMA quick_check;
+//        5) renombra la copia al nombre final (atómico en el mismo
+//           directorio). Ante cualquier falla borra la copia y sigue el
+//           camino normal; nunca deja una DB a medias.
+// == Armado del asset:
+//    - Generar la DB con la versión actual de la app (p. ej. la DB de un
+//      emulador tras la importación), ejecutar
+//      "PRAGMA journal_mode=DELETE; VACUUM;" y registrar su user_version
+//      y sha256sum en el manifiesto.
+// == Hilos:
+//    - La llama TallerDbHelper antes de su primera apertura, es decir en
+//      la etapa "abrir" de StartupPipeline (DbExecutor).
+// ======================================================================
+public final class SeedSnapshot {
+
+    private static final String TAG = "SeedSnapshot";
+
+    static final String ASSET_DB = "seed/taller_seed.db";
+    static final String ASSET_MANIFEST = "seed/taller_seed.properties";
+    static final String KEY_VERSION = "version";
+    static final String KEY_SHA256 = "sha256";
+
+    private static final String TMP_SUFFIX = ".seed-tmp";
+    private static final int BUFFER = 64 * 1024;
+
+    // ------------------------------------------------------------------
+    // == Enum: Result
+    //    Rol : Resultado de installIfAbsent.
+    //      - EXISTING : la DB ya existía; no se tocó nada.
+    //      - NO_ASSET : la app no trae snapshot.
+    //      - INSTALLED: se copió y verificó el snapshot.
+    //      - REJECTED : el snapshot no pasó las verificaciones (o falló la
+    //                   copia); la DB se crea por el camino normal.
+    // ------------------------------------------------------------------
+    public enum Result { EXISTING, NO_ASSET, INSTALLED, REJECTED }
+
+    // ------------------------------------------------------------------
+    // == Interface: Source
+    //    Rol : Origen de los archivos del snapshot. En la app son los
+    //          assets; los tests y benchmarks leen archivos generados.
+    //          open devuelve null si el archivo no existe.
+    // ------------------------------------------------------------------
+    interface Source {
+        @Nullable
+        InputStream open(Context ctx, String path) throws IOException;
+    }
+
+    static final Source ASSETS = (ctx, path) -> {
+        try {
+            return ctx.getAssets().open(path, AssetManager.ACCESS_STREAMING);
+        } catch (FileNotFoundException ex) {
+            return null;
+        }
+    };
+
+    // ------------------------------------------------------------------
+    // == Atributo: DEFAULT
+    //    Rol : Snapshot de la app (assets seed/...), que usa la DB
+    //          principal (TallerDbHelper.DB_NAME).
+    // ------------------------------------------------------------------
+    public static final SeedSnapshot DEFAULT = new SeedSnapshot(ASSETS, ASSET_DB, ASSET_MANIFEST);
+
+    private final Source source;
+    private final String dbPath;
+    private final String manifestPath;
+
+    SeedSnapshot(Source source, String dbPath, String manifestPath) {
+        this.source = source;
+        this.dbPath = dbPath;
+        this.manifestPath = manifestPath;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: installIfAbsent
+    //    Parámetros:
+    //      - ctx (Context): contexto de la app.
+    //      - dbName (String): nombre del archivo de DB de destino.
+    //    Descripción:
+    //      - Ver pasos en la cabecera. No lanza: los errores de copia o
+    //        de verificación se registran y dan REJECTED.
+    //    Retorno:
+    //      - Result: qué se hizo.
+    // ------------------------------------------------------------------
+    public Result installIfAbsent(Context ctx, String dbName) {
+        File target = ctx.getDatabasePath(dbName);
+        if (target.exists()) return Result.EXISTING;
+
+        long t0 = SystemClock.elapsedRealtime();
+        File tmp = new File(target.getPath() + TMP_SUFFIX);
+        try {
+            Properties manifest = readManifest(ctx);
+            if (manifest == null) return Result.NO_ASSET;
+            int version = Integer.parseInt(manifest.getProperty(KEY_VERSION, "").trim());
+            String expected = manifest.getProperty(KEY_SHA256, "").trim().toLowerCase(Locale.US);
+            if (version < SchemaMigrator.BASE_VERSION || version > TallerDbHelper.DB_VERSION) {
+                return reject(tmp, "versión " + version + " fuera de [" + SchemaMigrator.BASE_VERSION +
+                        ", " + TallerDbHelper.DB_VERSION + "]");
+            }
+
+            String actual = copy(ctx, tmp);
+            if (actual == null) return reject(tmp, "falta " + dbPath);
+            if (!actual.equals(expected)) return reject(tmp, "sha256 " + actual + " ≠ " + expected);
+            String problem = verify(tmp, version);
+            if (problem != null) return reject(tmp, problem);
+            if (!tmp.renameTo(target)) return reject(tmp, "no se pudo renombrar a " + target);
+
+            Log.i(TAG, String.format(Locale.US, "snapshot v%d instalado: %d KiB en %d ms",
+                    version, target.length() / 1024, SystemClock.elapsedRealtime() - t0));
+            return Result.INSTALLED;
+        } catch (IOException | RuntimeException ex) {
+            Log.w(TAG, "Snapshot no instalado", ex);
+            return reject(tmp, ex.toString());
+        }
+    }
+
+    // ============================ APOYO ================================
+
+    @Nullable
+    private Properties readManifest(Context ctx) throws IOException {
+        try (InputStream in = source.open(ctx, manifestPath)) {
+            if (in == null) return null;
+            Properties p = new Properties();
+            p.load(in);
+            return p;
+        }
+    }
+
+    // Copia por bloques y devuelve el SHA-256 (hex) de lo copiado, o null
+    // si el archivo de datos no existe.
+    @Nullable
+    private String copy(Context ctx, File tmp) throws IOException {
+        File dir = tmp.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("no se pudo crear " + dir);
+        }
+        MessageDigest sha = sha256();
+        byte[] buf = new byte[BUFFER];
+        try (InputStream in = source.open(ctx, dbPath)) {
+            if (in == null) return null;
+            try (FileOutputStream out = new FileOutputStream(tmp)) {
+                int n;
+                while ((n = in.read(buf)) > 0) {
+                    sha.update(buf, 0, n);
+                    out.write(buf, 0, n);
+                }
+                out.getFD().sync();
+            }
+        }
+        return hex(sha.digest());
+    }
+
+    // Abre la copia sin escribirla. null si está bien; si no, el motivo.
+    @Nullable
+    private static String verify(File file, int version) {
+        SQLiteDatabase db = null;
+        try {
+            db = SQLiteDatabase.openDatabase(file.getPath(), null,
+                    SQLiteDatabase.OPEN_READONLY | SQLiteDatabase.NO_LOCALIZED_COLLATORS);
+            if (db.getVersion() != version) {
+                return "user_version " + db.getVersion() + " ≠ manifiesto " + version;
+            }
+            try (Cursor c = db.rawQuery("PRAGMA quick_check", null)) {
+                String first = c.moveToFirst() ? c.getString(0) : null;
+                if (!"ok".equals(first)) return "quick_check: " + first;
+            }
+            return null;
+        } catch (SQLiteException ex) {
+            return "no abre: " + ex.getMessage();
+        } finally {
+            if (db != null) db.close();
+        }
+    }
+
+    private static Result reject(File tmp, String reason) {
+        Log.w(TAG, "Snapshot rechazado (" + reason + "); se crea la DB vacía");
+        if (tmp.exists() && !tmp.delete()) Log.w(TAG, "No se pudo borrar " + tmp);
+        return Result.REJECTED;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: sha256Hex
+    //    Retorno:
+    //      - String: SHA-256 en hex de todo el flujo (para armar el
+    //        manifiesto; el llamador cierra el flujo).
+    // ------------------------------------------------------------------
+    static String sha256Hex(InputStream in) throws IOException {
+        MessageDigest sha = sha256();
+        byte[] buf = new byte[BUFFER];
+        int n;
+        while ((n = in.read(buf)) > 0) sha.update(buf, 0, n);
+        return hex(sha.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) sb.append(String.format(Locale.US, "%02x", b));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,501 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Process;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// ======================================================================
+// == Clase: SlowQueryLog
+// == Rol dentro de la app:
+//    - Registro de sentencias lentas de los repositorios: toda llamada
+//      que RepoMetrics mide por sobre el umbral (getThresholdMs) deja una
+//      entrada con la operación, el SQL, sus argumentos (las columnas
+//      password van como "***"), duración, filas y el EXPLAIN QUERY PLAN
+//      de la sentencia (ver QueryPlan).
+//    - Las últimas CAPACITY entradas se guardan en un búfer circular que
+//      también se escribe a disco (una línea JSON por entrada), así
+//      sobreviven a reinicios: en una visita de soporte se exportan desde
+//      DiagnosticoActivity para ver qué tablas de TallerDbHelper piden
+//      un índice.
+// == Costo:
+//    - Bajo el umbral no hace nada (una comparación en RepoMetrics.Op).
+//      Sobre el umbral, el hilo que hizo la consulta solo copia los
+//      argumentos y encola: la redacción, el EXPLAIN (cacheado por SQL)
+//      y la línea agregada al archivo los hace el hilo escritor del
+//      registro (uno solo, "taller-slowlog"), fuera de la transacción y
+//      sin tomar el candado del registro.
+//    - Si el escritor se atrasa más de QUEUE_CAPACITY entradas, las
+//      nuevas se descartan (con aviso en Logcat) en vez de acumularse.
+//    - Con RepoMetrics apagado no hay mediciones y este registro tampoco
+//      recibe nada.
+// == Disco:
+//    - Dos archivos en files/slow_queries: "actual" crece hasta CAPACITY
+//      líneas y entonces pasa a ser "anterior" (el anterior se borra).
+//      En disco nunca hay más de 2 × CAPACITY líneas.
+// ======================================================================
+public final class SlowQueryLog {
+
+    private static final String TAG = "SlowQueryLog";
+
+    static final int CAPACITY = 200;
+    static final int QUEUE_CAPACITY = 200;
+    private static final long KEEP_ALIVE_S = 30;
+    private static final long FLUSH_TIMEOUT_S = 5;
+    static final long DEFAULT_THRESHOLD_MS = 50;
+    static final String REDACTED = "***";
+
+    private static final String DIR = "slow_queries";
+    private static final String PREFS = "diagnostico";
+    private static final String KEY_UMBRAL = "slow_query_ms";
+
+    // Planes ya obtenidos por SQL (las sentencias son constantes de los
+    // repositorios: pocas y siempre las mismas).
+    private static final int MAX_PLANES = 64;
+    private static final ConcurrentHashMap<String, List<String>> PLANES = new ConcurrentHashMap<>();
+
+    // INSERT ... (col, ...) VALUES (: los '?' de VALUES van por posición.
+    private static final Pattern INSERT = Pattern.compile(
+            "^\\s*INSERT\\s+(?:OR\\s+\\w+\\s+)?INTO\\s+[\\w.]+\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\(",
+            Pattern.CASE_INSENSITIVE);
+
+    // "col = ?", "p.col >= ?", "col LIKE ?": la columna a la izquierda.
+    private static final Pattern COMPARA = Pattern.compile(
+            "([\\w.]+)\\s*(?:=|==|<>|!=|<=|>=|<|>|\\bLIKE|\\bGLOB|\\bMATCH)\\s*$",
+            Pattern.CASE_INSENSITIVE);
+
+    // Nota del plan de una llamada registrada sin argumentos (cargas
+    // masivas: una sentencia, muchas filas).
+    static final String SIN_ARGS = "(carga masiva: sin argumentos, EXPLAIN con '?' sin enlazar)";
+
+    private static volatile SlowQueryLog instance;
+    private static volatile long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_THRESHOLD_MS);
+    private static volatile SharedPreferences prefs;
+
+    // ------------------------------------------------------------------
+    // == Clase interna: Entry
+    //    Rol : Una sentencia lenta, inmutable.
+    // ------------------------------------------------------------------
+    public static final class Entry {
+        public final long timeMillis;
+        public final String op;
+        public final String thread;
+        public final String sql;
+        public final List<String> args;
+        public final double millis;
+        public final long rows;
+        public final List<String> plan;
+
+        Entry(long timeMillis, String op, String thread, String sql, List<String> args,
+              double millis, long rows, List<String> plan) {
+            this.timeMillis = timeMillis;
+            this.op = op;
+            this.thread = thread;
+            this.sql = sql;
+            this.args = Collections.unmodifiableList(args);
+            this.millis = millis;
+            this.rows = rows;
+            this.plan = Collections.unmodifiableList(plan);
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONArray a = new JSONArray();
+            for (String s : args) a.put(s != null ? s : JSONObject.NULL);
+            JSONArray p = new JSONArray();
+            for (String s : plan) p.put(s);
+            return new JSONObject()
+                    .put("time", timeMillis)
+                    .put("op", op)
+                    .put("thread", thread)
+                    .put("ms", millis)
+                    .put("rows", rows)
+                    .put("sql", sql)
+                    .put("args", a)
+                    .put("plan", p);
+        }
+
+        static Entry fromJson(JSONObject o) throws JSONException {
+            List<String> args = new ArrayList<>();
+            JSONArray a = o.getJSONArray("args");
+            for (int i = 0; i < a.length(); i++) args.add(a.isNull(i) ? null : a.getString(i));
+            List<String> plan = new ArrayList<>();
+            JSONArray p = o.getJSONArray("plan");
+            for (int i = 0; i < p.length(); i++) plan.add(p.getString(i));
+            return new Entry(o.getLong("time"), o.getString("op"), o.optString("thread", ""),
+                    o.getString("sql"), args, o.getDouble("ms"), o.getLong("rows"), plan);
+        }
+    }
+
+    private final File actual;
+    private final File anterior;
+    private final int capacity;
+    private final ArrayDeque<Entry> ring;
+    // Hilo escritor (package-private: los tests lo detienen).
+    final ThreadPoolExecutor writer;
+    private boolean cargado;
+    private int lineasActual;
+
+    // ------------------------------------------------------------------
+    // == Constructor: SlowQueryLog
+    //    Parámetros:
+    //      - dir (File): carpeta de los dos archivos (se crea al escribir).
+    //      - capacity (int): entradas que se conservan.
+    //    Descripción:
+    //      - No lee el disco: lo hace la primera llamada que lo necesita.
+    //        Usar attach(ctx); este constructor es para tests.
+    //      - El hilo escritor se crea con la primera entrada y se libera
+    //        tras KEEP_ALIVE_S segundos sin trabajo.
+    // ------------------------------------------------------------------
+    SlowQueryLog(File dir, int capacity) {
+        this.actual = new File(dir, "actual.jsonl");
+        this.anterior = new File(dir, "anterior.jsonl");
+        this.capacity = capacity;
+        this.ring = new ArrayDeque<>(capacity);
+        this.writer = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_S, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread t = new Thread(() -> {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        r.run();
+                    }, "taller-slowlog");
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.writer.allowCoreThreadTimeOut(true);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: attach
+    //    Parámetros:
+    //      - ctx (Context): cualquier contexto; se usa su ApplicationContext.
+    //    Descripción:
+    //      - Crea el registro del proceso en files/slow_queries y lee el
+    //        umbral guardado. Lo llama TallerDatabase.getInstance; las
+    //        siguientes llamadas no hacen nada.
+    // ------------------------------------------------------------------
+    public static void attach(Context ctx) {
+        if (instance != null) return;
+        synchronized (SlowQueryLog.class) {
+            if (instance != null) return;
+            Context app = ctx.getApplicationContext();
+            prefs = app.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+            thresholdNanos = toNanos(prefs.getLong(KEY_UMBRAL, DEFAULT_THRESHOLD_MS));
+            instance = new SlowQueryLog(new File(app.getFilesDir(), DIR), CAPACITY);
+        }
+    }
+
+    // Registro del proceso, o null si aún no se llamó a attach.
+    public static SlowQueryLog get() {
+        return instance;
+    }
+
+    // Reemplaza el registro del proceso (tests); devuelve el anterior.
+    static SlowQueryLog install(SlowQueryLog log) {
+        synchronized (SlowQueryLog.class) {
+            SlowQueryLog prev = instance;
+            instance = log;
+            return prev;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: setThresholdMs
+    //    Parámetros:
+    //      - ms (long): duración desde la cual una llamada es lenta; 0
+    //        registra todas y un valor negativo apaga el registro.
+    //    Descripción:
+    //      - Se guarda en las preferencias "diagnostico" (si ya hubo
+    //        attach) y se conserva entre reinicios.
+    // ------------------------------------------------------------------
+    public static void setThresholdMs(long ms) {
+        thresholdNanos = toNanos(ms);
+        SharedPreferences sp = prefs;
+        if (sp != null) sp.edit().putLong(KEY_UMBRAL, ms).apply();
+    }
+
+    public static long getThresholdMs() {
+        long ns = thresholdNanos;
+        return ns == Long.MAX_VALUE ? -1 : TimeUnit.NANOSECONDS.toMillis(ns);
+    }
+
+    private static long toNanos(long ms) {
+        return ms < 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+
+    // Lo consulta RepoMetrics.Op.stop con cada duración medida.
+    static boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos && instance != null;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: capture
+    //    Parámetros:
+    //      - op (String): operación de RepoMetrics ("Repo.método").
+    //      - db (SQLiteDatabase): conexión para el EXPLAIN.
+    //      - sql (String): sentencia ejecutada (con '?').
+    //      - args (Object[]): argumentos en el orden de los '?', o null
+    //        (p. ej. cargas masivas: una sentencia, muchas filas).
+    //      - nanos (long): duración de la llamada.
+    //      - rows (long): filas leídas/escritas.
+    //    Descripción:
+    //      - En el hilo que llama: toma la hora, el nombre del hilo y una
+    //        copia de args (el llamador puede reutilizar su arreglo) y lo
+    //        encola. Nunca lanza ni bloquea.
+    //      - En el escritor: arma la entrada (argumentos redactados y
+    //        plan) y la agrega. Un fallo del EXPLAIN queda como texto del
+    //        plan. Sin args en una sentencia con '?', el plan lleva
+    //        delante SIN_ARGS: la entrada no dice con qué valores corrió.
+    // ------------------------------------------------------------------
+    static void capture(String op, SQLiteDatabase db, String sql, Object[] args, long nanos, long rows) {
+        SlowQueryLog log = instance;
+        if (log == null) return;
+        long time = System.currentTimeMillis();
+        String thread = Thread.currentThread().getName();
+        Object[] copia = args != null ? args.clone() : null;
+        try {
+            log.writer.execute(() -> {
+                List<String> plan = plan(db, sql);
+                if (copia == null && sql.indexOf('?') >= 0) {
+                    plan = new ArrayList<>(plan);
+                    plan.add(0, SIN_ARGS);
+                }
+                Entry e = new Entry(time, op, thread, sql, redact(sql, copia), nanos / 1e6, rows, plan);
+                Log.w(TAG, String.format(Locale.US, "%s %.1f ms, %d filas: %s", op, e.millis, rows, sql));
+                log.add(e);
+            });
+        } catch (RejectedExecutionException ex) {
+            Log.w(TAG, "Escritor atrasado, consulta lenta descartada: " + op);
+        }
+    }
+
+    private static List<String> plan(SQLiteDatabase db, String sql) {
+        List<String> plan = PLANES.get(sql);
+        if (plan != null) return plan;
+        try {
+            // Sin argumentos: SQLite no los usa para planificar.
+            plan = QueryPlan.explain(db, sql, null).steps;
+        } catch (RuntimeException ex) {
+            return Collections.singletonList("EXPLAIN falló: " + ex.getMessage());
+        }
+        if (PLANES.size() < MAX_PLANES) PLANES.put(sql, plan);
+        return plan;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: redact
+    //    Parámetros:
+    //      - sql (String): sentencia con '?'.
+    //      - args (Object[]): valores en el orden de los '?' (o null).
+    //    Descripción:
+    //      - Cada '?' se asocia a su columna: por posición en el VALUES de
+    //        un INSERT con lista de columnas, o por la comparación que lo
+    //        precede ("password = ?"). Si la columna es password, o el
+    //        valor tiene formato de hash de PasswordHasher, el valor se
+    //        reemplaza por REDACTED.
+    //    Retorno:
+    //      - List<String>: argumentos como texto (null se conserva).
+    // ------------------------------------------------------------------
+    static List<String> redact(String sql, Object[] args) {
+        List<String> out = new ArrayList<>();
+        if (args == null) return out;
+        String[] columnas = columnsOf(sql, args.length);
+        for (int i = 0; i < args.length; i++) {
+            String v = args[i] != null ? String.valueOf(args[i]) : null;
+            boolean secreto = isPassword(columnas[i]) || (v != null && PasswordHasher.isHash(v));
+            out.add(secreto ? REDACTED : v);
+        }
+        return out;
+    }
+
+    private static boolean isPassword(String columna) {
+        if (columna == null) return false;
+        String c = columna.substring(columna.lastIndexOf('.') + 1);
+        return c.equalsIgnoreCase(TallerDbHelper.C_PASSWORD);
+    }
+
+    // Columna de cada uno de los primeros n '?' (null si no se reconoce).
+    static String[] columnsOf(String sql, int n) {
+        String[] out = new String[n];
+        String[] insertCols = null;
+        int valuesDesde = -1;
+        int valuesHasta = -1;
+        Matcher m = INSERT.matcher(sql);
+        if (m.find()) {
+            insertCols = m.group(1).split(",");
+            valuesDesde = m.end();
+            valuesHasta = sql.indexOf(')', valuesDesde);
+        }
+        boolean enTexto = false;
+        int k = 0;
+        int posValues = 0;
+        for (int i = 0; i < sql.length() && k < n; i++) {
+            char ch = sql.charAt(i);
+            if (ch == '\'') enTexto = !enTexto;
+            if (enTexto || ch != '?') continue;
+            if (insertCols != null && i >= valuesDesde && i < valuesHasta) {
+                out[k] = posValues < insertCols.length ? insertCols[posValues].trim() : null;
+                posValues++;
+            } else {
+                Matcher c = COMPARA.matcher(sql.substring(0, i));
+                out[k] = c.find() ? c.group(1) : null;
+            }
+            k++;
+        }
+        return out;
+    }
+
+    // ========================== BÚFER Y DISCO ==========================
+
+    // ------------------------------------------------------------------
+    // == Método: add
+    //    Descripción:
+    //      - Agrega al búfer (descarta la más antigua si está lleno) y
+    //        escribe la línea; al llegar a CAPACITY líneas rota archivos.
+    //        Un error de disco solo se anota en Logcat.
+    //      - Solo desde el hilo escritor (capture), así las líneas quedan
+    //        en el orden en que se encolaron.
+    // ------------------------------------------------------------------
+    synchronized void add(Entry e) {
+        cargar();
+        if (ring.size() == capacity) ring.removeFirst();
+        ring.addLast(e);
+        try {
+            if (lineasActual >= capacity) {
+                if (anterior.exists() && !anterior.delete()) throw new IOException("no se pudo borrar " + anterior);
+                if (!actual.renameTo(anterior)) throw new IOException("no se pudo rotar " + actual);
+                lineasActual = 0;
+            }
+            File dir = actual.getParentFile();
+            if (dir != null && !dir.isDirectory() && !dir.mkdirs()) throw new IOException("no se pudo crear " + dir);
+            try (Writer w = new OutputStreamWriter(new FileOutputStream(actual, true), StandardCharsets.UTF_8)) {
+                w.write(e.toJson().toString());
+                w.write('\n');
+            }
+            lineasActual++;
+        } catch (IOException | JSONException ex) {
+            Log.w(TAG, "No se pudo guardar la consulta lenta", ex);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: entries
+    //    Retorno:
+    //      - List<Entry>: entradas guardadas, de la más reciente a la más
+    //        antigua (incluye las de ejecuciones anteriores de la app).
+    //        Espera a que el escritor agregue lo ya encolado y la primera
+    //        llamada lee el disco: usar fuera del hilo principal.
+    // ------------------------------------------------------------------
+    public List<Entry> entries() {
+        flush();
+        synchronized (this) {
+            cargar();
+            List<Entry> out = new ArrayList<>(ring);
+            Collections.reverse(out);
+            return out;
+        }
+    }
+
+    // Borra el búfer y los archivos (después de lo ya encolado).
+    public void clear() {
+        flush();
+        synchronized (this) {
+            cargar();
+            ring.clear();
+            lineasActual = 0;
+            if (actual.exists() && !actual.delete()) Log.w(TAG, "No se pudo borrar " + actual);
+            if (anterior.exists() && !anterior.delete()) Log.w(TAG, "No se pudo borrar " + anterior);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: flush
+    //    Descripción:
+    //      - Espera (hasta FLUSH_TIMEOUT_S) a que el escritor termine lo
+    //        encolado hasta ahora. No llamar desde el hilo escritor.
+    // ------------------------------------------------------------------
+    void flush() {
+        try {
+            writer.submit(() -> { }).get(FLUSH_TIMEOUT_S, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException | ExecutionException | TimeoutException ex) {
+            Log.w(TAG, "El escritor no terminó a tiempo", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: toJson
+    //    Retorno:
+    //      - String: arreglo JSON con entries(), cada una como
+    //          {"time":..,"op":..,"thread":..,"ms":..,"rows":..,
+    //           "sql":..,"args":[..],"plan":[..]}
+    // ------------------------------------------------------------------
+    public String toJson() {
+        JSONArray out = new JSONArray();
+        for (Entry e : entries()) {
+            try {
+                out.put(e.toJson());
+            } catch (JSONException ex) {
+                Log.w(TAG, "Entrada no exportable", ex);
+            }
+        }
+        return out.toString();
+    }
+
+    // Lee anterior + actual una sola vez; las líneas dañadas se saltan.
+    private void cargar() {
+        if (cargado) return;
+        cargado = true;
+        leer(anterior);
+        lineasActual = leer(actual);
+    }
+
+    private int leer(File f) {
+        if (!f.exists()) return 0;
+        int lineas = 0;
+        try (BufferedReader r = new BufferedReader(
+                new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                lineas++;
+                try {
+                    if (ring.size() == capacity) ring.removeFirst();
+                    ring.addLast(Entry.fromJson(new JSONObject(line)));
+                } catch (JSONException ex) {
+                    Log.w(TAG, "Línea inválida en " + f.getName());
+                }
+            }
+        } catch (IOException ex) {
+            Log.w(TAG, "No se pudo leer " + f, ex);
+        }
+        return lineas;
+    }
+}
@@ -0,0 +1,60 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+
+// ======================================================================
+// == Clase: SqliteTallerStore
+// == Rol dentro de la app:
+//    - TallerStore sobre la base SQLite de la app: entrega los
+//      repositorios de siempre (PersonaRepository, VehiculoRepository,
+//      OrdenRepository) sobre la conexión compartida de TallerDatabase.
+//    - Es el motor por defecto; MemoryTallerStore es la alternativa en
+//      memoria con el mismo contrato.
+// ======================================================================
+public final class SqliteTallerStore implements TallerStore {
+
+    private final PersonaRepository personas;
+    private final VehiculoRepository vehiculos;
+    private final OrdenRepository ordenes;
+
+    // ------------------------------------------------------------------
+    // == Constructor: SqliteTallerStore
+    //    Parámetros:
+    //      - ctx (Context): contexto de la app (usa TallerDatabase
+    //        compartido del proceso).
+    // ------------------------------------------------------------------
+    public SqliteTallerStore(Context ctx) {
+        this(TallerDatabase.getInstance(ctx));
+    }
+
+    // ------------------------------------------------------------------
+    // == Constructor: SqliteTallerStore (gestor explícito)
+    //    Parámetros:
+    //      - database (TallerDatabase): DB aislada (tests/benchmarks).
+    //      - passwords (PasswordHasher): costo de las contraseñas.
+    // ------------------------------------------------------------------
+    SqliteTallerStore(TallerDatabase database, PasswordHasher passwords) {
+        personas = new PersonaRepository(database, passwords);
+        vehiculos = new VehiculoRepository(database);
+        ordenes = new OrdenRepository(database);
+    }
+
+    SqliteTallerStore(TallerDatabase database) {
+        this(database, database.getPasswordHasher());
+    }
+
+    @Override
+    public PersonaRepository personas() {
+        return personas;
+    }
+
+    @Override
+    public VehiculoRepository vehiculos() {
+        return vehiculos;
+    }
+
+    @Override
+    public OrdenRepository ordenes() {
+        return ordenes;
+    }
+}
@@ -0,0 +1,145 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.app.Activity;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.MainThread;
+
+import java.util.Locale;
+
+// ======================================================================
+// == Clase: StartupMetrics
+// == Rol dentro de la app:
+//    - Mide el arranque en frío, desde que el sistema crea el proceso
+//      (Process.getStartElapsedRealtime) hasta:
+//        * primer frame: LoginActivity dibuja su primer frame;
+//        * login usable: además StartupPipeline terminó (base abierta,
+//          migrada y sembrada) y el botón de ingreso está habilitado.
+//      También guarda la duración de cada etapa del pipeline.
+//    - Al tener ambos hitos deja una línea en Logcat (tag
+//      "StartupMetrics"). Complementa "Displayed" / "Fully drawn" que
+//      registra ActivityManager (LoginActivity llama a reportFullyDrawn).
+// == Alcance:
+//    - Cada hito se registra una sola vez por proceso: volver al login
+//      tras cerrar sesión no pisa las cifras del arranque.
+//    - Si el proceso se creó por otro motivo (p. ej. restaurar otra
+//      pantalla) las cifras incluyen ese tiempo; sirven para arranques
+//      en frío desde el launcher.
+// ======================================================================
+public final class StartupMetrics {
+
+    private static final String TAG = "StartupMetrics";
+    static final long SIN_DATO = -1;
+
+    // Hitos en ms desde el inicio del proceso; SIN_DATO si aún no ocurren.
+    private static volatile long primerFrame = SIN_DATO;
+    private static volatile long pipelineLista = SIN_DATO;
+    private static volatile long loginHabilitado = SIN_DATO;
+
+    // Duración de las etapas de StartupPipeline (ms).
+    private static volatile long abrirMs = SIN_DATO;
+    private static volatile long sembrarMs = SIN_DATO;
+
+    private static boolean reportado;
+
+    private StartupMetrics() { }
+
+    // ------------------------------------------------------------------
+    // == Método: trackFirstFrame
+    //    Parámetros:
+    //      - activity (Activity): pantalla cuyo primer frame se mide;
+    //        llamar en onCreate, después de setContentView.
+    //    Descripción:
+    //      - Marca el hito cuando termina el primer recorrido de dibujo
+    //        de la ventana (el post corre después del draw).
+    // ------------------------------------------------------------------
+    @MainThread
+    public static void trackFirstFrame(Activity activity) {
+        if (primerFrame != SIN_DATO) return;
+        final View decor = activity.getWindow().getDecorView();
+        decor.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decor.getViewTreeObserver().removeOnPreDrawListener(this);
+                decor.post(() -> {
+                    if (primerFrame == SIN_DATO) primerFrame = desdeInicio();
+                    reportarSiCompleto();
+                });
+                return true;
+            }
+        });
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: markLoginReady
+    //    Descripción:
+    //      - La pantalla de login ya acepta credenciales (pipeline listo y
+    //        botón habilitado). "Login usable" es el mayor entre este
+    //        hito y el primer frame.
+    // ------------------------------------------------------------------
+    @MainThread
+    public static void markLoginReady() {
+        if (loginHabilitado == SIN_DATO) loginHabilitado = desdeInicio();
+        reportarSiCompleto();
+    }
+
+    // Etapas de StartupPipeline (hilo de DbExecutor).
+    static void markOpened(long ms) {
+        if (abrirMs == SIN_DATO) abrirMs = ms;
+    }
+
+    static void markSeeded(long ms) {
+        if (sembrarMs == SIN_DATO) sembrarMs = ms;
+    }
+
+    static void markPipelineDone() {
+        if (pipelineLista == SIN_DATO) pipelineLista = desdeInicio();
+    }
+
+    // ------------------------------------------------------------------
+    // == Métodos: lectura de hitos (ms desde el inicio del proceso)
+    //    Retorno:
+    //      - long: valor medido, o -1 si aún no ocurre.
+    // ------------------------------------------------------------------
+    public static long getFirstFrameMs() {
+        return primerFrame;
+    }
+
+    public static long getLoginUsableMs() {
+        long frame = primerFrame;
+        long login = loginHabilitado;
+        return frame == SIN_DATO || login == SIN_DATO ? SIN_DATO : Math.max(frame, login);
+    }
+
+    public static long getPipelineDoneMs() {
+        return pipelineLista;
+    }
+
+    public static long getOpenMs() {
+        return abrirMs;
+    }
+
+    public static long getSeedMs() {
+        return sembrarMs;
+    }
+
+    // ============================ APOYO ================================
+
+    private static long desdeInicio() {
+        return SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime();
+    }
+
+    // Hilo principal: una sola línea por proceso, con todo lo medido.
+    private static void reportarSiCompleto() {
+        long usable = getLoginUsableMs();
+        if (reportado || usable == SIN_DATO) return;
+        reportado = true;
+        Log.i(TAG, String.format(Locale.US,
+                "arranque: primer frame %d ms | login usable %d ms | pipeline %d ms (abrir/migrar %d ms, semilla %d ms)",
+                primerFrame, usable, pipelineLista, abrirMs, sembrarMs));
+    }
+}
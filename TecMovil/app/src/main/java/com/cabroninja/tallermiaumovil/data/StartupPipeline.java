@@ -0,0 +1,175 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+// ======================================================================
+// == Clase: StartupPipeline
+// == Rol dentro de la app:
+//    - Prepara la base de datos al arrancar, en DbExecutor y no en el
+//      hilo principal, mientras LoginActivity dibuja su pantalla:
+//        1) abrir: primera getWritableDatabase() (instalar SeedSnapshot
+//           si la app trae uno, onConfigure + onCreate u onUpgrade con
+//           SchemaMigrator en la primera ejecución o tras actualizar);
+//        2) sembrar: DbSeeder.seedIfEmpty (solo escribe si no hay
+//           personas; con snapshot instalado no hace nada).
+//    - Quien necesite la base lista (el botón de ingreso) se registra con
+//      whenReady y recibe el aviso en el hilo principal.
+//    - Es única por proceso y se lanza una sola vez: llamar a start()
+//      de nuevo (otra Activity, rotación) no repite el trabajo.
+//    - Si una etapa falla (disco lleno, copia del snapshot fallida) el
+//      error se avisa a whenReady y el pipeline queda listo para otro
+//      intento: el siguiente start() vuelve a lanzar las etapas (ambas
+//      son idempotentes).
+//    - Registra la duración de cada etapa en StartupMetrics.
+// ======================================================================
+public final class StartupPipeline {
+
+    private static volatile StartupPipeline instance;
+
+    private final TallerDatabase database;
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    // Estado protegido por "this".
+    private boolean launched;
+    private boolean done;
+    private Throwable error;
+    private final List<TallerAsync.Callback<Void>> waiting = new ArrayList<>();
+
+    StartupPipeline(TallerDatabase database) {
+        this.database = database;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: start
+    //    Parámetros:
+    //      - ctx (Context): cualquier contexto (se usa el de la app).
+    //    Descripción:
+    //      - Crea el pipeline del proceso la primera vez y encola sus
+    //        etapas en DbExecutor. No bloquea: se puede llamar en
+    //        onCreate antes de setContentView.
+    //    Retorno:
+    //      - StartupPipeline: el pipeline único (para whenReady).
+    // ------------------------------------------------------------------
+    public static StartupPipeline start(Context ctx) {
+        StartupPipeline local = instance;
+        if (local == null) {
+            synchronized (StartupPipeline.class) {
+                local = instance;
+                if (local == null) {
+                    local = new StartupPipeline(TallerDatabase.getInstance(ctx));
+                    instance = local;
+                }
+            }
+        }
+        local.launch();
+        return local;
+    }
+
+    // Reemplaza el pipeline del proceso (tests, junto con
+    // TallerDatabase.install); devuelve el anterior (o null).
+    static StartupPipeline install(StartupPipeline pipeline) {
+        synchronized (StartupPipeline.class) {
+            StartupPipeline prev = instance;
+            instance = pipeline;
+            return prev;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: whenReady
+    //    Parámetros:
+    //      - callback (TallerAsync.Callback<Void>): recibe onResult(null)
+    //        con la base lista, u onError con la excepción de la etapa
+    //        que falló. Siempre en el hilo principal; si el pipeline ya
+    //        terminó, el aviso se encola de inmediato.
+    //    Nota:
+    //      - El callback se retiene hasta el aviso: desde una Activity
+    //        usar TallerAsync.whenStarted, que lo descarta si se destruye.
+    // ------------------------------------------------------------------
+    public void whenReady(@NonNull TallerAsync.Callback<Void> callback) {
+        Throwable result;
+        synchronized (this) {
+            if (!done) {
+                waiting.add(callback);
+                return;
+            }
+            result = error;
+        }
+        main.post(() -> deliver(callback, result));
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: isReady
+    //    Retorno:
+    //      - boolean: true si las etapas terminaron sin error.
+    // ------------------------------------------------------------------
+    public synchronized boolean isReady() {
+        return done && error == null;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: launch
+    //    Descripción:
+    //      - Encola las etapas la primera vez, o de nuevo si el intento
+    //        anterior falló. Si DbExecutor rechaza la tarea, el pipeline
+    //        termina con ese error.
+    // ------------------------------------------------------------------
+    void launch() {
+        synchronized (this) {
+            if (launched) return;
+            launched = true;
+            done = false;
+            error = null;
+        }
+        try {
+            DbExecutor.get().execute(this::run);
+        } catch (RejectedExecutionException ex) {
+            finish(ex);
+        }
+    }
+
+    // ============================ APOYO ================================
+
+    // Hilo de DbExecutor: ejecuta las etapas en orden.
+    private void run() {
+        try {
+            long t0 = SystemClock.elapsedRealtime();
+            database.getWritableDatabase();
+            long t1 = SystemClock.elapsedRealtime();
+            StartupMetrics.markOpened(t1 - t0);
+
+            DbSeeder.seedIfEmpty(database);
+            StartupMetrics.markSeeded(SystemClock.elapsedRealtime() - t1);
+            StartupMetrics.markPipelineDone();
+            finish(null);
+        } catch (RuntimeException ex) {
+            finish(ex);
+        }
+    }
+
+    private void finish(@Nullable Throwable failure) {
+        List<TallerAsync.Callback<Void>> callbacks;
+        synchronized (this) {
+            done = true;
+            error = failure;
+            launched = failure == null;   // con error, el próximo start() reintenta
+            callbacks = new ArrayList<>(waiting);
+            waiting.clear();
+        }
+        for (TallerAsync.Callback<Void> cb : callbacks) main.post(() -> deliver(cb, failure));
+    }
+
+    private static void deliver(TallerAsync.Callback<Void> cb, @Nullable Throwable failure) {
+        if (failure == null) cb.onResult(null); else cb.onError(failure);
+    }
+}
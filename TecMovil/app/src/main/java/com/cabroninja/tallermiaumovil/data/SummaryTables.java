@@ -0,0 +1,328 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// ======================================================================
+// == Clase: SummaryTables
+// == Rol dentro de la app:
+//    - Tablas de resumen (vistas materializadas) que evitan recorrer
+//      orden_trabajo y persona con GROUP BY cada vez:
+//        * resumen_mes      : mes ('aaaa-mm')  → OTs y total en centavos
+//        * resumen_vehiculo : patente          → OTs y total en centavos
+//        * resumen_cliente  : run del dueño    → OTs y total en centavos
+//        * resumen_tipo     : persona.tipo     → cantidad de personas
+//    - Triggers sobre orden_trabajo, vehiculo y persona las mantienen al
+//      día en la misma transacción de cada escritura, así que ningún
+//      repositorio tiene que acordarse de actualizarlas. Leerlas es una
+//      búsqueda por PK (ver ResumenRepository).
+//    - Una clave sin OTs (o un tipo sin personas) no tiene fila: los
+//      triggers borran la fila cuando su contador llega a cero.
+// == Claves y montos:
+//    - total = neto + IVA, guardado en centavos enteros (igual que
+//      OrdenSnapshot): sumar y restar REAL en cada escritura acumularía
+//      error de redondeo.
+//    - Una OT sin fecha válida cuenta en el mes '' y una sin patente en
+//      la patente ''. Las OTs de vehículos sin dueño no tienen cliente.
+// == Cascadas:
+//    - Cambiar el dueño de un vehículo (o el RUN / el borrado de la
+//      persona, que llegan como cascada a vehiculo.run_dueno) mueve sus
+//      totales de un cliente a otro.
+//    - Cambiar la patente (cascada a orden_trabajo.patente) mueve los
+//      totales de resumen_vehiculo; el cliente no cambia.
+//    - Borrar un vehículo descuenta sus OTs del cliente ANTES del borrado
+//      (cuando la cascada borra las OTs el vehículo ya no existe y no se
+//      puede saber su dueño).
+// == Mantenimiento:
+//    - create(db) en el paso v18 → v19 de SchemaMigrator (también en
+//      instalaciones nuevas, que pasan por los mismos pasos).
+//    - rebuild(db) las recalcula desde cero; check(db) compara contra un
+//      GROUP BY y lista las diferencias. Un paso que reconstruya alguna
+//      de las tres tablas base debe terminar con create(db) (recrea los
+//      triggers) y rebuild(db), igual que SearchIndex.
+// ======================================================================
+public final class SummaryTables {
+
+    // ------------------------------------------------------------------
+    // == Atributos: tablas y columnas
+    // ------------------------------------------------------------------
+    public static final String T_MES      = "resumen_mes";
+    public static final String T_VEHICULO = "resumen_vehiculo";
+    public static final String T_CLIENTE  = "resumen_cliente";
+    public static final String T_TIPO     = "resumen_tipo";
+
+    public static final String R_MES      = "mes";
+    public static final String R_PATENTE  = "patente";
+    public static final String R_RUN      = "run";
+    public static final String R_TIPO     = "tipo";
+    public static final String R_ORDENES  = "ordenes";
+    public static final String R_TOTAL    = "total_centavos";
+    public static final String R_PERSONAS = "personas";
+
+    private static final String O = TallerDbHelper.T_ORDEN;
+    private static final String V = TallerDbHelper.T_VEHICULO;
+    private static final String P = TallerDbHelper.T_PERSONA;
+
+    // Patentes cuyas OTs mueve un cambio de dueño (la anterior y la nueva:
+    // si la patente también cambió, la cascada a orden_trabajo puede no
+    // haber corrido todavía) y las que descuenta el borrado del vehículo.
+    private static final String PATENTES_AU =
+            "old." + TallerDbHelper.V_PATENTE + ", new." + TallerDbHelper.V_PATENTE;
+    private static final String PATENTE_BD = "old." + TallerDbHelper.V_PATENTE;
+
+    // ------------------------------------------------------------------
+    // == Atributo: TABLES
+    //    Rol : CREATE de las cuatro tablas de resumen.
+    // ------------------------------------------------------------------
+    static final String[] TABLES = {
+            "CREATE TABLE IF NOT EXISTS " + T_MES + " (" + R_MES + " TEXT PRIMARY KEY, " +
+                    R_ORDENES + " INTEGER NOT NULL, " + R_TOTAL + " INTEGER NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS " + T_VEHICULO + " (" + R_PATENTE + " TEXT PRIMARY KEY, " +
+                    R_ORDENES + " INTEGER NOT NULL, " + R_TOTAL + " INTEGER NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS " + T_CLIENTE + " (" + R_RUN + " INTEGER PRIMARY KEY, " +
+                    R_ORDENES + " INTEGER NOT NULL, " + R_TOTAL + " INTEGER NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS " + T_TIPO + " (" + R_TIPO + " TEXT PRIMARY KEY, " +
+                    R_PERSONAS + " INTEGER NOT NULL)",
+    };
+
+    // ------------------------------------------------------------------
+    // == Atributo: TRIGGERS
+    //    Rol : Mantenimiento incremental. Sin UPSERT (SQLite 3.24+, no
+    //          disponible en minSdk 24): cada suma es INSERT OR IGNORE de
+    //          la fila en cero + UPDATE; cada resta es UPDATE + DELETE de
+    //          la fila si quedó en cero.
+    // ------------------------------------------------------------------
+    static final String[] TRIGGERS = {
+            trigger("resumen_orden_ai", "AFTER INSERT ON " + O, null,
+                    sumar(T_MES, R_MES, mes("new"), "1", centavos("new")),
+                    sumar(T_VEHICULO, R_PATENTE, patente("new"), "1", centavos("new")),
+                    sumarCliente(dueno("new." + TallerDbHelper.O_PATENTE), "1", centavos("new"))),
+            trigger("resumen_orden_ad", "AFTER DELETE ON " + O, null,
+                    restar(T_MES, R_MES, mes("old"), "1", centavos("old")),
+                    restar(T_VEHICULO, R_PATENTE, patente("old"), "1", centavos("old")),
+                    restar(T_CLIENTE, R_RUN, dueno("old." + TallerDbHelper.O_PATENTE), "1", centavos("old"))),
+            trigger("resumen_orden_au", "AFTER UPDATE OF " + TallerDbHelper.O_FECHA + ", " +
+                            TallerDbHelper.O_VALOR_NETO + ", " + TallerDbHelper.O_IVA + ", " +
+                            TallerDbHelper.O_PATENTE + " ON " + O, null,
+                    restar(T_MES, R_MES, mes("old"), "1", centavos("old")),
+                    sumar(T_MES, R_MES, mes("new"), "1", centavos("new")),
+                    restar(T_VEHICULO, R_PATENTE, patente("old"), "1", centavos("old")),
+                    sumar(T_VEHICULO, R_PATENTE, patente("new"), "1", centavos("new"))),
+            // Si la OT tenía patente y ese vehículo ya no existe, el cambio
+            // viene de la cascada de un cambio de patente del vehículo
+            // (la FK impide apuntar a uno inexistente): mismo dueño y
+            // mismos montos, nada que mover.
+            trigger("resumen_orden_au_cliente", "AFTER UPDATE OF " + TallerDbHelper.O_VALOR_NETO + ", " +
+                            TallerDbHelper.O_IVA + ", " + TallerDbHelper.O_PATENTE + " ON " + O,
+                    "old." + TallerDbHelper.O_PATENTE + " IS NULL" +
+                            " OR EXISTS (SELECT 1 FROM " + V + " WHERE " + TallerDbHelper.V_PATENTE +
+                            " = old." + TallerDbHelper.O_PATENTE + ")",
+                    restar(T_CLIENTE, R_RUN, dueno("old." + TallerDbHelper.O_PATENTE), "1", centavos("old")),
+                    sumarCliente(dueno("new." + TallerDbHelper.O_PATENTE), "1", centavos("new"))),
+            trigger("resumen_vehiculo_au", "AFTER UPDATE OF " + TallerDbHelper.V_RUN_DUENO + " ON " + V,
+                    "old." + TallerDbHelper.V_RUN_DUENO + " IS NOT new." + TallerDbHelper.V_RUN_DUENO,
+                    restar(T_CLIENTE, R_RUN, "old." + TallerDbHelper.V_RUN_DUENO,
+                            ordenesDe("COUNT(*)", PATENTES_AU),
+                            ordenesDe(sumaCentavos(), PATENTES_AU)),
+                    sumarCliente("new." + TallerDbHelper.V_RUN_DUENO,
+                            ordenesDe("COUNT(*)", PATENTES_AU),
+                            ordenesDe(sumaCentavos(), PATENTES_AU))),
+            trigger("resumen_vehiculo_bd", "BEFORE DELETE ON " + V, null,
+                    restar(T_CLIENTE, R_RUN, "old." + TallerDbHelper.V_RUN_DUENO,
+                            ordenesDe("COUNT(*)", PATENTE_BD),
+                            ordenesDe(sumaCentavos(), PATENTE_BD))),
+            trigger("resumen_persona_ai", "AFTER INSERT ON " + P, null,
+                    sumarTipo("new")),
+            trigger("resumen_persona_ad", "AFTER DELETE ON " + P, null,
+                    restarTipo("old")),
+            trigger("resumen_persona_au", "AFTER UPDATE OF " + TallerDbHelper.C_TIPO + " ON " + P,
+                    "old." + TallerDbHelper.C_TIPO + " IS NOT new." + TallerDbHelper.C_TIPO,
+                    restarTipo("old"), sumarTipo("new")),
+    };
+
+    // ------------------------------------------------------------------
+    // == Atributo: EXPECTED
+    //    Rol : Contenido correcto de cada tabla calculado con GROUP BY
+    //          (tabla de resumen, columnas, SELECT). Base de rebuild() y
+    //          check().
+    // ------------------------------------------------------------------
+    static final String[][] EXPECTED = {
+            { T_MES, R_MES + ", " + R_ORDENES + ", " + R_TOTAL,
+                    "SELECT " + mes(O) + ", COUNT(*), SUM(" + centavos(O) + ") FROM " + O +
+                    " GROUP BY 1" },
+            { T_VEHICULO, R_PATENTE + ", " + R_ORDENES + ", " + R_TOTAL,
+                    "SELECT " + patente(O) + ", COUNT(*), SUM(" + centavos(O) + ") FROM " + O +
+                    " GROUP BY 1" },
+            { T_CLIENTE, R_RUN + ", " + R_ORDENES + ", " + R_TOTAL,
+                    "SELECT v." + TallerDbHelper.V_RUN_DUENO + ", COUNT(*), SUM(" + centavos(O) + ") FROM " +
+                    O + " JOIN " + V + " v ON v." + TallerDbHelper.V_PATENTE + " = " + O + "." +
+                    TallerDbHelper.O_PATENTE + " WHERE v." + TallerDbHelper.V_RUN_DUENO +
+                    " IS NOT NULL GROUP BY 1" },
+            { T_TIPO, R_TIPO + ", " + R_PERSONAS,
+                    "SELECT " + TallerDbHelper.C_TIPO + ", COUNT(*) FROM " + P + " GROUP BY 1" },
+    };
+
+    private SummaryTables() { }
+
+    // ------------------------------------------------------------------
+    // == Método: create
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión de escritura con las tablas
+    //        base ya creadas.
+    //    Descripción:
+    //      - Crea (si no existen) las tablas de resumen y sus triggers, y
+    //        las llena desde los datos existentes.
+    //    Retorno:
+    //      - void.
+    // ------------------------------------------------------------------
+    static void create(SQLiteDatabase db) {
+        for (String sql : TABLES) db.execSQL(sql);
+        for (String sql : TRIGGERS) db.execSQL(sql);
+        rebuild(db);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: rebuild
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión de escritura.
+    //    Descripción:
+    //      - Vacía y recalcula las cuatro tablas en una transacción (un
+    //        GROUP BY por tabla). Para bases cargadas sin triggers o
+    //        cuando check() encuentra diferencias.
+    //    Retorno:
+    //      - void.
+    // ------------------------------------------------------------------
+    public static void rebuild(SQLiteDatabase db) {
+        db.beginTransaction();
+        try {
+            for (String[] e : EXPECTED) {
+                db.execSQL("DELETE FROM " + e[0]);
+                db.execSQL("INSERT INTO " + e[0] + " (" + e[1] + ") " + e[2]);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: check
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión de lectura.
+    //    Descripción:
+    //      - Compara cada tabla de resumen con su GROUP BY (EXCEPT en los
+    //        dos sentidos). Recorre las tablas base completas: es una
+    //        verificación de mantenimiento, no de uso diario.
+    //    Retorno:
+    //      - List<String>: una línea por fila distinta ("tabla: faltante
+    //        [clave, ...]" o "tabla: sobrante [...]"); vacía si todo
+    //        cuadra.
+    // ------------------------------------------------------------------
+    public static List<String> check(SQLiteDatabase db) {
+        List<String> out = new ArrayList<>();
+        for (String[] e : EXPECTED) {
+            String actual = "SELECT " + e[1] + " FROM " + e[0];
+            diff(db, e[0] + ": faltante ", e[2] + " EXCEPT " + actual, out);
+            diff(db, e[0] + ": sobrante ", actual + " EXCEPT " + e[2], out);
+        }
+        return out;
+    }
+
+    // ============================ APOYO ================================
+
+    private static void diff(SQLiteDatabase db, String label, String sql, List<String> out) {
+        try (Cursor c = db.rawQuery(sql, null)) {
+            while (c.moveToNext()) {
+                StringBuilder row = new StringBuilder(label).append('[');
+                for (int i = 0; i < c.getColumnCount(); i++) {
+                    if (i > 0) row.append(", ");
+                    row.append(c.getString(i));
+                }
+                out.add(row.append(']').toString());
+            }
+        }
+    }
+
+    private static String trigger(String name, String when, String condition, String... body) {
+        StringBuilder sb = new StringBuilder("CREATE TRIGGER IF NOT EXISTS ")
+                .append(name).append(' ').append(when);
+        if (condition != null) sb.append(" WHEN ").append(condition);
+        sb.append(" BEGIN ");
+        for (String s : body) sb.append(s);
+        return sb.append("END").toString();
+    }
+
+    // Suma (ordenes, centavos) a la fila "key" de la tabla, creándola.
+    private static String sumar(String table, String keyCol, String key, String ordenes, String centavos) {
+        return "INSERT OR IGNORE INTO " + table + " VALUES (" + key + ", 0, 0); " +
+                update(table, keyCol, key, "+", ordenes, centavos);
+    }
+
+    // Igual que sumar, sin crear fila para un dueño NULL (INTEGER PRIMARY
+    // KEY con NULL asignaría un rowid nuevo) ni dejarla en cero (un
+    // vehículo sin OTs que cambia de dueño).
+    private static String sumarCliente(String run, String ordenes, String centavos) {
+        return "INSERT OR IGNORE INTO " + T_CLIENTE + " SELECT " + run + ", 0, 0 WHERE " + run +
+                " IS NOT NULL; " + update(T_CLIENTE, R_RUN, run, "+", ordenes, centavos) +
+                "DELETE FROM " + T_CLIENTE + " WHERE " + R_RUN + " = " + run + " AND " + R_ORDENES + " = 0; ";
+    }
+
+    private static String restar(String table, String keyCol, String key, String ordenes, String centavos) {
+        return update(table, keyCol, key, "-", ordenes, centavos) +
+                "DELETE FROM " + table + " WHERE " + keyCol + " = " + key + " AND " + R_ORDENES + " = 0; ";
+    }
+
+    private static String update(String table, String keyCol, String key, String op, String ordenes,
+                                 String centavos) {
+        return "UPDATE " + table + " SET " + R_ORDENES + " = " + R_ORDENES + " " + op + " " + ordenes +
+                ", " + R_TOTAL + " = " + R_TOTAL + " " + op + " " + centavos +
+                " WHERE " + keyCol + " = " + key + "; ";
+    }
+
+    private static String sumarTipo(String row) {
+        String key = row + "." + TallerDbHelper.C_TIPO;
+        return "INSERT OR IGNORE INTO " + T_TIPO + " VALUES (" + key + ", 0); " +
+                "UPDATE " + T_TIPO + " SET " + R_PERSONAS + " = " + R_PERSONAS + " + 1 WHERE " +
+                R_TIPO + " = " + key + "; ";
+    }
+
+    private static String restarTipo(String row) {
+        String key = row + "." + TallerDbHelper.C_TIPO;
+        return "UPDATE " + T_TIPO + " SET " + R_PERSONAS + " = " + R_PERSONAS + " - 1 WHERE " +
+                R_TIPO + " = " + key + "; " +
+                "DELETE FROM " + T_TIPO + " WHERE " + R_TIPO + " = " + key + " AND " + R_PERSONAS + " = 0; ";
+    }
+
+    // Mes 'aaaa-mm' de la fecha de la OT ('' si no es una fecha).
+    private static String mes(String row) {
+        return "IFNULL(strftime('%Y-%m', " + row + "." + TallerDbHelper.O_FECHA + "), '')";
+    }
+
+    private static String patente(String row) {
+        return "IFNULL(" + row + "." + TallerDbHelper.O_PATENTE + ", '')";
+    }
+
+    private static String centavos(String row) {
+        return "CAST(ROUND((IFNULL(" + row + "." + TallerDbHelper.O_VALOR_NETO + ", 0) + IFNULL(" +
+                row + "." + TallerDbHelper.O_IVA + ", 0)) * 100) AS INTEGER)";
+    }
+
+    private static String sumaCentavos() {
+        return "IFNULL(SUM(" + centavos(O) + "), 0)";
+    }
+
+    // Dueño actual del vehículo de una patente (NULL si no hay).
+    private static String dueno(String patente) {
+        return "(SELECT " + TallerDbHelper.V_RUN_DUENO + " FROM " + V + " WHERE " +
+                TallerDbHelper.V_PATENTE + " = " + patente + ")";
+    }
+
+    // Agregado sobre las OTs de las patentes dadas.
+    private static String ordenesDe(String aggregate, String patentes) {
+        return "(SELECT " + aggregate + " FROM " + O + " WHERE " + O + "." + TallerDbHelper.O_PATENTE +
+                " IN (" + patentes + "))";
+    }
+}
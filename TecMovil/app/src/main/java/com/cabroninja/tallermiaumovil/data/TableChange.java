@@ -0,0 +1,93 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// ======================================================================
+// == Clase: TableChange
+// == Rol dentro de la app:
+//    - Evento inmutable que ChangeBus publica tras cada escritura
+//      confirmada en persona, vehiculo u orden_trabajo.
+//    - Indica la tabla, la operación y las claves primarias afectadas
+//      (run, patente o id como texto) para que cada pantalla decida si
+//      le basta con quitar filas o debe volver a consultar.
+// == Claves desconocidas:
+//    - keys vacía significa "filas no identificadas": efectos de una
+//      cascada (ON DELETE SET NULL / CASCADE) o lotes de más de MAX_KEYS
+//      filas. Quien escucha debe tratarlo como "cualquier fila".
+// ======================================================================
+public final class TableChange {
+
+    // ------------------------------------------------------------------
+    // == Enum: Op
+    //    Rol: Tipo de escritura que originó el evento.
+    // ------------------------------------------------------------------
+    public enum Op { INSERT, UPDATE, DELETE }
+
+    // Lotes más grandes se publican sin claves (evita listas enormes).
+    static final int MAX_KEYS = 256;
+
+    public final String table;
+    public final Op op;
+    public final List<String> keys;
+
+    TableChange(String table, Op op, List<String> keys) {
+        this.table = table;
+        this.op = op;
+        this.keys = keys;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: of
+    //    Parámetros:
+    //      - table (String): tabla afectada (TallerDbHelper.T_*).
+    //      - op (Op): operación.
+    //      - key (Object): clave primaria de la única fila afectada.
+    //    Retorno:
+    //      - TableChange: evento de una fila.
+    // ------------------------------------------------------------------
+    static TableChange of(String table, Op op, Object key) {
+        return new TableChange(table, op, Collections.singletonList(String.valueOf(key)));
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: ofAll
+    //    Parámetros:
+    //      - table, op: como en of().
+    //      - keys (Collection<?>): claves afectadas; si superan MAX_KEYS
+    //        se descartan y el evento queda "sin claves".
+    //    Retorno:
+    //      - TableChange: evento de varias filas.
+    // ------------------------------------------------------------------
+    static TableChange ofAll(String table, Op op, Collection<?> keys) {
+        if (keys.size() > MAX_KEYS) return unknown(table, op);
+        List<String> out = new ArrayList<>(keys.size());
+        for (Object k : keys) out.add(String.valueOf(k));
+        return new TableChange(table, op, Collections.unmodifiableList(out));
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: unknown
+    //    Retorno:
+    //      - TableChange: evento sin claves (ver "Claves desconocidas").
+    // ------------------------------------------------------------------
+    static TableChange unknown(String table, Op op) {
+        return new TableChange(table, op, Collections.<String>emptyList());
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: keysKnown
+    //    Retorno:
+    //      - boolean: true si keys enumera TODAS las filas afectadas.
+    // ------------------------------------------------------------------
+    public boolean keysKnown() {
+        return !keys.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return op + " " + table + (keysKnown() ? " " + keys : " (filas no identificadas)");
+    }
+}
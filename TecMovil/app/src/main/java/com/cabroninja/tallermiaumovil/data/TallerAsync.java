@@ -0,0 +1,327 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// ======================================================================
+// == Clase: TallerAsync
+// == Rol dentro de la app:
+//    - Fachada asíncrona sobre PersonaRepository, VehiculoRepository y
+//      OrdenRepository para usar desde las Activities.
+//    - Ejecuta cada operación en DbExecutor (nunca en el hilo principal)
+//      y entrega el resultado o el error en el hilo principal.
+//    - Está ligada al ciclo de vida de su dueño (Activity): al destruirse
+//      cancela las lecturas en vuelo (las que aún esperan en cola no
+//      llegan a ejecutarse; la consulta SQLite que ya corre se corta con
+//      su CancellationSignal, ver QuerySignal) y descarta cualquier
+//      resultado pendiente, así nunca se toca una vista ya destruida.
+//    - Agrupa pedidos duplicados: dos lecturas con la misma clave
+//      mientras la primera sigue en vuelo comparten una sola consulta
+//      (p. ej. onResume repetido o varios eventos de scroll seguidos).
+//    - Reenvía al hilo principal los avisos de ChangeBus (observe) para
+//      que cada pantalla recargue solo cuando sus tablas cambian.
+//    - Un resultado Closeable (Cursor) que llega tarde, sin nadie que lo
+//      reciba, se cierra aquí; si se entrega, lo cierra quien lo recibe.
+// == Uso:
+//      TallerAsync async = TallerAsync.bind(this);
+//      async.load("clientes", () -> async.personas.listByTipo("cliente"),
+//                 adapter::submit);
+// == Hilos:
+//    - Todos los métodos públicos se llaman desde el hilo principal; el
+//      registro de tareas en vuelo solo se toca en ese hilo.
+// ======================================================================
+public final class TallerAsync implements DefaultLifecycleObserver {
+
+    private static final String TAG = "TallerAsync";
+
+    // ------------------------------------------------------------------
+    // == Interface: Callback
+    //    Rol: Recibe en el hilo principal el resultado de una operación.
+    //      - onResult: valor devuelto por la tarea.
+    //      - onError : excepción de la tarea (por defecto, solo log).
+    // ------------------------------------------------------------------
+    public interface Callback<T> {
+        void onResult(T value);
+
+        default void onError(Throwable error) {
+            Log.e(TAG, "Operación de base de datos fallida", error);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Atributos: repositorios
+    //    Rol : Repositorios sobre la conexión compartida. Se usan DENTRO
+    //          de las lambdas que se pasan a load()/write().
+    // ------------------------------------------------------------------
+    public final PersonaRepository personas;
+    public final VehiculoRepository vehiculos;
+    public final OrdenRepository ordenes;
+
+    // ------------------------------------------------------------------
+    // == Atributo: stats
+    //    Rol : Contadores del panel en caché (ver DashboardStats.peek).
+    // ------------------------------------------------------------------
+    public final DashboardStats stats;
+
+    // ------------------------------------------------------------------
+    // == Atributo: inFlight
+    //    Tipo: Map<String, Pending<?>>
+    //    Rol : Lecturas en vuelo por clave (solo hilo principal).
+    // ------------------------------------------------------------------
+    private final Map<String, Pending<?>> inFlight = new HashMap<>();
+
+    // Escrituras en vuelo (sin clave; no se agrupan).
+    private final List<Pending<?>> writes = new ArrayList<>();
+
+    // Oyentes registrados en ChangeBus por observe() (se retiran en onDestroy).
+    private final List<ChangeBus.Listener> observers = new ArrayList<>();
+    private final ChangeBus changes;
+    private final Context app;
+
+    // ------------------------------------------------------------------
+    // == Atributo: READS
+    //    Rol : Lecturas enviadas al pool por load() en todo el proceso
+    //          (las agrupadas no cuentan). Diagnóstico y tests.
+    // ------------------------------------------------------------------
+    private static final AtomicInteger READS = new AtomicInteger();
+
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private boolean destroyed;
+
+    // ------------------------------------------------------------------
+    // == Clase interna: Pending
+    //    Rol : Una tarea enviada al pool y los callbacks que esperan su
+    //          resultado (más de uno si se agruparon pedidos).
+    // ------------------------------------------------------------------
+    private static final class Pending<T> {
+        final String key;
+        final List<Callback<T>> callbacks = new ArrayList<>(1);
+        Future<?> future;
+
+        // Solo lecturas (key != null): corta su consulta en curso.
+        final CancellationSignal signal;
+
+        Pending(String key) {
+            this.key = key;
+            this.signal = key != null ? new CancellationSignal() : null;
+        }
+    }
+
+    private TallerAsync(Context ctx) {
+        TallerDatabase database = TallerDatabase.getInstance(ctx);
+        personas = new PersonaRepository(database);
+        vehiculos = new VehiculoRepository(database);
+        ordenes = new OrdenRepository(database);
+        stats = database.getStats();
+        changes = database.getChangeBus();
+        app = ctx.getApplicationContext();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: bind
+    //    Parámetros:
+    //      - activity (T extends Context & LifecycleOwner): pantalla dueña.
+    //    Descripción:
+    //      - Crea la fachada y la registra como observadora del ciclo de
+    //        vida de la Activity (ver onDestroy).
+    //    Retorno:
+    //      - TallerAsync: fachada lista para usar.
+    // ------------------------------------------------------------------
+    @MainThread
+    public static <T extends Context & LifecycleOwner> TallerAsync bind(T activity) {
+        TallerAsync async = new TallerAsync(activity);
+        activity.getLifecycle().addObserver(async);
+        return async;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: load
+    //    Parámetros:
+    //      - key (String): identifica la consulta (incluyendo sus
+    //        parámetros). Pedidos con la misma clave mientras hay uno en
+    //        vuelo se agrupan y reciben el mismo resultado.
+    //      - task (Callable<T>): lectura a ejecutar en DbExecutor.
+    //      - callback (Callback<T>): receptor en el hilo principal.
+    // ------------------------------------------------------------------
+    @MainThread
+    public <T> void load(@NonNull String key, @NonNull Callable<T> task, @NonNull Callback<T> callback) {
+        if (destroyed) return;
+        @SuppressWarnings("unchecked")
+        Pending<T> existing = (Pending<T>) inFlight.get(key);
+        if (existing != null) {
+            existing.callbacks.add(callback);
+            return;
+        }
+        Pending<T> p = new Pending<>(key);
+        p.callbacks.add(callback);
+        inFlight.put(key, p);
+        READS.incrementAndGet();
+        submit(p, task);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: write
+    //    Parámetros:
+    //      - task (Callable<T>): escritura (insert/update/delete) a
+    //        ejecutar en DbExecutor. Nunca se agrupa con otra.
+    //      - callback (Callback<T>): receptor en el hilo principal.
+    // ------------------------------------------------------------------
+    @MainThread
+    public <T> void write(@NonNull Callable<T> task, @NonNull Callback<T> callback) {
+        if (destroyed) return;
+        Pending<T> p = new Pending<>(null);
+        p.callbacks.add(callback);
+        writes.add(p);
+        submit(p, task);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: observe
+    //    Parámetros:
+    //      - listener (ChangeBus.Listener): recibe cada TableChange en el
+    //        hilo principal, mientras la Activity no se destruya.
+    //      - tables (String...): tablas de interés (TallerDbHelper.T_*).
+    // ------------------------------------------------------------------
+    @MainThread
+    public void observe(@NonNull ChangeBus.Listener listener, String... tables) {
+        if (destroyed) return;
+        ChangeBus.Listener relay = change -> main.post(() -> {
+            if (!destroyed) listener.onChange(change);
+        });
+        observers.add(relay);
+        changes.subscribe(relay, tables);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: whenStarted
+    //    Parámetros:
+    //      - callback (Callback<Void>): recibe onResult(null) en el hilo
+    //        principal cuando StartupPipeline dejó la base abierta,
+    //        migrada y sembrada (o onError si falló). Se descarta si la
+    //        Activity se destruye antes.
+    // ------------------------------------------------------------------
+    @MainThread
+    public void whenStarted(@NonNull Callback<Void> callback) {
+        if (destroyed) return;
+        StartupPipeline.start(app).whenReady(new Callback<Void>() {
+            @Override
+            public void onResult(Void value) {
+                if (!destroyed) callback.onResult(value);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                if (!destroyed) callback.onError(error);
+            }
+        });
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getReadCount
+    //    Retorno:
+    //      - int: lecturas reales enviadas por load() desde que arrancó
+    //        el proceso (ver READS).
+    // ------------------------------------------------------------------
+    public static int getReadCount() {
+        return READS.get();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: isLoading
+    //    Parámetros:
+    //      - key (String): clave usada en load().
+    //    Retorno:
+    //      - boolean: true si hay una lectura con esa clave en vuelo.
+    // ------------------------------------------------------------------
+    @MainThread
+    public boolean isLoading(String key) {
+        return inFlight.containsKey(key);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: onDestroy (DefaultLifecycleObserver)
+    //    Descripción:
+    //      - Cancela las lecturas en vuelo: su CancellationSignal corta
+    //        la consulta que ya corre (rawQuery no atiende interrupciones)
+    //        y cancel(true) retira de la cola las que no empezaron.
+    //        Descarta todos los callbacks pendientes.
+    //      - Retira los oyentes registrados con observe().
+    //      - Las escrituras NO se cancelan: lo que el usuario guardó se
+    //        persiste aunque haya salido de la pantalla; solo deja de
+    //        avisarse a la UI.
+    // ------------------------------------------------------------------
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        destroyed = true;
+        owner.getLifecycle().removeObserver(this);
+        for (Pending<?> p : inFlight.values()) {
+            p.signal.cancel();
+            if (p.future != null) p.future.cancel(true);
+            p.callbacks.clear();
+        }
+        for (Pending<?> p : writes) p.callbacks.clear();
+        for (ChangeBus.Listener l : observers) changes.unsubscribe(l);
+        inFlight.clear();
+        writes.clear();
+        observers.clear();
+    }
+
+    // ============================ APOYO ================================
+
+    private <T> void submit(Pending<T> p, Callable<T> task) {
+        try {
+            p.future = DbExecutor.get().submit(() -> {
+                try {
+                    T value = p.signal != null ? QuerySignal.call(p.signal, task) : task.call();
+                    main.post(() -> deliver(p, value, null));
+                } catch (Throwable t) {
+                    main.post(() -> deliver(p, null, t));
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            deliver(p, null, ex);
+        }
+    }
+
+    // Hilo principal: retira la tarea del registro y avisa a sus callbacks.
+    // Un resultado que nadie recibe y es Closeable (un Cursor) se cierra.
+    private <T> void deliver(Pending<T> p, T value, Throwable error) {
+        boolean vigente = !destroyed && (p.key != null ? inFlight.get(p.key) == p : writes.contains(p));
+        if (!vigente) {
+            closeQuietly(value);
+            return;
+        }
+        if (p.key != null) inFlight.remove(p.key); else writes.remove(p);
+        for (Callback<T> cb : p.callbacks) {
+            if (error == null) cb.onResult(value); else cb.onError(error);
+        }
+    }
+
+    private static void closeQuietly(Object value) {
+        if (!(value instanceof Closeable)) return;
+        try {
+            ((Closeable) value).close();
+        } catch (IOException | RuntimeException ex) {
+            Log.w(TAG, "No se pudo cerrar un resultado descartado", ex);
+        }
+    }
+}
@@ -0,0 +1,503 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// ======================================================================
+// == Clase: TallerBackup
+// == Rol dentro de la app:
+//    - Respaldo binario de persona, vehiculo y orden_trabajo, y su
+//      restauración. Reemplaza copiar taller_miau3.db con la app abierta
+//      (inseguro con WAL y escrituras en curso) y restaurar re-ejecutando
+//      inserts fila a fila desde la app.
+// == Formato (big-endian, versión FORMAT_VERSION):
+//        int  MAGIC ("TMBK")      int  FORMAT_VERSION
+//        int  DB_VERSION          long creado (epoch ms)
+//        int  tablas
+//        por tabla:
+//          str nombre   int columnas   por columna: str nombre, byte tipo
+//          long filas
+//          bloques: int n (1..BLOCK) y luego, columna por columna:
+//            mapa de NULL (n bits), y
+//              INTEGER/REAL: n × 8 bytes
+//              TEXT        : n × int largo + los bytes UTF-8 seguidos
+//          int 0 (fin de la tabla)
+//        int  CRC32 de todo lo anterior
+//    (str = short largo + bytes UTF-8). Columnar por bloques: cada
+//    columna de un bloque queda contigua y de ancho fijo (salvo el
+//    texto), y escribir no necesita más memoria que un bloque.
+// == Respaldo:
+//    - Lee las tres tablas en una transacción de solo lectura (diferida)
+//      sobre una conexión propia de solo lectura: el archivo es una foto
+//      consistente y, con WAL, la app sigue escribiendo mientras tanto
+//      (con journal de rollback sus commits esperan al fin de la
+//      lectura). Páginas por rowid como DataExporter. Se escribe a .tmp
+//      y se renombra al final.
+//    - Incluye los hashes de contraseña (restaurar debe conservar los
+//      accesos): el archivo debe quedar en almacenamiento privado.
+// == Restauración:
+//    - Mapea el archivo (FileChannel.map) y verifica magia, versión y
+//      CRC antes de tocar la base; tablas y columnas se validan al leer
+//      cada tabla, dentro de la transacción.
+//    - En UNA transacción: quita los triggers de las tres tablas (los
+//      de SummaryTables y SearchIndex), las vacía, inserta todo con
+//      sentencias compiladas (como BulkWriter), recalcula resúmenes e
+//      índice FTS de una pasada y vuelve a crear los mismos triggers.
+//      Si algo falla no cambia nada.
+//    - Al confirmar invalida DashboardStats/OrdenColumns y publica un
+//      aviso sin claves por tabla en ChangeBus.
+//    - Acepta respaldos de esta versión del esquema o anteriores, si
+//      sus columnas existen hoy (las que falten toman su DEFAULT).
+// == Hilos:
+//    - backup()/restore() leen y escriben archivo y DB: llamarlos desde
+//      DbExecutor/TallerAsync.
+// ======================================================================
+public final class TallerBackup {
+
+    static final int MAGIC = 0x544D424B;   // "TMBK"
+    static final int FORMAT_VERSION = 1;
+
+    // Filas por bloque (y por página de lectura).
+    static final int BLOCK = 10_000;
+
+    private static final byte T_INTEGER = 1;
+    private static final byte T_REAL = 2;
+    private static final byte T_TEXT = 3;
+
+    private static final int BUFFER = 64 * 1024;
+
+    // ------------------------------------------------------------------
+    // == Clase interna: Result
+    //    Rol : Filas por tabla (en orden de respaldo) y tamaño del archivo.
+    // ------------------------------------------------------------------
+    public static final class Result {
+        public final Map<String, Long> rows;
+        public final long fileBytes;
+
+        Result(Map<String, Long> rows, long fileBytes) {
+            this.rows = Collections.unmodifiableMap(rows);
+            this.fileBytes = fileBytes;
+        }
+    }
+
+    // Una tabla del respaldo: columnas con su tipo, en orden.
+    private static final class Table {
+        final String name;
+        final String[] columns;
+        final byte[] types;
+
+        Table(String name, Object... pairs) {
+            this.name = name;
+            this.columns = new String[pairs.length / 2];
+            this.types = new byte[pairs.length / 2];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = (String) pairs[2 * i];
+                types[i] = (Byte) pairs[2 * i + 1];
+            }
+        }
+
+        String sqlPage() {
+            return "SELECT rowid, " + join(columns) + " FROM " + name +
+                    " WHERE rowid > ? ORDER BY rowid LIMIT " + BLOCK;
+        }
+    }
+
+    // Padres antes que hijos (las FK se validan al insertar).
+    private static final List<Table> TABLES = Collections.unmodifiableList(Arrays.asList(
+            new Table(TallerDbHelper.T_PERSONA,
+                    TallerDbHelper.C_RUN, T_INTEGER, TallerDbHelper.C_EMAIL, T_TEXT,
+                    TallerDbHelper.C_NOMBRE, T_TEXT, TallerDbHelper.C_APELLIDO, T_TEXT,
+                    TallerDbHelper.C_PASSWORD, T_TEXT, TallerDbHelper.C_TIPO, T_TEXT),
+            new Table(TallerDbHelper.T_VEHICULO,
+                    TallerDbHelper.V_PATENTE, T_TEXT, TallerDbHelper.V_COLOR, T_TEXT,
+                    TallerDbHelper.V_MODELO, T_TEXT, TallerDbHelper.V_RUN_DUENO, T_INTEGER),
+            new Table(TallerDbHelper.T_ORDEN,
+                    TallerDbHelper.O_ID, T_INTEGER, TallerDbHelper.O_NUMERO, T_TEXT,
+                    TallerDbHelper.O_FECHA, T_TEXT, TallerDbHelper.O_VALOR_NETO, T_REAL,
+                    TallerDbHelper.O_IVA, T_REAL, TallerDbHelper.O_OBSERVACION, T_TEXT,
+                    TallerDbHelper.O_PATENTE, T_TEXT)));
+
+    private final TallerDatabase database;
+
+    // ------------------------------------------------------------------
+    // == Constructor: TallerBackup
+    //    Parámetros:
+    //      - database (TallerDatabase): base de datos a respaldar o
+    //        restaurar.
+    // ------------------------------------------------------------------
+    public TallerBackup(TallerDatabase database) {
+        this.database = database;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: backup
+    //    Parámetros:
+    //      - file (File): archivo de destino (se reemplaza al terminar).
+    //    Retorno:
+    //      - Result: filas por tabla y bytes escritos.
+    //    Descripción:
+    //      - La transacción se abre con SAVEPOINT y no con
+    //        beginTransaction*: esas son BEGIN IMMEDIATE/EXCLUSIVE (toman
+    //        el candado de escritura) y SQLiteSession convierte también un
+    //        "BEGIN" escrito a mano en EXCLUSIVE. Fuera de una
+    //        transacción, SAVEPOINT equivale a BEGIN DEFERRED: la foto se
+    //        fija en la primera lectura. Requiere que todas las lecturas
+    //        vayan por la misma conexión: de ahí el SQLiteDatabase propio
+    //        (una sola conexión, usada solo por este hilo).
+    //    Errores:
+    //      - IOException si no se puede escribir (el .tmp se borra).
+    // ------------------------------------------------------------------
+    @WorkerThread
+    public Result backup(@NonNull File file) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        Map<String, Long> rows = new LinkedHashMap<>();
+        String path = database.getWritableDatabase().getPath();   // abre/migra si hace falta
+        SQLiteDatabase db = SQLiteDatabase.openDatabase(path, null,
+                SQLiteDatabase.OPEN_READONLY | SQLiteDatabase.NO_LOCALIZED_COLLATORS);
+        boolean ok = false;
+        try (FileOutputStream fos = new FileOutputStream(tmp)) {
+            db.execSQL("SAVEPOINT respaldo");
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new CheckedOutputStream(fos, crc), BUFFER));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(TallerDbHelper.DB_VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(TABLES.size());
+            for (Table t : TABLES) rows.put(t.name, writeTable(db, t, out));
+            db.execSQL("RELEASE respaldo");
+            out.flush();
+            new DataOutputStream(fos).writeInt((int) crc.getValue());
+            fos.getFD().sync();
+            ok = true;
+        } finally {
+            db.close();   // si falló a medias, cerrar revierte el SAVEPOINT
+            if (!ok) tmp.delete();
+        }
+        if ((file.exists() && !file.delete()) || !tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("No se pudo reemplazar " + file);
+        }
+        return new Result(rows, file.length());
+    }
+
+    private static long writeTable(SQLiteDatabase db, Table t, DataOutputStream out) throws IOException {
+        int cols = t.columns.length;
+        writeString(out, t.name);
+        out.writeInt(cols);
+        for (int j = 0; j < cols; j++) {
+            writeString(out, t.columns[j]);
+            out.writeByte(t.types[j]);
+        }
+        long total;
+        try (Cursor c = db.rawQuery("SELECT COUNT(*) FROM " + t.name, null)) {
+            total = c.moveToFirst() ? c.getLong(0) : 0;
+        }
+        out.writeLong(total);
+
+        // Un bloque en columnas: números en long/double, texto en bytes.
+        long[][] longs = new long[cols][];
+        byte[][][] texts = new byte[cols][][];
+        byte[][] nulls = new byte[cols][(BLOCK + 7) / 8];
+        for (int j = 0; j < cols; j++) {
+            if (t.types[j] == T_TEXT) texts[j] = new byte[BLOCK][];
+            else longs[j] = new long[BLOCK];
+        }
+
+        // Cada columna del bloque se arma aquí y se escribe de una vez.
+        ByteBuffer chunk = ByteBuffer.allocate(8 * BLOCK);
+        String sql = t.sqlPage();
+        String[] args = { Long.toString(Long.MIN_VALUE) };
+        long written = 0;
+        while (true) {
+            int n = 0;
+            long last = 0;
+            for (byte[] bits : nulls) Arrays.fill(bits, (byte) 0);
+            try (Cursor c = db.rawQuery(sql, args)) {
+                while (c.moveToNext()) {
+                    for (int j = 0; j < cols; j++) {
+                        int ci = j + 1;
+                        if (c.isNull(ci)) {
+                            nulls[j][n >> 3] |= (byte) (1 << (n & 7));
+                            if (texts[j] != null) texts[j][n] = null;
+                        } else if (t.types[j] == T_INTEGER) {
+                            longs[j][n] = c.getLong(ci);
+                        } else if (t.types[j] == T_REAL) {
+                            longs[j][n] = Double.doubleToRawLongBits(c.getDouble(ci));
+                        } else {
+                            texts[j][n] = c.getString(ci).getBytes(StandardCharsets.UTF_8);
+                        }
+                    }
+                    last = c.getLong(0);
+                    n++;
+                }
+            }
+            if (n == 0) break;
+            out.writeInt(n);
+            for (int j = 0; j < cols; j++) {
+                out.write(nulls[j], 0, (n + 7) / 8);
+                chunk.clear();
+                if (texts[j] == null) {
+                    for (int i = 0; i < n; i++) chunk.putLong(longs[j][i]);
+                    out.write(chunk.array(), 0, chunk.position());
+                } else {
+                    for (int i = 0; i < n; i++) chunk.putInt(texts[j][i] == null ? 0 : texts[j][i].length);
+                    out.write(chunk.array(), 0, chunk.position());
+                    for (int i = 0; i < n; i++) if (texts[j][i] != null) out.write(texts[j][i]);
+                }
+            }
+            written += n;
+            args[0] = Long.toString(last);
+            if (n < BLOCK) break;
+        }
+        out.writeInt(0);
+        if (written != total) throw new IOException(t.name + ": " + written + " filas, se esperaban " + total);
+        return written;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: restore
+    //    Parámetros:
+    //      - file (File): respaldo hecho con backup().
+    //    Descripción:
+    //      - Reemplaza el contenido de las tres tablas por el del
+    //        respaldo (ver "Restauración" arriba).
+    //    Retorno:
+    //      - Result: filas restauradas por tabla.
+    //    Errores:
+    //      - IOException si el archivo no es un respaldo válido (magia,
+    //        versión, CRC, columnas) o si SQLite rechaza los datos
+    //        (restricciones, disco lleno); la base queda como estaba.
+    // ------------------------------------------------------------------
+    @WorkerThread
+    public Result restore(@NonNull File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel ch = raf.getChannel()) {
+            long size = ch.size();
+            if (size < 28 || size > Integer.MAX_VALUE) throw new IOException("No es un respaldo: " + file);
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            verify(buf);
+            try {
+                return restore(buf);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+                throw new IOException("Respaldo dañado: " + file, ex);
+            } catch (SQLException ex) {
+                // La transacción ya se revirtió.
+                throw new IOException("No se pudo restaurar " + file + ": " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    // Magia, versiones y CRC32 (leído por trozos del mapa).
+    private static void verify(ByteBuffer buf) throws IOException {
+        int end = buf.capacity() - 4;
+        if (buf.getInt(0) != MAGIC) throw new IOException("No es un respaldo de TallerMiau");
+        int format = buf.getInt(4);
+        if (format != FORMAT_VERSION) throw new IOException("Formato de respaldo no soportado: " + format);
+        int dbVersion = buf.getInt(8);
+        if (dbVersion > TallerDbHelper.DB_VERSION) {
+            throw new IOException("Respaldo de una versión más nueva del esquema: " + dbVersion);
+        }
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[BUFFER];
+        ByteBuffer view = buf.duplicate();
+        view.position(0);
+        while (view.position() < end) {
+            int n = Math.min(chunk.length, end - view.position());
+            view.get(chunk, 0, n);
+            crc.update(chunk, 0, n);
+        }
+        if ((int) crc.getValue() != buf.getInt(end)) throw new IOException("CRC del respaldo no coincide");
+    }
+
+    private Result restore(ByteBuffer buf) throws IOException {
+        buf.position(20);   // MAGIC, formato, versión, fecha
+        int tables = buf.getInt();
+        SQLiteDatabase db = database.getWritableDatabase();
+        Map<String, Long> rows = new LinkedHashMap<>();
+
+        db.beginTransaction();
+        try {
+            List<String> triggers = dropTriggers(db);
+            for (int i = TABLES.size() - 1; i >= 0; i--) db.execSQL("DELETE FROM " + TABLES.get(i).name);
+            for (int k = 0; k < tables; k++) {
+                String name = readString(buf);
+                rows.put(name, readTable(db, name, buf));
+            }
+            SummaryTables.rebuild(db);
+            SearchIndex.rebuild(db);
+            for (String sql : triggers) db.execSQL(sql);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        database.getStats().invalidate();
+        database.getOrdenColumns().invalidate();
+        for (Table t : TABLES) {
+            database.getChangeBus().publish(TableChange.unknown(t.name, TableChange.Op.INSERT));
+        }
+        return new Result(rows, buf.capacity());
+    }
+
+    // Quita los triggers de las tres tablas y devuelve su SQL para
+    // volver a crearlos tal cual.
+    private static List<String> dropTriggers(SQLiteDatabase db) {
+        List<String> sqls = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        String[] args = new String[TABLES.size()];
+        for (int i = 0; i < args.length; i++) args[i] = TABLES.get(i).name;
+        try (Cursor c = db.rawQuery("SELECT name, sql FROM sqlite_master WHERE type = 'trigger'" +
+                " AND tbl_name IN (?,?,?)", args)) {
+            while (c.moveToNext()) {
+                names.add(c.getString(0));
+                sqls.add(c.getString(1));
+            }
+        }
+        for (String name : names) db.execSQL("DROP TRIGGER \"" + name + "\"");
+        return sqls;
+    }
+
+    private static long readTable(SQLiteDatabase db, String name, ByteBuffer buf) throws IOException {
+        if (!isKnown(name)) throw new IOException("Tabla desconocida en el respaldo: " + name);
+        Set<String> current = columnsOf(db, name);
+        int cols = buf.getInt();
+        String[] columns = new String[cols];
+        byte[] types = new byte[cols];
+        for (int j = 0; j < cols; j++) {
+            columns[j] = readString(buf);
+            types[j] = buf.get();
+            if (!current.contains(columns[j])) throw new IOException("Columna desconocida: " + name + "." + columns[j]);
+            if (types[j] < T_INTEGER || types[j] > T_TEXT) throw new IOException("Tipo desconocido en " + columns[j]);
+        }
+        long total = buf.getLong();
+
+        StringBuilder marks = new StringBuilder();
+        for (int j = 0; j < cols; j++) marks.append(j == 0 ? "?" : ",?");
+        long restored = 0;
+        ByteBuffer text = buf.duplicate();
+        byte[] scratch = new byte[256];
+        int[] base = new int[cols];
+        int[] lenPos = new int[cols];
+        int[] dataPos = new int[cols];
+        try (SQLiteStatement st = db.compileStatement(
+                "INSERT INTO " + name + " (" + join(columns) + ") VALUES (" + marks + ")")) {
+            for (int n; (n = buf.getInt()) > 0; ) {
+                if (n > BLOCK) throw new IOException("Bloque inválido en " + name + ": " + n);
+                // Posición de cada columna del bloque.
+                int p = buf.position();
+                for (int j = 0; j < cols; j++) {
+                    base[j] = p;
+                    p += (n + 7) / 8;
+                    if (types[j] == T_TEXT) {
+                        lenPos[j] = p;
+                        long bytes = 0;
+                        for (int i = 0; i < n; i++) {
+                            int len = buf.getInt(p + 4 * i);
+                            if (len < 0) throw new IOException("Largo inválido en " + columns[j]);
+                            bytes += len;
+                        }
+                        p += 4 * n;
+                        dataPos[j] = p;
+                        if (p + bytes > buf.limit()) throw new IOException("Bloque truncado en " + name);
+                        p += (int) bytes;
+                    } else {
+                        dataPos[j] = p;
+                        p += 8 * n;
+                    }
+                }
+                buf.position(p);
+
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j < cols; j++) {
+                        boolean isNull = (buf.get(base[j] + (i >> 3)) & (1 << (i & 7))) != 0;
+                        int len = types[j] == T_TEXT ? buf.getInt(lenPos[j] + 4 * i) : 0;
+                        if (isNull) {
+                            st.bindNull(j + 1);
+                        } else if (types[j] == T_INTEGER) {
+                            st.bindLong(j + 1, buf.getLong(dataPos[j] + 8 * i));
+                        } else if (types[j] == T_REAL) {
+                            st.bindDouble(j + 1, buf.getDouble(dataPos[j] + 8 * i));
+                        } else {
+                            if (len > scratch.length) scratch = new byte[Math.max(len, 2 * scratch.length)];
+                            text.position(dataPos[j]);
+                            text.get(scratch, 0, len);
+                            st.bindString(j + 1, new String(scratch, 0, len, StandardCharsets.UTF_8));
+                        }
+                        if (types[j] == T_TEXT) dataPos[j] += len;
+                    }
+                    st.executeInsert();
+                }
+                restored += n;
+            }
+        }
+        if (restored != total) throw new IOException(name + ": " + restored + " filas, se esperaban " + total);
+        return restored;
+    }
+
+    private static boolean isKnown(String name) {
+        for (Table t : TABLES) if (t.name.equals(name)) return true;
+        return false;
+    }
+
+    private static Set<String> columnsOf(SQLiteDatabase db, String table) {
+        Set<String> out = new HashSet<>();
+        try (Cursor c = db.rawQuery("PRAGMA table_info(\"" + table.replace("\"", "\"\"") + "\")", null)) {
+            int idx = c.getColumnIndexOrThrow("name");
+            while (c.moveToNext()) out.add(c.getString(idx));
+        }
+        return out;
+    }
+
+    // ============================ APOYO ================================
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(b.length);
+        out.write(b);
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int len = buf.getShort() & 0xFFFF;
+        byte[] b = new byte[len];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static String join(String[] columns) {
+        StringBuilder sb = new StringBuilder();
+        for (String c : columns) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,274 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.WorkerThread;
+
+// ======================================================================
+// == Clase: TallerDatabase
+// == Rol dentro de la app:
+//    - Gestor de conexión único (a nivel de proceso) para la base SQLite.
+//    - Es dueño del ÚNICO TallerDbHelper de la app y entrega la misma
+//      conexión abierta a todos los repositorios (PersonaRepository,
+//      VehiculoRepository, OrdenRepository, DbSeeder).
+//    - Nunca cierra la conexión en el camino "caliente" (inserts,
+//      listados, conteos): SQLite conserva su caché de páginas y las
+//      sentencias compiladas entre pantallas.
+// == Ciclo de vida:
+//    - Se crea perezosamente en la primera llamada a getInstance(ctx)
+//      usando el ApplicationContext (no retiene Activities).
+//    - La conexión vive lo mismo que el proceso; Android la libera al
+//      terminar la app. close() existe solo para tests/benchmarks.
+// ======================================================================
+public final class TallerDatabase {
+
+    // ------------------------------------------------------------------
+    // == Atributo: instance
+    //    Tipo: TallerDatabase (volatile, singleton del proceso)
+    //    Rol : Instancia compartida; se inicializa con doble verificación.
+    // ------------------------------------------------------------------
+    private static volatile TallerDatabase instance;
+
+    // ------------------------------------------------------------------
+    // == Atributo: helper
+    //    Tipo: TallerDbHelper
+    //    Rol : Único SQLiteOpenHelper del proceso. SQLiteOpenHelper ya
+    //          cachea la SQLiteDatabase abierta, así que compartir el
+    //          helper equivale a compartir la conexión.
+    // ------------------------------------------------------------------
+    private final TallerDbHelper helper;
+
+    // ------------------------------------------------------------------
+    // == Atributo: stats
+    //    Tipo: DashboardStats
+    //    Rol : Caché de contadores del panel para esta base de datos; los
+    //          repositorios la ajustan o invalidan en cada escritura.
+    // ------------------------------------------------------------------
+    private final DashboardStats stats;
+
+    // ------------------------------------------------------------------
+    // == Atributo: changes
+    //    Tipo: ChangeBus
+    //    Rol : Avisos de cambios por tabla para esta base de datos; los
+    //          repositorios publican y las pantallas se suscriben.
+    // ------------------------------------------------------------------
+    private final ChangeBus changes;
+
+    // ------------------------------------------------------------------
+    // == Atributo: commits
+    //    Tipo: CommitQueue
+    //    Rol : Transacciones de runInTransaction; retiene los avisos de
+    //          "changes" y los ajustes de "stats" hasta el commit externo.
+    // ------------------------------------------------------------------
+    private final CommitQueue commits;
+
+    // ------------------------------------------------------------------
+    // == Atributo: ordenColumns
+    //    Tipo: OrdenColumns
+    //    Rol : Snapshot en columnas de orden_trabajo para los cálculos de
+    //          ingresos; se mantiene al día con los avisos de "changes".
+    // ------------------------------------------------------------------
+    private final OrdenColumns ordenColumns;
+
+    // ------------------------------------------------------------------
+    // == Atributo: passwords
+    //    Tipo: PasswordHasher
+    //    Rol : Derivación de contraseñas con el costo configurado
+    //          (PasswordHasher.DEFAULT_ITERATIONS) para PersonaRepository.
+    // ------------------------------------------------------------------
+    private final PasswordHasher passwords = new PasswordHasher(PasswordHasher.DEFAULT_ITERATIONS);
+
+    // ------------------------------------------------------------------
+    // == Constructor: TallerDatabase
+    //    Parámetros:
+    //      - helper (TallerDbHelper): helper que quedará como dueño de
+    //        la conexión.
+    //    Descripción:
+    //      - Privado: usar getInstance(ctx) (o forTesting en tests).
+    // ------------------------------------------------------------------
+    private TallerDatabase(TallerDbHelper helper) {
+        this.helper = helper;
+        this.commits = new CommitQueue(helper);
+        this.changes = new ChangeBus(commits);
+        this.stats = new DashboardStats(helper, commits);
+        this.ordenColumns = new OrdenColumns(helper, changes);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getInstance
+    //    Parámetros:
+    //      - ctx (Context): cualquier contexto; se usa su ApplicationContext.
+    //    Descripción:
+    //      - Devuelve el gestor compartido, creándolo la primera vez
+    //        (junto con el SlowQueryLog del proceso).
+    //    Retorno:
+    //      - TallerDatabase: instancia única del proceso.
+    // ------------------------------------------------------------------
+    public static TallerDatabase getInstance(Context ctx) {
+        TallerDatabase local = instance;
+        if (local == null) {
+            synchronized (TallerDatabase.class) {
+                local = instance;
+                if (local == null) {
+                    local = new TallerDatabase(new TallerDbHelper(ctx.getApplicationContext()));
+                    SlowQueryLog.attach(ctx);
+                    instance = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    // Reemplaza el gestor del proceso (tests que abren Activities: así
+    // getInstance no abre la DB real); devuelve el anterior (o null).
+    static TallerDatabase install(TallerDatabase database) {
+        synchronized (TallerDatabase.class) {
+            TallerDatabase prev = instance;
+            instance = database;
+            return prev;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: forTesting
+    //    Parámetros:
+    //      - ctx (Context): contexto de la app bajo prueba.
+    //      - dbName (String): archivo de DB alternativo (no toca la DB
+    //        real de la app).
+    //    Descripción:
+    //      - Crea un gestor independiente del singleton, para tests y
+    //        benchmarks instrumentados.
+    //    Retorno:
+    //      - TallerDatabase: gestor nuevo (el llamador debe cerrarlo).
+    // ------------------------------------------------------------------
+    static TallerDatabase forTesting(Context ctx, String dbName) {
+        return new TallerDatabase(new TallerDbHelper(ctx.getApplicationContext(), dbName));
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: forTesting (con perfil)
+    //    Parámetros:
+    //      - ctx (Context): contexto de la app bajo prueba.
+    //      - dbName (String): archivo de DB alternativo.
+    //      - profile (DbPerfProfile): perfil de PRAGMAs a comparar.
+    //    Retorno:
+    //      - TallerDatabase: gestor nuevo (el llamador debe cerrarlo).
+    // ------------------------------------------------------------------
+    static TallerDatabase forTesting(Context ctx, String dbName, DbPerfProfile profile) {
+        return new TallerDatabase(new TallerDbHelper(ctx.getApplicationContext(), dbName, profile));
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: forTesting (con snapshot)
+    //    Parámetros:
+    //      - ctx (Context): contexto de la app bajo prueba.
+    //      - dbName (String): archivo de DB alternativo.
+    //      - seed (SeedSnapshot): snapshot a instalar en la primera
+    //        apertura si el archivo no existe.
+    //    Retorno:
+    //      - TallerDatabase: gestor nuevo (el llamador debe cerrarlo).
+    // ------------------------------------------------------------------
+    static TallerDatabase forTesting(Context ctx, String dbName, SeedSnapshot seed) {
+        return new TallerDatabase(new TallerDbHelper(ctx.getApplicationContext(), dbName,
+                DbPerfProfile.forBuild(), seed));
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getHelper
+    //    Retorno:
+    //      - TallerDbHelper: helper compartido (para los repositorios).
+    // ------------------------------------------------------------------
+    TallerDbHelper getHelper() {
+        return helper;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getStats
+    //    Retorno:
+    //      - DashboardStats: contadores en caché de esta base de datos.
+    // ------------------------------------------------------------------
+    public DashboardStats getStats() {
+        return stats;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getChangeBus
+    //    Retorno:
+    //      - ChangeBus: avisos de cambios de esta base de datos.
+    // ------------------------------------------------------------------
+    public ChangeBus getChangeBus() {
+        return changes;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getOrdenColumns
+    //    Retorno:
+    //      - OrdenColumns: OTs en columnas de esta base de datos.
+    // ------------------------------------------------------------------
+    public OrdenColumns getOrdenColumns() {
+        return ordenColumns;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getPasswordHasher
+    //    Retorno:
+    //      - PasswordHasher: hasher de contraseñas de esta base de datos.
+    // ------------------------------------------------------------------
+    PasswordHasher getPasswordHasher() {
+        return passwords;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: runInTransaction
+    //    Parámetros:
+    //      - body (Runnable): escrituras de repositorio a agrupar.
+    //    Descripción:
+    //      - Ejecuta body en UNA transacción (anidable). Los avisos de
+    //        ChangeBus y los ajustes de DashboardStats que generen sus
+    //        escrituras se aplican al confirmar la transacción externa,
+    //        o nunca si se revierte.
+    //      - Es la única forma de agrupar escrituras de repositorios: con
+    //        db.beginTransaction() a mano, publicar lanza
+    //        IllegalStateException.
+    //      - Llamar desde DbExecutor/TallerAsync.
+    // ------------------------------------------------------------------
+    @WorkerThread
+    public void runInTransaction(Runnable body) {
+        commits.run(body);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getWritableDatabase
+    //    Descripción:
+    //      - Abre la DB la primera vez (onCreate/onUpgrade si corresponde)
+    //        y luego devuelve siempre la misma conexión.
+    //    Retorno:
+    //      - SQLiteDatabase: conexión de escritura compartida. NO cerrarla.
+    // ------------------------------------------------------------------
+    public SQLiteDatabase getWritableDatabase() {
+        return helper.getWritableDatabase();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getReadableDatabase
+    //    Descripción:
+    //      - En condiciones normales es la misma conexión que la de
+    //        escritura (SQLiteOpenHelper reutiliza la instancia abierta).
+    //    Retorno:
+    //      - SQLiteDatabase: conexión de lectura compartida. NO cerrarla.
+    // ------------------------------------------------------------------
+    public SQLiteDatabase getReadableDatabase() {
+        return helper.getReadableDatabase();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: close
+    //    Descripción:
+    //      - Cierra la conexión. Solo para tests/benchmarks o apagado
+    //        explícito; los repositorios nunca deben llamarlo.
+    // ------------------------------------------------------------------
+    public void close() {
+        helper.close();
+    }
+}
@@ -4,6 +4,8 @@ import android.content.Context;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 // ======================================================================
 // == Clase: TallerDbHelper
 // == Hereda de: SQLiteOpenHelper
@@ -11,8 +13,9 @@ import android.database.sqlite.SQLiteOpenHelper;
 //    - Punto central de gestión de la base de datos SQLite.
 //    - Define nombres de tablas/columnas y crea/actualiza el esquema.
 //    - Habilita claves foráneas (FK) para asegurar integridad referencial.
-//    - Es consumido por los repositorios (PersonaRepository, VehiculoRepository,
-//      OrdenRepository) para obtener conexiones de lectura/escritura.
+//    - Se instancia una sola vez por proceso a través de TallerDatabase,
+//      que comparte la conexión con todos los repositorios
+//      (PersonaRepository, VehiculoRepository, OrdenRepository).
 // ======================================================================
 public class TallerDbHelper extends SQLiteOpenHelper {
 
@@ -27,9 +30,10 @@ public class TallerDbHelper extends SQLiteOpenHelper {
     // == Atributo: DB_VERSION
     //    Tipo: int (constante)
     //    Rol: Versión del esquema. Si cambia, Android llamará a onUpgrade()
-    //         (o onDowngrade) según corresponda.
+    //         (o onDowngrade) según corresponda. Cada incremento necesita
+    //         su paso registrado en SchemaMigrator.
     // ------------------------------------------------------------------
-    private static final int DB_VERSION = 16;
+    static final int DB_VERSION = 19;
 
     // ------------------------------------------------------------------
     // == Atributo: T_PERSONA
@@ -173,6 +177,48 @@ public class TallerDbHelper extends SQLiteOpenHelper {
     // ------------------------------------------------------------------
     public static final String O_PATENTE = "patente";
 
+    // ------------------------------------------------------------------
+    // == Atributos: índices secundarios (desde DB_VERSION 17)
+    //    - IDX_PERSONA_TIPO_NOMBRE : (tipo, nombre, apellido) → listByTipo
+    //      sin ordenar en memoria y countByTipo con índice cubriente.
+    //    - IDX_VEHICULO_RUN_DUENO  : (run_dueno, patente) → listByRunDueno
+    //      ya ordenado y la cascada ON DELETE SET NULL desde persona.
+    //    - IDX_ORDEN_PATENTE_ID    : (patente, id) → listByPatente por id
+    //      DESC y la cascada ON DELETE CASCADE desde vehiculo.
+    //    Nota: el login (email + tipo) usa el índice automático del
+    //    UNIQUE en email; no necesita uno propio.
+    // ------------------------------------------------------------------
+    public static final String IDX_PERSONA_TIPO_NOMBRE = "idx_persona_tipo_nombre";
+    public static final String IDX_VEHICULO_RUN_DUENO  = "idx_vehiculo_run_dueno";
+    public static final String IDX_ORDEN_PATENTE_ID    = "idx_orden_patente_id";
+
+    // ------------------------------------------------------------------
+    // == Atributo: OPEN_COUNT
+    //    Tipo: AtomicInteger (contador global del proceso)
+    //    Rol: Cantidad de veces que se abrió físicamente el archivo de DB
+    //         (onOpen). Lo usan los benchmarks para medir el "churn" de
+    //         apertura/cierre.
+    // ------------------------------------------------------------------
+    private static final AtomicInteger OPEN_COUNT = new AtomicInteger();
+
+    // ------------------------------------------------------------------
+    // == Atributo: profile
+    //    Tipo: DbPerfProfile
+    //    Rol: Perfil de PRAGMAs (WAL, synchronous, caché, mmap, ...) que
+    //         se aplica en onConfigure. Por defecto el del build type.
+    // ------------------------------------------------------------------
+    private final DbPerfProfile profile;
+
+    // ------------------------------------------------------------------
+    // == Atributos: seed, seedResult
+    //    Tipo: SeedSnapshot (volatile) / SeedSnapshot.Result
+    //    Rol: Snapshot a instalar antes de la primera apertura (null si no
+    //         hay o ya se intentó) y lo que resultó del intento.
+    // ------------------------------------------------------------------
+    private final Context appContext;
+    private volatile SeedSnapshot seed;
+    private SeedSnapshot.Result seedResult;
+
     // ------------------------------------------------------------------
     // == Constructor: TallerDbHelper
     //    Parámetros:
@@ -181,11 +227,104 @@ public class TallerDbHelper extends SQLiteOpenHelper {
     //      - Pasa nombre y versión a SQLiteOpenHelper. El framework
     //        decide cuándo llamar a onCreate/onUpgrade según existencia
     //        y versión actual del archivo.
+    //      - Usa el perfil de rendimiento del build (DbPerfProfile.forBuild).
+    //      - Si la app trae un snapshot (SeedSnapshot.DEFAULT) y el
+    //        archivo no existe, lo instala antes de la primera apertura.
     //    Retorno:
     //      - (constructor) instancia lista para solicitar conexiones.
     // ------------------------------------------------------------------
     public TallerDbHelper(Context ctx) {
-        super(ctx, DB_NAME, null, DB_VERSION);
+        this(ctx, DB_NAME, DbPerfProfile.forBuild(), SeedSnapshot.DEFAULT);
+    }
+
+    // ------------------------------------------------------------------
+    // == Constructor: TallerDbHelper (nombre de archivo explícito)
+    //    Parámetros:
+    //      - ctx (Context): contexto Android para abrir/crear la DB.
+    //      - dbName (String): archivo de DB a usar. Permite a tests y
+    //        benchmarks trabajar sobre una copia sin tocar DB_NAME.
+    // ------------------------------------------------------------------
+    TallerDbHelper(Context ctx, String dbName) {
+        this(ctx, dbName, DbPerfProfile.forBuild());
+    }
+
+    // ------------------------------------------------------------------
+    // == Constructor: TallerDbHelper (archivo y perfil explícitos)
+    //    Parámetros:
+    //      - ctx (Context): contexto Android para abrir/crear la DB.
+    //      - dbName (String): archivo de DB a usar.
+    //      - profile (DbPerfProfile): perfil de PRAGMAs a aplicar; lo usan
+    //        los benchmarks para comparar perfiles sobre el mismo esquema.
+    // ------------------------------------------------------------------
+    TallerDbHelper(Context ctx, String dbName, DbPerfProfile profile) {
+        this(ctx, dbName, profile, null);
+    }
+
+    // ------------------------------------------------------------------
+    // == Constructor: TallerDbHelper (con snapshot)
+    //    Parámetros:
+    //      - seed (SeedSnapshot): snapshot a instalar si el archivo no
+    //        existe al abrirlo por primera vez; null = crear vacío.
+    // ------------------------------------------------------------------
+    TallerDbHelper(Context ctx, String dbName, DbPerfProfile profile, SeedSnapshot seed) {
+        super(ctx, dbName, null, DB_VERSION);
+        this.profile = profile;
+        this.appContext = ctx.getApplicationContext();
+        this.seed = seed;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getOpenCount
+    //    Retorno:
+    //      - int: aperturas físicas de la DB desde que arrancó el proceso.
+    // ------------------------------------------------------------------
+    public static int getOpenCount() {
+        return OPEN_COUNT.get();
+    }
+
+    // ------------------------------------------------------------------
+    // == Métodos: getWritableDatabase / getReadableDatabase
+    //    Descripción:
+    //      - Antes de la primera apertura instalan el snapshot (si hay);
+    //        después es una sola lectura volatile y delegan en
+    //        SQLiteOpenHelper, que cachea la conexión.
+    //      - En debug, MainThreadGuard anota las que llegan desde el
+    //        hilo principal.
+    // ------------------------------------------------------------------
+    @Override
+    public SQLiteDatabase getWritableDatabase() {
+        MainThreadGuard.check();
+        installSeed();
+        return super.getWritableDatabase();
+    }
+
+    @Override
+    public SQLiteDatabase getReadableDatabase() {
+        MainThreadGuard.check();
+        installSeed();
+        return super.getReadableDatabase();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getSeedResult
+    //    Retorno:
+    //      - SeedSnapshot.Result: resultado de la instalación del
+    //        snapshot, o null si este helper no tenía uno.
+    // ------------------------------------------------------------------
+    public synchronized SeedSnapshot.Result getSeedResult() {
+        return seedResult;
+    }
+
+    // Mismo candado que SQLiteOpenHelper: nadie abre el archivo mientras
+    // se copia.
+    private void installSeed() {
+        if (seed == null) return;
+        synchronized (this) {
+            SeedSnapshot pending = seed;
+            if (pending == null) return;
+            seed = null;
+            seedResult = pending.installIfAbsent(appContext, getDatabaseName());
+        }
     }
 
     // ------------------------------------------------------------------
@@ -193,16 +332,56 @@ public class TallerDbHelper extends SQLiteOpenHelper {
     //    Parámetros:
     //      - db (SQLiteDatabase): conexión recién creada/abierta.
     //    Descripción:
-    //      - Habilita el soporte de claves foráneas en SQLite para Android.
-    //        (SQLite requiere activarlo explícitamente por conexión).
+    //      - Aplica el perfil de rendimiento (WAL, synchronous, cache_size,
+    //        mmap_size, temp_store, journal_size_limit). Debe ocurrir aquí:
+    //        el modo de journal no puede cambiarse dentro de la transacción
+    //        de onCreate/onUpgrade.
+    //      - Las claves foráneas NO se activan aquí sino en onOpen: las
+    //        migraciones reconstruyen tablas (DROP + RENAME) y con FKs
+    //        activas el DROP de un padre dispararía sus cascadas.
     //    Retorno:
     //      - void (callback del ciclo de vida de la DB).
     // ------------------------------------------------------------------
     @Override
     public void onConfigure(SQLiteDatabase db) {
         super.onConfigure(db);
+        // PRAGMAs de rendimiento según el build type
+        profile.apply(db);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getProfile
+    //    Retorno:
+    //      - DbPerfProfile: perfil aplicado a esta base de datos.
+    // ------------------------------------------------------------------
+    public DbPerfProfile getProfile() {
+        return profile;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: onOpen
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión ya configurada y migrada.
+    //    Descripción:
+    //      - Termina las reconstrucciones de tablas que onUpgrade dejó
+    //        pendientes (SchemaMigrator.finishRebuilds): aquí ya no hay
+    //        transacción envolvente, cada lote se confirma y una apertura
+    //        interrumpida se reanuda en la siguiente.
+    //      - Habilita el soporte de claves foráneas en SQLite para Android
+    //        (SQLite requiere activarlo explícitamente por conexión). Se
+    //        hace después de onCreate/onUpgrade y de las reconstrucciones;
+    //        ver onConfigure.
+    //      - Registra la apertura física en OPEN_COUNT.
+    // ------------------------------------------------------------------
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
         // Asegura claves foráneas activas
-        db.setForeignKeyConstraintsEnabled(true);
+        if (!db.isReadOnly()) {
+            SchemaMigrator.finishRebuilds(db, SchemaMigrator.LOG_PROGRESS);
+            db.setForeignKeyConstraintsEnabled(true);
+        }
+        OPEN_COUNT.incrementAndGet();
     }
 
     // ------------------------------------------------------------------
@@ -211,7 +390,25 @@ public class TallerDbHelper extends SQLiteOpenHelper {
     //      - db (SQLiteDatabase): conexión de escritura a una DB recién
     //        creada (aún sin tablas).
     //    Descripción:
-    //      - Crea el esquema inicial:
+    //      - Crea el esquema base (versión SchemaMigrator.BASE_VERSION) y
+    //        luego aplica los mismos pasos de migración que recibe una DB
+    //        existente, así una instalación nueva y una actualizada quedan
+    //        con el mismo esquema.
+    //    Retorno:
+    //      - void.
+    // ------------------------------------------------------------------
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        createBaseSchema(db);
+        SchemaMigrator.migrate(db, SchemaMigrator.BASE_VERSION, DB_VERSION, SchemaMigrator.LOG_PROGRESS);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: createBaseSchema
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión de escritura a una DB sin tablas.
+    //    Descripción:
+    //      - Crea el esquema de la versión base (16):
     //        1) PERSONA: PK (run), email único, nombre/apellido obligatorios,
     //           password obligatoria y CHECK en tipo ('cliente','trabajador').
     //        2) VEHICULO: PK (patente). FK opcional a persona.run con
@@ -220,11 +417,12 @@ public class TallerDbHelper extends SQLiteOpenHelper {
     //        3) ORDEN_TRABAJO: PK autoincremental. FK a vehiculo.patente con
     //           ON UPDATE CASCADE y ON DELETE CASCADE (si se elimina el vehículo,
     //           se eliminan sus órdenes asociadas).
+    //      - Los cambios posteriores (índices, columnas nuevas, ...) NO van
+    //        aquí sino como pasos de SchemaMigrator.
     //    Retorno:
     //      - void.
     // ------------------------------------------------------------------
-    @Override
-    public void onCreate(SQLiteDatabase db) {
+    static void createBaseSchema(SQLiteDatabase db) {
         // PERSONA
         db.execSQL("CREATE TABLE " + T_PERSONA + " (" +
                 C_RUN      + " INTEGER PRIMARY KEY, " +
@@ -257,6 +455,28 @@ public class TallerDbHelper extends SQLiteOpenHelper {
                 ")");
     }
 
+    // ------------------------------------------------------------------
+    // == Método: createIndexes
+    //    Parámetros:
+    //      - db (SQLiteDatabase): conexión de escritura con las tablas ya
+    //        creadas.
+    //    Descripción:
+    //      - Crea (si no existen) los índices secundarios del esquema
+    //        (paso v16 → v17 de SchemaMigrator).
+    //      - Cada columna FK queda como primera columna de un índice, así
+    //        las cascadas desde persona/vehiculo no recorren la tabla hija.
+    //    Retorno:
+    //      - void.
+    // ------------------------------------------------------------------
+    static void createIndexes(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + IDX_PERSONA_TIPO_NOMBRE +
+                " ON " + T_PERSONA + "(" + C_TIPO + ", " + C_NOMBRE + ", " + C_APELLIDO + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + IDX_VEHICULO_RUN_DUENO +
+                " ON " + T_VEHICULO + "(" + V_RUN_DUENO + ", " + V_PATENTE + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + IDX_ORDEN_PATENTE_ID +
+                " ON " + T_ORDEN + "(" + O_PATENTE + ", " + O_ID + ")");
+    }
+
     // ------------------------------------------------------------------
     // == Método: onUpgrade
     //    Parámetros:
@@ -264,24 +484,33 @@ public class TallerDbHelper extends SQLiteOpenHelper {
     //      - oldV (int): versión actual instalada.
     //      - newV (int): nueva versión pedida por la app (DB_VERSION).
     //    Descripción:
-    //      - Estrategia simple de migración: DROP & CREATE.
-    //        1) Elimina tablas antiguas si existen (incluye un nombre
-    //           legado "trabajador" por compatibilidad con versiones previas).
-    //        2) Recrea el esquema desde cero llamando a onCreate().
-    //      - Advertencia: esta estrategia borra datos; sirve para desarrollo
-    //        o cuando no hay necesidad de preservar la información. En
-    //        producción, implementar migraciones no destructivas (ALTER TABLE).
+    //      - Desde BASE_VERSION (16): migración incremental que conserva
+    //        los datos; SchemaMigrator aplica en orden los pasos
+    //        oldV → oldV+1 → ... → newV.
+    //      - Versiones anteriores (esquema sin registro de pasos): DROP &
+    //        CREATE como antes. Elimina también el nombre legado
+    //        "trabajador" por compatibilidad con versiones previas.
+    //      - SQLiteOpenHelper ejecuta este método dentro de una sola
+    //        transacción: o se aplican todos los pasos o ninguno. Las
+    //        reconstrucciones de tablas de esos pasos quedan pendientes
+    //        y las termina onOpen, fuera de la transacción.
     //    Retorno:
     //      - void.
     // ------------------------------------------------------------------
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldV, int newV) {
+        if (oldV >= SchemaMigrator.BASE_VERSION) {
+            SchemaMigrator.migrate(db, oldV, newV, SchemaMigrator.LOG_PROGRESS);
+            return;
+        }
+
         // Limpia tabla vieja si quedaba de versiones anteriores
         db.execSQL("DROP TABLE IF EXISTS trabajador");
 
         db.execSQL("DROP TABLE IF EXISTS " + T_ORDEN);
         db.execSQL("DROP TABLE IF EXISTS " + T_VEHICULO);
         db.execSQL("DROP TABLE IF EXISTS " + T_PERSONA);
+        SchemaMigrator.resetJournal(db);
         onCreate(db);
     }
 }
@@ -0,0 +1,24 @@
+package com.cabroninja.tallermiaumovil.data;
+
+// ======================================================================
+// == Interface: TallerStore
+// == Rol dentro de la app:
+//    - Punto de acceso a los datos del taller con un motor
+//      intercambiable:
+//        * SqliteTallerStore  : la base SQLite de la app (repositorios).
+//        * MemoryTallerStore  : todo en memoria con índices hash y
+//          ordenados (kioscos sin disco, tests que necesitan lecturas
+//          de menos de un microsegundo).
+//        * JdbcTallerStore    : SQLite vía JDBC (módulo :bench).
+//    - Las tres comparten TallerStoreConformance (mismo comportamiento)
+//      y los benchmarks de :bench (mismas mediciones).
+//    - Solo Java puro: sin clases de Android en la interfaz.
+// ======================================================================
+public interface TallerStore {
+
+    PersonaStore personas();
+
+    VehiculoStore vehiculos();
+
+    OrdenStore ordenes();
+}
@@ -4,6 +4,7 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 
 import com.cabroninja.tallermiaumovil.model.Vehiculo;
 import java.util.ArrayList;
@@ -18,30 +19,146 @@ import java.util.List;
 //    - Aísla a la UI de SQL y del manejo de cursores/bases de datos,
 //      entregando objetos de dominio (Vehiculo) y tipos primitivos.
 // ======================================================================
-public class VehiculoRepository {
+public class VehiculoRepository implements VehiculoStore {
 
     // ------------------------------------------------------------------
     // == Atributo: helper
     //    Tipo: TallerDbHelper
     //    Propósito:
     //      - Gestiona la base de datos SQLite (creación/actualización).
-    //      - Entrega instancias de lectura/escritura (getReadableDatabase /
-    //        getWritableDatabase) para ejecutar operaciones SQL.
+    //      - Es el helper compartido de TallerDatabase: entrega siempre la
+    //        misma conexión abierta, que este repositorio nunca cierra.
     // ------------------------------------------------------------------
     private final TallerDbHelper helper;
 
+    // ------------------------------------------------------------------
+    // == Atributo: stats
+    //    Tipo: DashboardStats
+    //    Propósito:
+    //      - Caché de contadores del panel; los inserts la ajustan y los
+    //        borrados (con cascada a órdenes) la invalidan.
+    // ------------------------------------------------------------------
+    private final DashboardStats stats;
+
+    // ------------------------------------------------------------------
+    // == Atributo: bus
+    //    Tipo: ChangeBus
+    //    Propósito:
+    //      - Avisa a las pantallas suscritas de cada escritura confirmada
+    //        (ver TableChange).
+    // ------------------------------------------------------------------
+    private final ChangeBus bus;
+
+    // ------------------------------------------------------------------
+    // == Atributos: SQL de lectura
+    //    Propósito:
+    //      - Sentencias fijas del repositorio; package-private para que
+    //        QueryPlanTest verifique su plan de ejecución.
+    // ------------------------------------------------------------------
+    private static final String COLS =
+            TallerDbHelper.V_PATENTE + "," +
+            TallerDbHelper.V_COLOR + "," +
+            TallerDbHelper.V_MODELO + "," +
+            TallerDbHelper.V_RUN_DUENO;
+
+    // Posición de cada columna en COLS (filas de cursorAll/cursorByRunDueno).
+    public static final int COL_PATENTE = 0;
+    public static final int COL_COLOR = 1;
+    public static final int COL_MODELO = 2;
+    public static final int COL_RUN_DUENO = 3;
+
+    static final String SQL_LIST_BY_RUN_DUENO =
+            "SELECT " + COLS + " FROM " + TallerDbHelper.T_VEHICULO +
+            " WHERE " + TallerDbHelper.V_RUN_DUENO + " = ?" +
+            " ORDER BY " + TallerDbHelper.V_PATENTE + " ASC";
+
+    static final String SQL_LIST_ALL =
+            "SELECT " + COLS + " FROM " + TallerDbHelper.T_VEHICULO +
+            " ORDER BY " + TallerDbHelper.V_PATENTE + " ASC";
+
+    static final String SQL_COUNT =
+            "SELECT COUNT(*) FROM " + TallerDbHelper.T_VEHICULO;
+
+    // Búsqueda de texto sobre vehiculo_fts (ver SearchIndex.rankedPage).
+    private static final String SQL_SEARCH_BASE =
+            "SELECT " + SearchIndex.qualify("v", COLS) +
+            ", matchinfo(" + SearchIndex.FTS_VEHICULO + ", '" + SearchIndex.MATCHINFO + "')" +
+            " FROM " + SearchIndex.FTS_VEHICULO +
+            " JOIN " + TallerDbHelper.T_VEHICULO + " v ON v.rowid = " + SearchIndex.FTS_VEHICULO + ".docid" +
+            " WHERE " + SearchIndex.FTS_VEHICULO + " MATCH ?";
+    private static final String SQL_SEARCH_ORDER =
+            " ORDER BY " + SearchIndex.FTS_VEHICULO + ".docid DESC" + SearchIndex.WINDOW;
+
+    static final String SQL_SEARCH = SQL_SEARCH_BASE + SQL_SEARCH_ORDER;
+
+    static final String SQL_SEARCH_BY_RUN_DUENO =
+            SQL_SEARCH_BASE + " AND v." + TallerDbHelper.V_RUN_DUENO + " = ?" + SQL_SEARCH_ORDER;
+
+    // Peso de cada columna de vehiculo_fts (patente, modelo, color).
+    private static final float[] SEARCH_WEIGHTS = { 3f, 1f, 1f };
+
+    // ------------------------------------------------------------------
+    // == Atributos: M_* (RepoMetrics)
+    //    Rol : Latencia y filas de cada método público.
+    // ------------------------------------------------------------------
+    private static final RepoMetrics.Op M_INSERT = RepoMetrics.op("VehiculoRepository.insert");
+    private static final RepoMetrics.Op M_INSERT_ALL = RepoMetrics.op("VehiculoRepository.insertAll");
+    private static final RepoMetrics.Op M_UPSERT_ALL = RepoMetrics.op("VehiculoRepository.upsertAll");
+    private static final RepoMetrics.Op M_LIST_BY_DUENO = RepoMetrics.op("VehiculoRepository.listByRunDueno");
+    private static final RepoMetrics.Op M_LIST_ALL = RepoMetrics.op("VehiculoRepository.listAll");
+    private static final RepoMetrics.Op M_CURSOR_ALL = RepoMetrics.op("VehiculoRepository.cursorAll");
+    private static final RepoMetrics.Op M_CURSOR_BY_DUENO = RepoMetrics.op("VehiculoRepository.cursorByRunDueno");
+    private static final RepoMetrics.Op M_SEARCH = RepoMetrics.op("VehiculoRepository.search");
+    private static final RepoMetrics.Op M_UPDATE = RepoMetrics.op("VehiculoRepository.update");
+    private static final RepoMetrics.Op M_DELETE = RepoMetrics.op("VehiculoRepository.delete");
+    private static final RepoMetrics.Op M_COUNT = RepoMetrics.op("VehiculoRepository.count");
+
+    // ------------------------------------------------------------------
+    // == Atributos: SQL de carga masiva (insertAll / upsertAll)
+    //    Propósito:
+    //      - Se compilan una vez por carga y se reutilizan en cada fila.
+    //      - El UPDATE conserva el dueño actual si run_dueno viene null,
+    //        igual que update().
+    // ------------------------------------------------------------------
+    static final String SQL_INSERT =
+            "INSERT INTO " + TallerDbHelper.T_VEHICULO + " (" + COLS + ") VALUES (?,?,?,?)";
+
+    static final String SQL_UPDATE_BY_PATENTE =
+            "UPDATE " + TallerDbHelper.T_VEHICULO + " SET " +
+            TallerDbHelper.V_COLOR + " = ?, " +
+            TallerDbHelper.V_MODELO + " = ?, " +
+            TallerDbHelper.V_RUN_DUENO + " = COALESCE(?, " + TallerDbHelper.V_RUN_DUENO + ")" +
+            " WHERE " + TallerDbHelper.V_PATENTE + " = ?";
+
+    // Lo que ejecuta delete (SQLiteDatabase.delete); SlowQueryLog lo
+    // registra junto a SQL_INSERT / SQL_UPDATE_BY_PATENTE para insert/update.
+    static final String SQL_DELETE_BY_PATENTE =
+            "DELETE FROM " + TallerDbHelper.T_VEHICULO + " WHERE " + TallerDbHelper.V_PATENTE + " = ?";
+
     // ------------------------------------------------------------------
     // == Constructor: VehiculoRepository
     //    Parámetros:
     //      - ctx (Context): contexto Android que usará el helper para
     //        abrir/crear la base de datos y acceder a recursos.
     //    Descripción:
-    //      - Inicializa el helper para todas las operaciones del repositorio.
+    //      - Toma el helper compartido desde TallerDatabase.
     //    Retorno:
     //      - (constructor) instancia lista para usar.
     // ------------------------------------------------------------------
     public VehiculoRepository(Context ctx){
-        helper = new TallerDbHelper(ctx);
+        this(TallerDatabase.getInstance(ctx));
+    }
+
+    // ------------------------------------------------------------------
+    // == Constructor: VehiculoRepository (gestor explícito)
+    //    Parámetros:
+    //      - database (TallerDatabase): gestor de conexión a usar
+    //        (tests/benchmarks sobre una DB aislada).
+    // ------------------------------------------------------------------
+    VehiculoRepository(TallerDatabase database){
+        helper = database.getHelper();
+        stats = database.getStats();
+        bus = database.getChangeBus();
     }
 
     // ------------------------------------------------------------------
@@ -59,11 +176,14 @@ public class VehiculoRepository {
     //        existe un propietario asignado).
     //      - Si existen claves foráneas activas (onConfigure de helper),
     //        la asignación de runDueno respetará la integridad referencial.
+    //      - No cierra la conexión: es compartida (TallerDatabase).
     //    Retorno:
     //      - long: rowId de la nueva fila si tuvo éxito; -1 en caso de fallo
     //        (por ejemplo, violación de PK UNIQUE en patente).
     // ------------------------------------------------------------------
+    @Override
     public long insert(Vehiculo v){
+        long t0 = RepoMetrics.start();
         SQLiteDatabase db = helper.getWritableDatabase();
         ContentValues cv = new ContentValues();
         cv.put(TallerDbHelper.V_PATENTE, v.patente);
@@ -72,9 +192,79 @@ public class VehiculoRepository {
         if (v.runDueno != null) {
             cv.put(TallerDbHelper.V_RUN_DUENO, v.runDueno);
         }
-        long row = db.insert(TallerDbHelper.T_VEHICULO, null, cv);
-        db.close();
-        return row;
+        long id = db.insert(TallerDbHelper.T_VEHICULO, null, cv);
+        if (id != -1) {
+            stats.adjust(0, 1, 0);
+            bus.publish(TableChange.of(TallerDbHelper.T_VEHICULO, TableChange.Op.INSERT, v.patente));
+        }
+        M_INSERT.stop(t0, id != -1 ? 1 : 0, db, SQL_INSERT,
+                new Object[]{ v.patente, v.color, v.modelo, v.runDueno });
+        return id;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: insertAll
+    //    Parámetros:
+    //      - vehiculos (List<Vehiculo>): filas a insertar, en orden.
+    //    Descripción detallada:
+    //      - Inserta todos en una sola transacción reutilizando una
+    //        sentencia compilada (ver BulkWriter).
+    //      - Una patente repetida o un run_dueno inexistente (FK) no aborta
+    //        la carga: la fila queda registrada como conflicto.
+    //    Retorno:
+    //      - BulkResult: insertados y conflictos (índice + motivo).
+    // ------------------------------------------------------------------
+    @Override
+    public BulkResult insertAll(List<Vehiculo> vehiculos){
+        long t0 = RepoMetrics.start();
+        SQLiteDatabase db = helper.getWritableDatabase();
+        BulkResult r = BulkWriter.write(db, vehiculos, PATENTE_KEY,
+                null, null, SQL_INSERT, VehiculoRepository::bindInsert);
+        if (r.inserted > 0) stats.adjust(0, r.inserted, 0);
+        r.publish(bus, TallerDbHelper.T_VEHICULO);
+        M_INSERT_ALL.stop(t0, r.inserted, db, SQL_INSERT, null);
+        return r;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: upsertAll
+    //    Parámetros:
+    //      - vehiculos (List<Vehiculo>): filas a insertar o actualizar.
+    //    Descripción detallada:
+    //      - Por cada vehículo: UPDATE por patente; si no existía, INSERT.
+    //        Todo en una transacción con sentencias reutilizadas.
+    //    Retorno:
+    //      - BulkResult: insertados, actualizados y conflictos.
+    // ------------------------------------------------------------------
+    @Override
+    public BulkResult upsertAll(List<Vehiculo> vehiculos){
+        long t0 = RepoMetrics.start();
+        SQLiteDatabase db = helper.getWritableDatabase();
+        BulkResult r = BulkWriter.write(db, vehiculos, PATENTE_KEY,
+                SQL_UPDATE_BY_PATENTE, VehiculoRepository::bindUpdate,
+                SQL_INSERT, VehiculoRepository::bindInsert);
+        if (r.inserted > 0) stats.adjust(0, r.inserted, 0);
+        r.publish(bus, TallerDbHelper.T_VEHICULO);
+        // Se registra el UPDATE (el INSERT también corre) y sin argumentos:
+        // son muchas filas; SlowQueryLog anota que el plan va sin enlazar.
+        M_UPSERT_ALL.stop(t0, r.inserted + r.updated, db, SQL_UPDATE_BY_PATENTE, null);
+        return r;
+    }
+
+    private static final BulkWriter.Key<Vehiculo> PATENTE_KEY = (v, rowId) -> v.patente;
+
+    private static void bindInsert(SQLiteStatement st, Vehiculo v){
+        BulkWriter.bindText(st, 1, v.patente);
+        BulkWriter.bindText(st, 2, v.color);
+        BulkWriter.bindText(st, 3, v.modelo);
+        BulkWriter.bindInteger(st, 4, v.runDueno);
+    }
+
+    private static void bindUpdate(SQLiteStatement st, Vehiculo v){
+        BulkWriter.bindText(st, 1, v.color);
+        BulkWriter.bindText(st, 2, v.modelo);
+        BulkWriter.bindInteger(st, 3, v.runDueno);
+        BulkWriter.bindText(st, 4, v.patente);
     }
 
     // ------------------------------------------------------------------
@@ -82,9 +272,10 @@ public class VehiculoRepository {
     //    Parámetros:
     //      - runDueno (int): RUN del propietario cuyos vehículos queremos listar.
     //    Descripción detallada:
-    //      - Usa la API de query() para seleccionar columnas específicas
-    //        (patente, color, modelo, runDueno) filtrando por V_RUN_DUENO = ?.
-    //      - Ordena el resultado por patente ASC para una lectura estable.
+    //      - Selecciona columnas específicas (patente, color, modelo,
+    //        runDueno) filtrando por V_RUN_DUENO = ?.
+    //      - Ordena el resultado por patente ASC para una lectura estable
+    //        (idx_vehiculo_run_dueno ya entrega ese orden).
     //      - Mapea cada fila del Cursor a una instancia Vehiculo y la agrega
     //        a la lista de salida.
     //      - Si la columna RUN_DUENO viene NULL en la fila, el campo en el
@@ -93,13 +284,13 @@ public class VehiculoRepository {
     //      - List<Vehiculo>: lista (posiblemente vacía) con los vehículos
     //        del dueño indicado.
     // ------------------------------------------------------------------
+    @Override
     public List<Vehiculo> listByRunDueno(int runDueno){
+        long t0 = RepoMetrics.start();
         List<Vehiculo> out = new ArrayList<>();
-        try (Cursor c = helper.getReadableDatabase().query(
-                TallerDbHelper.T_VEHICULO,
-                new String[]{TallerDbHelper.V_PATENTE, TallerDbHelper.V_COLOR, TallerDbHelper.V_MODELO, TallerDbHelper.V_RUN_DUENO},
-                TallerDbHelper.V_RUN_DUENO + " = ?",
-                new String[]{ String.valueOf(runDueno) }, null, null, TallerDbHelper.V_PATENTE + " ASC")) {
+        SQLiteDatabase db = helper.getReadableDatabase();
+        String[] args = { String.valueOf(runDueno) };
+        try (Cursor c = db.rawQuery(SQL_LIST_BY_RUN_DUENO, args, QuerySignal.current())) {
             while (c.moveToNext()) {
                 Integer rd;
                 if (c.isNull(3)) {
@@ -110,6 +301,7 @@ public class VehiculoRepository {
                 out.add(new Vehiculo(c.getString(0), c.getString(1), c.getString(2), rd));
             }
         }
+        M_LIST_BY_DUENO.stop(t0, out.size(), db, SQL_LIST_BY_RUN_DUENO, args);
         return out;
     }
 
@@ -125,12 +317,12 @@ public class VehiculoRepository {
     //    Retorno:
     //      - List<Vehiculo>: lista completa (posiblemente vacía).
     // ------------------------------------------------------------------
+    @Override
     public List<Vehiculo> listAll(){
+        long t0 = RepoMetrics.start();
         List<Vehiculo> out = new ArrayList<>();
-        try (Cursor c = helper.getReadableDatabase().query(
-                TallerDbHelper.T_VEHICULO,
-                new String[]{TallerDbHelper.V_PATENTE, TallerDbHelper.V_COLOR, TallerDbHelper.V_MODELO, TallerDbHelper.V_RUN_DUENO},
-                null, null, null, null, TallerDbHelper.V_PATENTE + " ASC")) {
+        SQLiteDatabase db = helper.getReadableDatabase();
+        try (Cursor c = db.rawQuery(SQL_LIST_ALL, null, QuerySignal.current())) {
             while (c.moveToNext()) {
                 Integer rd;
                 if (c.isNull(3)) {
@@ -141,6 +333,86 @@ public class VehiculoRepository {
                 out.add(new Vehiculo(c.getString(0), c.getString(1), c.getString(2), rd));
             }
         }
+        M_LIST_ALL.stop(t0, out.size(), db, SQL_LIST_ALL, null);
+        return out;
+    }
+
+    // ------------------------------------------------------------------
+    // == Métodos: cursorAll / cursorByRunDueno
+    //    Descripción detallada:
+    //      - Mismas consultas que listAll/listByRunDueno, sin armar ningún
+    //        Vehiculo: devuelven el cursor (columnas COL_*) con el total ya
+    //        contado y la primera ventana cargada (ver CursorListAdapter).
+    //    Retorno:
+    //      - Cursor: resultado abierto; quien lo recibe debe cerrarlo.
+    // ------------------------------------------------------------------
+    public Cursor cursorAll(){
+        return prefilled(M_CURSOR_ALL, SQL_LIST_ALL, null);
+    }
+
+    public Cursor cursorByRunDueno(int runDueno){
+        return prefilled(M_CURSOR_BY_DUENO, SQL_LIST_BY_RUN_DUENO, new String[]{ String.valueOf(runDueno) });
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: read
+    //    Parámetros:
+    //      - c (Cursor): cursor de cursorAll/cursorByRunDueno posicionado
+    //        en una fila.
+    //    Retorno:
+    //      - Vehiculo: la fila actual como entidad.
+    // ------------------------------------------------------------------
+    public static Vehiculo read(Cursor c){
+        return new Vehiculo(c.getString(0), c.getString(1), c.getString(2),
+                c.isNull(3) ? null : c.getInt(3));
+    }
+
+    // getCount() recorre el resultado y llena la primera ventana aquí, en
+    // el hilo que consulta, y no en el primer bind.
+    private Cursor prefilled(RepoMetrics.Op op, String sql, String[] args){
+        long t0 = RepoMetrics.start();
+        SQLiteDatabase db = helper.getReadableDatabase();
+        Cursor c = db.rawQuery(sql, args, QuerySignal.current());
+        try {
+            op.stop(t0, c.getCount(), db, sql, args);
+            return c;
+        } catch (RuntimeException ex) {
+            c.close();
+            throw ex;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: search
+    //    Parámetros:
+    //      - texto (String): lo escrito en el buscador; cada palabra se
+    //        busca como prefijo en patente, modelo o color.
+    //      - runDueno (Integer): si no es null, solo vehículos de ese dueño.
+    //      - offset, limit (int): página dentro del ranking.
+    //    Descripción detallada:
+    //      - Búsqueda en vehiculo_fts ordenada por relevancia (la patente
+    //        pesa más que modelo y color), por tramos de
+    //        SearchIndex.CANDIDATES coincidencias de la más reciente a
+    //        la más antigua.
+    //    Retorno:
+    //      - List<Vehiculo>: página de resultados (vacía si el texto no
+    //        alcanza SearchIndex.MIN_CHARS).
+    // ------------------------------------------------------------------
+    @Override
+    public List<Vehiculo> search(String texto, Integer runDueno, int offset, int limit){
+        long t0 = RepoMetrics.start();
+        SQLiteDatabase db = helper.getReadableDatabase();
+        String match = SearchIndex.matchQuery(texto);
+        String sql = runDueno != null ? SQL_SEARCH_BY_RUN_DUENO : SQL_SEARCH;
+        String[] args = runDueno != null
+                ? new String[]{ match, String.valueOf(runDueno), "0" }
+                : new String[]{ match, "0" };
+        List<Vehiculo> out = match == null ? new ArrayList<>()
+                : SearchIndex.rankedPage(db, sql, args, SEARCH_WEIGHTS,
+                        c -> new Vehiculo(c.getString(0), c.getString(1), c.getString(2),
+                                c.isNull(3) ? null : c.getInt(3)),
+                        offset, limit);
+        M_SEARCH.stop(t0, out.size(), db, sql, args);
         return out;
     }
 
@@ -151,23 +423,29 @@ public class VehiculoRepository {
     //        nuevos valores para actualizar.
     //    Descripción detallada:
     //      - Actualiza color y modelo del vehículo con patente = v.patente.
-    //      - Si v.runDueno != null, también actualiza el RUN del dueño.
+    //      - Si v.runDueno != null, también actualiza el RUN del dueño
+    //        (SQL_UPDATE_BY_PATENTE: COALESCE conserva el actual si es
+    //        null). Es la misma sentencia que usa upsertAll y la que
+    //        queda en SlowQueryLog, con sus argumentos reales.
     //        (Si se quiere quitar el dueño —poner NULL—, este método no
     //         lo hace porque solo escribe cuando hay valor; se necesitaría
     //         una variante que acepte explícitamente null).
     //    Retorno:
     //      - int: número de filas afectadas (0 si no existe la patente).
     // ------------------------------------------------------------------
+    @Override
     public int update(Vehiculo v){
-        ContentValues cv = new ContentValues();
-        cv.put(TallerDbHelper.V_COLOR, v.color);
-        cv.put(TallerDbHelper.V_MODELO, v.modelo);
-        if (v.runDueno != null) {
-            cv.put(TallerDbHelper.V_RUN_DUENO, v.runDueno);
+        long t0 = RepoMetrics.start();
+        SQLiteDatabase db = helper.getWritableDatabase();
+        int rows;
+        try (SQLiteStatement st = db.compileStatement(SQL_UPDATE_BY_PATENTE)) {
+            bindUpdate(st, v);
+            rows = st.executeUpdateDelete();
         }
-        return helper.getWritableDatabase().update(
-                TallerDbHelper.T_VEHICULO, cv,
-                TallerDbHelper.V_PATENTE + " = ?", new String[]{ v.patente });
+        if (rows > 0) bus.publish(TableChange.of(TallerDbHelper.T_VEHICULO, TableChange.Op.UPDATE, v.patente));
+        M_UPDATE.stop(t0, rows, db, SQL_UPDATE_BY_PATENTE,
+                new Object[]{ v.color, v.modelo, v.runDueno, v.patente });
+        return rows;
     }
 
     // ------------------------------------------------------------------
@@ -182,10 +460,22 @@ public class VehiculoRepository {
     //    Retorno:
     //      - int: filas eliminadas (0 si no se encontró la patente).
     // ------------------------------------------------------------------
+    @Override
     public int delete(String patente){
-        return helper.getWritableDatabase().delete(
+        long t0 = RepoMetrics.start();
+        SQLiteDatabase db = helper.getWritableDatabase();
+        String[] args = { patente };
+        int rows = db.delete(
                 TallerDbHelper.T_VEHICULO,
-                TallerDbHelper.V_PATENTE + " = ?", new String[]{ patente });
+                TallerDbHelper.V_PATENTE + " = ?", args);
+        // ON DELETE CASCADE pudo borrar órdenes: no se sabe cuántas
+        if (rows > 0) {
+            stats.invalidate();
+            bus.publish(TableChange.of(TallerDbHelper.T_VEHICULO, TableChange.Op.DELETE, patente));
+            bus.publish(TableChange.unknown(TallerDbHelper.T_ORDEN, TableChange.Op.DELETE));
+        }
+        M_DELETE.stop(t0, rows, db, SQL_DELETE_BY_PATENTE, args);
+        return rows;
     }
 
     // ------------------------------------------------------------------
@@ -198,14 +488,14 @@ public class VehiculoRepository {
     //    Retorno:
     //      - int: cantidad total de filas en la tabla (0 si no hay).
     // ------------------------------------------------------------------
+    @Override
     public int count() {
+        long t0 = RepoMetrics.start();
         SQLiteDatabase db = helper.getReadableDatabase();
-        try (Cursor c = db.rawQuery("SELECT COUNT(*) FROM " + TallerDbHelper.T_VEHICULO, null)) {
-            if (c.moveToFirst()) {
-                return c.getInt(0);
-            } else {
-                return 0;
-            }
+        try (Cursor c = db.rawQuery(SQL_COUNT, null, QuerySignal.current())) {
+            int n = c.moveToFirst() ? c.getInt(0) : 0;
+            M_COUNT.stop(t0, 1, db, SQL_COUNT, null);
+            return n;
         }
     }
 }
@@ -0,0 +1,40 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import java.util.List;
+
+// ======================================================================
+// == Interface: VehiculoStore
+// == Rol dentro de la app:
+//    - Operaciones de datos de Vehiculo, sin atarse a un motor (ver
+//      PersonaStore). Las implementan VehiculoRepository y
+//      MemoryTallerStore.
+//    - Además de las restricciones de PersonaStore: run_dueno debe ser
+//      un RUN existente (o null) y borrar un vehículo borra sus OTs.
+// ======================================================================
+public interface VehiculoStore {
+
+    // rowId de la nueva fila, o -1 si se rechazó.
+    long insert(Vehiculo v);
+
+    BulkResult insertAll(List<Vehiculo> vehiculos);
+
+    BulkResult upsertAll(List<Vehiculo> vehiculos);
+
+    // Ordenados por patente.
+    List<Vehiculo> listByRunDueno(int runDueno);
+
+    // Ordenados por patente.
+    List<Vehiculo> listAll();
+
+    // runDueno null = todos los dueños.
+    List<Vehiculo> search(String texto, Integer runDueno, int offset, int limit);
+
+    // Cambia color y modelo; run_dueno solo si v.runDueno no es null.
+    int update(Vehiculo v);
+
+    int delete(String patente);
+
+    int count();
+}
@@ -50,7 +50,10 @@ public class Persona {
     // ------------------------------------------------------------------
     // == Atributo: password
     //    Tipo: String
-    //    Rol: Contraseña en texto plano para el login de "trabajador".
+    //    Rol: Contraseña para el login de "trabajador". Al escribir se
+    //         pasa en texto plano (o ya derivada); PersonaRepository la
+    //         guarda derivada con PasswordHasher. Leída de la DB, es el
+    //         valor derivado (pbkdf2$...).
     // ------------------------------------------------------------------
     public String password;
 
@@ -67,7 +70,7 @@ public class Persona {
     //      - email (String)    : correo único.
     //      - nombre (String)   : nombre propio.
     //      - apellido (String) : apellido.
-    //      - password (String) : contraseña (actualmente texto plano).
+    //      - password (String) : contraseña (texto plano o ya derivada).
     //      - tipo (String)     : "cliente" o "trabajador".
     //    Retorno:
     //      - (constructor) instancia lista para ser mapeada a/desde SQLite.
@@ -89,6 +92,19 @@ public class Persona {
     //      - String: cadena con el nombre completo tal como se armó.
     // ------------------------------------------------------------------
     public String nombreCompleto() {
+        return nombreCompleto(nombre, apellido);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método estático: nombreCompleto
+    //    Parámetros:
+    //      - nombre, apellido (String): columnas tal como vienen de la DB
+    //        (los adapters en modo cursor las leen sin armar la Persona).
+    //    Retorno:
+    //      - String: "nombre apellido" (sin espacio sobrante si falta el
+    //        apellido).
+    // ------------------------------------------------------------------
+    public static String nombreCompleto(String nombre, String apellido) {
         String __n = (nombre != null) ? nombre : "";
         String __a = (apellido != null && !apellido.isEmpty()) ? " " + apellido : "";
         return __n + __a;
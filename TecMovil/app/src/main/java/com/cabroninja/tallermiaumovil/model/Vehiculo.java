@@ -73,6 +73,16 @@ public class Vehiculo {
     // ------------------------------------------------------------------
     @Override
     public String toString(){
+        return linea(patente, modelo, color);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método estático: linea
+    //    Descripción:
+    //      - Mismo formato que toString() a partir de las columnas (lo
+    //        usan los adapters en modo cursor).
+    // ------------------------------------------------------------------
+    public static String linea(String patente, String modelo, String color){
         return patente + " • " + modelo + " • " + color;
     }
 }
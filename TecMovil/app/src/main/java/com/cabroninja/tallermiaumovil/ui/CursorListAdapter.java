@@ -0,0 +1,200 @@
+package com.cabroninja.tallermiaumovil.ui;
+
+import android.database.Cursor;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// ======================================================================
+// == Clase: CursorListAdapter
+// == Hereda de: RecyclerView.Adapter<VH>
+// == Rol dentro de la app:
+//    - Base de los adapters en "modo cursor" (PersonaCursorAdapter,
+//      VehiculoCursorAdapter): en vez de una List de entidades armada
+//      de antemano, muestra un Cursor y cada onBindViewHolder lee las
+//      columnas de la fila directo de su ventana (CursorWindow).
+//    - Solo las filas que se bindean se leen; ninguna fila se convierte
+//      en objeto salvo la que el usuario toca (ver getRow).
+// == Ventana:
+//    - El repositorio entrega el cursor con la primera ventana (~2 MB,
+//      decenas de miles de filas) ya cargada y el total contado, en el
+//      hilo de DbExecutor. Al pasar de ventana, SQLiteCursor la rellena
+//      en el hilo del bind, reejecutando la consulta hasta esa posición:
+//      para listas muy largas con scroll profundo conviene paginar
+//      (como OrdenesActivity).
+// == Uso:
+//    - PersonasActivity y VehiculosActivity abren su lista completa como
+//      cursor y Carga.de decide: con UMBRAL_FILAS filas o más (o con
+//      EXTRA_MODO_CURSOR = true en el Intent) lo muestran tal cual; con
+//      menos lo leen a una lista para su KeyedListAdapter, que aplica
+//      cada TableChange con DiffUtil. Un cursor no admite quitar o
+//      cambiar filas sueltas: cada cambio es una consulta completa +
+//      notifyDataSetChanged, que solo compensa en tablas grandes.
+// == Ciclo de vida:
+//    - El adapter es dueño del cursor: swap() cierra el anterior y, si
+//      se registra como observador del ciclo de vida de la Activity,
+//      onDestroy cierra el actual.
+// == Hilos:
+//    - Solo hilo principal.
+// ======================================================================
+public abstract class CursorListAdapter<VH extends RecyclerView.ViewHolder>
+        extends RecyclerView.Adapter<VH> implements DefaultLifecycleObserver {
+
+    // ------------------------------------------------------------------
+    // == Atributo: EXTRA_MODO_CURSOR
+    //    Rol : Extra boolean del Intent que fuerza el modo cursor en las
+    //          listas completas de clientes y vehículos aunque tengan
+    //          menos de UMBRAL_FILAS (comparaciones, CursorAdapterBenchmark).
+    // ------------------------------------------------------------------
+    public static final String EXTRA_MODO_CURSOR = "modo_cursor";
+
+    // ------------------------------------------------------------------
+    // == Atributo: UMBRAL_FILAS
+    //    Rol : Desde cuántas filas una lista completa se muestra en modo
+    //          cursor. Por debajo, armar la lista cuesta poco y el diff
+    //          por cambio gana; por encima, la memoria de la lista y el
+    //          tiempo hasta el primer frame pesan más (10k/100k en
+    //          CursorAdapterBenchmark).
+    // ------------------------------------------------------------------
+    public static final int UMBRAL_FILAS = 10_000;
+
+    // ------------------------------------------------------------------
+    // == Clase: Carga
+    //    Rol : Resultado de una lista completa: el cursor abierto (modo
+    //          cursor) o las entidades ya leídas, con el cursor cerrado.
+    // ------------------------------------------------------------------
+    public static final class Carga<T> {
+        @Nullable public final Cursor cursor;
+        @Nullable public final List<T> lista;
+
+        private Carga(@Nullable Cursor cursor, @Nullable List<T> lista) {
+            this.cursor = cursor;
+            this.lista = lista;
+        }
+
+        // --------------------------------------------------------------
+        // == Método: de
+        //    Parámetros:
+        //      - c (Cursor): lista completa recién abierta (getCount ya
+        //        hecho por el repositorio).
+        //      - forzar (boolean): modo cursor pedido por el Intent.
+        //      - read (Function): fila → entidad (p. ej.
+        //        PersonaRepository::read).
+        //    Descripción:
+        //      - Con forzar o c.getCount() >= UMBRAL_FILAS devuelve c tal
+        //        cual; si no, lo lee completo y lo cierra. Una sola
+        //        consulta en ambos casos.
+        // --------------------------------------------------------------
+        @WorkerThread
+        public static <T> Carga<T> de(@NonNull Cursor c, boolean forzar, @NonNull Function<Cursor, T> read) {
+            if (forzar || c.getCount() >= UMBRAL_FILAS) return new Carga<>(c, null);
+            try {
+                List<T> out = new ArrayList<>(c.getCount());
+                c.moveToPosition(-1);
+                while (c.moveToNext()) out.add(read.apply(c));
+                return new Carga<>(null, out);
+            } finally {
+                c.close();
+            }
+        }
+
+        // Descarta un resultado que ya no se va a mostrar.
+        public void close() {
+            if (cursor != null) cursor.close();
+        }
+    }
+
+    private Cursor cursor;
+
+    // Columna con un id numérico único por fila, o -1 (sin ids estables).
+    private final int idColumn;
+
+    // ------------------------------------------------------------------
+    // == Constructor: CursorListAdapter
+    //    Parámetros:
+    //      - idColumn (int): columna del cursor con un entero único por
+    //        fila (RUN, id) para ids estables; -1 si no hay.
+    // ------------------------------------------------------------------
+    protected CursorListAdapter(int idColumn) {
+        this.idColumn = idColumn;
+        setHasStableIds(idColumn >= 0);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: bind
+    //    Parámetros:
+    //      - h (VH): ViewHolder a llenar.
+    //      - row (Cursor): cursor ya posicionado en la fila; no guardar
+    //        la referencia ni moverlo.
+    // ------------------------------------------------------------------
+    protected abstract void bind(@NonNull VH h, @NonNull Cursor row);
+
+    // ------------------------------------------------------------------
+    // == Método: swap
+    //    Parámetros:
+    //      - next (Cursor): nuevo resultado (o null para vaciar).
+    //    Descripción:
+    //      - Muestra next y cierra el cursor anterior. Sin diff: todas
+    //        las filas visibles se vuelven a bindear (con ids estables el
+    //        RecyclerView conserva la posición de scroll).
+    // ------------------------------------------------------------------
+    @MainThread
+    public void swap(@Nullable Cursor next) {
+        if (next == cursor) return;
+        Cursor old = cursor;
+        cursor = next;
+        notifyDataSetChanged();
+        if (old != null) old.close();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getRow
+    //    Parámetros:
+    //      - pos (int): posición en la lista.
+    //    Retorno:
+    //      - Cursor: el cursor posicionado en pos (para leer esa fila en
+    //        el momento, p. ej. al tocarla), o null si no existe.
+    // ------------------------------------------------------------------
+    @Nullable
+    protected Cursor getRow(int pos) {
+        if (cursor == null || cursor.isClosed() || !cursor.moveToPosition(pos)) return null;
+        return cursor;
+    }
+
+    @Override
+    public int getItemCount() {
+        return cursor == null || cursor.isClosed() ? 0 : cursor.getCount();
+    }
+
+    @Override
+    public long getItemId(int pos) {
+        Cursor row = idColumn >= 0 ? getRow(pos) : null;
+        return row != null ? row.getLong(idColumn) : RecyclerView.NO_ID;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull VH h, int pos) {
+        Cursor row = getRow(pos);
+        if (row != null) bind(h, row);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: onDestroy (DefaultLifecycleObserver)
+    //    Descripción:
+    //      - Cierra el cursor actual al destruirse la Activity dueña.
+    // ------------------------------------------------------------------
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        owner.getLifecycle().removeObserver(this);
+        swap(null);
+    }
+}
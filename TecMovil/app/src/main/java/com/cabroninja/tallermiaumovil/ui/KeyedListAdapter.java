@@ -0,0 +1,166 @@
+package com.cabroninja.tallermiaumovil.ui;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// ======================================================================
+// == Clase: KeyedListAdapter
+// == Hereda de: RecyclerView.Adapter<VH>
+// == Rol dentro de la app:
+//    - Base común de PersonaAdapter, VehiculoAdapter y OrdenAdapter.
+//    - Cada lista nueva se compara con la mostrada usando DiffUtil en
+//      un hilo de fondo (AsyncListDiffer); al terminar, en el hilo
+//      principal, solo se notifican las filas insertadas, quitadas,
+//      movidas o cambiadas. Las demás no se vuelven a bindear y el
+//      RecyclerView conserva scroll y animaciones.
+//    - Las filas se identifican por su clave de negocio (run, patente o
+//      id, ver keyOf) y el adapter usa ids estables derivados de ella.
+// == Nota:
+//    - getItemCount/getItem leen la lista YA aplicada; append y
+//      removeKeys parten de la última lista enviada (latest), aunque su
+//      diff aún no haya terminado, para no perder cambios seguidos.
+// ======================================================================
+public abstract class KeyedListAdapter<T, VH extends RecyclerView.ViewHolder>
+        extends RecyclerView.Adapter<VH> {
+
+    // ------------------------------------------------------------------
+    // == Atributo: differ
+    //    Rol : Calcula los diffs fuera del hilo principal y mantiene la
+    //          lista que el RecyclerView está mostrando.
+    // ------------------------------------------------------------------
+    private final AsyncListDiffer<T> differ;
+
+    // Última lista enviada a differ (puede no estar aplicada todavía).
+    private List<T> latest = Collections.emptyList();
+
+    // Ids estables por clave (solo para claves no numéricas). Solo guarda
+    // las claves de latest y de la lista mostrada (ver podarIds); nextId
+    // nunca se reutiliza, así una clave nueva no hereda un id vivo.
+    private final Map<String, Long> stableIds = new HashMap<>();
+    private long nextId;
+
+    // ------------------------------------------------------------------
+    // == Constructor: KeyedListAdapter
+    //    Parámetros:
+    //      - diff (DiffUtil.ItemCallback<T>): misma fila = misma clave;
+    //        mismo contenido = mismos campos visibles.
+    // ------------------------------------------------------------------
+    protected KeyedListAdapter(@NonNull DiffUtil.ItemCallback<T> diff) {
+        differ = new AsyncListDiffer<>(new AdapterListUpdateCallback(this),
+                new AsyncDifferConfig.Builder<>(diff).build());
+        setHasStableIds(true);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: keyOf
+    //    Retorno:
+    //      - String: clave de negocio de la fila (la misma que publica
+    //        TableChange.keys para esa tabla).
+    // ------------------------------------------------------------------
+    protected abstract String keyOf(T item);
+
+    protected T getItem(int pos) {
+        return differ.getCurrentList().get(pos);
+    }
+
+    // Última lista enviada (para paginar y quitar filas sobre ella).
+    protected List<T> getLatest() {
+        return latest;
+    }
+
+    @Override
+    public int getItemCount() {
+        return differ.getCurrentList().size();
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: getItemId
+    //    Descripción:
+    //      - Id estable a partir de keyOf(); las subclases con clave
+    //        numérica (run, id) lo sobrescriben y usan la clave directa.
+    // ------------------------------------------------------------------
+    @Override
+    public long getItemId(int pos) {
+        String key = keyOf(getItem(pos));
+        Long id = stableIds.get(key);
+        if (id == null) {
+            id = nextId++;
+            stableIds.put(key, id);
+        }
+        return id;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: submit
+    //    Parámetros:
+    //      - nuevos (List<T>): lista completa a mostrar (puede ser null).
+    //    Descripción:
+    //      - Reemplaza el contenido; el diff se calcula en segundo plano
+    //        y solo se notifican las filas distintas.
+    // ------------------------------------------------------------------
+    public void submit(List<T> nuevos) {
+        // AsyncListDiffer ignora una lista idéntica (==): siempre copia nueva
+        enviar(nuevos == null ? new ArrayList<T>() : new ArrayList<>(nuevos));
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: append
+    //    Parámetros:
+    //      - pagina (List<T>): filas a agregar al final.
+    //    Descripción:
+    //      - El diff resultante es solo una inserción al final: las filas
+    //        ya visibles no se vuelven a bindear.
+    // ------------------------------------------------------------------
+    public void append(List<T> pagina) {
+        if (pagina == null || pagina.isEmpty()) return;
+        List<T> nueva = new ArrayList<>(latest.size() + pagina.size());
+        nueva.addAll(latest);
+        nueva.addAll(pagina);
+        enviar(nueva);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: removeKeys
+    //    Parámetros:
+    //      - keys (Collection<String>): claves borradas (TableChange.keys).
+    //    Descripción:
+    //      - Quita esas filas sin volver a consultar SQLite.
+    // ------------------------------------------------------------------
+    public void removeKeys(Collection<String> keys) {
+        List<T> nueva = new ArrayList<>(latest.size());
+        for (T item : latest) {
+            if (!keys.contains(keyOf(item))) nueva.add(item);
+        }
+        if (nueva.size() != latest.size()) enviar(nueva);
+    }
+
+    private void enviar(List<T> nueva) {
+        latest = nueva;
+        differ.submitList(nueva);
+        podarIds();
+    }
+
+    // Quita los ids de claves que ya no están ni en latest ni en la lista
+    // mostrada (la que sigue en pantalla hasta que termine el diff): con
+    // búsquedas y recargas sucesivas el mapa no crece sin límite.
+    private void podarIds() {
+        if (stableIds.isEmpty()) return;
+        Set<String> vivas = new HashSet<>(latest.size() * 2);
+        for (T item : latest) vivas.add(keyOf(item));
+        for (T item : differ.getCurrentList()) vivas.add(keyOf(item));
+        stableIds.keySet().retainAll(vivas);
+    }
+}
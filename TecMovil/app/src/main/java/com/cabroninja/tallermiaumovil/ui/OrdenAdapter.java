@@ -1,31 +1,55 @@
 package com.cabroninja.tallermiaumovil.ui;
 
 import android.view.*; import android.widget.TextView;
-import androidx.annotation.NonNull; import androidx.recyclerview.widget.RecyclerView;
+import androidx.annotation.NonNull; import androidx.recyclerview.widget.DiffUtil; import androidx.recyclerview.widget.RecyclerView;
 import com.cabroninja.tallermiaumovil.R;
+import com.cabroninja.tallermiaumovil.data.OrdenRepository;
 import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
-import java.util.ArrayList; import java.util.List;
-import java.util.Locale;
+import java.util.List; import java.util.Locale; import java.util.Objects;
 
 // ======================================================================
 // == Clase: OrdenAdapter
-// == Hereda de: RecyclerView.Adapter<OrdenAdapter.VH>
+// == Hereda de: KeyedListAdapter<OrdenTrabajo, OrdenAdapter.VH>
 // == Rol dentro de la app:
 //    - Adaptador de RecyclerView para listar OrdenTrabajo (OT).
 //    - Encapsula el formateo de cada línea (folio, fecha y total).
+//    - Las actualizaciones (recarga, páginas nuevas, borrados) se
+//      aplican por diff (ver KeyedListAdapter), identificando cada fila
+//      por su id.
 //    - Expone un callback de "long press" para acciones de contexto
 //      (por ejemplo, eliminar o editar una OT).
 // ======================================================================
-public class OrdenAdapter extends RecyclerView.Adapter<OrdenAdapter.VH> {
+public class OrdenAdapter extends KeyedListAdapter<OrdenTrabajo, OrdenAdapter.VH> {
 
     // ------------------------------------------------------------------
-    // == Atributo: data
-    //    Tipo: List<OrdenTrabajo>
-    //    Rol : Fuente de datos actual del adapter; se reemplaza completa
-    //          mediante submit(List<OrdenTrabajo>).
-    //    Nota: Comienza vacía para evitar null checks.
+    // == Atributo: ROW
+    //    Tipo: RowLayout
+    //    Rol : Layout de la fila (item_orden) y su TextView principal.
     // ------------------------------------------------------------------
-    private final List<OrdenTrabajo> data = new ArrayList<>();
+    static final RowLayout ROW = new RowLayout(R.layout.item_orden, R.id.txtLinea);
+
+    // ------------------------------------------------------------------
+    // == Atributo: DIFF
+    //    Tipo: DiffUtil.ItemCallback<OrdenTrabajo>
+    //    Rol : Misma fila = mismo id; mismo contenido = mismos campos
+    //          (número, fecha, montos, observación y patente).
+    // ------------------------------------------------------------------
+    static final DiffUtil.ItemCallback<OrdenTrabajo> DIFF = new DiffUtil.ItemCallback<OrdenTrabajo>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull OrdenTrabajo a, @NonNull OrdenTrabajo b) {
+            return a.id == b.id;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull OrdenTrabajo a, @NonNull OrdenTrabajo b) {
+            return Objects.equals(a.numero, b.numero)
+                    && Objects.equals(a.fecha, b.fecha)
+                    && a.valorNeto == b.valorNeto
+                    && a.iva == b.iva
+                    && Objects.equals(a.observacion, b.observacion)
+                    && Objects.equals(a.patente, b.patente);
+        }
+    };
 
     // ------------------------------------------------------------------
     // == Constructor: OrdenAdapter
@@ -36,7 +60,14 @@ public class OrdenAdapter extends RecyclerView.Adapter<OrdenAdapter.VH> {
     //    Retorno:
     //      - (constructor) instancia lista para asignar al RecyclerView.
     // ------------------------------------------------------------------
-    public OrdenAdapter(){}
+    public OrdenAdapter(){ super(DIFF); }
+
+    @Override
+    protected String keyOf(OrdenTrabajo o){ return String.valueOf(o.id); }
+
+    // El id de la OT ya es único y numérico: sirve directo como id estable.
+    @Override
+    public long getItemId(int pos){ return getItem(pos).id; }
 
     // ==================================================================
     // == Clase interna: VH (ViewHolder)
@@ -66,7 +97,7 @@ public class OrdenAdapter extends RecyclerView.Adapter<OrdenAdapter.VH> {
         // --------------------------------------------------------------
         VH(@NonNull View itemView) {
             super(itemView);
-            linea = itemView.findViewById(R.id.txtLinea);
+            linea = ROW.views(itemView)[0];
         }
     }
 
@@ -83,15 +114,14 @@ public class OrdenAdapter extends RecyclerView.Adapter<OrdenAdapter.VH> {
     @NonNull
     @Override
     public VH onCreateViewHolder(@NonNull ViewGroup parent, int vt) {
-        View v = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_orden, parent, false);
-        return new VH(v);
+        return new VH(ROW.inflate(parent));
     }
 
     // ------------------------------------------------------------------
     // == Método: onBindViewHolder
     //    Parámetros:
     //      - h (VH): ViewHolder con vistas cacheadas.
-    //      - pos (int): posición del elemento dentro de data.
+    //      - pos (int): posición del elemento en la lista mostrada.
     //    Descripción:
     //      - Construye una línea de texto con:
     //          • Prefijo "OT " + numero
@@ -110,38 +140,20 @@ public class OrdenAdapter extends RecyclerView.Adapter<OrdenAdapter.VH> {
     // ------------------------------------------------------------------
     @Override
     public void onBindViewHolder(@NonNull VH h, int pos) {
-        OrdenTrabajo o = data.get(pos);
+        OrdenTrabajo o = getItem(pos);
         String s = "OT " + o.numero + " — " + o.fecha + " — Total: $" + String.format(Locale.US, "%,.0f", o.total());
         h.linea.setText(s);
     }
 
     // ------------------------------------------------------------------
-    // == Método: getItemCount
-    //    Parámetros:
-    //      - (sin parámetros)
-    //    Descripción:
-    //      - Devuelve la cantidad de elementos actualmente en la lista.
-    //    Retorno:
-    //      - int: tamaño de data.
-    // ------------------------------------------------------------------
-    @Override
-    public int getItemCount(){ return data.size(); }
-
-    // ------------------------------------------------------------------
-    // == Método: submit
-    //    Parámetros:
-    //      - nuevos (List<OrdenTrabajo>): nueva colección a mostrar (puede ser null).
-    //    Descripción:
-    //      - Reemplaza el contenido de data por la lista indicada y
-    //        notifica un refresco completo del RecyclerView.
+    // == Método: getLastId
     //    Retorno:
-    //      - void.
-    //    Nota:
-    //      - Para listas grandes, usar DiffUtil para actualizaciones
-    //        eficientes y animadas en vez de notifyDataSetChanged().
+    //      - long: id de la última OT enviada al adapter (clave para pedir
+    //        la página siguiente), o OrdenRepository.FIRST_PAGE si no hay
+    //        ninguna. Cuenta también la página cuyo diff aún no terminó.
     // ------------------------------------------------------------------
-    public void submit(List<OrdenTrabajo> nuevos){
-        data.clear(); if (nuevos != null) data.addAll(nuevos);
-        notifyDataSetChanged();
+    public long getLastId(){
+        List<OrdenTrabajo> latest = getLatest();
+        return latest.isEmpty() ? OrdenRepository.FIRST_PAGE : latest.get(latest.size() - 1).id;
     }
 }
@@ -1,29 +1,30 @@
 package com.cabroninja.tallermiaumovil.ui;
 
-import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cabroninja.tallermiaumovil.R;
 import com.cabroninja.tallermiaumovil.model.Persona;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Objects;
 
 // ======================================================================
 // == Clase: PersonaAdapter
-// == Hereda de: RecyclerView.Adapter<PersonaAdapter.VH>
+// == Hereda de: KeyedListAdapter<Persona, PersonaAdapter.VH>
 // == Rol dentro de la app:
 //    - Adaptador de RecyclerView que muestra una lista de Persona.
 //    - Recibe una función de callback (OnClick) para notificar el tap
 //      sobre un item y dejar la navegación en manos de la Activity.
 //    - Se encarga de inflar item_cliente, enlazar datos y formatear RUN.
+//    - Las actualizaciones de la lista se aplican por diff (ver
+//      KeyedListAdapter), identificando cada fila por su RUN.
 // ======================================================================
-public class PersonaAdapter extends RecyclerView.Adapter<PersonaAdapter.VH> {
+public class PersonaAdapter extends KeyedListAdapter<Persona, PersonaAdapter.VH> {
 
     // ------------------------------------------------------------------
     // == Interface: OnClick
@@ -39,13 +40,24 @@ public class PersonaAdapter extends RecyclerView.Adapter<PersonaAdapter.VH> {
     }
 
     // ------------------------------------------------------------------
-    // == Atributo: data
-    //    Tipo: List<Persona>
-    //    Rol : Fuente de datos actual del adapter. Se reemplaza completa
-    //          mediante submit(List<Persona>) y se notifica al RV.
-    //    Nota: Se inicializa con lista vacía para evitar null checks.
+    // == Atributo: DIFF
+    //    Tipo: DiffUtil.ItemCallback<Persona>
+    //    Rol : Misma fila = mismo RUN; mismo contenido = mismo nombre,
+    //          apellido y correo (lo que muestra la fila).
     // ------------------------------------------------------------------
-    private final List<Persona> data = new ArrayList<>();
+    static final DiffUtil.ItemCallback<Persona> DIFF = new DiffUtil.ItemCallback<Persona>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Persona a, @NonNull Persona b) {
+            return a.run == b.run;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Persona a, @NonNull Persona b) {
+            return Objects.equals(a.nombre, b.nombre)
+                    && Objects.equals(a.apellido, b.apellido)
+                    && Objects.equals(a.email, b.email);
+        }
+    };
 
     // ------------------------------------------------------------------
     // == Atributo: onClick
@@ -65,40 +77,24 @@ public class PersonaAdapter extends RecyclerView.Adapter<PersonaAdapter.VH> {
     //      - (constructor) instancia lista para asignar al RecyclerView.
     // ------------------------------------------------------------------
     public PersonaAdapter(OnClick onClick){
+        super(DIFF);
         this.onClick = onClick;
     }
 
+    @Override
+    protected String keyOf(Persona p){ return String.valueOf(p.run); }
+
+    // El RUN ya es único y numérico: sirve directo como id estable.
+    @Override
+    public long getItemId(int pos){ return getItem(pos).run; }
+
     // ------------------------------------------------------------------
-    // == Método estático: findText
-    //    Parámetros:
-    //      - v (View): raíz del layout inflado del item.
-    //      - candidates (String...): posibles IDs de TextView a probar.
-    //    Descripción:
-    //      - Heurística de compatibilidad: intenta encontrar un TextView
-    //        probando múltiples nombres de id (getIdentifier) para
-    //        tolerar layouts heredados con convenciones distintas.
-    //      - Si no encuentra ninguno, devuelve un TextView vacío para
-    //        evitar NullPointer (fallback “inofensivo”).
-    //    Retorno:
-    //      - TextView: referencia al primer TextView coincidente o uno
-    //        nuevo vacío como fallback.
-    //    Nota de mantenimiento:
-    //      - Lo ideal es estandarizar IDs en los XML (p. ej., tvNombre y
-    //        tvCorreo) y eliminar esta heurística para simplificar.
-    // ------------------------------------------------------------------
-    static TextView findText(View v, String... candidates){
-        for (String name : candidates){
-            int id = v.getResources().getIdentifier(name, "id", v.getContext().getPackageName());
-            if (id != 0){
-                View found = v.findViewById(id);
-                if (found instanceof TextView) {
-                    return (TextView) found;
-                }
-            }
-        }
-        // Fallback para compilar y no crashear si los ids cambian: devuelve un TextView vacío.
-        return new TextView(v.getContext());
-    }
+    // == Atributo: ROW
+    //    Tipo: RowLayout
+    //    Rol : Layout de la fila y sus TextView (nombre, correo), con los
+    //          ids validados una sola vez para todas las filas.
+    // ------------------------------------------------------------------
+    static final RowLayout ROW = new RowLayout(R.layout.item_cliente, R.id.txtNombre, R.id.txtTelefono);
 
     // ==================================================================
     // == Clase interna: VH (ViewHolder)
@@ -128,16 +124,16 @@ public class PersonaAdapter extends RecyclerView.Adapter<PersonaAdapter.VH> {
         //    Parámetros:
         //      - v (View): vista raíz del layout del item.
         //    Descripción:
-        //      - Resuelve y guarda referencias a los TextView usando
-        //        la heurística findText() para tolerar distintos IDs.
+        //      - Guarda las referencias a los TextView resueltas por ROW
+        //        (null si el layout no trae alguno; onBind lo omite).
         //    Retorno:
         //      - (constructor) instancia del ViewHolder lista para bind.
         // --------------------------------------------------------------
         public VH(@NonNull View v){
             super(v);
-            // Intentamos múltiples convenciones de nombres para el layout reutilizado.
-            nombre = findText(v, "txtNombre", "txtNombre", "tvNombre", "tvNombreCliente", "tvPersonaNombre", "tvNombrePersona", "textNombre", "title");
-            correo = findText(v, "txtTelefono", "tvCorreo", "tvCorreoCliente", "tvPersonaCorreo", "tvCorreoPersona", "textCorreo", "subtitle");
+            TextView[] t = ROW.views(v);
+            nombre = t[0];
+            correo = t[1];
         }
     }
 
@@ -154,15 +150,14 @@ public class PersonaAdapter extends RecyclerView.Adapter<PersonaAdapter.VH> {
     @NonNull
     @Override
     public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType){
-        View v = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_cliente, parent, false);
-        return new VH(v);
+        return new VH(ROW.inflate(parent));
     }
 
     // ------------------------------------------------------------------
     // == Método: onBindViewHolder
     //    Parámetros:
     //      - h (VH): ViewHolder con referencias a vistas.
-    //      - pos (int): posición del elemento en la lista data.
+    //      - pos (int): posición del elemento en la lista mostrada.
     //    Descripción:
     //      - Toma la Persona en la posición dada, arma el nombre visible
     //        (nombre completo + RUN formateado) y el correo, y los muestra.
@@ -172,46 +167,29 @@ public class PersonaAdapter extends RecyclerView.Adapter<PersonaAdapter.VH> {
     // ------------------------------------------------------------------
     @Override
     public void onBindViewHolder(@NonNull VH h, int pos){
-        Persona p = data.get(pos);
-        if (h.nombre != null) {
-            String _rut = formatRun(p.run);
-            String _nombre = p.nombreCompleto();
-            h.nombre.setText(_rut != null && !_rut.isEmpty() ? _nombre + "  —  " + _rut : _nombre);
-        }
-        if (h.correo != null) {
-            h.correo.setText(p.email);
-        }
+        Persona p = getItem(pos);
+        mostrar(h, p.run, p.nombre, p.apellido, p.email);
         h.itemView.setOnClickListener(v -> { if (onClick != null) onClick.onClick(p); });
     }
 
     // ------------------------------------------------------------------
-    // == Método: getItemCount
-    //    Parámetros:
-    //      - (sin parámetros)
-    //    Descripción:
-    //      - Devuelve la cantidad de elementos actualmente en data.
-    //    Retorno:
-    //      - int: tamaño de la lista.
-    // ------------------------------------------------------------------
-    @Override
-    public int getItemCount(){ return data.size(); }
-
-    // ------------------------------------------------------------------
-    // == Método: submit
+    // == Método estático: mostrar
     //    Parámetros:
-    //      - nuevos (List<Persona>): nueva colección a mostrar (puede ser null).
+    //      - h (VH): ViewHolder a llenar.
+    //      - run, nombre, apellido, email: campos de la fila (de una
+    //        Persona o leídos del cursor en PersonaCursorAdapter).
     //    Descripción:
-    //      - Reemplaza el contenido de data por la lista indicada y
-    //        notifica un refresco completo al RecyclerView.
-    //    Retorno:
-    //      - void.
-    //    Nota:
-    //      - Para listas grandes conviene usar DiffUtil para animaciones
-    //        y actualizaciones más eficientes (evitar notifyDataSetChanged).
+    //      - Nombre visible (nombre completo + RUN formateado) y correo.
     // ------------------------------------------------------------------
-    public void submit(List<Persona> nuevos){
-        data.clear(); if (nuevos != null) data.addAll(nuevos);
-        notifyDataSetChanged();
+    static void mostrar(@NonNull VH h, int run, String nombre, String apellido, String email){
+        if (h.nombre != null) {
+            String _rut = formatRun(run);
+            String _nombre = Persona.nombreCompleto(nombre, apellido);
+            h.nombre.setText(_rut != null && !_rut.isEmpty() ? _nombre + "  —  " + _rut : _nombre);
+        }
+        if (h.correo != null) {
+            h.correo.setText(email);
+        }
     }
 
     // ------------------------------------------------------------------
@@ -0,0 +1,54 @@
+package com.cabroninja.tallermiaumovil.ui;
+
+import android.database.Cursor;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+
+import com.cabroninja.tallermiaumovil.data.PersonaRepository;
+
+// ======================================================================
+// == Clase: PersonaCursorAdapter
+// == Hereda de: CursorListAdapter<PersonaAdapter.VH>
+// == Rol dentro de la app:
+//    - Modo cursor de la lista de personas: misma fila (item_cliente) y
+//      mismo formato que PersonaAdapter, pero leyendo RUN, nombre,
+//      apellido y email del cursor de PersonaRepository.cursorByTipo al
+//      bindear. Solo la fila tocada se arma como Persona.
+// ======================================================================
+public class PersonaCursorAdapter extends CursorListAdapter<PersonaAdapter.VH> {
+
+    private final PersonaAdapter.OnClick onClick;
+
+    // ------------------------------------------------------------------
+    // == Constructor: PersonaCursorAdapter
+    //    Parámetros:
+    //      - onClick (PersonaAdapter.OnClick): callback de selección.
+    //    Descripción:
+    //      - El RUN sirve de id estable.
+    // ------------------------------------------------------------------
+    public PersonaCursorAdapter(PersonaAdapter.OnClick onClick){
+        super(PersonaRepository.COL_RUN);
+        this.onClick = onClick;
+    }
+
+    @NonNull
+    @Override
+    public PersonaAdapter.VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType){
+        PersonaAdapter.VH h = new PersonaAdapter.VH(PersonaAdapter.ROW.inflate(parent));
+        // Un solo listener por ViewHolder: lee la fila recién al tocarla.
+        h.itemView.setOnClickListener(v -> {
+            Cursor row = getRow(h.getBindingAdapterPosition());
+            if (row != null && onClick != null) onClick.onClick(PersonaRepository.read(row));
+        });
+        return h;
+    }
+
+    @Override
+    protected void bind(@NonNull PersonaAdapter.VH h, @NonNull Cursor row){
+        PersonaAdapter.mostrar(h, row.getInt(PersonaRepository.COL_RUN),
+                row.getString(PersonaRepository.COL_NOMBRE),
+                row.getString(PersonaRepository.COL_APELLIDO),
+                row.getString(PersonaRepository.COL_EMAIL));
+    }
+}
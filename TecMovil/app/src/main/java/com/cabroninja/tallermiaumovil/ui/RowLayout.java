@@ -0,0 +1,97 @@
+package com.cabroninja.tallermiaumovil.ui;
+
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+// ======================================================================
+// == Clase: RowLayout
+// == Rol dentro de la app:
+//    - Capa de enlace de vistas compartida por PersonaAdapter,
+//      VehiculoAdapter y OrdenAdapter.
+//    - Describe el layout de una fila (R.layout.*) y los TextView que
+//      usa su ViewHolder (R.id.*, resueltos en compilación: sin
+//      Resources.getIdentifier por nombre).
+//    - La primera fila inflada valida, una sola vez por layout, qué ids
+//      existen y son TextView; las siguientes solo hacen findViewById de
+//      los ids válidos. Un id ausente queda en null (con un aviso en el
+//      log la primera vez) en lugar de crear un TextView descartable.
+// == Hilos:
+//    - Solo hilo principal (igual que onCreateViewHolder).
+// ======================================================================
+public final class RowLayout {
+
+    private static final String TAG = "RowLayout";
+
+    private final int layoutRes;
+    private final int[] textIds;
+
+    // ------------------------------------------------------------------
+    // == Atributo: valid
+    //    Rol : valid[i] indica si textIds[i] existe en el layout y es un
+    //          TextView. null hasta inflar la primera fila.
+    // ------------------------------------------------------------------
+    private boolean[] valid;
+
+    // ------------------------------------------------------------------
+    // == Constructor: RowLayout
+    //    Parámetros:
+    //      - layoutRes (int): layout de la fila (R.layout.item_*).
+    //      - textIds (int...): ids de los TextView, en el orden en que
+    //        views() los devuelve.
+    // ------------------------------------------------------------------
+    public RowLayout(int layoutRes, int... textIds) {
+        this.layoutRes = layoutRes;
+        this.textIds = textIds;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: inflate
+    //    Parámetros:
+    //      - parent (ViewGroup): RecyclerView que alojará la fila.
+    //    Retorno:
+    //      - View: raíz de la fila, sin adjuntar a parent.
+    // ------------------------------------------------------------------
+    @MainThread
+    public View inflate(@NonNull ViewGroup parent) {
+        return LayoutInflater.from(parent.getContext()).inflate(layoutRes, parent, false);
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: views
+    //    Parámetros:
+    //      - root (View): raíz devuelta por inflate().
+    //    Descripción:
+    //      - Devuelve los TextView de la fila en el orden de textIds; el
+    //        ViewHolder los guarda y no vuelve a buscarlos al bindear.
+    //    Retorno:
+    //      - TextView[]: una entrada por id (null si el id no es válido
+    //        en este layout).
+    // ------------------------------------------------------------------
+    @MainThread
+    public TextView[] views(@NonNull View root) {
+        if (valid == null) valid = validate(root);
+        TextView[] out = new TextView[textIds.length];
+        for (int i = 0; i < textIds.length; i++) {
+            if (valid[i]) out[i] = root.findViewById(textIds[i]);
+        }
+        return out;
+    }
+
+    // Primera fila: decide qué ids sirven para todas las demás.
+    private boolean[] validate(View root) {
+        boolean[] ok = new boolean[textIds.length];
+        for (int i = 0; i < textIds.length; i++) {
+            ok[i] = root.findViewById(textIds[i]) instanceof TextView;
+            if (!ok[i]) {
+                Log.w(TAG, "El layout " + layoutRes + " no tiene un TextView con id " + textIds[i]);
+            }
+        }
+        return ok;
+    }
+}
@@ -0,0 +1,132 @@
+package com.cabroninja.tallermiaumovil.ui;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.MenuItem;
+import android.widget.Toast;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.widget.SearchView;
+
+import com.cabroninja.tallermiaumovil.data.SearchIndex;
+
+// ======================================================================
+// == Clase: SearchBox
+// == Rol dentro de la app:
+//    - Buscador de las pantallas de lista (clientes, vehículos y
+//      órdenes): conecta el SearchView del menú R.menu.menu_buscar con
+//      la pantalla.
+//    - Búsqueda mientras se escribe: espera DEBOUNCE_MS sin teclear antes
+//      de avisar, así una palabra escrita de corrido cuesta una consulta
+//      y no una por letra. Enviar (tecla buscar) avisa de inmediato.
+//    - Avisa null cuando el texto queda vacío o más corto que
+//      SearchIndex.MIN_CHARS: la pantalla vuelve a su lista normal.
+//    - Las pantallas que muestran solo el primer tramo del ranking
+//      (SearchIndex.CANDIDATES) llaman a showResults con lo que
+//      recibieron: si el resultado llenó el tramo, avisa que puede haber
+//      más coincidencias y que conviene afinar el texto.
+// == Uso:
+//      getMenuInflater().inflate(R.menu.menu_buscar, menu);
+//      buscador = SearchBox.attach(menu.findItem(R.id.action_buscar),
+//                                  "Nombre o email", this::buscar);
+//      ... al recibir el resultado: buscador.showResults(lista.size());
+// == Hilos:
+//    - Solo hilo principal.
+// ======================================================================
+public final class SearchBox implements SearchView.OnQueryTextListener {
+
+    // ------------------------------------------------------------------
+    // == Interface: Listener
+    //    Rol: Recibe el texto a buscar, o null para salir de la búsqueda.
+    // ------------------------------------------------------------------
+    public interface Listener {
+        void onQuery(@Nullable String texto);
+    }
+
+    static final long DEBOUNCE_MS = 200;
+
+    private final Listener listener;
+    private SearchView view;
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final Runnable emit = this::emit;
+
+    // Último texto escrito y último texto avisado (null = sin búsqueda).
+    private String pending;
+    private String current;
+
+    // Texto cuyo tope ya se avisó (un aviso por búsqueda, no por recarga).
+    private String truncated;
+
+    private SearchBox(Listener listener) {
+        this.listener = listener;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: attach
+    //    Parámetros:
+    //      - item (MenuItem): ítem R.id.action_buscar ya inflado.
+    //      - hint (String): texto de ayuda del campo.
+    //      - listener (Listener): receptor de las búsquedas.
+    //    Retorno:
+    //      - SearchBox: buscador conectado.
+    // ------------------------------------------------------------------
+    @MainThread
+    public static SearchBox attach(@NonNull MenuItem item, String hint, @NonNull Listener listener) {
+        SearchBox box = new SearchBox(listener);
+        box.view = (SearchView) item.getActionView();
+        box.view.setQueryHint(hint);
+        box.view.setOnQueryTextListener(box);
+        return box;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: showResults
+    //    Parámetros:
+    //      - rows (int): filas que devolvió la búsqueda actual pedida con
+    //        limit = SearchIndex.CANDIDATES.
+    //    Descripción:
+    //      - Con un tramo lleno el resultado pudo quedar cortado: muestra
+    //        un aviso (una vez por texto buscado).
+    // ------------------------------------------------------------------
+    @MainThread
+    public void showResults(int rows) {
+        if (current == null || rows < SearchIndex.CANDIDATES || current.equals(truncated)) return;
+        truncated = current;
+        Toast.makeText(view.getContext(), "Se muestran las primeras " + rows
+                + " coincidencias; escribe más para acotar", Toast.LENGTH_LONG).show();
+    }
+
+    @Override
+    public boolean onQueryTextChange(String texto) {
+        pending = normalize(texto);
+        main.removeCallbacks(emit);
+        if (pending == null) {
+            emit();
+        } else {
+            main.postDelayed(emit, DEBOUNCE_MS);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean onQueryTextSubmit(String texto) {
+        pending = normalize(texto);
+        main.removeCallbacks(emit);
+        emit();
+        return true;
+    }
+
+    // Avisa el texto pendiente si cambió respecto del último avisado.
+    private void emit() {
+        String texto = pending;
+        if (texto == null ? current == null : texto.equals(current)) return;
+        current = texto;
+        listener.onQuery(texto);
+    }
+
+    private static String normalize(String texto) {
+        return SearchIndex.matchQuery(texto) != null ? texto.trim() : null;
+    }
+}
@@ -1,24 +1,26 @@
 package com.cabroninja.tallermiaumovil.ui;
 
 import android.view.*; import android.widget.TextView;
-import androidx.annotation.NonNull; import androidx.recyclerview.widget.RecyclerView;
+import androidx.annotation.NonNull; import androidx.recyclerview.widget.DiffUtil; import androidx.recyclerview.widget.RecyclerView;
 import com.cabroninja.tallermiaumovil.R;
 import com.cabroninja.tallermiaumovil.model.Vehiculo;
-import java.util.ArrayList; import java.util.List;
+import java.util.Objects;
 
 // ======================================================================
 // == Clase: VehiculoAdapter
-// == Hereda de: RecyclerView.Adapter<VehiculoAdapter.VH)
+// == Hereda de: KeyedListAdapter<Vehiculo, VehiculoAdapter.VH>
 // == Rol dentro de la app:
 //    - Adaptador para mostrar una lista de Vehiculo en un RecyclerView.
 //    - Infla el layout de fila (item_vehiculo) y enlaza los datos del
 //      modelo Vehiculo en un TextView (formato provisto por toString()).
 //    - Exponer un callback OnClick para que la Activity controle la
 //      navegación/acciones al tocar un ítem.
+//    - Las actualizaciones de la lista se aplican por diff (ver
+//      KeyedListAdapter), identificando cada fila por su patente.
 //    - Incluye una interfaz OnLong (no cableada en este adapter) por si
 //      se quiere manejar pulsación larga a futuro sin cambiar las firmas.
 // ======================================================================
-public class VehiculoAdapter extends RecyclerView.Adapter<VehiculoAdapter.VH> {
+public class VehiculoAdapter extends KeyedListAdapter<Vehiculo, VehiculoAdapter.VH> {
 
     // ------------------------------------------------------------------
     // == Interface: OnClick
@@ -30,12 +32,31 @@ public class VehiculoAdapter extends RecyclerView.Adapter<VehiculoAdapter.VH> {
     public interface OnClick { void onClick(Vehiculo v); }
 
     // ------------------------------------------------------------------
-    // == Atributo: data
-    //    Tipo: List<Vehiculo>
-    //    Rol : Fuente de datos actual a renderizar en el RecyclerView.
-    //    Nota: Inicia vacío para evitar nulos; se reemplaza con submit().
+    // == Atributo: ROW
+    //    Tipo: RowLayout
+    //    Rol : Layout de la fila (item_vehiculo) y su TextView principal.
     // ------------------------------------------------------------------
-    private final List<Vehiculo> data = new ArrayList<>();
+    static final RowLayout ROW = new RowLayout(R.layout.item_vehiculo, R.id.txtLinea);
+
+    // ------------------------------------------------------------------
+    // == Atributo: DIFF
+    //    Tipo: DiffUtil.ItemCallback<Vehiculo>
+    //    Rol : Misma fila = misma patente; mismo contenido = mismos
+    //          campos mostrados por toString() (y dueño).
+    // ------------------------------------------------------------------
+    static final DiffUtil.ItemCallback<Vehiculo> DIFF = new DiffUtil.ItemCallback<Vehiculo>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Vehiculo a, @NonNull Vehiculo b) {
+            return Objects.equals(a.patente, b.patente);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Vehiculo a, @NonNull Vehiculo b) {
+            return Objects.equals(a.modelo, b.modelo)
+                    && Objects.equals(a.color, b.color)
+                    && Objects.equals(a.runDueno, b.runDueno);
+        }
+    };
 
     // ------------------------------------------------------------------
     // == Atributo: onClick
@@ -54,7 +75,13 @@ public class VehiculoAdapter extends RecyclerView.Adapter<VehiculoAdapter.VH> {
     //    Retorno:
     //      - (constructor) instancia lista para asignar al RecyclerView.
     // ------------------------------------------------------------------
-    public VehiculoAdapter(OnClick onClick){ this.onClick = onClick; }
+    public VehiculoAdapter(OnClick onClick){
+        super(DIFF);
+        this.onClick = onClick;
+    }
+
+    @Override
+    protected String keyOf(Vehiculo v){ return v.patente; }
 
     // ==================================================================
     // == Clase interna: VH (ViewHolder)
@@ -63,7 +90,7 @@ public class VehiculoAdapter extends RecyclerView.Adapter<VehiculoAdapter.VH> {
     //    - Cachea referencias a vistas del layout de ítem para evitar
     //      llamadas repetidas a findViewById durante el scrolleo.
     // ==================================================================
-    static class VH extends RecyclerView.ViewHolder {
+    public static class VH extends RecyclerView.ViewHolder {
 
         // --------------------------------------------------------------
         // == Atributo: linea
@@ -84,7 +111,7 @@ public class VehiculoAdapter extends RecyclerView.Adapter<VehiculoAdapter.VH> {
         // --------------------------------------------------------------
         VH(@NonNull View itemView) {
             super(itemView);
-            linea = itemView.findViewById(R.id.txtLinea);
+            linea = ROW.views(itemView)[0];
         }
     }
 
@@ -100,17 +127,16 @@ public class VehiculoAdapter extends RecyclerView.Adapter<VehiculoAdapter.VH> {
     // ------------------------------------------------------------------
     @NonNull @Override
     public VH onCreateViewHolder(@NonNull ViewGroup parent, int vt) {
-        View v = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_vehiculo, parent, false);
-        return new VH(v);
+        return new VH(ROW.inflate(parent));
     }
 
     // ------------------------------------------------------------------
     // == Método: onBindViewHolder
     //    Parámetros:
     //      - h (VH): ViewHolder con vistas cacheadas.
-    //      - pos (int): posición del elemento en la lista data.
+    //      - pos (int): posición del elemento en la lista mostrada.
     //    Descripción:
-    //      - Obtiene el Vehiculo en data[pos], muestra su toString()
+    //      - Obtiene el Vehiculo en la posición pos, muestra su toString()
     //        en el TextView principal y configura el click del ítem
     //        para invocar onClick.onClick(v) si hay callback.
     //    Retorno:
@@ -118,37 +144,8 @@ public class VehiculoAdapter extends RecyclerView.Adapter<VehiculoAdapter.VH> {
     // ------------------------------------------------------------------
     @Override
     public void onBindViewHolder(@NonNull VH h, int pos) {
-        Vehiculo v = data.get(pos);
+        Vehiculo v = getItem(pos);
         h.linea.setText(v.toString());
-    }
-
-    // ------------------------------------------------------------------
-    // == Método: getItemCount
-    //    Parámetros:
-    //      - (sin parámetros)
-    //    Descripción:
-    //      - Devuelve la cantidad de elementos que se están mostrando.
-    //    Retorno:
-    //      - int: tamaño de la lista data.
-    // ------------------------------------------------------------------
-    @Override
-    public int getItemCount(){ return data.size(); }
-
-    // ------------------------------------------------------------------
-    // == Método: submit
-    //    Parámetros:
-    //      - nuevos (List<Vehiculo>): nueva colección a mostrar (puede ser null).
-    //    Descripción:
-    //      - Reemplaza por completo el contenido de data y notifica al
-    //        RecyclerView para refrescar la UI.
-    //    Retorno:
-    //      - void.
-    //    Nota:
-    //      - Para listas grandes/actualizaciones parciales, considerar
-    //        DiffUtil para diffs eficientes en vez de notifyDataSetChanged().
-    // ------------------------------------------------------------------
-    public void submit(List<Vehiculo> nuevos){
-        data.clear(); if (nuevos != null) data.addAll(nuevos);
-        notifyDataSetChanged();
+        h.itemView.setOnClickListener(x -> { if (onClick != null) onClick.onClick(v); });
     }
 }
@@ -0,0 +1,46 @@
+package com.cabroninja.tallermiaumovil.ui;
+
+import android.database.Cursor;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+
+import com.cabroninja.tallermiaumovil.data.VehiculoRepository;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+// ======================================================================
+// == Clase: VehiculoCursorAdapter
+// == Hereda de: CursorListAdapter<VehiculoAdapter.VH>
+// == Rol dentro de la app:
+//    - Modo cursor de la lista de vehículos: misma fila (item_vehiculo)
+//      y mismo texto que VehiculoAdapter, leído del cursor de
+//      VehiculoRepository.cursorAll/cursorByRunDueno al bindear.
+//    - La patente es TEXT: no hay id numérico, así que sin ids estables.
+// ======================================================================
+public class VehiculoCursorAdapter extends CursorListAdapter<VehiculoAdapter.VH> {
+
+    private final VehiculoAdapter.OnClick onClick;
+
+    public VehiculoCursorAdapter(VehiculoAdapter.OnClick onClick){
+        super(-1);
+        this.onClick = onClick;
+    }
+
+    @NonNull @Override
+    public VehiculoAdapter.VH onCreateViewHolder(@NonNull ViewGroup parent, int vt) {
+        VehiculoAdapter.VH h = new VehiculoAdapter.VH(VehiculoAdapter.ROW.inflate(parent));
+        // Un solo listener por ViewHolder: lee la fila recién al tocarla.
+        h.itemView.setOnClickListener(v -> {
+            Cursor row = getRow(h.getBindingAdapterPosition());
+            if (row != null && onClick != null) onClick.onClick(VehiculoRepository.read(row));
+        });
+        return h;
+    }
+
+    @Override
+    protected void bind(@NonNull VehiculoAdapter.VH h, @NonNull Cursor row) {
+        h.linea.setText(Vehiculo.linea(row.getString(VehiculoRepository.COL_PATENTE),
+                row.getString(VehiculoRepository.COL_MODELO),
+                row.getString(VehiculoRepository.COL_COLOR)));
+    }
+}
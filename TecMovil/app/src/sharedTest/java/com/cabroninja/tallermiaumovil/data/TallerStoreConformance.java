@@ -0,0 +1,340 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+// ======================================================================
+// == Clase: TallerStoreConformance
+// == Rol:
+//    - Contrato de TallerStore escrito una sola vez: cada motor lo
+//      hereda y solo dice cómo abrir un store vacío.
+//        * MemoryTallerStoreTest (test local, JVM)
+//        * SqliteTallerStoreTest (instrumentado)
+//        * JdbcTallerStoreTest   (módulo :bench, JVM)
+//    - Cubre altas, restricciones, cargas masivas, orden de listados,
+//      paginación, cascadas, login con rehash y la búsqueda de texto
+//      (también más allá del primer tramo de SearchText.CANDIDATES).
+//    - Los mensajes de conflicto no se comparan: cada motor usa los
+//      suyos.
+// ======================================================================
+public abstract class TallerStoreConformance {
+
+    private TallerStore store;
+    private PersonaStore personas;
+    private VehiculoStore vehiculos;
+    private OrdenStore ordenes;
+
+    // ------------------------------------------------------------------
+    // == Método: open
+    //    Parámetros:
+    //      - passwords (PasswordHasher): hasher de bajo costo del test.
+    //    Retorno:
+    //      - TallerStore: store vacío y exclusivo del test.
+    // ------------------------------------------------------------------
+    protected abstract TallerStore open(PasswordHasher passwords);
+
+    // Libera lo que abrió open (archivos, conexiones).
+    protected void close() { }
+
+    @Before
+    public void setUp() {
+        store = open(new PasswordHasher(1_000));
+        personas = store.personas();
+        vehiculos = store.vehiculos();
+        ordenes = store.ordenes();
+    }
+
+    @After
+    public void tearDown() {
+        close();
+    }
+
+    @Test
+    public void persona_insertRechazaRestricciones() {
+        assertEquals(10, personas.insert(cliente(10, "Ana", "Soto")));
+        assertEquals(-1, personas.insert(cliente(10, "Otra", "Persona")));
+        assertEquals(-1, personas.insert(new Persona(11, "10@taller.cl", "X", "Y", "", "cliente")));
+        assertEquals(-1, personas.insert(new Persona(12, "12@taller.cl", "X", "Y", "", "jefe")));
+        assertEquals(-1, personas.insert(new Persona(13, "13@taller.cl", null, "Y", "", "cliente")));
+
+        Persona p = personas.getByRun(10);
+        assertEquals("Ana", p.nombre);
+        assertEquals("10@taller.cl", p.email);
+        assertNull(personas.getByRun(11));
+        assertEquals(1, personas.countByTipo("cliente"));
+        assertEquals(0, personas.countByTipo("trabajador"));
+    }
+
+    @Test
+    public void persona_listByTipoOrdenaPorNombreApellidoYRun() {
+        personas.insert(cliente(3, "Bea", "Lagos"));
+        personas.insert(cliente(1, "Bea", "Lagos"));
+        personas.insert(cliente(2, "Ana", "Zúñiga"));
+        personas.insert(cliente(4, "Bea", "Aravena"));
+        personas.insert(trabajador(5, "Aaron", "Uno", "x"));
+
+        assertEquals(Arrays.asList(2, 4, 1, 3), runs(personas.listByTipo("cliente")));
+        assertEquals(Arrays.asList(5), runs(personas.listByTipo("trabajador")));
+        assertTrue(personas.listByTipo("jefe").isEmpty());
+    }
+
+    @Test
+    public void persona_updateCambiaTipoYLanzaEnConflicto() {
+        personas.insert(cliente(1, "Ana", "Soto"));
+        personas.insert(cliente(2, "Bea", "Rojas"));
+
+        assertEquals(1, personas.update(new Persona(1, "1@taller.cl", "Ana", "Soto", "x", "trabajador")));
+        assertEquals(1, personas.countByTipo("cliente"));
+        assertEquals(Arrays.asList(1), runs(personas.listByTipo("trabajador")));
+        assertEquals(0, personas.update(cliente(99, "Nadie", "Nunca")));
+
+        try {
+            personas.update(new Persona(2, "1@taller.cl", "Bea", "Rojas", "", "cliente"));
+            fail("email duplicado debería lanzar");
+        } catch (RuntimeException expected) {
+            assertEquals("2@taller.cl", personas.getByRun(2).email);
+        }
+    }
+
+    @Test
+    public void persona_borrarDejaVehiculosSinDueno() {
+        personas.insert(cliente(1, "Ana", "Soto"));
+        vehiculos.insert(new Vehiculo("AA1111", "Rojo", "Yaris", 1));
+
+        assertEquals(1, personas.deleteByRun(1));
+        assertEquals(0, personas.deleteByRun(1));
+        assertNull(personas.getByRun(1));
+        assertNull(vehiculos.listAll().get(0).runDueno);
+        assertTrue(vehiculos.listByRunDueno(1).isEmpty());
+    }
+
+    @Test
+    public void trabajador_guardaHashYAutenticaConRehash() {
+        personas.insert(trabajador(1, "Tomás", "Vera", "clave"));
+        personas.insert(trabajador(2, "Rita", "Paz", new PasswordHasher(500).hash("otra")));
+        personas.insert(cliente(3, "Ana", "Soto"));
+
+        assertTrue(PasswordHasher.isHash(personas.getByRun(1).password));
+        assertEquals("Tomás Vera", personas.authenticateTrabajador("1@taller.cl", "clave"));
+        assertNull(personas.authenticateTrabajador("1@taller.cl", "Clave"));
+        assertNull(personas.authenticateTrabajador("3@taller.cl", ""));
+        assertNull(personas.authenticateTrabajador("nadie@taller.cl", "clave"));
+
+        assertEquals("Rita Paz", personas.authenticateTrabajador("2@taller.cl", "otra"));
+        assertEquals(1_000, PasswordHasher.iterationsOf(personas.getByRun(2).password));
+        assertEquals("Rita Paz", personas.authenticateTrabajador("2@taller.cl", "otra"));
+    }
+
+    @Test
+    public void insertAll_informaConflictosPorPosicion() {
+        BulkResult r = personas.insertAll(Arrays.asList(
+                cliente(1, "Ana", "Soto"),
+                cliente(1, "Ana", "Repetida"),
+                cliente(2, "Bea", "Rojas"),
+                new Persona(3, "3@taller.cl", "Sin", "Tipo", "", null)));
+
+        assertEquals(2, r.inserted);
+        assertEquals(0, r.updated);
+        assertEquals(2, r.getConflicts().size());
+        assertEquals(1, r.getConflicts().get(0).index);
+        assertEquals(3, r.getConflicts().get(1).index);
+        assertNotNull(r.getConflicts().get(0).reason);
+        assertEquals(2, personas.countByTipo("cliente"));
+    }
+
+    @Test
+    public void upsertAll_actualizaExistentesEInsertaNuevos() {
+        personas.insert(cliente(1, "Ana", "Soto"));
+        vehiculos.insert(new Vehiculo("AA1111", "Rojo", "Yaris", 1));
+
+        BulkResult rp = personas.upsertAll(Arrays.asList(
+                cliente(1, "Ana María", "Soto"), cliente(2, "Bea", "Rojas")));
+        assertEquals(1, rp.inserted);
+        assertEquals(1, rp.updated);
+        assertEquals("Ana María", personas.getByRun(1).nombre);
+
+        BulkResult rv = vehiculos.upsertAll(Arrays.asList(
+                new Vehiculo("AA1111", "Azul", "Yaris", null),
+                new Vehiculo("BB2222", "Gris", "Swift", 2),
+                new Vehiculo("CC3333", "Gris", "Swift", 99)));
+        assertEquals(1, rv.inserted);
+        assertEquals(1, rv.updated);
+        assertEquals(2, rv.getConflicts().get(0).index);
+        Vehiculo a = vehiculos.listByRunDueno(1).get(0);
+        assertEquals("Azul", a.color);
+        assertEquals(Integer.valueOf(1), a.runDueno);
+    }
+
+    @Test
+    public void vehiculo_fkOrdenYCascada() {
+        personas.insert(cliente(1, "Ana", "Soto"));
+        assertTrue(vehiculos.insert(new Vehiculo("BB2222", "Rojo", "Yaris", 1)) > 0);
+        assertTrue(vehiculos.insert(new Vehiculo("AA1111", "Azul", "Swift", 1)) > 0);
+        assertTrue(vehiculos.insert(new Vehiculo("CC3333", "Gris", "Corsa", null)) > 0);
+        assertEquals(-1, vehiculos.insert(new Vehiculo("AA1111", "Verde", "Otro", null)));
+        assertEquals(-1, vehiculos.insert(new Vehiculo("DD4444", "Verde", "Otro", 99)));
+
+        assertEquals(Arrays.asList("AA1111", "BB2222"), patentes(vehiculos.listByRunDueno(1)));
+        assertEquals(Arrays.asList("AA1111", "BB2222", "CC3333"), patentes(vehiculos.listAll()));
+        assertEquals(3, vehiculos.count());
+
+        try {
+            vehiculos.update(new Vehiculo("CC3333", "Gris", "Corsa", 99));
+            fail("dueño inexistente debería lanzar");
+        } catch (RuntimeException expected) {
+            assertNull(vehiculos.listAll().get(2).runDueno);
+        }
+
+        long ot = ordenes.insert(orden("OT-1", "AA1111"));
+        ordenes.insert(orden("OT-2", "BB2222"));
+        assertEquals(1, vehiculos.delete("AA1111"));
+        assertEquals(0, vehiculos.delete("AA1111"));
+        assertTrue(ordenes.listByPatente("AA1111").isEmpty());
+        assertEquals(1, ordenes.count());
+        assertTrue(ordenes.insert(orden("OT-3", "BB2222")) > ot + 1);
+    }
+
+    @Test
+    public void orden_idsCrecientesYPaginacionKeyset() {
+        vehiculos.insert(new Vehiculo("AA1111", "Rojo", "Yaris", null));
+        vehiculos.insert(new Vehiculo("BB2222", "Azul", "Swift", null));
+        assertEquals(-1, ordenes.insert(orden("OT-X", "ZZ9999")));
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(ordenes.insert(orden("OT-" + i, i % 2 == 0 ? "AA1111" : "BB2222")));
+        }
+        for (int i = 1; i < ids.size(); i++) assertTrue(ids.get(i) > ids.get(i - 1));
+
+        assertEquals(Arrays.asList(ids.get(4), ids.get(3), ids.get(2), ids.get(1), ids.get(0)),
+                ids(ordenes.listAll()));
+        assertEquals(Arrays.asList(ids.get(4), ids.get(3)), ids(ordenes.listPage(Long.MAX_VALUE, 2)));
+        assertEquals(Arrays.asList(ids.get(2), ids.get(1)), ids(ordenes.listPage(ids.get(3), 2)));
+        assertEquals(Arrays.asList(ids.get(2), ids.get(0)),
+                ids(ordenes.listPageByPatente("AA1111", ids.get(4), 10)));
+
+        OrdenTrabajo o = ordenes.listAll().get(0);
+        o.patente = "BB2222";
+        o.observacion = "cambio de patente";
+        assertEquals(1, ordenes.update(o));
+        assertEquals(ids.get(4), ids(ordenes.listByPatente("BB2222")).get(0));
+        assertEquals(Arrays.asList(ids.get(2), ids.get(0)), ids(ordenes.listByPatente("AA1111")));
+
+        BulkResult r = ordenes.upsertAll(Arrays.asList(
+                new OrdenTrabajo(ids.get(0), "OT-0b", "2025-02-01", 10, 1.9, "", "AA1111"),
+                new OrdenTrabajo(500, "OT-500", "2025-02-01", 10, 1.9, "", "AA1111")));
+        assertEquals(1, r.updated);
+        assertEquals(1, r.inserted);
+        assertEquals(500L, ordenes.listAll().get(0).id);
+        assertTrue(ordenes.insert(orden("OT-501", "AA1111")) > 500);
+        assertEquals(7, ordenes.count());
+    }
+
+    @Test
+    public void busqueda_prefijosSinTildesYFiltros() {
+        personas.insert(cliente(1, "José", "Muñoz"));
+        personas.insert(cliente(2, "Josefa", "Pérez"));
+        personas.insert(trabajador(3, "José", "Núñez", "x"));
+
+        assertEquals(Arrays.asList(2, 1), runs(personas.searchByTipo("cliente", "jose", 0, 10)));
+        assertEquals(Arrays.asList(1), runs(personas.searchByTipo("cliente", "JOSÉ muñ", 0, 10)));
+        assertEquals(Arrays.asList(3), runs(personas.searchByTipo("trabajador", "nunez", 0, 10)));
+        assertTrue(personas.searchByTipo("cliente", "j", 0, 10).isEmpty());
+        assertEquals(Arrays.asList(1), runs(personas.searchByTipo("cliente", "jose", 1, 10)));
+
+        personas.update(new Persona(2, "2@taller.cl", "María", "Pérez", "", "cliente"));
+        assertEquals(Arrays.asList(1), runs(personas.searchByTipo("cliente", "jose", 0, 10)));
+
+        vehiculos.insert(new Vehiculo("AB1234", "Rojo", "Corolla", 1));
+        vehiculos.insert(new Vehiculo("XY9999", "Rojo", "Abarth", null));
+        assertEquals(Arrays.asList("AB1234", "XY9999"), patentes(vehiculos.search("ab", null, 0, 10)));
+        assertEquals(Arrays.asList("AB1234"), patentes(vehiculos.search("ab", 1, 0, 10)));
+
+        ordenes.insert(orden("OT-7", "AB1234", "cambio de frenos"));
+        ordenes.insert(orden("FRE-1", "XY9999", "aceite"));
+        List<OrdenTrabajo> fre = ordenes.search("fre", null, 0, 10);
+        assertEquals("FRE-1", fre.get(0).numero);
+        assertEquals(2, fre.size());
+        assertEquals("OT-7", ordenes.search("fre", "AB1234", 0, 10).get(0).numero);
+    }
+
+    @Test
+    public void busqueda_paginaMasAllaDelPrimerTramo() {
+        int n = SearchText.CANDIDATES + 40;
+        List<Persona> lote = new ArrayList<>();
+        for (int run = 1; run <= n; run++) {
+            lote.add(cliente(run, run % 3 == 0 ? "Pedro Pedro" : "Pedro", "Soto"));
+        }
+        personas.insertAll(lote);
+
+        // Primer tramo: las CANDIDATES más recientes; después, las demás.
+        Set<Integer> tramo = new HashSet<>(runs(personas.searchByTipo("cliente", "pedro", 0, SearchText.CANDIDATES)));
+        assertEquals(SearchText.CANDIDATES, tramo.size());
+        for (int run = 41; run <= n; run++) assertTrue(tramo.contains(run));
+        List<Integer> resto = runs(personas.searchByTipo("cliente", "pedro", SearchText.CANDIDATES, 100));
+        assertEquals(40, resto.size());
+
+        // Páginas que cruzan el borde entre tramos: ni huecos ni repetidos.
+        Set<Integer> vistos = new HashSet<>();
+        for (int offset = 0; offset < n + 30; offset += 30) {
+            for (int run : runs(personas.searchByTipo("cliente", "pedro", offset, 30))) {
+                assertTrue(vistos.add(run));
+            }
+        }
+        assertEquals(n, vistos.size());
+    }
+
+    // ------------------------------------------------------------------
+    // Datos y ayudas
+    // ------------------------------------------------------------------
+    private static Persona cliente(int run, String nombre, String apellido) {
+        return new Persona(run, run + "@taller.cl", nombre, apellido, "", "cliente");
+    }
+
+    private static Persona trabajador(int run, String nombre, String apellido, String password) {
+        return new Persona(run, run + "@taller.cl", nombre, apellido, password, "trabajador");
+    }
+
+    private static OrdenTrabajo orden(String numero, String patente) {
+        return orden(numero, patente, "");
+    }
+
+    private static OrdenTrabajo orden(String numero, String patente, String observacion) {
+        return new OrdenTrabajo(0, numero, "2025-01-01", 100, 19, observacion, patente);
+    }
+
+    private static List<Integer> runs(List<Persona> in) {
+        List<Integer> out = new ArrayList<>();
+        for (Persona p : in) out.add(p.run);
+        return out;
+    }
+
+    private static List<String> patentes(List<Vehiculo> in) {
+        List<String> out = new ArrayList<>();
+        for (Vehiculo v : in) out.add(v.patente);
+        return out;
+    }
+
+    private static List<Long> ids(List<OrdenTrabajo> in) {
+        List<Long> out = new ArrayList<>();
+        for (OrdenTrabajo o : in) out.add(o.id);
+        return out;
+    }
+}
@@ -0,0 +1,62 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: LatencyHistogramTest
+// == Rol:
+//    - Test local (JVM) de LatencyHistogram: límites de las cubetas,
+//      error de los percentiles bajo 1/16 y reset.
+// ======================================================================
+public class LatencyHistogramTest {
+
+    @Test
+    public void cubetas_contiguasYContienenSuValor() {
+        for (int b = 0; b + 1 < LatencyHistogram.BUCKETS; b++) {
+            assertEquals(LatencyHistogram.highestValue(b) + 1, LatencyHistogram.lowestValue(b + 1));
+        }
+        long[] valores = { 0, 1, 15, 16, 17, 31, 32, 1_000, 123_456, 9_999_999, LatencyHistogram.MAX_NANOS };
+        for (long v : valores) {
+            int b = LatencyHistogram.bucket(v);
+            assertTrue(v + " en " + b, LatencyHistogram.lowestValue(b) <= v && v <= LatencyHistogram.highestValue(b));
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucket(LatencyHistogram.MAX_NANOS));
+    }
+
+    @Test
+    public void percentiles_errorRelativoAcotado() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) h.record(v * 1_000);   // 1 µs .. 100 ms
+
+        assertEquals(100_000, h.count());
+        assertEquals(100_000_000, h.maxNanos());
+        assertEquals(50_000_500, h.meanNanos(), 1);
+        double[] qs = { 0.50, 0.90, 0.99, 0.999 };
+        for (double q : qs) {
+            double exacto = Math.ceil(q * 100_000) * 1_000;
+            double err = (h.percentile(q) - exacto) / exacto;
+            assertTrue(q + ": " + err, err >= 0 && err < 1.0 / 16);
+        }
+        assertEquals(100_000_000, h.percentile(1.0));
+    }
+
+    @Test
+    public void valoresFueraDeRango_yReset() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.percentile(0.5));
+        h.record(-5);
+        h.record(LatencyHistogram.MAX_NANOS * 4);
+        assertEquals(2, h.count());
+        assertEquals(0, h.percentile(0.5));
+        assertEquals(LatencyHistogram.MAX_NANOS, h.percentile(1.0));
+        assertEquals(LatencyHistogram.MAX_NANOS * 4, h.maxNanos());
+
+        h.reset();
+        assertEquals(0, h.count());
+        assertEquals(0, h.maxNanos());
+        assertEquals(0, h.percentile(0.99));
+    }
+}
@@ -0,0 +1,68 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: MainThreadGuardTest
+// == Rol:
+//    - Test local (JVM) de MainThreadGuard.record con pilas armadas a
+//      mano: la primera vez de un sitio devuelve la violación (se
+//      escribe en Logcat) y las siguientes no; lleno MAX_SITES, un sitio
+//      nuevo no se guarda, no vuelve a escribirse y solo suma al
+//      desborde.
+// ======================================================================
+public class MainThreadGuardTest {
+
+    @Before
+    public void setUp() {
+        MainThreadGuard.reset();
+    }
+
+    @After
+    public void tearDown() {
+        MainThreadGuard.reset();
+    }
+
+    @Test
+    public void mismoSitio_seAgrupa() {
+        assertNotNull(MainThreadGuard.record(pila(1)));
+        assertNull(MainThreadGuard.record(pila(1)));
+
+        assertEquals(1, MainThreadGuard.violations().size());
+        MainThreadGuard.Violation v = MainThreadGuard.violations().get(0);
+        assertEquals("PersonaRepository.getByRun", v.op);
+        assertEquals(2, v.count());
+    }
+
+    @Test
+    public void lleno_sitiosNuevosSoloSumanAlDesborde() {
+        for (int i = 0; i < MainThreadGuard.MAX_SITES; i++) {
+            assertNotNull(MainThreadGuard.record(pila(i)));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertNull(MainThreadGuard.record(pila(MainThreadGuard.MAX_SITES)));
+        }
+
+        assertEquals(MainThreadGuard.MAX_SITES, MainThreadGuard.violations().size());
+        assertEquals(100, MainThreadGuard.overflow());
+        assertTrue(MainThreadGuard.report().contains("100× en sitios sin registrar"));
+    }
+
+    // Pila de un acceso: TallerDbHelper <- PersonaRepository <- una
+    // Activity en la línea "linea" (cada línea es un sitio distinto).
+    private static StackTraceElement[] pila(int linea) {
+        return new StackTraceElement[] {
+                new StackTraceElement(TallerDbHelper.class.getName(), "getReadableDatabase", "TallerDbHelper.java", 300),
+                new StackTraceElement(PersonaRepository.class.getName(), "getByRun", "PersonaRepository.java", 440),
+                new StackTraceElement("com.cabroninja.tallermiaumovil.PersonasActivity", "onCreate",
+                        "PersonasActivity.java", linea),
+        };
+    }
+}
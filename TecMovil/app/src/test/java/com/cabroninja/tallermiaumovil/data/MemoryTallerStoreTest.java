@@ -0,0 +1,15 @@
+package com.cabroninja.tallermiaumovil.data;
+
+// ======================================================================
+// == Clase: MemoryTallerStoreTest
+// == Rol:
+//    - Test local (JVM) de MemoryTallerStore contra el contrato común
+//      TallerStoreConformance.
+// ======================================================================
+public class MemoryTallerStoreTest extends TallerStoreConformance {
+
+    @Override
+    protected TallerStore open(PasswordHasher passwords) {
+        return new MemoryTallerStore(passwords);
+    }
+}
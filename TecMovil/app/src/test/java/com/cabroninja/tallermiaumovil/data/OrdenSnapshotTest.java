@@ -0,0 +1,85 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: OrdenSnapshotTest
+// == Rol:
+//    - Test local (JVM, sin dispositivo) de OrdenSnapshot: conversión de
+//      fechas, agregados y que un snapshot publicado no cambie cuando el
+//      Builder sigue escribiendo.
+// ======================================================================
+public class OrdenSnapshotTest {
+
+    @Test
+    public void epochDay_coincideConCalendar() {
+        GregorianCalendar cal = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        cal.clear();
+        cal.set(1900, Calendar.JANUARY, 1);
+        long fin = cal.getTimeInMillis() + 300L * 366 * 86_400_000L;
+        while (cal.getTimeInMillis() < fin) {
+            int y = cal.get(Calendar.YEAR), m = cal.get(Calendar.MONTH) + 1, d = cal.get(Calendar.DAY_OF_MONTH);
+            int dia = (int) Math.floorDiv(cal.getTimeInMillis(), 86_400_000L);
+            assertEquals(y + "-" + m + "-" + d, dia, OrdenSnapshot.epochDay(y, m, d));
+            assertEquals(y * 12 + m - 1, OrdenSnapshot.mes(dia));
+            cal.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        assertEquals(0, OrdenSnapshot.epochDay(1970, 1, 1));
+        assertEquals(OrdenSnapshot.epochDay(2024, 3, 1), OrdenSnapshot.primerDia(2024 * 12 + 2));
+    }
+
+    @Test
+    public void agregados() {
+        OrdenSnapshot.Builder b = new OrdenSnapshot.Builder();
+        int ene = OrdenSnapshot.epochDay(2025, 1, 15);
+        int feb = OrdenSnapshot.epochDay(2025, 2, 3);
+        b.append(1, ene, 10_000, "AB1234");
+        b.append(2, feb, 2_500, "CD5678");
+        b.append(3, feb, 1_000, "AB1234");
+        b.append(4, OrdenSnapshot.SIN_FECHA, 700, "CD5678");
+        OrdenSnapshot s = b.snapshot();
+
+        assertEquals(14_200, s.totalCentavos());
+        assertEquals(3_500, s.totalCentavos(feb, feb + 1));
+        assertEquals(2, s.patentesSize());
+
+        long[] porPatente = s.totalPorPatente(new long[s.patentesSize()]);
+        assertEquals(11_000, porPatente[s.codigoDe("AB1234")]);
+        assertEquals(3_200, porPatente[s.codigoDe("CD5678")]);
+
+        long[] porMes = s.totalPorMes(2024 * 12 + 11, new long[4]);   // dic 2024 .. mar 2025
+        assertArrayEquals(new long[]{ 0, 10_000, 3_500, 0 }, porMes);
+    }
+
+    @Test
+    public void snapshotPublicado_noVeCambiosPosteriores() {
+        OrdenSnapshot.Builder b = new OrdenSnapshot.Builder();
+        for (int i = 1; i <= 2000; i++) b.append(i, i, 100, "P" + (i % 10));
+        OrdenSnapshot antes = b.snapshot();
+
+        assertTrue(b.update(5, 5, 900, "NUEVA"));
+        assertTrue(b.delete(6));
+        assertTrue(b.append(2001, 2001, 100, "P1"));
+        assertFalse(b.append(2001, 0, 0, "P1"));   // ids deben crecer
+        OrdenSnapshot despues = b.snapshot();
+
+        assertEquals(2000, antes.count());
+        assertEquals(200_000, antes.totalCentavos());
+        assertEquals(10, antes.patentesSize());
+        assertEquals(-1, antes.codigoDe("NUEVA"));
+
+        assertEquals(2000, despues.count());
+        assertEquals(200_000 + 800 - 100 + 100, despues.totalCentavos());
+        assertEquals(-1, despues.indexOf(6));
+        assertEquals("NUEVA", despues.patenteDe(despues.patente(despues.indexOf(5))));
+    }
+}
@@ -0,0 +1,57 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+// ======================================================================
+// == Clase: PasswordHasherTest
+// == Rol:
+//    - Test local (JVM) de PasswordHasher: formato, sal por valor,
+//      verificación, texto plano antiguo y detección de rehash. Usa
+//      pocas iteraciones para correr rápido.
+// ======================================================================
+public class PasswordHasherTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(1_000);
+
+    @Test
+    public void hash_verificaYUsaSalDistinta() {
+        String a = hasher.hash("secreta");
+        String b = hasher.hash("secreta");
+        assertTrue(a, a.startsWith("pbkdf2$1000$"));
+        assertNotEquals(a, b);
+        assertTrue(hasher.verify("secreta", a));
+        assertTrue(hasher.verify("secreta", b));
+        assertFalse(hasher.verify("Secreta", a));
+        assertFalse(hasher.verify(null, a));
+        assertFalse(hasher.needsRehash(a));
+    }
+
+    @Test
+    public void textoPlanoAntiguo_verificaYPideRehash() {
+        assertTrue(hasher.verify("123456", "123456"));
+        assertFalse(hasher.verify("12345", "123456"));
+        assertFalse(PasswordHasher.isHash("123456"));
+        assertTrue(hasher.needsRehash("123456"));
+    }
+
+    @Test
+    public void otroCosto_verificaYPideRehash() {
+        String viejo = new PasswordHasher(500).hash("clave");
+        assertEquals(500, PasswordHasher.iterationsOf(viejo));
+        assertTrue(hasher.verify("clave", viejo));
+        assertTrue(hasher.needsRehash(viejo));
+    }
+
+    @Test
+    public void valorMalFormado_nuncaCoincide() {
+        assertFalse(hasher.verify("pbkdf2$x$00$00", "pbkdf2$x$00$00"));
+        assertFalse(hasher.verify("a", "pbkdf2$1000$zz$00"));
+        assertFalse(hasher.verify("a", "pbkdf2$1000$00"));
+        assertEquals(-1, PasswordHasher.iterationsOf("pbkdf2$x$00$00"));
+    }
+}
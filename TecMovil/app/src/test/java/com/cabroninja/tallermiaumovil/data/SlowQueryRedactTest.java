@@ -0,0 +1,62 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+// ======================================================================
+// == Clase: SlowQueryRedactTest
+// == Rol:
+//    - Test local (JVM) de SlowQueryLog.redact: cada '?' se asocia a su
+//      columna y los valores de password (o con formato de hash) nunca
+//      quedan en el registro. Usa las sentencias reales de los
+//      repositorios.
+// ======================================================================
+public class SlowQueryRedactTest {
+
+    private static final String R = SlowQueryLog.REDACTED;
+
+    @Test
+    public void insert_porPosicionEnValues() {
+        assertEquals(Arrays.asList("7", "a@b.cl", "Ana", "Soto", R, "trabajador"),
+                SlowQueryLog.redact(PersonaRepository.SQL_INSERT,
+                        new Object[]{ 7, "a@b.cl", "Ana", "Soto", "secreta", "trabajador" }));
+        assertEquals(Arrays.asList("AB1234", null, "Yaris", "7"),
+                SlowQueryLog.redact(VehiculoRepository.SQL_INSERT,
+                        new Object[]{ "AB1234", null, "Yaris", 7 }));
+    }
+
+    @Test
+    public void update_porComparacion() {
+        assertEquals(Arrays.asList("a@b.cl", "Ana", "Soto", R, "cliente", "7"),
+                SlowQueryLog.redact(PersonaRepository.SQL_UPDATE_BY_RUN,
+                        new Object[]{ "a@b.cl", "Ana", "Soto", "secreta", "cliente", 7 }));
+        assertEquals(Arrays.asList(R, "7", R),
+                SlowQueryLog.redact(PersonaRepository.SQL_REHASH,
+                        new Object[]{ "nueva", 7, "vieja" }));
+    }
+
+    @Test
+    public void consultas_sinPassword_seConservan() {
+        assertEquals(Arrays.asList("7"),
+                SlowQueryLog.redact(PersonaRepository.SQL_GET_BY_RUN, new String[]{ "7" }));
+        assertEquals(Arrays.asList("ana*", "cliente"),
+                SlowQueryLog.redact(PersonaRepository.SQL_SEARCH_BY_TIPO, new String[]{ "ana*", "cliente" }));
+        assertEquals(0, SlowQueryLog.redact(OrdenRepository.SQL_INSERT, null).size());
+    }
+
+    @Test
+    public void hash_seRedactaEnCualquierColumna() {
+        String hash = new PasswordHasher(1_000).hash("secreta");
+        assertEquals(Arrays.asList(R, "7"),
+                SlowQueryLog.redact("UPDATE persona SET email = ? WHERE run = ?", new Object[]{ hash, 7 }));
+    }
+
+    @Test
+    public void columnas_textoYCalificadas() {
+        String sql = "SELECT 1 FROM persona p WHERE p.password = ? AND nombre <> '?' AND run >= ?";
+        assertEquals(Arrays.asList("p.password", "run"), Arrays.asList(SlowQueryLog.columnsOf(sql, 2)));
+    }
+}
@@ -0,0 +1,94 @@
+// Benchmarks de la capa de datos en una JVM común (Linux, sin equipo ni
+// emulador): backend JDBC (sqlite-jdbc) con el mismo esquema y las mismas
+// consultas que los repositorios de :app, medido con JMH.
+//
+//   ./gradlew :bench:jmh                          (1k, 100k y 1M filas)
+//   ./gradlew :bench:jmh -Prows=1000              (solo esos tamaños, separados por coma)
+//   ./gradlew :bench:jmh -Pincludes=Orden         (solo los benchmarks que calcen)
+//   ./gradlew :bench:jmh -Pbackend=memory         (solo ese TallerStore: jdbc, memory)
+//   ./gradlew :bench:test                         (TallerStoreConformance sobre JDBC)
+//   ./gradlew :bench:compileJava                  (chequeo rápido: el código de :app
+//                                                 incluido abajo no debe tocar Android)
+//
+// Resultado: build/results/jmh/results.json (formato JSON de JMH) y una
+// copia fechada en results/ para comparar corridas en el tiempo.
+import java.text.SimpleDateFormat
+import java.util.Date
+
+plugins {
+    java
+    id("me.champeau.jmh")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+// Código Java puro de :app que el backend reutiliza tal cual (modelos,
+// resultado de cargas, hash de contraseñas, ranking de búsqueda, las
+// interfaces *Store y MemoryTallerStore). Lo que depende de Android
+// (Cursor, SQLiteDatabase) tiene su par Jdbc* aquí.
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/cabroninja/tallermiaumovil/model/**",
+                "com/cabroninja/tallermiaumovil/data/BulkResult.java",
+                "com/cabroninja/tallermiaumovil/data/TableChange.java",
+                "com/cabroninja/tallermiaumovil/data/ChangeBus.java",
+                "com/cabroninja/tallermiaumovil/data/Deferrer.java",
+                "com/cabroninja/tallermiaumovil/data/PasswordHasher.java",
+                "com/cabroninja/tallermiaumovil/data/SearchText.java",
+                "com/cabroninja/tallermiaumovil/data/*Store.java",
+                "com/cabroninja/tallermiaumovil/data/Memory*.java",
+                "com/cabroninja/tallermiaumovil/data/Jdbc*.java"
+            )
+            exclude("com/cabroninja/tallermiaumovil/data/SqliteTallerStore.java")
+        }
+    }
+    test {
+        java.srcDir("../app/src/sharedTest/java")
+    }
+}
+
+dependencies {
+    implementation("org.xerial:sqlite-jdbc:3.45.3.0")
+    compileOnly("androidx.annotation:annotation:1.7.1") // @WorkerThread de ChangeBus
+    testImplementation("junit:junit:4.13.2")
+}
+
+val benchData = layout.buildDirectory.dir("bench-data").get().asFile
+
+jmh {
+    jmhVersion.set("1.37")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    // memory guarda el dataset completo (1M filas por tabla) más su copia.
+    jvmArgsAppend.addAll("-Xms4g", "-Xmx4g", "-Dbench.data=" + benchData.absolutePath)
+    findProperty("rows")?.let { rows ->
+        benchmarkParameters.put("rows",
+            objects.listProperty(String::class.java).value(rows.toString().split(",")))
+    }
+    findProperty("backend")?.let { backend ->
+        benchmarkParameters.put("backend",
+            objects.listProperty(String::class.java).value(backend.toString().split(",")))
+    }
+    findProperty("includes")?.let { includes.add(it.toString()) }
+}
+
+// Copia fechada del último results.json (se versiona junto al código).
+val jmhArchive by tasks.registering(Copy::class) {
+    from(layout.buildDirectory.file("results/jmh/results.json"))
+    into(layout.projectDirectory.dir("results"))
+    rename { "jmh-" + SimpleDateFormat("yyyyMMdd-HHmmss").format(Date()) + ".json" }
+}
+
+tasks.named("jmh") {
+    finalizedBy(jmhArchive)
+}
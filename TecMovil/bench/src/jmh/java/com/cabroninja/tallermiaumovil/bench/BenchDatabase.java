@@ -0,0 +1,152 @@
+package com.cabroninja.tallermiaumovil.bench;
+
+import com.cabroninja.tallermiaumovil.data.JdbcTaller;
+import com.cabroninja.tallermiaumovil.data.JdbcTallerStore;
+import com.cabroninja.tallermiaumovil.data.MemoryTallerStore;
+import com.cabroninja.tallermiaumovil.data.OrdenStore;
+import com.cabroninja.tallermiaumovil.data.PasswordHasher;
+import com.cabroninja.tallermiaumovil.data.PersonaStore;
+import com.cabroninja.tallermiaumovil.data.TallerStore;
+import com.cabroninja.tallermiaumovil.data.VehiculoStore;
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// ======================================================================
+// == Clase: BenchDatabase
+// == Rol dentro de :bench:
+//    - Estado JMH común: una copia del dataset de "rows" filas por tabla
+//      (ver Datasets) servida por el TallerStore de "backend":
+//        * jdbc  : JdbcTallerStore sobre la copia (SQLite vía JDBC).
+//        * memory: MemoryTallerStore cargado con las mismas filas.
+//    - Antes de cada iteración deja el dataset como al principio, así el
+//      tamaño medido es siempre el del parámetro y no crece con los
+//      inserts: en jdbc borra lo agregado (RUN, patente o id por sobre
+//      el dataset); en memory, si algún conteo cambió, vuelve a cargar
+//      el store desde las filas leídas al abrir.
+//    - Entrega claves al azar (semilla fija) de filas que existen y
+//      claves nuevas para los inserts.
+// ======================================================================
+@State(Scope.Benchmark)
+public class BenchDatabase {
+
+    // Filas por tabla; -Prows=... en Gradle reemplaza la lista.
+    @Param({ "1000", "100000", "1000000" })
+    public int rows;
+
+    // Motor a medir; -Pbackend=... en Gradle reemplaza la lista.
+    @Param({ "jdbc", "memory" })
+    public String backend;
+
+    public TallerStore store;
+    public PersonaStore personas;
+    public VehiculoStore vehiculos;
+    public OrdenStore ordenes;
+
+    private JdbcTaller db;
+    private File file;
+    private List<Persona> datasetPersonas;
+    private List<Vehiculo> datasetVehiculos;
+    private List<OrdenTrabajo> datasetOrdenes;
+    private final SplittableRandom random = new SplittableRandom(20240601L);
+    private int next;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        file = Datasets.copyOf(rows);
+        db = JdbcTaller.open(file);
+        JdbcTallerStore jdbc = new JdbcTallerStore(db, passwords());
+        if ("memory".equals(backend)) {
+            datasetPersonas = jdbc.personas().listByTipo("cliente");
+            datasetPersonas.addAll(jdbc.personas().listByTipo("trabajador"));
+            datasetVehiculos = jdbc.vehiculos().listAll();
+            datasetOrdenes = jdbc.ordenes().listAll();
+            db.close();
+            db = null;
+            load();
+        } else {
+            use(jdbc);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void restore() {
+        if (db != null) {
+            db.execute("DELETE FROM orden_trabajo WHERE id > " + rows);
+            db.execute("DELETE FROM vehiculo WHERE patente > '" + Datasets.patente(rows) + "'");
+            db.execute("DELETE FROM persona WHERE run > " + rows);
+        } else if (personas.countByTipo("cliente") + personas.countByTipo("trabajador") != rows
+                || vehiculos.count() != rows || ordenes.count() != rows) {
+            load();
+        }
+        next = rows + 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        if (db != null) db.close();
+        Datasets.delete(file);
+    }
+
+    // Store en memoria nuevo con las filas del dataset (los ids de OT se
+    // conservan vía upsertAll; las contraseñas ya vienen derivadas).
+    private void load() {
+        MemoryTallerStore memory = new MemoryTallerStore(passwords());
+        memory.personas().insertAll(datasetPersonas);
+        memory.vehiculos().insertAll(datasetVehiculos);
+        memory.ordenes().upsertAll(datasetOrdenes);
+        use(memory);
+    }
+
+    private void use(TallerStore s) {
+        store = s;
+        personas = s.personas();
+        vehiculos = s.vehiculos();
+        ordenes = s.ordenes();
+    }
+
+    private static PasswordHasher passwords() {
+        return new PasswordHasher(PasswordHasher.DEFAULT_ITERATIONS);
+    }
+
+    // ============================ CLAVES ===============================
+
+    // Clave nueva (RUN o índice de patente) por sobre el dataset; vuelve
+    // a empezar en cada iteración, después de restore().
+    public int fresh() {
+        return next++;
+    }
+
+    // RUN de un cliente existente.
+    public int cliente() {
+        int run = 1 + random.nextInt(rows);
+        return run % Datasets.TRABAJADOR_CADA != 0 ? run : run - 1;
+    }
+
+    // RUN de un trabajador existente.
+    public int trabajador() {
+        return Datasets.TRABAJADOR_CADA * (1 + random.nextInt(rows / Datasets.TRABAJADOR_CADA));
+    }
+
+    // Índice de un vehículo existente (patente con Datasets.patente).
+    public int vehiculo() {
+        return 1 + random.nextInt(rows);
+    }
+
+    // id de una OT existente.
+    public long orden() {
+        return 1 + random.nextInt(rows);
+    }
+}
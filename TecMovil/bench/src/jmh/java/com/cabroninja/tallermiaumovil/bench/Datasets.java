@@ -0,0 +1,180 @@
+package com.cabroninja.tallermiaumovil.bench;
+
+import com.cabroninja.tallermiaumovil.data.BulkResult;
+import com.cabroninja.tallermiaumovil.data.JdbcOrdenRepository;
+import com.cabroninja.tallermiaumovil.data.JdbcPersonaRepository;
+import com.cabroninja.tallermiaumovil.data.JdbcTaller;
+import com.cabroninja.tallermiaumovil.data.JdbcVehiculoRepository;
+import com.cabroninja.tallermiaumovil.data.PasswordHasher;
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+import com.cabroninja.tallermiaumovil.model.Persona;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// ======================================================================
+// == Clase: Datasets
+// == Rol dentro de :bench:
+//    - Arma, una vez por tamaño, una base de plantilla con "rows" filas
+//      en cada tabla (persona, vehiculo, orden_trabajo) y la guarda en
+//      bench.data (build/bench-data). Las corridas siguientes la reusan.
+//    - Cada trial trabaja sobre una copia (copyOf), así las escrituras
+//      de un benchmark no cambian los datos del siguiente.
+// == Datos (deterministas, sin azar):
+//    - persona  : RUN 1..rows; 1 de cada 100 es trabajador (email
+//                 t<run>@taller.cl, contraseña CLAVE), el resto clientes.
+//    - vehiculo : patente(i) = "V" + 7 dígitos, dueño RUN i.
+//    - orden    : id 1..rows, patente((i * 7) % rows + 1), fechas de
+//                 2020 a 2025, observación de un catálogo de servicios.
+//    - Nombres, apellidos y servicios se repiten: las búsquedas de texto
+//      encuentran miles de candidatos, como en un taller real.
+// ======================================================================
+public final class Datasets {
+
+    public static final String CLAVE = "clave-bench";
+
+    // Una persona de cada TRABAJADOR_CADA es trabajador.
+    public static final int TRABAJADOR_CADA = 100;
+
+    private static final int CHUNK = 10_000;
+
+    static final String[] NOMBRES = {
+            "Juan", "María", "José", "Ana", "Luis", "Carmen", "Pedro", "Rosa",
+            "Jorge", "Claudia", "Diego", "Paula", "Felipe", "Valentina", "Andrés",
+            "Camila", "Ricardo", "Francisca", "Sergio", "Javiera"
+    };
+    static final String[] APELLIDOS = {
+            "González", "Muñoz", "Rojas", "Díaz", "Pérez", "Soto", "Contreras",
+            "Silva", "Martínez", "Sepúlveda", "Morales", "Rodríguez", "López",
+            "Fuentes", "Hernández", "Torres", "Araya", "Flores", "Espinoza", "Valenzuela"
+    };
+    static final String[] COLORES = { "rojo", "blanco", "negro", "gris", "azul", "plata", "verde" };
+    static final String[] MODELOS = {
+            "Toyota Yaris", "Chevrolet Sail", "Suzuki Swift", "Kia Morning", "Hyundai Accent",
+            "Nissan Versa", "Mazda 3", "Peugeot 208", "Ford Ranger", "Mitsubishi L200"
+    };
+    static final String[] SERVICIOS = {
+            "cambio de aceite y filtro", "alineación y balanceo", "cambio de pastillas de freno",
+            "revisión técnica", "cambio de embrague", "mantención 10.000 km",
+            "reparación de suspensión", "cambio de batería", "diagnóstico eléctrico",
+            "cambio de correa de distribución"
+    };
+
+    private Datasets() { }
+
+    // ------------------------------------------------------------------
+    // == Método: copyOf
+    //    Parámetros:
+    //      - rows (int): filas por tabla.
+    //    Descripción:
+    //      - Asegura la plantilla de ese tamaño y devuelve una copia nueva
+    //        para un trial (borrar con delete al terminar).
+    // ------------------------------------------------------------------
+    public static File copyOf(int rows) throws IOException {
+        File template = template(rows);
+        File copy = File.createTempFile("taller-" + rows + "-", ".db", dir());
+        Files.copy(template.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return copy;
+    }
+
+    // Borra la base y sus archivos -wal/-shm.
+    public static void delete(File db) {
+        for (String suffix : new String[]{ "", "-wal", "-shm" }) {
+            new File(db.getPath() + suffix).delete();
+        }
+    }
+
+    public static String patente(int i) {
+        return String.format(Locale.ROOT, "V%07d", i);
+    }
+
+    public static String emailTrabajador(int run) {
+        return "t" + run + "@taller.cl";
+    }
+
+    public static Persona persona(int run, String passwordHash) {
+        boolean trabajador = run % TRABAJADOR_CADA == 0;
+        return new Persona(run,
+                (trabajador ? "t" : "c") + run + "@taller.cl",
+                NOMBRES[run % NOMBRES.length],
+                APELLIDOS[(run / NOMBRES.length) % APELLIDOS.length],
+                trabajador ? passwordHash : "",
+                trabajador ? "trabajador" : "cliente");
+    }
+
+    public static Vehiculo vehiculo(int i, Integer runDueno) {
+        return new Vehiculo(patente(i), COLORES[i % COLORES.length], MODELOS[i % MODELOS.length], runDueno);
+    }
+
+    public static OrdenTrabajo orden(long id, int rows) {
+        int i = (int) id;
+        double neto = 15_000 + (i % 40) * 5_000;
+        String fecha = String.format(Locale.ROOT, "%04d-%02d-%02d",
+                2020 + (i / 360) % 6, 1 + (i / 30) % 12, 1 + i % 28);
+        return new OrdenTrabajo(id, String.format(Locale.ROOT, "OT-%07d", i), fecha, neto,
+                Math.round(neto * 0.19), SERVICIOS[i % SERVICIOS.length],
+                patente((int) ((id * 7) % rows) + 1));
+    }
+
+    // ============================ APOYO ================================
+
+    private static File dir() {
+        File d = new File(System.getProperty("bench.data", "build/bench-data"));
+        if (!d.isDirectory() && !d.mkdirs()) throw new IllegalStateException("No se pudo crear " + d);
+        return d;
+    }
+
+    private static synchronized File template(int rows) throws IOException {
+        File file = new File(dir(), "taller-" + rows + ".db");
+        if (file.isFile()) return file;
+
+        File tmp = new File(dir(), "taller-" + rows + ".db.tmp");
+        delete(tmp);
+        String hash = new PasswordHasher(PasswordHasher.DEFAULT_ITERATIONS).hash(CLAVE);
+        try (JdbcTaller db = JdbcTaller.open(tmp)) {
+            JdbcPersonaRepository personas = new JdbcPersonaRepository(db,
+                    new PasswordHasher(PasswordHasher.DEFAULT_ITERATIONS));
+            JdbcVehiculoRepository vehiculos = new JdbcVehiculoRepository(db);
+            JdbcOrdenRepository ordenes = new JdbcOrdenRepository(db);
+            for (int from = 1; from <= rows; from += CHUNK) {
+                int to = Math.min(rows, from + CHUNK - 1);
+                List<Persona> ps = new ArrayList<>(to - from + 1);
+                List<Vehiculo> vs = new ArrayList<>(to - from + 1);
+                for (int i = from; i <= to; i++) {
+                    ps.add(persona(i, hash));
+                    vs.add(vehiculo(i, i));
+                }
+                check(personas.insertAll(ps), "persona");
+                check(vehiculos.insertAll(vs), "vehiculo");
+            }
+            for (int from = 1; from <= rows; from += CHUNK) {
+                int to = Math.min(rows, from + CHUNK - 1);
+                List<OrdenTrabajo> os = new ArrayList<>(to - from + 1);
+                for (int i = from; i <= to; i++) os.add(orden(i, rows));
+                check(ordenes.insertAll(os), "orden_trabajo");
+            }
+            try (Statement st = db.connection().createStatement()) {
+                st.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+            }
+        } catch (SQLException ex) {
+            throw new IOException("No se pudo cerrar la plantilla " + tmp, ex);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        delete(tmp);
+        return file;
+    }
+
+    private static void check(BulkResult r, String tabla) {
+        if (r.hasConflicts()) {
+            throw new IllegalStateException("Dataset inválido (" + tabla + "): " + r.getConflicts().get(0));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.cabroninja.tallermiaumovil.bench;
+
+import com.cabroninja.tallermiaumovil.data.BulkResult;
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ======================================================================
+// == Clase: OrdenRepositoryBenchmark
+// == Rol dentro de :bench:
+//    - Un benchmark por operación pública de OrdenRepository (listPage y
+//      search en sus variantes), sobre el OrdenStore de BenchDatabase
+//      (jdbc y memory). µs por llamada; lotes de BATCH filas.
+// ======================================================================
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrdenRepositoryBenchmark {
+
+    static final int BATCH = 1_000;
+
+    // OrdenRepository.PAGE_SIZE / FIRST_PAGE (la clase de la app depende
+    // de Android y no está en este módulo).
+    static final int PAGE_SIZE = 50;
+    static final long FIRST_PAGE = Long.MAX_VALUE;
+
+    // id 0 = nueva (SQLite asigna el id, como OrdenRepository.insert).
+    private static OrdenTrabajo nueva(BenchDatabase b) {
+        OrdenTrabajo o = Datasets.orden(b.orden(), b.rows);
+        o.id = 0;
+        return o;
+    }
+
+    @Benchmark
+    public long insert(BenchDatabase b) {
+        return b.ordenes.insert(nueva(b));
+    }
+
+    @Benchmark
+    public BulkResult insertAll(BenchDatabase b) {
+        List<OrdenTrabajo> os = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) os.add(nueva(b));
+        return b.ordenes.insertAll(os);
+    }
+
+    // Mitad ids existentes (UPDATE) y mitad nuevas (INSERT).
+    @Benchmark
+    public BulkResult upsertAll(BenchDatabase b) {
+        List<OrdenTrabajo> os = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            os.add(i % 2 == 0 ? Datasets.orden(b.orden(), b.rows) : nueva(b));
+        }
+        return b.ordenes.upsertAll(os);
+    }
+
+    @Benchmark
+    public List<OrdenTrabajo> listAll(BenchDatabase b) {
+        return b.ordenes.listAll();
+    }
+
+    @Benchmark
+    public List<OrdenTrabajo> listByPatente(BenchDatabase b) {
+        return b.ordenes.listByPatente(Datasets.patente(b.vehiculo()));
+    }
+
+    @Benchmark
+    public List<OrdenTrabajo> listPageFirst(BenchDatabase b) {
+        return b.ordenes.listPage(FIRST_PAGE, PAGE_SIZE);
+    }
+
+    // Página a cualquier altura del historial (keyset: mismo costo).
+    @Benchmark
+    public List<OrdenTrabajo> listPageDeep(BenchDatabase b) {
+        return b.ordenes.listPage(b.orden(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<OrdenTrabajo> listPageByPatente(BenchDatabase b) {
+        return b.ordenes.listPageByPatente(Datasets.patente(b.vehiculo()), FIRST_PAGE, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<OrdenTrabajo> search(BenchDatabase b) {
+        return b.ordenes.search("cambio fren", null, 0, 20);
+    }
+
+    @Benchmark
+    public List<OrdenTrabajo> searchByPatente(BenchDatabase b) {
+        return b.ordenes.search("cambio", Datasets.patente(b.vehiculo()), 0, 20);
+    }
+
+    @Benchmark
+    public int update(BenchDatabase b) {
+        OrdenTrabajo o = Datasets.orden(b.orden(), b.rows);
+        o.observacion = o.observacion + " (revisado)";
+        return b.ordenes.update(o);
+    }
+
+    @Benchmark
+    public int count(BenchDatabase b) {
+        return b.ordenes.count();
+    }
+}
@@ -0,0 +1,139 @@
+package com.cabroninja.tallermiaumovil.bench;
+
+import com.cabroninja.tallermiaumovil.data.BulkResult;
+import com.cabroninja.tallermiaumovil.model.Persona;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ======================================================================
+// == Clase: PersonaRepositoryBenchmark
+// == Rol dentro de :bench:
+//    - Un benchmark por operación pública de PersonaRepository, sobre
+//      el PersonaStore de BenchDatabase (cada backend: jdbc y memory).
+//    - Tiempo promedio por llamada (µs). insertAll/upsertAll escriben
+//      lotes de BATCH filas por llamada.
+//    - deleteByRun necesita filas que borrar: cada iteración inserta
+//      BATCH personas (fuera de la medición) y mide BATCH borrados
+//      (SingleShotTime: ms por lote = µs por borrado).
+// ======================================================================
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonaRepositoryBenchmark {
+
+    static final int BATCH = 1_000;
+
+    // ------------------------------------------------------------------
+    // == Clase interna: Victims
+    //    Rol: Personas recién insertadas para deleteByRun (una por
+    //         llamada, BATCH por iteración).
+    // ------------------------------------------------------------------
+    @State(Scope.Thread)
+    public static class Victims {
+        int[] runs;
+        int pos;
+
+        @Setup(Level.Iteration)
+        public void insert(BenchDatabase b) {
+            List<Persona> ps = new ArrayList<>(BATCH);
+            runs = new int[BATCH];
+            for (int i = 0; i < BATCH; i++) {
+                runs[i] = b.fresh();
+                ps.add(cliente(runs[i]));
+            }
+            b.personas.insertAll(ps);
+            pos = 0;
+        }
+    }
+
+    @Benchmark
+    public Persona getByRun(BenchDatabase b) {
+        return b.personas.getByRun(b.cliente());
+    }
+
+    @Benchmark
+    public List<Persona> listByTipo(BenchDatabase b) {
+        return b.personas.listByTipo("cliente");
+    }
+
+    @Benchmark
+    public int countByTipo(BenchDatabase b) {
+        return b.personas.countByTipo("cliente");
+    }
+
+    @Benchmark
+    public List<Persona> searchByTipo(BenchDatabase b) {
+        return b.personas.searchByTipo("cliente", "juan gonz", 0, 20);
+    }
+
+    // Incluye la verificación PBKDF2 (sin rehash: el dataset ya usa
+    // DEFAULT_ITERATIONS).
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String authenticateTrabajador(BenchDatabase b) {
+        return b.personas.authenticateTrabajador(Datasets.emailTrabajador(b.trabajador()), Datasets.CLAVE);
+    }
+
+    @Benchmark
+    public long insert(BenchDatabase b) {
+        return b.personas.insert(cliente(b.fresh()));
+    }
+
+    @Benchmark
+    public BulkResult insertAll(BenchDatabase b) {
+        List<Persona> ps = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) ps.add(cliente(b.fresh()));
+        return b.personas.insertAll(ps);
+    }
+
+    // Mitad RUN existentes (UPDATE) y mitad nuevos (INSERT).
+    @Benchmark
+    public BulkResult upsertAll(BenchDatabase b) {
+        List<Persona> ps = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) ps.add(cliente(i % 2 == 0 ? b.cliente() : b.fresh()));
+        return b.personas.upsertAll(ps);
+    }
+
+    @Benchmark
+    public int update(BenchDatabase b) {
+        Persona p = Datasets.persona(b.cliente(), "");
+        p.apellido = p.apellido + " Editado";
+        return b.personas.update(p);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    public int deleteByRun(BenchDatabase b, Victims v) {
+        return b.personas.deleteByRun(v.runs[v.pos++]);
+    }
+
+    // ============================ APOYO ================================
+
+    static Persona cliente(int run) {
+        Persona p = Datasets.persona(run, "");
+        if ("trabajador".equals(p.tipo)) {
+            p.tipo = "cliente";
+            p.email = "c" + run + "@taller.cl";
+        }
+        return p;
+    }
+}
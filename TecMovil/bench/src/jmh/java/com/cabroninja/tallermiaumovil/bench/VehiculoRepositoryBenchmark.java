@@ -0,0 +1,128 @@
+package com.cabroninja.tallermiaumovil.bench;
+
+import com.cabroninja.tallermiaumovil.data.BulkResult;
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ======================================================================
+// == Clase: VehiculoRepositoryBenchmark
+// == Rol dentro de :bench:
+//    - Un benchmark por operación pública de VehiculoRepository (search
+//      en sus dos variantes, con y sin dueño), sobre el VehiculoStore
+//      de BenchDatabase (jdbc y memory).
+//    - Mismo esquema que PersonaRepositoryBenchmark: µs por llamada,
+//      lotes de BATCH y delete medido por lotes (SingleShotTime).
+// ======================================================================
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VehiculoRepositoryBenchmark {
+
+    static final int BATCH = 1_000;
+
+    // ------------------------------------------------------------------
+    // == Clase interna: Victims
+    //    Rol: Vehículos recién insertados (sin OTs) para delete.
+    // ------------------------------------------------------------------
+    @State(Scope.Thread)
+    public static class Victims {
+        String[] patentes;
+        int pos;
+
+        @Setup(Level.Iteration)
+        public void insert(BenchDatabase b) {
+            List<Vehiculo> vs = new ArrayList<>(BATCH);
+            patentes = new String[BATCH];
+            for (int i = 0; i < BATCH; i++) {
+                Vehiculo v = Datasets.vehiculo(b.fresh(), b.cliente());
+                patentes[i] = v.patente;
+                vs.add(v);
+            }
+            b.vehiculos.insertAll(vs);
+            pos = 0;
+        }
+    }
+
+    @Benchmark
+    public long insert(BenchDatabase b) {
+        return b.vehiculos.insert(Datasets.vehiculo(b.fresh(), b.cliente()));
+    }
+
+    @Benchmark
+    public BulkResult insertAll(BenchDatabase b) {
+        List<Vehiculo> vs = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) vs.add(Datasets.vehiculo(b.fresh(), b.cliente()));
+        return b.vehiculos.insertAll(vs);
+    }
+
+    // Mitad patentes existentes (UPDATE) y mitad nuevas (INSERT).
+    @Benchmark
+    public BulkResult upsertAll(BenchDatabase b) {
+        List<Vehiculo> vs = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            vs.add(Datasets.vehiculo(i % 2 == 0 ? b.vehiculo() : b.fresh(), b.cliente()));
+        }
+        return b.vehiculos.upsertAll(vs);
+    }
+
+    @Benchmark
+    public List<Vehiculo> listByRunDueno(BenchDatabase b) {
+        return b.vehiculos.listByRunDueno(b.cliente());
+    }
+
+    @Benchmark
+    public List<Vehiculo> listAll(BenchDatabase b) {
+        return b.vehiculos.listAll();
+    }
+
+    @Benchmark
+    public List<Vehiculo> search(BenchDatabase b) {
+        return b.vehiculos.search("toyota", null, 0, 20);
+    }
+
+    // Vehículo i es del RUN i: busca su marca entre los de ese dueño.
+    @Benchmark
+    public List<Vehiculo> searchByRunDueno(BenchDatabase b) {
+        int i = b.vehiculo();
+        return b.vehiculos.search(Datasets.MODELOS[i % Datasets.MODELOS.length], i, 0, 20);
+    }
+
+    // Color nuevo; run_dueno null = se conserva (COALESCE).
+    @Benchmark
+    public int update(BenchDatabase b) {
+        Vehiculo v = Datasets.vehiculo(b.vehiculo(), null);
+        v.color = "amarillo";
+        return b.vehiculos.update(v);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    public int delete(BenchDatabase b, Victims v) {
+        return b.vehiculos.delete(v.patentes[v.pos++]);
+    }
+
+    @Benchmark
+    public int count(BenchDatabase b) {
+        return b.vehiculos.count();
+    }
+}
@@ -0,0 +1,119 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+// ======================================================================
+// == Clase: JdbcBulkWriter (uso interno del paquete data)
+// == Rol dentro de :bench:
+//    - Par JDBC de BulkWriter, con la misma estrategia: UNA transacción,
+//      sentencias preparadas una vez por carga y, para upsert, UPDATE
+//      por clave y luego INSERT si no afectó filas.
+//    - Una fila que viola una restricción queda como conflicto en
+//      BulkResult y la carga sigue (SQLite deshace solo esa sentencia).
+// ======================================================================
+final class JdbcBulkWriter {
+
+    // ------------------------------------------------------------------
+    // == Interface: Binder
+    //    Rol: Enlaza los campos de un elemento a los '?' de la sentencia.
+    // ------------------------------------------------------------------
+    interface Binder<T> {
+        void bind(PreparedStatement st, T item) throws SQLException;
+    }
+
+    // ------------------------------------------------------------------
+    // == Interface: Key
+    //    Rol: Clave de un elemento ya escrito (como BulkWriter.Key).
+    //         rowId es el del INSERT, o -1 tras un UPDATE.
+    // ------------------------------------------------------------------
+    interface Key<T> {
+        Object of(T item, long rowId);
+    }
+
+    private JdbcBulkWriter() { }
+
+    // ------------------------------------------------------------------
+    // == Método: write
+    //    Parámetros: los mismos que BulkWriter.write, con la conexión
+    //      JDBC en vez de SQLiteDatabase.
+    //    Retorno:
+    //      - BulkResult: filas insertadas/actualizadas y conflictos.
+    // ------------------------------------------------------------------
+    static <T> BulkResult write(JdbcTaller db, List<T> items, Key<T> key,
+                                String updateSql, Binder<T> updateBinder,
+                                String insertSql, Binder<T> insertBinder) {
+        BulkResult r = new BulkResult();
+        if (items == null || items.isEmpty()) return r;
+
+        Connection c = db.connection();
+        try {
+            c.setAutoCommit(false);
+            boolean ok = false;
+            try (PreparedStatement update = updateSql != null ? c.prepareStatement(updateSql) : null;
+                 PreparedStatement insert = c.prepareStatement(insertSql)) {
+                for (int i = 0; i < items.size(); i++) {
+                    T item = items.get(i);
+                    try {
+                        if (update != null) {
+                            update.clearParameters();
+                            updateBinder.bind(update, item);
+                            if (update.executeUpdate() > 0) {
+                                r.updated++;
+                                BulkResult.addKey(r.updatedKeys, key.of(item, -1));
+                                continue;
+                            }
+                        }
+                        insert.clearParameters();
+                        insertBinder.bind(insert, item);
+                        insert.executeUpdate();
+                        r.inserted++;
+                        // BulkResult guarda hasta MAX_KEYS + 1 claves: el
+                        // rowid solo se consulta para esas.
+                        if (r.insertedKeys.size() <= TableChange.MAX_KEYS) {
+                            BulkResult.addKey(r.insertedKeys, key.of(item, lastRowId(c)));
+                        }
+                    } catch (SQLException ex) {
+                        if (!JdbcTaller.isConstraint(ex)) throw ex;
+                        r.addConflict(i, ex.getMessage());
+                    }
+                }
+                c.commit();
+                ok = true;
+            } finally {
+                if (!ok) c.rollback();
+                c.setAutoCommit(true);
+            }
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(insertSql, ex);
+        }
+        return r;
+    }
+
+    // ------------------------------------------------------------------
+    // == Métodos: bindText / bindInteger
+    //    Descripción:
+    //      - Enlazan NULL cuando el campo del modelo viene vacío (igual
+    //        que BulkWriter).
+    // ------------------------------------------------------------------
+    static void bindText(PreparedStatement st, int index, String value) throws SQLException {
+        if (value == null) st.setNull(index, Types.VARCHAR); else st.setString(index, value);
+    }
+
+    static void bindInteger(PreparedStatement st, int index, Integer value) throws SQLException {
+        if (value == null) st.setNull(index, Types.INTEGER); else st.setLong(index, value);
+    }
+
+    // rowid del último INSERT (lo que devuelve executeInsert en Android).
+    static long lastRowId(Connection c) throws SQLException {
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import com.cabroninja.tallermiaumovil.model.OrdenTrabajo;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+// ======================================================================
+// == Clase: JdbcOrdenRepository
+// == Rol dentro de :bench:
+//    - Par JDBC de OrdenRepository: mismas operaciones públicas y mismo
+//      SQL (queries.properties).
+//    - insert/update de la app usan ContentValues; aquí SQL_INSERT (con
+//      id NULL, SQLite lo asigna) y SQL_UPDATE_BY_ID, equivalentes.
+// ======================================================================
+public class JdbcOrdenRepository implements OrdenStore {
+
+    private static final float[] SEARCH_WEIGHTS = { 3f, 1f };
+
+    private static final JdbcBulkWriter.Key<OrdenTrabajo> ORDEN_KEY =
+            (o, rowId) -> rowId != -1 ? rowId : o.id;
+
+    private final JdbcTaller db;
+
+    private final String sqlListAll;
+    private final String sqlListByPatente;
+    private final String sqlCount;
+    private final String sqlPage;
+    private final String sqlPageByPatente;
+    private final String sqlSearch;
+    private final String sqlSearchByPatente;
+    private final String sqlInsert;
+    private final String sqlUpdateById;
+
+    public JdbcOrdenRepository(JdbcTaller db) {
+        this.db = db;
+        sqlListAll = db.sql("OrdenRepository.SQL_LIST_ALL");
+        sqlListByPatente = db.sql("OrdenRepository.SQL_LIST_BY_PATENTE");
+        sqlCount = db.sql("OrdenRepository.SQL_COUNT");
+        sqlPage = db.sql("OrdenRepository.SQL_PAGE");
+        sqlPageByPatente = db.sql("OrdenRepository.SQL_PAGE_BY_PATENTE");
+        sqlSearch = db.sql("OrdenRepository.SQL_SEARCH");
+        sqlSearchByPatente = db.sql("OrdenRepository.SQL_SEARCH_BY_PATENTE");
+        sqlInsert = db.sql("OrdenRepository.SQL_INSERT");
+        sqlUpdateById = db.sql("OrdenRepository.SQL_UPDATE_BY_ID");
+    }
+
+    // ============================== CRUD ===============================
+
+    // id asignado, o -1 si una restricción la rechazó.
+    @Override
+    public long insert(OrdenTrabajo o) {
+        try {
+            PreparedStatement st = db.prepare(sqlInsert);
+            bindInsert(st, o, false);
+            st.executeUpdate();
+            return JdbcBulkWriter.lastRowId(db.connection());
+        } catch (SQLException ex) {
+            if (JdbcTaller.isConstraint(ex)) return -1;
+            throw JdbcTaller.fail(sqlInsert, ex);
+        }
+    }
+
+    @Override
+    public BulkResult insertAll(List<OrdenTrabajo> ordenes) {
+        return JdbcBulkWriter.write(db, ordenes, ORDEN_KEY,
+                null, null, sqlInsert, (st, o) -> bindInsert(st, o, false));
+    }
+
+    @Override
+    public BulkResult upsertAll(List<OrdenTrabajo> ordenes) {
+        return JdbcBulkWriter.write(db, ordenes, ORDEN_KEY,
+                sqlUpdateById, JdbcOrdenRepository::bindUpdate,
+                sqlInsert, (st, o) -> bindInsert(st, o, true));
+    }
+
+    @Override
+    public int update(OrdenTrabajo o) {
+        try {
+            PreparedStatement st = db.prepare(sqlUpdateById);
+            bindUpdate(st, o);
+            return st.executeUpdate();
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sqlUpdateById, ex);
+        }
+    }
+
+    // ============================= LECTURAS ============================
+
+    @Override
+    public List<OrdenTrabajo> listAll() {
+        try {
+            return readAll(db.prepare(sqlListAll), 16);
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sqlListAll, ex);
+        }
+    }
+
+    @Override
+    public List<OrdenTrabajo> listByPatente(String patente) {
+        try {
+            PreparedStatement st = db.prepare(sqlListByPatente);
+            st.setString(1, patente);
+            return readAll(st, 16);
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sqlListByPatente, ex);
+        }
+    }
+
+    @Override
+    public List<OrdenTrabajo> listPage(long beforeId, int limit) {
+        try {
+            PreparedStatement st = db.prepare(sqlPage);
+            st.setLong(1, beforeId);
+            st.setInt(2, limit);
+            return readAll(st, limit);
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sqlPage, ex);
+        }
+    }
+
+    @Override
+    public List<OrdenTrabajo> listPageByPatente(String patente, long beforeId, int limit) {
+        try {
+            PreparedStatement st = db.prepare(sqlPageByPatente);
+            st.setString(1, patente);
+            st.setLong(2, beforeId);
+            st.setInt(3, limit);
+            return readAll(st, limit);
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sqlPageByPatente, ex);
+        }
+    }
+
+    @Override
+    public List<OrdenTrabajo> search(String texto, String patente, int offset, int limit) {
+        String match = SearchText.matchQuery(texto);
+        if (match == null) return new ArrayList<>();
+        String sql = patente != null ? sqlSearchByPatente : sqlSearch;
+        try {
+            return SearchText.rankedPage(offset, limit, (start, ranking) -> {
+                PreparedStatement st = db.prepare(sql);
+                int i = 1;
+                st.setString(i++, match);
+                if (patente != null) st.setString(i++, patente);
+                st.setInt(i, start);
+                try (ResultSet rs = st.executeQuery()) {
+                    while (rs.next()) ranking.add(read(rs), SearchText.score(rs.getBytes(8), SEARCH_WEIGHTS));
+                }
+            });
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sql, ex);
+        }
+    }
+
+    @Override
+    public int count() {
+        try (ResultSet rs = db.prepare(sqlCount).executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sqlCount, ex);
+        }
+    }
+
+    // ============================ APOYO ================================
+
+    private static List<OrdenTrabajo> readAll(PreparedStatement st, int capacity) throws SQLException {
+        List<OrdenTrabajo> out = new ArrayList<>(capacity);
+        try (ResultSet rs = st.executeQuery()) {
+            while (rs.next()) out.add(read(rs));
+        }
+        return out;
+    }
+
+    private static OrdenTrabajo read(ResultSet rs) throws SQLException {
+        return new OrdenTrabajo(rs.getLong(1), rs.getString(2), rs.getString(3),
+                rs.getDouble(4), rs.getDouble(5), rs.getString(6), rs.getString(7));
+    }
+
+    private static void bindInsert(PreparedStatement st, OrdenTrabajo o, boolean keepId) throws SQLException {
+        if (keepId && o.id > 0) st.setLong(1, o.id); else st.setNull(1, Types.INTEGER);
+        JdbcBulkWriter.bindText(st, 2, o.numero);
+        JdbcBulkWriter.bindText(st, 3, o.fecha);
+        st.setDouble(4, o.valorNeto);
+        st.setDouble(5, o.iva);
+        JdbcBulkWriter.bindText(st, 6, o.observacion);
+        JdbcBulkWriter.bindText(st, 7, o.patente);
+    }
+
+    private static void bindUpdate(PreparedStatement st, OrdenTrabajo o) throws SQLException {
+        JdbcBulkWriter.bindText(st, 1, o.numero);
+        JdbcBulkWriter.bindText(st, 2, o.fecha);
+        st.setDouble(3, o.valorNeto);
+        st.setDouble(4, o.iva);
+        JdbcBulkWriter.bindText(st, 5, o.observacion);
+        JdbcBulkWriter.bindText(st, 6, o.patente);
+        st.setLong(7, o.id);
+    }
+}
@@ -0,0 +1,268 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import com.cabroninja.tallermiaumovil.model.Persona;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+// ======================================================================
+// == Clase: JdbcPersonaRepository
+// == Rol dentro de :bench:
+//    - Par JDBC de PersonaRepository: mismas operaciones públicas, mismo
+//      SQL (queries.properties) y mismo manejo de contraseñas (hash de
+//      trabajadores, verificación y rehash en el login).
+//    - Quedan fuera cursorByTipo/read (devuelven un Cursor de Android) y
+//      los avisos a DashboardStats/ChangeBus (no hay pantallas que
+//      escuchen en el host).
+// ======================================================================
+public class JdbcPersonaRepository implements PersonaStore {
+
+    private static final float[] SEARCH_WEIGHTS = { 2f, 2f, 1f };
+
+    private static final JdbcBulkWriter.Key<Persona> RUN_KEY = (p, rowId) -> p.run;
+
+    private final JdbcTaller db;
+    private final PasswordHasher passwords;
+
+    private final String sqlGetByRun;
+    private final String sqlListByTipo;
+    private final String sqlCountByTipo;
+    private final String sqlAuthTrabajador;
+    private final String sqlSearchByTipo;
+    private final String sqlInsert;
+    private final String sqlUpdateByRun;
+    private final String sqlDeleteByRun;
+    private final String sqlRehash;
+
+    // ------------------------------------------------------------------
+    // == Constructor: JdbcPersonaRepository
+    //    Parámetros:
+    //      - db (JdbcTaller): conexión a usar.
+    //      - passwords (PasswordHasher): costo de las contraseñas (en la
+    //        app, TallerDatabase.getPasswordHasher).
+    // ------------------------------------------------------------------
+    public JdbcPersonaRepository(JdbcTaller db, PasswordHasher passwords) {
+        this.db = db;
+        this.passwords = passwords;
+        sqlGetByRun = db.sql("PersonaRepository.SQL_GET_BY_RUN");
+        sqlListByTipo = db.sql("PersonaRepository.SQL_LIST_BY_TIPO");
+        sqlCountByTipo = db.sql("PersonaRepository.SQL_COUNT_BY_TIPO");
+        sqlAuthTrabajador = db.sql("PersonaRepository.SQL_AUTH_TRABAJADOR");
+        sqlSearchByTipo = db.sql("PersonaRepository.SQL_SEARCH_BY_TIPO");
+        sqlInsert = db.sql("PersonaRepository.SQL_INSERT");
+        sqlUpdateByRun = db.sql("PersonaRepository.SQL_UPDATE_BY_RUN");
+        sqlDeleteByRun = db.sql("PersonaRepository.deleteByRun");
+        sqlRehash = db.sql("PersonaRepository.SQL_REHASH");
+    }
+
+    // ============================== CRUD ===============================
+
+    // ------------------------------------------------------------------
+    // == Método: insert
+    //    Retorno:
+    //      - long: rowId de la nueva fila, o -1 si una restricción la
+    //        rechazó (como SQLiteDatabase.insert).
+    // ------------------------------------------------------------------
+    @Override
+    public long insert(Persona p) {
+        try {
+            PreparedStatement st = db.prepare(sqlInsert);
+            bindInsert(st, withCredential(p));
+            st.executeUpdate();
+            return JdbcBulkWriter.lastRowId(db.connection());
+        } catch (SQLException ex) {
+            if (JdbcTaller.isConstraint(ex)) return -1;
+            throw JdbcTaller.fail(sqlInsert, ex);
+        }
+    }
+
+    @Override
+    public BulkResult insertAll(List<Persona> personas) {
+        return JdbcBulkWriter.write(db, withCredentials(personas), RUN_KEY,
+                null, null, sqlInsert, JdbcPersonaRepository::bindInsert);
+    }
+
+    @Override
+    public BulkResult upsertAll(List<Persona> personas) {
+        return JdbcBulkWriter.write(db, withCredentials(personas), RUN_KEY,
+                sqlUpdateByRun, JdbcPersonaRepository::bindUpdate,
+                sqlInsert, JdbcPersonaRepository::bindInsert);
+    }
+
+    @Override
+    public int update(Persona p) {
+        try {
+            PreparedStatement st = db.prepare(sqlUpdateByRun);
+            bindUpdate(st, withCredential(p));
+            return st.executeUpdate();
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sqlUpdateByRun, ex);
+        }
+    }
+
+    @Override
+    public int deleteByRun(int run) {
+        try {
+            PreparedStatement st = db.prepare(sqlDeleteByRun);
+            st.setLong(1, run);
+            return st.executeUpdate();
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sqlDeleteByRun, ex);
+        }
+    }
+
+    // ============================= LECTURAS ============================
+
+    // null si no existe o si la consulta falla (como getByRun de la app).
+    @Override
+    public Persona getByRun(int run) {
+        try {
+            PreparedStatement st = db.prepare(sqlGetByRun);
+            st.setLong(1, run);
+            try (ResultSet rs = st.executeQuery()) {
+                return rs.next() ? read(rs) : null;
+            }
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public List<Persona> listByTipo(String tipo) {
+        List<Persona> out = new ArrayList<>();
+        try {
+            PreparedStatement st = db.prepare(sqlListByTipo);
+            st.setString(1, tipo);
+            try (ResultSet rs = st.executeQuery()) {
+                while (rs.next()) out.add(read(rs));
+            }
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sqlListByTipo, ex);
+        }
+        return out;
+    }
+
+    @Override
+    public int countByTipo(String tipo) {
+        try {
+            PreparedStatement st = db.prepare(sqlCountByTipo);
+            st.setString(1, tipo);
+            try (ResultSet rs = st.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sqlCountByTipo, ex);
+        }
+    }
+
+    @Override
+    public List<Persona> searchByTipo(String tipo, String texto, int offset, int limit) {
+        String match = SearchText.matchQuery(texto);
+        if (match == null) return new ArrayList<>();
+        try {
+            return SearchText.rankedPage(offset, limit, (start, ranking) -> {
+                PreparedStatement st = db.prepare(sqlSearchByTipo);
+                st.setString(1, match);
+                st.setString(2, tipo);
+                st.setInt(3, start);
+                try (ResultSet rs = st.executeQuery()) {
+                    while (rs.next()) ranking.add(read(rs), SearchText.score(rs.getBytes(7), SEARCH_WEIGHTS));
+                }
+            });
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sqlSearchByTipo, ex);
+        }
+    }
+
+    // ====================== AUTENTICACIÓN (trabajador) =================
+
+    // Mismo flujo que PersonaRepository.authenticateTrabajador.
+    @Override
+    public String authenticateTrabajador(String email, String plainPassword) {
+        int run;
+        String nombre;
+        String apellido;
+        String passDb;
+        try {
+            PreparedStatement st = db.prepare(sqlAuthTrabajador);
+            st.setString(1, email);
+            try (ResultSet rs = st.executeQuery()) {
+                if (!rs.next()) return null;
+                run      = rs.getInt(1);
+                nombre   = rs.getString(2);
+                apellido = rs.getString(3);
+                passDb   = rs.getString(4);
+            }
+        } catch (SQLException ex) {
+            return null;
+        }
+
+        if (!passwords.verify(plainPassword, passDb)) return null;
+        if (passwords.needsRehash(passDb)) rehash(run, plainPassword, passDb);
+
+        String full = Persona.nombreCompleto(nombre, apellido).trim();
+        return full.isEmpty() ? null : full;
+    }
+
+    // ============================ APOYO ================================
+
+    private void rehash(int run, String plainPassword, String passDb) {
+        try {
+            PreparedStatement st = db.prepare(sqlRehash);
+            st.setString(1, passwords.hash(plainPassword));
+            st.setLong(2, run);
+            st.setString(3, passDb);
+            st.executeUpdate();
+        } catch (SQLException ex) {
+            // Igual que la app: un rehash fallido no impide el ingreso.
+        }
+    }
+
+    private Persona withCredential(Persona p) {
+        if (!"trabajador".equals(p.tipo) || p.password == null || PasswordHasher.isHash(p.password)) {
+            return p;
+        }
+        return new Persona(p.run, p.email, p.nombre, p.apellido, passwords.hash(p.password), p.tipo);
+    }
+
+    private List<Persona> withCredentials(final List<Persona> in) {
+        return new AbstractList<Persona>() {
+            @Override
+            public Persona get(int i) {
+                return withCredential(in.get(i));
+            }
+
+            @Override
+            public int size() {
+                return in.size();
+            }
+        };
+    }
+
+    private static Persona read(ResultSet rs) throws SQLException {
+        return new Persona(rs.getInt(1), rs.getString(2), rs.getString(3),
+                rs.getString(4), rs.getString(5), rs.getString(6));
+    }
+
+    private static void bindInsert(PreparedStatement st, Persona p) throws SQLException {
+        st.setLong(1, p.run);
+        JdbcBulkWriter.bindText(st, 2, p.email);
+        JdbcBulkWriter.bindText(st, 3, p.nombre);
+        JdbcBulkWriter.bindText(st, 4, p.apellido);
+        JdbcBulkWriter.bindText(st, 5, p.password);
+        JdbcBulkWriter.bindText(st, 6, p.tipo);
+    }
+
+    private static void bindUpdate(PreparedStatement st, Persona p) throws SQLException {
+        JdbcBulkWriter.bindText(st, 1, p.email);
+        JdbcBulkWriter.bindText(st, 2, p.nombre);
+        JdbcBulkWriter.bindText(st, 3, p.apellido);
+        JdbcBulkWriter.bindText(st, 4, p.password);
+        JdbcBulkWriter.bindText(st, 5, p.tipo);
+        st.setLong(6, p.run);
+    }
+}
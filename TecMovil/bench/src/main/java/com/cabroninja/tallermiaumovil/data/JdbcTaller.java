@@ -0,0 +1,248 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+// ======================================================================
+// == Clase: JdbcTaller
+// == Rol dentro de :bench:
+//    - Par JDBC de TallerDatabase/TallerDbHelper: una conexión SQLite
+//      (sqlite-jdbc) a un archivo, con el esquema de la app
+//      (taller/schema.sql) y sus consultas (taller/queries.properties).
+//    - Aplica los PRAGMAs del perfil EQUILIBRADO de DbPerfProfile (el de
+//      release) y activa las FKs como TallerDbHelper.onConfigure.
+//    - Guarda las sentencias preparadas por SQL (LRU de 25, igual que el
+//      caché de sentencias de SQLiteDatabase), así cada operación paga lo
+//      mismo que en el equipo: enlazar y ejecutar, no compilar.
+// == Hilos:
+//    - Una conexión, un hilo (los benchmarks no la comparten).
+// ======================================================================
+public final class JdbcTaller implements AutoCloseable {
+
+    static final String SCHEMA = "/taller/schema.sql";
+    static final String QUERIES = "/taller/queries.properties";
+
+    // Tamaño del caché de sentencias (SQLiteDatabase usa 25 por omisión).
+    private static final int STATEMENT_CACHE = 25;
+
+    // ------------------------------------------------------------------
+    // == Clase interna: JdbcException
+    //    Rol: Error de SQLite sin checked exception, como SQLiteException
+    //         en la app (los repositorios no declaran throws).
+    // ------------------------------------------------------------------
+    public static final class JdbcException extends RuntimeException {
+        JdbcException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private final Connection connection;
+    private final Properties queries;
+    private final Map<String, PreparedStatement> statements =
+            new LinkedHashMap<String, PreparedStatement>(STATEMENT_CACHE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() <= STATEMENT_CACHE) return false;
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+            };
+
+    private JdbcTaller(Connection connection, Properties queries) {
+        this.connection = connection;
+        this.queries = queries;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: open
+    //    Parámetros:
+    //      - file (File): archivo de la base (se crea si no existe).
+    //    Descripción:
+    //      - Abre la conexión y aplica los PRAGMAs.
+    //      - Archivo nuevo (user_version 0): ejecuta schema.sql en una
+    //        transacción y fija user_version (como onCreate).
+    //      - Otra versión distinta a schema.version: error (el backend
+    //        no migra; los datasets se regeneran).
+    //    Retorno:
+    //      - JdbcTaller: conexión lista; cerrarla con close().
+    // ------------------------------------------------------------------
+    public static JdbcTaller open(File file) {
+        Properties queries = loadQueries();
+        int version = Integer.parseInt(queries.getProperty("schema.version"));
+        Connection c = null;
+        try {
+            c = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+            try (Statement st = c.createStatement()) {
+                // DbPerfProfile.EQUILIBRADO
+                st.execute("PRAGMA journal_mode=WAL");
+                st.execute("PRAGMA synchronous=NORMAL");
+                st.execute("PRAGMA cache_size=-8192");
+                st.execute("PRAGMA mmap_size=33554432");
+                st.execute("PRAGMA temp_store=MEMORY");
+                st.execute("PRAGMA journal_size_limit=4194304");
+                st.execute("PRAGMA foreign_keys=ON");
+            }
+            int current = userVersion(c);
+            if (current == 0) {
+                createSchema(c, version);
+            } else if (current != version) {
+                throw new IllegalStateException(file + ": user_version " + current +
+                        ", se esperaba " + version + " (regenerar el dataset)");
+            }
+            return new JdbcTaller(c, queries);
+        } catch (SQLException ex) {
+            closeQuietly(c);
+            throw new JdbcException("No se pudo abrir " + file, ex);
+        } catch (RuntimeException ex) {
+            closeQuietly(c);
+            throw ex;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: sql
+    //    Parámetros:
+    //      - key (String): clave de queries.properties, p. ej.
+    //        "PersonaRepository.SQL_GET_BY_RUN".
+    //    Retorno:
+    //      - String: la sentencia (IllegalArgumentException si no existe).
+    // ------------------------------------------------------------------
+    public String sql(String key) {
+        String sql = queries.getProperty(key);
+        if (sql == null) throw new IllegalArgumentException("Consulta desconocida: " + key);
+        return sql;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: prepare
+    //    Parámetros:
+    //      - sql (String): sentencia a ejecutar.
+    //    Descripción:
+    //      - Devuelve la sentencia preparada del caché (o la prepara), con
+    //        los parámetros limpios. No se cierra: es del caché.
+    // ------------------------------------------------------------------
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement st = statements.get(sql);
+        if (st == null) {
+            st = connection.prepareStatement(sql);
+            statements.put(sql, st);
+        } else {
+            st.clearParameters();
+        }
+        return st;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: connection
+    //    Retorno:
+    //      - Connection: conexión subyacente (transacciones de
+    //        JdbcBulkWriter y SQL auxiliar de los datasets).
+    // ------------------------------------------------------------------
+    public Connection connection() {
+        return connection;
+    }
+
+    // ------------------------------------------------------------------
+    // == Método: execute
+    //    Parámetros:
+    //      - sql (String): sentencia sin parámetros (mantenimiento).
+    //    Retorno:
+    //      - int: filas afectadas.
+    // ------------------------------------------------------------------
+    public int execute(String sql) {
+        try (Statement st = connection.createStatement()) {
+            return st.executeUpdate(sql);
+        } catch (SQLException ex) {
+            throw fail(sql, ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (PreparedStatement st : statements.values()) closeQuietly(st);
+        statements.clear();
+        closeQuietly(connection);
+    }
+
+    // ============================ APOYO ================================
+
+    static JdbcException fail(String sql, SQLException ex) {
+        return new JdbcException(ex.getMessage() + " [" + sql + "]", ex);
+    }
+
+    // Restricción violada (PK/UNIQUE/FK/CHECK): SQLITE_CONSTRAINT y sus
+    // códigos extendidos. Equivale a SQLiteConstraintException.
+    static boolean isConstraint(SQLException ex) {
+        return (ex.getErrorCode() & 0xff) == 19;
+    }
+
+    private static int userVersion(Connection c) throws SQLException {
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // Una sentencia por línea (sin el ";" final); "--" y vacías se saltan.
+    private static void createSchema(Connection c, int version) throws SQLException {
+        c.setAutoCommit(false);
+        try (Statement st = c.createStatement()) {
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                    resource(SCHEMA), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("--")) continue;
+                    st.execute(line.endsWith(";") ? line.substring(0, line.length() - 1) : line);
+                }
+            } catch (IOException ex) {
+                throw new IllegalStateException("No se pudo leer " + SCHEMA, ex);
+            }
+            st.execute("PRAGMA user_version=" + version);
+            c.commit();
+        } catch (SQLException | RuntimeException ex) {
+            c.rollback();
+            throw ex;
+        } finally {
+            c.setAutoCommit(true);
+        }
+    }
+
+    private static Properties loadQueries() {
+        Properties p = new Properties();
+        try (InputStream in = resource(QUERIES)) {
+            p.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            throw new IllegalStateException("No se pudo leer " + QUERIES, ex);
+        }
+        return p;
+    }
+
+    private static InputStream resource(String name) {
+        InputStream in = JdbcTaller.class.getResourceAsStream(name);
+        if (in == null) throw new IllegalStateException("Falta el recurso " + name);
+        return in;
+    }
+
+    private static void closeQuietly(AutoCloseable c) {
+        if (c == null) return;
+        try {
+            c.close();
+        } catch (Exception ignored) {
+            // Cierre best-effort.
+        }
+    }
+}
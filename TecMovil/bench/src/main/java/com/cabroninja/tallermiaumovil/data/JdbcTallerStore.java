@@ -0,0 +1,43 @@
+package com.cabroninja.tallermiaumovil.data;
+
+// ======================================================================
+// == Clase: JdbcTallerStore
+// == Rol dentro de :bench:
+//    - TallerStore sobre una conexión JdbcTaller: los tres repositorios
+//      Jdbc* juntos, para que benchmarks y TallerStoreConformance usen
+//      el motor JDBC igual que SqliteTallerStore y MemoryTallerStore.
+//    - No cierra la conexión: es de quien abrió el JdbcTaller.
+// ======================================================================
+public final class JdbcTallerStore implements TallerStore {
+
+    private final JdbcPersonaRepository personas;
+    private final JdbcVehiculoRepository vehiculos;
+    private final JdbcOrdenRepository ordenes;
+
+    // ------------------------------------------------------------------
+    // == Constructor: JdbcTallerStore
+    //    Parámetros:
+    //      - db (JdbcTaller): conexión a usar.
+    //      - passwords (PasswordHasher): costo de las contraseñas.
+    // ------------------------------------------------------------------
+    public JdbcTallerStore(JdbcTaller db, PasswordHasher passwords) {
+        personas = new JdbcPersonaRepository(db, passwords);
+        vehiculos = new JdbcVehiculoRepository(db);
+        ordenes = new JdbcOrdenRepository(db);
+    }
+
+    @Override
+    public JdbcPersonaRepository personas() {
+        return personas;
+    }
+
+    @Override
+    public JdbcVehiculoRepository vehiculos() {
+        return vehiculos;
+    }
+
+    @Override
+    public JdbcOrdenRepository ordenes() {
+        return ordenes;
+    }
+}
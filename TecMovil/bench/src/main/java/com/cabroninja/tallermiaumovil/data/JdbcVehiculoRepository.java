@@ -0,0 +1,182 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import com.cabroninja.tallermiaumovil.model.Vehiculo;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// ======================================================================
+// == Clase: JdbcVehiculoRepository
+// == Rol dentro de :bench:
+//    - Par JDBC de VehiculoRepository: mismas operaciones públicas y
+//      mismo SQL (queries.properties).
+//    - insert/update de la app arman el SQL desde ContentValues; aquí se
+//      usan SQL_INSERT y SQL_UPDATE_BY_PATENTE, que dan el mismo resultado
+//      (run_dueno null = NULL al insertar y "no cambiar" al actualizar).
+//    - Quedan fuera cursorAll/cursorByRunDueno/read (Cursor de Android).
+// ======================================================================
+public class JdbcVehiculoRepository implements VehiculoStore {
+
+    private static final float[] SEARCH_WEIGHTS = { 3f, 1f, 1f };
+
+    private static final JdbcBulkWriter.Key<Vehiculo> PATENTE_KEY = (v, rowId) -> v.patente;
+
+    private final JdbcTaller db;
+
+    private final String sqlListByRunDueno;
+    private final String sqlListAll;
+    private final String sqlCount;
+    private final String sqlSearch;
+    private final String sqlSearchByRunDueno;
+    private final String sqlInsert;
+    private final String sqlUpdateByPatente;
+    private final String sqlDelete;
+
+    public JdbcVehiculoRepository(JdbcTaller db) {
+        this.db = db;
+        sqlListByRunDueno = db.sql("VehiculoRepository.SQL_LIST_BY_RUN_DUENO");
+        sqlListAll = db.sql("VehiculoRepository.SQL_LIST_ALL");
+        sqlCount = db.sql("VehiculoRepository.SQL_COUNT");
+        sqlSearch = db.sql("VehiculoRepository.SQL_SEARCH");
+        sqlSearchByRunDueno = db.sql("VehiculoRepository.SQL_SEARCH_BY_RUN_DUENO");
+        sqlInsert = db.sql("VehiculoRepository.SQL_INSERT");
+        sqlUpdateByPatente = db.sql("VehiculoRepository.SQL_UPDATE_BY_PATENTE");
+        sqlDelete = db.sql("VehiculoRepository.delete");
+    }
+
+    // ============================== CRUD ===============================
+
+    // rowId de la nueva fila, o -1 si una restricción la rechazó.
+    @Override
+    public long insert(Vehiculo v) {
+        try {
+            PreparedStatement st = db.prepare(sqlInsert);
+            bindInsert(st, v);
+            st.executeUpdate();
+            return JdbcBulkWriter.lastRowId(db.connection());
+        } catch (SQLException ex) {
+            if (JdbcTaller.isConstraint(ex)) return -1;
+            throw JdbcTaller.fail(sqlInsert, ex);
+        }
+    }
+
+    @Override
+    public BulkResult insertAll(List<Vehiculo> vehiculos) {
+        return JdbcBulkWriter.write(db, vehiculos, PATENTE_KEY,
+                null, null, sqlInsert, JdbcVehiculoRepository::bindInsert);
+    }
+
+    @Override
+    public BulkResult upsertAll(List<Vehiculo> vehiculos) {
+        return JdbcBulkWriter.write(db, vehiculos, PATENTE_KEY,
+                sqlUpdateByPatente, JdbcVehiculoRepository::bindUpdate,
+                sqlInsert, JdbcVehiculoRepository::bindInsert);
+    }
+
+    @Override
+    public int update(Vehiculo v) {
+        try {
+            PreparedStatement st = db.prepare(sqlUpdateByPatente);
+            bindUpdate(st, v);
+            return st.executeUpdate();
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sqlUpdateByPatente, ex);
+        }
+    }
+
+    @Override
+    public int delete(String patente) {
+        try {
+            PreparedStatement st = db.prepare(sqlDelete);
+            st.setString(1, patente);
+            return st.executeUpdate();
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sqlDelete, ex);
+        }
+    }
+
+    // ============================= LECTURAS ============================
+
+    @Override
+    public List<Vehiculo> listByRunDueno(int runDueno) {
+        try {
+            PreparedStatement st = db.prepare(sqlListByRunDueno);
+            st.setLong(1, runDueno);
+            return readAll(st);
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sqlListByRunDueno, ex);
+        }
+    }
+
+    @Override
+    public List<Vehiculo> listAll() {
+        try {
+            return readAll(db.prepare(sqlListAll));
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sqlListAll, ex);
+        }
+    }
+
+    @Override
+    public List<Vehiculo> search(String texto, Integer runDueno, int offset, int limit) {
+        String match = SearchText.matchQuery(texto);
+        if (match == null) return new ArrayList<>();
+        String sql = runDueno != null ? sqlSearchByRunDueno : sqlSearch;
+        try {
+            return SearchText.rankedPage(offset, limit, (start, ranking) -> {
+                PreparedStatement st = db.prepare(sql);
+                int i = 1;
+                st.setString(i++, match);
+                if (runDueno != null) st.setLong(i++, runDueno);
+                st.setInt(i, start);
+                try (ResultSet rs = st.executeQuery()) {
+                    while (rs.next()) ranking.add(read(rs), SearchText.score(rs.getBytes(5), SEARCH_WEIGHTS));
+                }
+            });
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sql, ex);
+        }
+    }
+
+    @Override
+    public int count() {
+        try (ResultSet rs = db.prepare(sqlCount).executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException ex) {
+            throw JdbcTaller.fail(sqlCount, ex);
+        }
+    }
+
+    // ============================ APOYO ================================
+
+    private static List<Vehiculo> readAll(PreparedStatement st) throws SQLException {
+        List<Vehiculo> out = new ArrayList<>();
+        try (ResultSet rs = st.executeQuery()) {
+            while (rs.next()) out.add(read(rs));
+        }
+        return out;
+    }
+
+    private static Vehiculo read(ResultSet rs) throws SQLException {
+        int rd = rs.getInt(4);
+        return new Vehiculo(rs.getString(1), rs.getString(2), rs.getString(3),
+                rs.wasNull() ? null : rd);
+    }
+
+    private static void bindInsert(PreparedStatement st, Vehiculo v) throws SQLException {
+        JdbcBulkWriter.bindText(st, 1, v.patente);
+        JdbcBulkWriter.bindText(st, 2, v.color);
+        JdbcBulkWriter.bindText(st, 3, v.modelo);
+        JdbcBulkWriter.bindInteger(st, 4, v.runDueno);
+    }
+
+    private static void bindUpdate(PreparedStatement st, Vehiculo v) throws SQLException {
+        JdbcBulkWriter.bindText(st, 1, v.color);
+        JdbcBulkWriter.bindText(st, 2, v.modelo);
+        JdbcBulkWriter.bindInteger(st, 3, v.runDueno);
+        JdbcBulkWriter.bindText(st, 4, v.patente);
+    }
+}
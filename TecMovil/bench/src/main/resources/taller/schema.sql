@@ -0,0 +1,46 @@
+-- ======================================================================
+-- == Esquema de la app (TallerDbHelper.DB_VERSION 19) para el backend
+-- == JDBC de :bench.
+--    - Mismo SQL que ejecuta TallerDbHelper.onCreate en una instalación
+--      nueva: esquema base, bitácora de SchemaMigrator, índices (v17),
+--      SearchIndex (v18) y SummaryTables (v19), en ese orden.
+--    - Una sentencia por línea (los triggers incluyen su ";" interno).
+--    - HostSqlParityTest (androidTest de :app) verifica que coincide con
+--      el esquema real; al subir DB_VERSION, actualizar este archivo y
+--      schema.version en queries.properties.
+-- ======================================================================
+CREATE TABLE persona (run INTEGER PRIMARY KEY, email TEXT UNIQUE NOT NULL, nombre TEXT NOT NULL, apellido TEXT NOT NULL, password TEXT NOT NULL, tipo TEXT NOT NULL CHECK(tipo IN ('cliente','trabajador')));
+CREATE TABLE vehiculo (patente TEXT PRIMARY KEY, color TEXT, modelo TEXT, run_dueno INTEGER REFERENCES persona(run) ON UPDATE CASCADE ON DELETE SET NULL);
+CREATE TABLE orden_trabajo (id INTEGER PRIMARY KEY AUTOINCREMENT, numero TEXT, fecha TEXT, valor_neto REAL, iva REAL, observacion TEXT, patente TEXT REFERENCES vehiculo(patente) ON UPDATE CASCADE ON DELETE CASCADE);
+CREATE TABLE IF NOT EXISTS schema_migracion (version INTEGER PRIMARY KEY, descripcion TEXT NOT NULL, aplicada TEXT NOT NULL, duracion_ms INTEGER NOT NULL);
+CREATE INDEX IF NOT EXISTS idx_persona_tipo_nombre ON persona(tipo, nombre, apellido);
+CREATE INDEX IF NOT EXISTS idx_vehiculo_run_dueno ON vehiculo(run_dueno, patente);
+CREATE INDEX IF NOT EXISTS idx_orden_patente_id ON orden_trabajo(patente, id);
+CREATE VIRTUAL TABLE IF NOT EXISTS persona_fts USING fts4(content="persona", nombre, apellido, email, tokenize=unicode61, prefix="2,3");
+CREATE TRIGGER IF NOT EXISTS persona_fts_ai AFTER INSERT ON persona BEGIN INSERT INTO persona_fts(docid, nombre, apellido, email) VALUES (new.rowid, new.nombre, new.apellido, new.email); END;
+CREATE TRIGGER IF NOT EXISTS persona_fts_bu BEFORE UPDATE OF nombre, apellido, email ON persona BEGIN DELETE FROM persona_fts WHERE docid = old.rowid; END;
+CREATE TRIGGER IF NOT EXISTS persona_fts_au AFTER UPDATE OF nombre, apellido, email ON persona BEGIN INSERT INTO persona_fts(docid, nombre, apellido, email) VALUES (new.rowid, new.nombre, new.apellido, new.email); END;
+CREATE TRIGGER IF NOT EXISTS persona_fts_bd BEFORE DELETE ON persona BEGIN DELETE FROM persona_fts WHERE docid = old.rowid; END;
+CREATE VIRTUAL TABLE IF NOT EXISTS vehiculo_fts USING fts4(content="vehiculo", patente, modelo, color, tokenize=unicode61, prefix="2,3");
+CREATE TRIGGER IF NOT EXISTS vehiculo_fts_ai AFTER INSERT ON vehiculo BEGIN INSERT INTO vehiculo_fts(docid, patente, modelo, color) VALUES (new.rowid, new.patente, new.modelo, new.color); END;
+CREATE TRIGGER IF NOT EXISTS vehiculo_fts_bu BEFORE UPDATE OF patente, modelo, color ON vehiculo BEGIN DELETE FROM vehiculo_fts WHERE docid = old.rowid; END;
+CREATE TRIGGER IF NOT EXISTS vehiculo_fts_au AFTER UPDATE OF patente, modelo, color ON vehiculo BEGIN INSERT INTO vehiculo_fts(docid, patente, modelo, color) VALUES (new.rowid, new.patente, new.modelo, new.color); END;
+CREATE TRIGGER IF NOT EXISTS vehiculo_fts_bd BEFORE DELETE ON vehiculo BEGIN DELETE FROM vehiculo_fts WHERE docid = old.rowid; END;
+CREATE VIRTUAL TABLE IF NOT EXISTS orden_fts USING fts4(content="orden_trabajo", numero, observacion, tokenize=unicode61, prefix="2,3");
+CREATE TRIGGER IF NOT EXISTS orden_fts_ai AFTER INSERT ON orden_trabajo BEGIN INSERT INTO orden_fts(docid, numero, observacion) VALUES (new.rowid, new.numero, new.observacion); END;
+CREATE TRIGGER IF NOT EXISTS orden_fts_bu BEFORE UPDATE OF numero, observacion ON orden_trabajo BEGIN DELETE FROM orden_fts WHERE docid = old.rowid; END;
+CREATE TRIGGER IF NOT EXISTS orden_fts_au AFTER UPDATE OF numero, observacion ON orden_trabajo BEGIN INSERT INTO orden_fts(docid, numero, observacion) VALUES (new.rowid, new.numero, new.observacion); END;
+CREATE TRIGGER IF NOT EXISTS orden_fts_bd BEFORE DELETE ON orden_trabajo BEGIN DELETE FROM orden_fts WHERE docid = old.rowid; END;
+CREATE TABLE IF NOT EXISTS resumen_mes (mes TEXT PRIMARY KEY, ordenes INTEGER NOT NULL, total_centavos INTEGER NOT NULL);
+CREATE TABLE IF NOT EXISTS resumen_vehiculo (patente TEXT PRIMARY KEY, ordenes INTEGER NOT NULL, total_centavos INTEGER NOT NULL);
+CREATE TABLE IF NOT EXISTS resumen_cliente (run INTEGER PRIMARY KEY, ordenes INTEGER NOT NULL, total_centavos INTEGER NOT NULL);
+CREATE TABLE IF NOT EXISTS resumen_tipo (tipo TEXT PRIMARY KEY, personas INTEGER NOT NULL);
+CREATE TRIGGER IF NOT EXISTS resumen_orden_ai AFTER INSERT ON orden_trabajo BEGIN INSERT OR IGNORE INTO resumen_mes VALUES (IFNULL(strftime('%Y-%m', new.fecha), ''), 0, 0); UPDATE resumen_mes SET ordenes = ordenes + 1, total_centavos = total_centavos + CAST(ROUND((IFNULL(new.valor_neto, 0) + IFNULL(new.iva, 0)) * 100) AS INTEGER) WHERE mes = IFNULL(strftime('%Y-%m', new.fecha), ''); INSERT OR IGNORE INTO resumen_vehiculo VALUES (IFNULL(new.patente, ''), 0, 0); UPDATE resumen_vehiculo SET ordenes = ordenes + 1, total_centavos = total_centavos + CAST(ROUND((IFNULL(new.valor_neto, 0) + IFNULL(new.iva, 0)) * 100) AS INTEGER) WHERE patente = IFNULL(new.patente, ''); INSERT OR IGNORE INTO resumen_cliente SELECT (SELECT run_dueno FROM vehiculo WHERE patente = new.patente), 0, 0 WHERE (SELECT run_dueno FROM vehiculo WHERE patente = new.patente) IS NOT NULL; UPDATE resumen_cliente SET ordenes = ordenes + 1, total_centavos = total_centavos + CAST(ROUND((IFNULL(new.valor_neto, 0) + IFNULL(new.iva, 0)) * 100) AS INTEGER) WHERE run = (SELECT run_dueno FROM vehiculo WHERE patente = new.patente); DELETE FROM resumen_cliente WHERE run = (SELECT run_dueno FROM vehiculo WHERE patente = new.patente) AND ordenes = 0; END;
+CREATE TRIGGER IF NOT EXISTS resumen_orden_ad AFTER DELETE ON orden_trabajo BEGIN UPDATE resumen_mes SET ordenes = ordenes - 1, total_centavos = total_centavos - CAST(ROUND((IFNULL(old.valor_neto, 0) + IFNULL(old.iva, 0)) * 100) AS INTEGER) WHERE mes = IFNULL(strftime('%Y-%m', old.fecha), ''); DELETE FROM resumen_mes WHERE mes = IFNULL(strftime('%Y-%m', old.fecha), '') AND ordenes = 0; UPDATE resumen_vehiculo SET ordenes = ordenes - 1, total_centavos = total_centavos - CAST(ROUND((IFNULL(old.valor_neto, 0) + IFNULL(old.iva, 0)) * 100) AS INTEGER) WHERE patente = IFNULL(old.patente, ''); DELETE FROM resumen_vehiculo WHERE patente = IFNULL(old.patente, '') AND ordenes = 0; UPDATE resumen_cliente SET ordenes = ordenes - 1, total_centavos = total_centavos - CAST(ROUND((IFNULL(old.valor_neto, 0) + IFNULL(old.iva, 0)) * 100) AS INTEGER) WHERE run = (SELECT run_dueno FROM vehiculo WHERE patente = old.patente); DELETE FROM resumen_cliente WHERE run = (SELECT run_dueno FROM vehiculo WHERE patente = old.patente) AND ordenes = 0; END;
+CREATE TRIGGER IF NOT EXISTS resumen_orden_au AFTER UPDATE OF fecha, valor_neto, iva, patente ON orden_trabajo BEGIN UPDATE resumen_mes SET ordenes = ordenes - 1, total_centavos = total_centavos - CAST(ROUND((IFNULL(old.valor_neto, 0) + IFNULL(old.iva, 0)) * 100) AS INTEGER) WHERE mes = IFNULL(strftime('%Y-%m', old.fecha), ''); DELETE FROM resumen_mes WHERE mes = IFNULL(strftime('%Y-%m', old.fecha), '') AND ordenes = 0; INSERT OR IGNORE INTO resumen_mes VALUES (IFNULL(strftime('%Y-%m', new.fecha), ''), 0, 0); UPDATE resumen_mes SET ordenes = ordenes + 1, total_centavos = total_centavos + CAST(ROUND((IFNULL(new.valor_neto, 0) + IFNULL(new.iva, 0)) * 100) AS INTEGER) WHERE mes = IFNULL(strftime('%Y-%m', new.fecha), ''); UPDATE resumen_vehiculo SET ordenes = ordenes - 1, total_centavos = total_centavos - CAST(ROUND((IFNULL(old.valor_neto, 0) + IFNULL(old.iva, 0)) * 100) AS INTEGER) WHERE patente = IFNULL(old.patente, ''); DELETE FROM resumen_vehiculo WHERE patente = IFNULL(old.patente, '') AND ordenes = 0; INSERT OR IGNORE INTO resumen_vehiculo VALUES (IFNULL(new.patente, ''), 0, 0); UPDATE resumen_vehiculo SET ordenes = ordenes + 1, total_centavos = total_centavos + CAST(ROUND((IFNULL(new.valor_neto, 0) + IFNULL(new.iva, 0)) * 100) AS INTEGER) WHERE patente = IFNULL(new.patente, ''); END;
+CREATE TRIGGER IF NOT EXISTS resumen_orden_au_cliente AFTER UPDATE OF valor_neto, iva, patente ON orden_trabajo WHEN old.patente IS NULL OR EXISTS (SELECT 1 FROM vehiculo WHERE patente = old.patente) BEGIN UPDATE resumen_cliente SET ordenes = ordenes - 1, total_centavos = total_centavos - CAST(ROUND((IFNULL(old.valor_neto, 0) + IFNULL(old.iva, 0)) * 100) AS INTEGER) WHERE run = (SELECT run_dueno FROM vehiculo WHERE patente = old.patente); DELETE FROM resumen_cliente WHERE run = (SELECT run_dueno FROM vehiculo WHERE patente = old.patente) AND ordenes = 0; INSERT OR IGNORE INTO resumen_cliente SELECT (SELECT run_dueno FROM vehiculo WHERE patente = new.patente), 0, 0 WHERE (SELECT run_dueno FROM vehiculo WHERE patente = new.patente) IS NOT NULL; UPDATE resumen_cliente SET ordenes = ordenes + 1, total_centavos = total_centavos + CAST(ROUND((IFNULL(new.valor_neto, 0) + IFNULL(new.iva, 0)) * 100) AS INTEGER) WHERE run = (SELECT run_dueno FROM vehiculo WHERE patente = new.patente); DELETE FROM resumen_cliente WHERE run = (SELECT run_dueno FROM vehiculo WHERE patente = new.patente) AND ordenes = 0; END;
+CREATE TRIGGER IF NOT EXISTS resumen_vehiculo_au AFTER UPDATE OF run_dueno ON vehiculo WHEN old.run_dueno IS NOT new.run_dueno BEGIN UPDATE resumen_cliente SET ordenes = ordenes - (SELECT COUNT(*) FROM orden_trabajo WHERE orden_trabajo.patente IN (old.patente, new.patente)), total_centavos = total_centavos - (SELECT IFNULL(SUM(CAST(ROUND((IFNULL(orden_trabajo.valor_neto, 0) + IFNULL(orden_trabajo.iva, 0)) * 100) AS INTEGER)), 0) FROM orden_trabajo WHERE orden_trabajo.patente IN (old.patente, new.patente)) WHERE run = old.run_dueno; DELETE FROM resumen_cliente WHERE run = old.run_dueno AND ordenes = 0; INSERT OR IGNORE INTO resumen_cliente SELECT new.run_dueno, 0, 0 WHERE new.run_dueno IS NOT NULL; UPDATE resumen_cliente SET ordenes = ordenes + (SELECT COUNT(*) FROM orden_trabajo WHERE orden_trabajo.patente IN (old.patente, new.patente)), total_centavos = total_centavos + (SELECT IFNULL(SUM(CAST(ROUND((IFNULL(orden_trabajo.valor_neto, 0) + IFNULL(orden_trabajo.iva, 0)) * 100) AS INTEGER)), 0) FROM orden_trabajo WHERE orden_trabajo.patente IN (old.patente, new.patente)) WHERE run = new.run_dueno; DELETE FROM resumen_cliente WHERE run = new.run_dueno AND ordenes = 0; END;
+CREATE TRIGGER IF NOT EXISTS resumen_vehiculo_bd BEFORE DELETE ON vehiculo BEGIN UPDATE resumen_cliente SET ordenes = ordenes - (SELECT COUNT(*) FROM orden_trabajo WHERE orden_trabajo.patente IN (old.patente)), total_centavos = total_centavos - (SELECT IFNULL(SUM(CAST(ROUND((IFNULL(orden_trabajo.valor_neto, 0) + IFNULL(orden_trabajo.iva, 0)) * 100) AS INTEGER)), 0) FROM orden_trabajo WHERE orden_trabajo.patente IN (old.patente)) WHERE run = old.run_dueno; DELETE FROM resumen_cliente WHERE run = old.run_dueno AND ordenes = 0; END;
+CREATE TRIGGER IF NOT EXISTS resumen_persona_ai AFTER INSERT ON persona BEGIN INSERT OR IGNORE INTO resumen_tipo VALUES (new.tipo, 0); UPDATE resumen_tipo SET personas = personas + 1 WHERE tipo = new.tipo; END;
+CREATE TRIGGER IF NOT EXISTS resumen_persona_ad AFTER DELETE ON persona BEGIN UPDATE resumen_tipo SET personas = personas - 1 WHERE tipo = old.tipo; DELETE FROM resumen_tipo WHERE tipo = old.tipo AND personas = 0; END;
+CREATE TRIGGER IF NOT EXISTS resumen_persona_au AFTER UPDATE OF tipo ON persona WHEN old.tipo IS NOT new.tipo BEGIN UPDATE resumen_tipo SET personas = personas - 1 WHERE tipo = old.tipo; DELETE FROM resumen_tipo WHERE tipo = old.tipo AND personas = 0; INSERT OR IGNORE INTO resumen_tipo VALUES (new.tipo, 0); UPDATE resumen_tipo SET personas = personas + 1 WHERE tipo = new.tipo; END;
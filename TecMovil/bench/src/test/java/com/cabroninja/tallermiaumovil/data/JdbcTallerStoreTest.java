@@ -0,0 +1,38 @@
+package com.cabroninja.tallermiaumovil.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// ======================================================================
+// == Clase: JdbcTallerStoreTest
+// == Rol dentro de :bench:
+//    - Corre TallerStoreConformance sobre JdbcTallerStore en un archivo
+//      temporal: el backend de los benchmarks cumple el mismo contrato
+//      que los de la app.
+// ======================================================================
+public class JdbcTallerStoreTest extends TallerStoreConformance {
+
+    private File file;
+    private JdbcTaller db;
+
+    @Override
+    protected TallerStore open(PasswordHasher passwords) {
+        try {
+            file = File.createTempFile("taller-store", ".db");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        file.delete();
+        db = JdbcTaller.open(file);
+        return new JdbcTallerStore(db, passwords);
+    }
+
+    @Override
+    protected void close() {
+        db.close();
+        for (String suffix : new String[]{ "", "-wal", "-shm" }) {
+            new File(file.getPath() + suffix).delete();
+        }
+    }
+}
@@ -15,4 +15,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "TallerMiauMovil"
 include(":app")
- 
\ No newline at end of file
+include(":bench")